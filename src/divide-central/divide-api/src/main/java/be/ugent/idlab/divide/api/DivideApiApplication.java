@@ -1,16 +1,24 @@
 package be.ugent.idlab.divide.api;
 
+import be.ugent.idlab.divide.api.endpoints.component.BatchComponentEndpoint;
 import be.ugent.idlab.divide.api.endpoints.component.ComponentEndpoint;
 import be.ugent.idlab.divide.api.endpoints.component.ComponentQueryDerivationEndpoint;
 import be.ugent.idlab.divide.api.endpoints.component.ComponentQueryLocationUpdateEndpoint;
 import be.ugent.idlab.divide.api.endpoints.component.GeneralComponentEndpoint;
+import be.ugent.idlab.divide.api.endpoints.metrics.ApiMetricsEndpoint;
+import be.ugent.idlab.divide.api.endpoints.metrics.MetricsScrapeEndpoint;
+import be.ugent.idlab.divide.api.endpoints.operation.AsyncOperationEndpoint;
 import be.ugent.idlab.divide.api.endpoints.query.DivideQueryEndpoint;
 import be.ugent.idlab.divide.api.endpoints.query.DivideQueryRegistrationAsRspQlEndpoint;
 import be.ugent.idlab.divide.api.endpoints.query.DivideQueryRegistrationAsSparqlEndpoint;
 import be.ugent.idlab.divide.api.endpoints.query.GeneralDivideQueryEndpoint;
+import be.ugent.idlab.divide.api.metrics.ApiMetrics;
+import be.ugent.idlab.divide.api.metrics.RouteMetricsFilter;
+import be.ugent.idlab.divide.api.operation.AsyncOperationManager;
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
 import org.restlet.Application;
 import org.restlet.Restlet;
+import org.restlet.resource.ServerResource;
 import org.restlet.routing.Router;
 import org.restlet.routing.Template;
 import org.slf4j.Logger;
@@ -21,55 +29,134 @@ public class DivideApiApplication extends Application {
     private static final Logger LOGGER = LoggerFactory.getLogger(DivideApiApplication.class.getName());
 
     public static final String ATTR_DIVIDE_ENGINE = "divide_engine";
+    public static final String ATTR_ASYNC_OPERATION_MANAGER = "divide_async_operation_manager";
+    public static final String ATTR_API_METRICS = "divide_api_metrics";
+
+    /**
+     * Default number of threads on which asynchronous operations are executed
+     */
+    public static final int DEFAULT_ASYNC_OPERATION_THREADS = 4;
 
     private final IDivideEngine divideEngine;
+    private final AsyncOperationManager asyncOperationManager;
+    private final ApiMetrics apiMetrics;
 
     public DivideApiApplication(IDivideEngine divideEngine) {
+        this(divideEngine, DEFAULT_ASYNC_OPERATION_THREADS);
+    }
+
+    /**
+     * @param divideEngine DIVIDE engine wrapped by this API application
+     * @param asyncOperationThreads number of threads on which the asynchronous
+     *                              operations of this API are executed
+     */
+    public DivideApiApplication(IDivideEngine divideEngine,
+                                int asyncOperationThreads) {
         this.divideEngine = divideEngine;
+        this.asyncOperationManager = new AsyncOperationManager(asyncOperationThreads);
+        this.apiMetrics = new ApiMetrics();
+    }
+
+    /**
+     * @return registry of the latency & throughput metrics of all routes of this API
+     */
+    public ApiMetrics getApiMetrics() {
+        return apiMetrics;
     }
 
     @Override
     public Restlet createInboundRoot() {
         getContext().getAttributes().put(ATTR_DIVIDE_ENGINE, divideEngine);
+        getContext().getAttributes().put(ATTR_ASYNC_OPERATION_MANAGER, asyncOperationManager);
+        getContext().getAttributes().put(ATTR_API_METRICS, apiMetrics);
 
         Router router = new Router(getContext());
         router.setDefaultMatchingMode(Template.MODE_EQUALS);
 
-        router.attach(DivideRoutes.ENDPOINT_COMPONENT, ComponentEndpoint.class);
+        // attached before the endpoint of a single component, since the
+        // batch path would also match the template of that endpoint
+        router.attach(DivideRoutes.ENDPOINT_COMPONENT_BATCH,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_COMPONENT_BATCH,
+                        BatchComponentEndpoint.class));
+        LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_COMPONENT_BATCH);
+        BatchComponentEndpoint.logEndpoints(LOGGER);
+
+        router.attach(DivideRoutes.ENDPOINT_COMPONENT,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_COMPONENT,
+                        ComponentEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_COMPONENT);
         ComponentEndpoint.logEndpoints(LOGGER);
 
-        router.attach(DivideRoutes.ENDPOINT_COMPONENT_GENERAL, GeneralComponentEndpoint.class);
+        router.attach(DivideRoutes.ENDPOINT_COMPONENT_GENERAL,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_COMPONENT_GENERAL,
+                        GeneralComponentEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_COMPONENT_GENERAL);
         GeneralComponentEndpoint.logEndpoints(LOGGER);
 
-        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY, DivideQueryEndpoint.class);
+        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY,
+                        DivideQueryEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY);
         DivideQueryEndpoint.logEndpoints(LOGGER);
 
         router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_SPARQL,
-                DivideQueryRegistrationAsSparqlEndpoint.class);
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_SPARQL,
+                        DivideQueryRegistrationAsSparqlEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_SPARQL);
         DivideQueryRegistrationAsSparqlEndpoint.logEndpoints(LOGGER);
 
         router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_RSP_QL,
-                DivideQueryRegistrationAsRspQlEndpoint.class);
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_RSP_QL,
+                        DivideQueryRegistrationAsRspQlEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY_REGISTER_AS_RSP_QL);
         DivideQueryRegistrationAsRspQlEndpoint.logEndpoints(LOGGER);
 
-        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_GENERAL, GeneralDivideQueryEndpoint.class);
+        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_GENERAL,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY_GENERAL,
+                        GeneralDivideQueryEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY_GENERAL);
         GeneralDivideQueryEndpoint.logEndpoints(LOGGER);
 
-        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_DERIVATION, ComponentQueryDerivationEndpoint.class);
+        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_DERIVATION,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY_DERIVATION,
+                        ComponentQueryDerivationEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY_DERIVATION);
         ComponentQueryDerivationEndpoint.logEndpoints(LOGGER);
 
-        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_LOCATION_UPDATE, ComponentQueryLocationUpdateEndpoint.class);
+        router.attach(DivideRoutes.ENDPOINT_DIVIDE_QUERY_LOCATION_UPDATE,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_DIVIDE_QUERY_LOCATION_UPDATE,
+                        ComponentQueryLocationUpdateEndpoint.class));
         LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_DIVIDE_QUERY_LOCATION_UPDATE);
         ComponentQueryLocationUpdateEndpoint.logEndpoints(LOGGER);
 
+        router.attach(DivideRoutes.ENDPOINT_OPERATION,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_OPERATION,
+                        AsyncOperationEndpoint.class));
+        LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_OPERATION);
+        AsyncOperationEndpoint.logEndpoints(LOGGER);
+
+        router.attach(DivideRoutes.ENDPOINT_METRICS,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_METRICS,
+                        MetricsScrapeEndpoint.class));
+        LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_METRICS);
+        MetricsScrapeEndpoint.logEndpoints(LOGGER);
+
+        router.attach(DivideRoutes.ENDPOINT_API_METRICS,
+                createRouteMetricsFilter(DivideRoutes.ENDPOINT_API_METRICS,
+                        ApiMetricsEndpoint.class));
+        LOGGER.info("DIVIDE API endpoint {}", DivideRoutes.ENDPOINT_API_METRICS);
+        ApiMetricsEndpoint.logEndpoints(LOGGER);
+
         return router;
     }
 
+    /**
+     * @return filter recording the metrics of the requests on the given route,
+     *         which passes these requests on to the given endpoint
+     */
+    private Restlet createRouteMetricsFilter(String route,
+                                             Class<? extends ServerResource> endpoint) {
+        return new RouteMetricsFilter(getContext(), route, apiMetrics, endpoint);
+    }
+
 }
\ No newline at end of file
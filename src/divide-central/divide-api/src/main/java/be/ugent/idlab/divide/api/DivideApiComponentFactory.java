@@ -2,7 +2,10 @@ package be.ugent.idlab.divide.api;
 
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
 import org.restlet.Component;
+import org.restlet.Server;
+import org.restlet.data.Parameter;
 import org.restlet.data.Protocol;
+import org.restlet.util.Series;
 
 @SuppressWarnings("unused")
 public class DivideApiComponentFactory {
@@ -44,12 +47,61 @@ public class DivideApiComponentFactory {
                                                    String host,
                                                    int port,
                                                    String uri) {
+        return createRestApiComponent(divideEngine, host, port, uri, -1, -1, -1,
+                DivideApiApplication.DEFAULT_ASYNC_OPERATION_THREADS);
+    }
+
+    /**
+     * Create a Restlet {@link Component} that can be started to host an API
+     * for the given DIVIDE engine. This DIVIDE API will be hosted via the
+     * HTTP protocol on the given host and port, on the specified uri path,
+     * i.e., at http://[host]:[port]/[uri].
+     * The worker thread pool of the HTTP server connector, and the thread pool
+     * executing the asynchronous operations of the API, are configured with the
+     * given parameters.
+     *
+     * @param divideEngine DIVIDE engine that should be wrapped by the created
+     *                     API component
+     * @param host host at which the DIVIDE API should run
+     * @param port port at which the DIVIDE API should run
+     * @param uri path URI string at which the DIVIDE API should run
+     * @param connectorMinThreads minimum number of worker threads of the HTTP server
+     *                            connector (a value &lt;= 0 keeps the connector default)
+     * @param connectorMaxThreads maximum number of worker threads of the HTTP server
+     *                            connector (a value &lt;= 0 keeps the connector default)
+     * @param connectorMaxQueued maximum number of requests that are queued by the HTTP
+     *                           server connector when all its worker threads are busy
+     *                           (-1 for an unbounded queue, 0 to reject such requests)
+     * @param asyncOperationThreads number of threads on which the asynchronous
+     *                              operations of the DIVIDE API are executed
+     * @return a Restlet {@link Component} which can be started with the
+     *         {@link Component#start()} method to host the DIVIDE API
+     */
+    public static Component createRestApiComponent(IDivideEngine divideEngine,
+                                                   String host,
+                                                   int port,
+                                                   String uri,
+                                                   int connectorMinThreads,
+                                                   int connectorMaxThreads,
+                                                   int connectorMaxQueued,
+                                                   int asyncOperationThreads) {
         // create Restlet component
         Component component = new Component();
-        component.getServers().add(Protocol.HTTP, host, port);
+        Server server = component.getServers().add(Protocol.HTTP, host, port);
+
+        // configure worker thread pool of server connector
+        Series<Parameter> parameters = server.getContext().getParameters();
+        if (connectorMinThreads > 0) {
+            parameters.add("minThreads", String.valueOf(connectorMinThreads));
+        }
+        if (connectorMaxThreads > 0) {
+            parameters.add("maxThreads", String.valueOf(connectorMaxThreads));
+        }
+        parameters.add("maxQueued", String.valueOf(connectorMaxQueued));
 
         // create and attach Servlet application
-        DivideApiApplication divideApiApplication = new DivideApiApplication(divideEngine);
+        DivideApiApplication divideApiApplication =
+                new DivideApiApplication(divideEngine, asyncOperationThreads);
         component.getDefaultHost().attach(uri, divideApiApplication);
 
         return component;
@@ -1,5 +1,6 @@
 package be.ugent.idlab.divide.api;
 
+import static be.ugent.idlab.divide.api.endpoints.CustomEndpoint.OPERATION_ENTITY;
 import static be.ugent.idlab.divide.api.endpoints.CustomEndpoint.SERVER_ATTR_ID;
 import static be.ugent.idlab.divide.api.endpoints.CustomEndpoint.SERVER_ATTR_NAME;
 
@@ -7,9 +8,12 @@ class DivideRoutes {
 
     private static final String COMPONENT_ENTITY = "component";
     private static final String QUERY_ENTITY = "query";
+    private static final String METRICS_ENTITY = "metrics";
 
     static final String ENDPOINT_COMPONENT_GENERAL =
             "/" + COMPONENT_ENTITY;
+    static final String ENDPOINT_COMPONENT_BATCH =
+            "/" + COMPONENT_ENTITY + "/batch";
     static final String ENDPOINT_COMPONENT =
             "/" + COMPONENT_ENTITY + "/{" + SERVER_ATTR_ID + "}";
 
@@ -29,4 +33,12 @@ class DivideRoutes {
             "/" + COMPONENT_ENTITY + "/{" + SERVER_ATTR_ID + "}/update_location/"
                     + QUERY_ENTITY + "/{" + SERVER_ATTR_NAME + "}";
 
+    static final String ENDPOINT_OPERATION =
+            "/" + OPERATION_ENTITY + "/{" + SERVER_ATTR_ID + "}";
+
+    static final String ENDPOINT_METRICS =
+            "/" + METRICS_ENTITY;
+    static final String ENDPOINT_API_METRICS =
+            "/" + METRICS_ENTITY + "/api";
+
 }
@@ -1,7 +1,17 @@
 package be.ugent.idlab.divide.api.endpoints;
 
 import be.ugent.idlab.divide.api.DivideApiApplication;
+import be.ugent.idlab.divide.api.metrics.ApiMetrics;
+import be.ugent.idlab.divide.api.operation.AsyncOperation;
+import be.ugent.idlab.divide.api.operation.AsyncOperationManager;
+import be.ugent.idlab.divide.api.operation.AsyncOperationRejectedException;
+import be.ugent.idlab.divide.api.operation.IAsyncOperationTask;
+import be.ugent.idlab.divide.api.representation.operation.AsyncOperationRepresentation;
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.restlet.data.MediaType;
+import org.restlet.data.Status;
 import org.restlet.resource.ServerResource;
 
 public abstract class CustomEndpoint extends ServerResource {
@@ -9,11 +19,31 @@ public abstract class CustomEndpoint extends ServerResource {
     public static final String SERVER_ATTR_ID = "id";
     public static final String SERVER_ATTR_NAME = "name";
 
+    public static final String OPERATION_ENTITY = "operation";
+
+    /**
+     * Query parameter with which a client can request long-running work to be
+     * executed asynchronously (by specifying 'true' as its value)
+     */
+    public static final String QUERY_PARAM_ASYNC = "async";
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
     protected IDivideEngine getDivideEngine() {
         return (IDivideEngine) getContext().getAttributes().get(
                 DivideApiApplication.ATTR_DIVIDE_ENGINE);
     }
 
+    protected AsyncOperationManager getAsyncOperationManager() {
+        return (AsyncOperationManager) getContext().getAttributes().get(
+                DivideApiApplication.ATTR_ASYNC_OPERATION_MANAGER);
+    }
+
+    protected ApiMetrics getApiMetrics() {
+        return (ApiMetrics) getContext().getAttributes().get(
+                DivideApiApplication.ATTR_API_METRICS);
+    }
+
     protected String getIdAttribute() {
         return (String) getRequest().getAttributes().get(SERVER_ATTR_ID);
     }
@@ -22,4 +52,43 @@ public abstract class CustomEndpoint extends ServerResource {
         return (String) getRequest().getAttributes().get(SERVER_ATTR_NAME);
     }
 
+    /**
+     * @return true if the client requested the long-running work of this request
+     *         to be executed asynchronously
+     */
+    protected boolean isAsyncRequested() {
+        return "true".equalsIgnoreCase(getQueryValue(QUERY_PARAM_ASYNC));
+    }
+
+    /**
+     * Submits the given task as an asynchronous operation, and answers the request
+     * with status 202 (Accepted). The response refers to the status resource of the
+     * operation, which can be polled for the outcome of the task. If the operation
+     * is rejected because too many operations are pending, the request is answered
+     * with status 503 (Service Unavailable).
+     *
+     * @param description short description of the operation
+     * @param task long-running work of the request
+     */
+    protected void acceptAsyncOperation(String description, IAsyncOperationTask task) {
+        AsyncOperation operation;
+        try {
+            operation = getAsyncOperationManager().submit(description, task);
+        } catch (AsyncOperationRejectedException e) {
+            String message = e.getMessage();
+            getResponse().setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+            return;
+        }
+
+        String message = "Asynchronous operation with ID '" + operation.getId() + "' accepted";
+        getResponse().setStatus(Status.SUCCESS_ACCEPTED, message);
+        if (getRootRef() != null) {
+            getResponse().setLocationRef(
+                    getRootRef().toString() + "/" + OPERATION_ENTITY + "/" + operation.getId());
+        }
+        getResponse().setEntity(GSON.toJson(new AsyncOperationRepresentation(operation)),
+                MediaType.APPLICATION_JSON);
+    }
+
 }
@@ -0,0 +1,182 @@
+package be.ugent.idlab.divide.api.endpoints.component;
+
+import be.ugent.idlab.divide.api.endpoints.CustomEndpoint;
+import be.ugent.idlab.divide.api.representation.component.BatchComponentRegistrationRepresentation;
+import be.ugent.idlab.divide.api.representation.component.ComponentRepresentation;
+import be.ugent.idlab.divide.api.representation.component.ComponentWarmUpProgressRepresentation;
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.core.engine.IDivideEngine;
+import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
+import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
+import be.ugent.idlab.divide.util.component.ComponentEntry;
+import be.ugent.idlab.divide.util.component.ComponentEntryParserException;
+import be.ugent.idlab.divide.util.component.JsonComponentEntryParser;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.representation.Representation;
+import org.restlet.resource.Get;
+import org.restlet.resource.Options;
+import org.restlet.resource.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class BatchComponentEndpoint extends CustomEndpoint {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchComponentEndpoint.class.getName());
+
+    @Options
+    public void optionsRequestHandler() {
+        Set<Method> allowedMethods = new HashSet<>();
+        allowedMethods.add(Method.GET);
+        allowedMethods.add(Method.POST);
+        getResponse().setAccessControlAllowMethods(allowedMethods);
+        getResponse().setAccessControlAllowOrigin("*");
+    }
+
+    public static void logEndpoints(Logger logger) {
+        logger.info("  GET: retrieve progress of initial query derivations of components " +
+                "registered in bulk");
+        logger.info("  POST: register multiple new DIVIDE components at once " +
+                "(JSON array of descriptions in HTTP body; add '?" + QUERY_PARAM_ASYNC +
+                "=true' to register them asynchronously)");
+    }
+
+    @Get
+    public void getWarmUpProgress() {
+        getResponse().setAccessControlAllowOrigin("*");
+
+        IDivideEngine divideEngine = getDivideEngine();
+
+        try {
+            ComponentWarmUpProgressRepresentation progress =
+                    new ComponentWarmUpProgressRepresentation(
+                            divideEngine.getComponentWarmUpProgress());
+
+            String message = "Component warm-up progress successfully retrieved";
+            getResponse().setStatus(Status.SUCCESS_OK, message);
+            getResponse().setEntity(GSON.toJson(progress), MediaType.APPLICATION_JSON);
+
+        } catch (DivideNotInitializedException e) {
+            String message = e.getMessage();
+            LOGGER.error(message, e);
+            getResponse().setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } catch (Exception e) {
+            String logMessage = "Error while getting component warm-up progress";
+            String eMessage = e.getMessage();
+            String message = logMessage + (eMessage != null ? ": " + eMessage : "");
+            LOGGER.error(logMessage, e);
+            getResponse().setStatus(Status.SERVER_ERROR_INTERNAL, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } finally {
+            getResponse().commit();
+            commit();
+            release();
+        }
+    }
+
+    @Post
+    public void registerComponents(Representation rep) {
+        getResponse().setAccessControlAllowOrigin("*");
+
+        IDivideEngine divideEngine = getDivideEngine();
+
+        try {
+            if (rep != null) {
+                String componentEntriesString = rep.getText();
+
+                // parse component entries
+                List<ComponentEntry> componentEntries =
+                        JsonComponentEntryParser.parseComponentEntries(componentEntriesString);
+
+                if (isAsyncRequested()) {
+                    // register components in an asynchronous operation
+                    acceptAsyncOperation(
+                            "Registration of " + componentEntries.size() + " components",
+                            () -> registerComponentEntries(divideEngine, componentEntries));
+
+                } else {
+                    // register components
+                    BatchComponentRegistrationRepresentation registration =
+                            registerComponentEntries(divideEngine, componentEntries);
+
+                    String message = "Components successfully registered";
+                    getResponse().setStatus(Status.SUCCESS_OK, message);
+                    getResponse().setEntity(GSON.toJson(registration), MediaType.APPLICATION_JSON);
+                }
+
+            } else {
+                String message = "No component entries information specified";
+                getResponse().setStatus(Status.CLIENT_ERROR_BAD_REQUEST, message);
+                getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+            }
+
+        } catch (ComponentEntryParserException e) {
+            String message = String.format("Component entries information invalid: %s", e.getMessage());
+            LOGGER.error(message, e);
+            getResponse().setStatus(Status.CLIENT_ERROR_BAD_REQUEST, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } catch (DivideInvalidInputException e) {
+            String message = String.format("Component input invalid: %s", e.getMessage());
+            LOGGER.error(message, e);
+            getResponse().setStatus(Status.CLIENT_ERROR_BAD_REQUEST, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } catch (DivideNotInitializedException e) {
+            String message = e.getMessage();
+            LOGGER.error(message, e);
+            getResponse().setStatus(Status.SERVER_ERROR_SERVICE_UNAVAILABLE, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } catch (Exception e) {
+            String logMessage = "Error while registering components";
+            String eMessage = e.getMessage();
+            String message = logMessage + (eMessage != null ? ": " + eMessage : "");
+            LOGGER.error(logMessage, e);
+            getResponse().setStatus(Status.SERVER_ERROR_INTERNAL, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } finally {
+            getResponse().commit();
+            commit();
+            release();
+        }
+    }
+
+    private BatchComponentRegistrationRepresentation registerComponentEntries(
+            IDivideEngine divideEngine, List<ComponentEntry> componentEntries)
+            throws DivideNotInitializedException, DivideInvalidInputException {
+        List<IComponent> components = divideEngine.registerComponents(componentEntries);
+
+        List<ComponentRepresentation> registeredComponents = new ArrayList<>();
+        int duplicateCount = 0;
+        for (IComponent component : components) {
+            if (component != null) {
+                registeredComponents.add(new ComponentRepresentation(component));
+            } else {
+                duplicateCount++;
+            }
+        }
+
+        LOGGER.info("{} components successfully registered ({} components already existed)",
+                registeredComponents.size(), duplicateCount);
+
+        return new BatchComponentRegistrationRepresentation(
+                registeredComponents, duplicateCount,
+                new ComponentWarmUpProgressRepresentation(
+                        divideEngine.getComponentWarmUpProgress()));
+    }
+
+}
@@ -42,7 +42,8 @@ public class GeneralComponentEndpoint extends CustomEndpoint {
 
     public static void logEndpoints(Logger logger) {
         logger.info("  GET: retrieve all registered DIVIDE components");
-        logger.info("  POST: register a new DIVIDE component (description in HTTP body)");
+        logger.info("  POST: register a new DIVIDE component (description in HTTP body;" +
+                " add '?" + QUERY_PARAM_ASYNC + "=true' to register it asynchronously)");
     }
 
     @Get
@@ -97,26 +98,44 @@ public class GeneralComponentEndpoint extends CustomEndpoint {
                 ComponentEntry componentEntry =
                         JsonComponentEntryParser.parseComponentEntry(componentEntryString);
 
-                // register component
-                IComponent component = divideEngine.registerComponent(
-                        componentEntry.getIpAddress(),
-                        new ArrayList<>(componentEntry.getContextIris()),
-                        componentEntry.getRspQueryLanguage(),
-                        componentEntry.getRspEngineServerPort());
-
-                if (component != null) {
-                    String message = "Component with ID " + component.getId() +
-                            " successfully registered";
-                    getResponse().setStatus(Status.SUCCESS_OK, message);
-                    getResponse().setEntity(
-                            GSON.toJson(new ComponentRepresentation(component)),
-                            MediaType.APPLICATION_JSON);
+                if (isAsyncRequested()) {
+                    // register component in an asynchronous operation
+                    acceptAsyncOperation("Registration of component with IP address " +
+                            componentEntry.getIpAddress(), () -> {
+                        IComponent component = divideEngine.registerComponent(
+                                componentEntry.getIpAddress(),
+                                new ArrayList<>(componentEntry.getContextIris()),
+                                componentEntry.getRspQueryLanguage(),
+                                componentEntry.getRspEngineServerPort());
+                        if (component == null) {
+                            throw new DivideInvalidInputException("Component with the specified " +
+                                    "host, port and path of the RSP engine URL already exists");
+                        }
+                        return new ComponentRepresentation(component);
+                    });
 
                 } else {
-                    String message = "Component with the specified host, port and path of the " +
-                            "RSP engine URL already exists";
-                    getResponse().setStatus(Status.CLIENT_ERROR_BAD_REQUEST, message);
-                    getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+                    // register component
+                    IComponent component = divideEngine.registerComponent(
+                            componentEntry.getIpAddress(),
+                            new ArrayList<>(componentEntry.getContextIris()),
+                            componentEntry.getRspQueryLanguage(),
+                            componentEntry.getRspEngineServerPort());
+
+                    if (component != null) {
+                        String message = "Component with ID " + component.getId() +
+                                " successfully registered";
+                        getResponse().setStatus(Status.SUCCESS_OK, message);
+                        getResponse().setEntity(
+                                GSON.toJson(new ComponentRepresentation(component)),
+                                MediaType.APPLICATION_JSON);
+
+                    } else {
+                        String message = "Component with the specified host, port and path of the " +
+                                "RSP engine URL already exists";
+                        getResponse().setStatus(Status.CLIENT_ERROR_BAD_REQUEST, message);
+                        getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+                    }
                 }
 
             } else {
@@ -0,0 +1,71 @@
+package be.ugent.idlab.divide.api.endpoints.metrics;
+
+import be.ugent.idlab.divide.api.endpoints.CustomEndpoint;
+import be.ugent.idlab.divide.api.metrics.ApiMetrics;
+import be.ugent.idlab.divide.api.metrics.RouteMetrics;
+import be.ugent.idlab.divide.api.representation.metrics.RouteMetricsRepresentation;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.resource.Get;
+import org.restlet.resource.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ApiMetricsEndpoint extends CustomEndpoint {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiMetricsEndpoint.class.getName());
+
+    @Options
+    public void optionsRequestHandler() {
+        Set<Method> allowedMethods = new HashSet<>();
+        allowedMethods.add(Method.GET);
+        getResponse().setAccessControlAllowMethods(allowedMethods);
+        getResponse().setAccessControlAllowOrigin("*");
+    }
+
+    public static void logEndpoints(Logger logger) {
+        logger.info("  GET: retrieve latency & throughput metrics of all DIVIDE API routes");
+    }
+
+    @Get
+    public void getMetrics() {
+        getResponse().setAccessControlAllowOrigin("*");
+
+        try {
+            ApiMetrics apiMetrics = getApiMetrics();
+            long uptimeMs = System.currentTimeMillis() - apiMetrics.getStartTime();
+
+            Collection<RouteMetricsRepresentation> metrics = new ArrayList<>();
+            for (RouteMetrics routeMetrics : apiMetrics.getRouteMetrics()) {
+                metrics.add(new RouteMetricsRepresentation(routeMetrics, uptimeMs));
+            }
+
+            String message = "DIVIDE API metrics successfully retrieved";
+            getResponse().setStatus(Status.SUCCESS_OK, message);
+            getResponse().setEntity(GSON.toJson(metrics), MediaType.APPLICATION_JSON);
+
+        } catch (Exception e) {
+            String logMessage = "Error while getting DIVIDE API metrics";
+            String eMessage = e.getMessage();
+            String message = logMessage + (eMessage != null ? ": " + eMessage : "");
+            LOGGER.error(logMessage, e);
+            getResponse().setStatus(Status.SERVER_ERROR_INTERNAL, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } finally {
+            getResponse().commit();
+            commit();
+            release();
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package be.ugent.idlab.divide.api.endpoints.metrics;
+
+import be.ugent.idlab.divide.api.endpoints.CustomEndpoint;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.resource.Get;
+import org.restlet.resource.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class MetricsScrapeEndpoint extends CustomEndpoint {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsScrapeEndpoint.class.getName());
+
+    @Options
+    public void optionsRequestHandler() {
+        Set<Method> allowedMethods = new HashSet<>();
+        allowedMethods.add(Method.GET);
+        getResponse().setAccessControlAllowMethods(allowedMethods);
+        getResponse().setAccessControlAllowOrigin("*");
+    }
+
+    public static void logEndpoints(Logger logger) {
+        logger.info("  GET: scrape all DIVIDE server metrics in the Prometheus text format");
+    }
+
+    @Get
+    public void getMetrics() {
+        getResponse().setAccessControlAllowOrigin("*");
+
+        try {
+            String metrics = MetricsRegistry.getInstance().scrape();
+
+            // the Prometheus text exposition format is plain text, which
+            // scrapers interpret as version 0.0.4 of this format
+            getResponse().setStatus(Status.SUCCESS_OK);
+            getResponse().setEntity(metrics, MediaType.TEXT_PLAIN);
+
+        } catch (Exception e) {
+            String logMessage = "Error while scraping DIVIDE server metrics";
+            String eMessage = e.getMessage();
+            String message = logMessage + (eMessage != null ? ": " + eMessage : "");
+            LOGGER.error(logMessage, e);
+            getResponse().setStatus(Status.SERVER_ERROR_INTERNAL, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } finally {
+            getResponse().commit();
+            commit();
+            release();
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package be.ugent.idlab.divide.api.endpoints.operation;
+
+import be.ugent.idlab.divide.api.endpoints.CustomEndpoint;
+import be.ugent.idlab.divide.api.operation.AsyncOperation;
+import be.ugent.idlab.divide.api.representation.operation.AsyncOperationRepresentation;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.resource.Get;
+import org.restlet.resource.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class AsyncOperationEndpoint extends CustomEndpoint {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncOperationEndpoint.class.getName());
+
+    @Options
+    public void optionsRequestHandler() {
+        Set<Method> allowedMethods = new HashSet<>();
+        allowedMethods.add(Method.GET);
+        getResponse().setAccessControlAllowMethods(allowedMethods);
+        getResponse().setAccessControlAllowOrigin("*");
+    }
+
+    public static void logEndpoints(Logger logger) {
+        logger.info("  GET: retrieve status of asynchronous operation with ID {}", SERVER_ATTR_ID);
+    }
+
+    @Get
+    public void getOperation() {
+        getResponse().setAccessControlAllowOrigin("*");
+
+        try {
+            String operationId = getIdAttribute();
+
+            AsyncOperation operation = getAsyncOperationManager().getOperation(operationId);
+
+            if (operation != null) {
+                String message = "Asynchronous operation with ID '" + operationId +
+                        "' successfully retrieved";
+                getResponse().setStatus(Status.SUCCESS_OK, message);
+                getResponse().setEntity(GSON.toJson(new AsyncOperationRepresentation(operation)),
+                        MediaType.APPLICATION_JSON);
+
+            } else {
+                String message = "Asynchronous operation with ID '" + operationId +
+                        "' does not exist (anymore)";
+                getResponse().setStatus(Status.CLIENT_ERROR_NOT_FOUND, message);
+                getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+            }
+
+        } catch (Exception e) {
+            String logMessage = "Error while getting asynchronous operation status";
+            String eMessage = e.getMessage();
+            String message = logMessage + (eMessage != null ? ": " + eMessage : "");
+            LOGGER.error(logMessage, e);
+            getResponse().setStatus(Status.SERVER_ERROR_INTERNAL, message);
+            getResponse().setEntity(message, MediaType.TEXT_PLAIN);
+
+        } finally {
+            getResponse().commit();
+            commit();
+            release();
+        }
+    }
+
+}
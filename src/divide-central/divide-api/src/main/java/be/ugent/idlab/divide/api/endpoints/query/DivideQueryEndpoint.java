@@ -45,7 +45,8 @@ public class DivideQueryEndpoint extends CustomEndpoint {
     public static void logEndpoints(Logger logger) {
         logger.info("  GET: retrieve DIVIDE query with ID {}", SERVER_ATTR_ID);
         logger.info("  POST: register DIVIDE query with ID {}" +
-                " (JSON description of DIVIDE query inputs in HTTP body)", SERVER_ATTR_ID);
+                " (JSON description of DIVIDE query inputs in HTTP body;" +
+                " add '?" + QUERY_PARAM_ASYNC + "=true' to register it asynchronously)", SERVER_ATTR_ID);
         logger.info("  DELETE: unregister DIVIDE query with ID {}", SERVER_ATTR_ID);
     }
 
@@ -149,22 +150,48 @@ public class DivideQueryEndpoint extends CustomEndpoint {
                                     contextEnrichmentEntry.getQueries());
                         }
 
-                        // add query to DIVIDE engine
-                        // (response cannot be null since it was checked before whether
-                        //  query with this name already exists)
-                        IDivideQuery divideQuery = divideEngine.addDivideQuery(
-                                divideQueryName,
-                                IOUtilities.removeWhiteSpace(queryPattern).replaceAll("\r", " "),
-                                IOUtilities.removeWhiteSpace(sensorQueryRule).replaceAll("\r", " "),
-                                IOUtilities.removeWhiteSpace(goal).replaceAll("\r", " "),
-                                contextEnrichment);
-
-                        String message = "DIVIDE query with name '" + divideQueryName +
-                                "' successfully registered";
-                        getResponse().setStatus(Status.SUCCESS_OK, message);
-                        getResponse().setEntity(
-                                GSON.toJson(new DivideQueryRepresentation(divideQuery)),
-                                MediaType.APPLICATION_JSON);
+                        String cleanedQueryPattern =
+                                IOUtilities.removeWhiteSpace(queryPattern).replaceAll("\r", " ");
+                        String cleanedSensorQueryRule =
+                                IOUtilities.removeWhiteSpace(sensorQueryRule).replaceAll("\r", " ");
+                        String cleanedGoal =
+                                IOUtilities.removeWhiteSpace(goal).replaceAll("\r", " ");
+
+                        if (isAsyncRequested()) {
+                            // add query to DIVIDE engine in an asynchronous operation
+                            // (a query with this name might have been added in the meantime)
+                            acceptAsyncOperation(
+                                    "Registration of DIVIDE query '" + divideQueryName + "'",
+                                    () -> {
+                                        IDivideQuery divideQuery = divideEngine.addDivideQuery(
+                                                divideQueryName, cleanedQueryPattern,
+                                                cleanedSensorQueryRule, cleanedGoal,
+                                                contextEnrichment);
+                                        if (divideQuery == null) {
+                                            throw new DivideInvalidInputException(
+                                                    "DIVIDE query with the specified name already exists");
+                                        }
+                                        return new DivideQueryRepresentation(divideQuery);
+                                    });
+
+                        } else {
+                            // add query to DIVIDE engine
+                            // (response cannot be null since it was checked before whether
+                            //  query with this name already exists)
+                            IDivideQuery divideQuery = divideEngine.addDivideQuery(
+                                    divideQueryName,
+                                    cleanedQueryPattern,
+                                    cleanedSensorQueryRule,
+                                    cleanedGoal,
+                                    contextEnrichment);
+
+                            String message = "DIVIDE query with name '" + divideQueryName +
+                                    "' successfully registered";
+                            getResponse().setStatus(Status.SUCCESS_OK, message);
+                            getResponse().setEntity(
+                                    GSON.toJson(new DivideQueryRepresentation(divideQuery)),
+                                    MediaType.APPLICATION_JSON);
+                        }
 
                     } else {
                         String message = "Not all required DIVIDE query JSON information " +
@@ -44,7 +44,8 @@ public class DivideQueryRegistrationAsRspQlEndpoint extends CustomEndpoint {
 
     public static void logEndpoints(Logger logger) {
         logger.info("  POST: register DIVIDE query with ID {}" +
-                " (JSON description of RSP-QL input in HTTP body)", SERVER_ATTR_ID);
+                " (JSON description of RSP-QL input in HTTP body;" +
+                " add '?" + QUERY_PARAM_ASYNC + "=true' to register it asynchronously)", SERVER_ATTR_ID);
     }
 
     @Post
@@ -91,25 +92,48 @@ public class DivideQueryRegistrationAsRspQlEndpoint extends CustomEndpoint {
                                     contextEnrichmentEntry.getQueries());
                         }
 
-                        // add query to DIVIDE engine
-                        // (response cannot be null since it was checked before whether
-                        //  query with this name already exists)
-                        IDivideQuery divideQuery = divideEngine.addDivideQuery(
-                                divideQueryName,
-                                IOUtilities.removeWhiteSpace(
-                                        divideQueryParserOutput.getQueryPattern()).replaceAll("\r", " "),
-                                IOUtilities.removeWhiteSpace(
-                                        divideQueryParserOutput.getSensorQueryRule()).replaceAll("\r", " "),
-                                IOUtilities.removeWhiteSpace(
-                                        divideQueryParserOutput.getGoal()).replaceAll("\r", " "),
-                                contextEnrichment);
-
-                        String message = "DIVIDE query with name '" + divideQueryName +
-                                "' successfully registered";
-                        getResponse().setStatus(Status.SUCCESS_OK, message);
-                        getResponse().setEntity(
-                                GSON.toJson(new DivideQueryRepresentation(divideQuery)),
-                                MediaType.APPLICATION_JSON);
+                        String cleanedQueryPattern =
+                                IOUtilities.removeWhiteSpace(divideQueryParserOutput.getQueryPattern()).replaceAll("\r", " ");
+                        String cleanedSensorQueryRule =
+                                IOUtilities.removeWhiteSpace(divideQueryParserOutput.getSensorQueryRule()).replaceAll("\r", " ");
+                        String cleanedGoal =
+                                IOUtilities.removeWhiteSpace(divideQueryParserOutput.getGoal()).replaceAll("\r", " ");
+
+                        if (isAsyncRequested()) {
+                            // add query to DIVIDE engine in an asynchronous operation
+                            // (a query with this name might have been added in the meantime)
+                            acceptAsyncOperation(
+                                    "Registration of DIVIDE query '" + divideQueryName + "'",
+                                    () -> {
+                                        IDivideQuery divideQuery = divideEngine.addDivideQuery(
+                                                divideQueryName, cleanedQueryPattern,
+                                                cleanedSensorQueryRule, cleanedGoal,
+                                                contextEnrichment);
+                                        if (divideQuery == null) {
+                                            throw new DivideInvalidInputException(
+                                                    "DIVIDE query with the specified name already exists");
+                                        }
+                                        return new DivideQueryRepresentation(divideQuery);
+                                    });
+
+                        } else {
+                            // add query to DIVIDE engine
+                            // (response cannot be null since it was checked before whether
+                            //  query with this name already exists)
+                            IDivideQuery divideQuery = divideEngine.addDivideQuery(
+                                    divideQueryName,
+                                    cleanedQueryPattern,
+                                    cleanedSensorQueryRule,
+                                    cleanedGoal,
+                                    contextEnrichment);
+
+                            String message = "DIVIDE query with name '" + divideQueryName +
+                                    "' successfully registered";
+                            getResponse().setStatus(Status.SUCCESS_OK, message);
+                            getResponse().setEntity(
+                                    GSON.toJson(new DivideQueryRepresentation(divideQuery)),
+                                    MediaType.APPLICATION_JSON);
+                        }
 
                     } else {
                         String message = "Input leads to empty DIVIDE query fields";
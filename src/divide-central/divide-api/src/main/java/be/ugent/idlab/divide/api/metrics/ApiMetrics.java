@@ -0,0 +1,43 @@
+package be.ugent.idlab.divide.api.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link RouteMetrics} of all routes of a DIVIDE API,
+ * which are created when the first request with a given method is
+ * handled on a route.
+ */
+public class ApiMetrics {
+
+    private final long startTime;
+
+    private final Map<String, RouteMetrics> routeMetrics;
+
+    public ApiMetrics() {
+        this.startTime = System.currentTimeMillis();
+        this.routeMetrics = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return time at which the metrics collection started
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return metrics of all routes and methods that have handled at least one request
+     */
+    public Collection<RouteMetrics> getRouteMetrics() {
+        return new ArrayList<>(routeMetrics.values());
+    }
+
+    RouteMetrics getRouteMetrics(String route, String method) {
+        return routeMetrics.computeIfAbsent(method + " " + route,
+                key -> new RouteMetrics(route, method));
+    }
+
+}
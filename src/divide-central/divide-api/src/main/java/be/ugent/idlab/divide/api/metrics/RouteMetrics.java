@@ -0,0 +1,130 @@
+package be.ugent.idlab.divide.api.metrics;
+
+import be.ugent.idlab.divide.util.metrics.Counter;
+import be.ugent.idlab.divide.util.metrics.LatencyHistogram;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and throughput metrics of the requests with a given method
+ * on a single route of the DIVIDE API. These metrics are also exposed via
+ * the {@link MetricsRegistry}, labelled with the method and route.
+ */
+public class RouteMetrics {
+
+    private static final String ERRORS_METRIC = "divide_api_request_errors_total";
+    private static final String ERRORS_METRIC_HELP =
+            "Number of DIVIDE API requests that resulted in an error, by type of error";
+
+    private final String route;
+    private final String method;
+
+    private final LongAdder requestCount;
+    private final LongAdder clientErrorCount;
+    private final LongAdder serverErrorCount;
+    private final LongAdder totalLatencyNanos;
+    private final AtomicLong maxLatencyNanos;
+    private final AtomicLong activeRequestCount;
+
+    private final LatencyHistogram latencyHistogram;
+    private final Counter clientErrorCounter;
+    private final Counter serverErrorCounter;
+
+    RouteMetrics(String route, String method) {
+        this.route = route;
+        this.method = method;
+
+        this.requestCount = new LongAdder();
+        this.clientErrorCount = new LongAdder();
+        this.serverErrorCount = new LongAdder();
+        this.totalLatencyNanos = new LongAdder();
+        this.maxLatencyNanos = new AtomicLong();
+        this.activeRequestCount = new AtomicLong();
+
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        this.latencyHistogram = metricsRegistry.histogram(
+                "divide_api_request_duration_seconds",
+                "Handling time of the DIVIDE API requests",
+                "method", method, "route", route);
+        this.clientErrorCounter = metricsRegistry.counter(ERRORS_METRIC, ERRORS_METRIC_HELP,
+                "method", method, "route", route, "type", "client");
+        this.serverErrorCounter = metricsRegistry.counter(ERRORS_METRIC, ERRORS_METRIC_HELP,
+                "method", method, "route", route, "type", "server");
+        metricsRegistry.registerGauge("divide_api_active_requests",
+                "Number of DIVIDE API requests that are currently being handled",
+                activeRequestCount::get, "method", method, "route", route);
+    }
+
+    void requestStarted() {
+        activeRequestCount.incrementAndGet();
+    }
+
+    void requestFinished(int statusCode, long latencyNanos) {
+        activeRequestCount.decrementAndGet();
+
+        requestCount.increment();
+        if (statusCode >= 500) {
+            serverErrorCount.increment();
+            serverErrorCounter.increment();
+        } else if (statusCode >= 400) {
+            clientErrorCount.increment();
+            clientErrorCounter.increment();
+        }
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        latencyHistogram.record(latencyNanos / 1_000_000);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return number of finished requests
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return number of finished requests with a 4xx status code
+     */
+    public long getClientErrorCount() {
+        return clientErrorCount.sum();
+    }
+
+    /**
+     * @return number of finished requests with a 5xx status code
+     */
+    public long getServerErrorCount() {
+        return serverErrorCount.sum();
+    }
+
+    /**
+     * @return number of requests that are currently being handled
+     */
+    public long getActiveRequestCount() {
+        return activeRequestCount.get();
+    }
+
+    /**
+     * @return total handling time of all finished requests, in nanoseconds
+     */
+    public long getTotalLatencyNanos() {
+        return totalLatencyNanos.sum();
+    }
+
+    /**
+     * @return maximum handling time of a finished request, in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+}
@@ -0,0 +1,72 @@
+package be.ugent.idlab.divide.api.metrics;
+
+import be.ugent.idlab.divide.util.Constants;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.resource.ServerResource;
+import org.restlet.routing.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restlet filter that is attached in front of the endpoint of a single route,
+ * and records the latency and outcome of every request handled on that route
+ * in the {@link ApiMetrics} of the DIVIDE API.
+ */
+public class RouteMetricsFilter extends Filter {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(RouteMetricsFilter.class.getName());
+
+    private static final String ATTR_START_TIME = "divide_route_metrics_start_time";
+    private static final String ATTR_ROUTE_METRICS = "divide_route_metrics";
+
+    private final String route;
+    private final ApiMetrics apiMetrics;
+
+    /**
+     * @param context Restlet context of the DIVIDE API application
+     * @param route route template to which the endpoint is attached
+     * @param apiMetrics metrics registry in which the requests should be recorded
+     * @param endpoint class of the endpoint handling the requests on this route
+     */
+    public RouteMetricsFilter(Context context,
+                              String route,
+                              ApiMetrics apiMetrics,
+                              Class<? extends ServerResource> endpoint) {
+        super(context);
+        this.route = route;
+        this.apiMetrics = apiMetrics;
+        setNext(endpoint);
+    }
+
+    @Override
+    protected int beforeHandle(Request request, Response response) {
+        RouteMetrics routeMetrics =
+                apiMetrics.getRouteMetrics(route, request.getMethod().getName());
+        routeMetrics.requestStarted();
+
+        request.getAttributes().put(ATTR_ROUTE_METRICS, routeMetrics);
+        request.getAttributes().put(ATTR_START_TIME, System.nanoTime());
+
+        return CONTINUE;
+    }
+
+    @Override
+    protected void afterHandle(Request request, Response response) {
+        RouteMetrics routeMetrics = (RouteMetrics) request.getAttributes().get(ATTR_ROUTE_METRICS);
+        Long startTime = (Long) request.getAttributes().get(ATTR_START_TIME);
+        if (routeMetrics == null || startTime == null) {
+            return;
+        }
+
+        long latencyNanos = System.nanoTime() - startTime;
+        int statusCode = response.getStatus().getCode();
+        routeMetrics.requestFinished(statusCode, latencyNanos);
+
+        LOGGER.debug(Constants.METRIC_MARKER, "API_REQUEST\t{}\t{}\t{}\t{}",
+                routeMetrics.getMethod(), route, statusCode, latencyNanos / 1_000_000);
+    }
+
+}
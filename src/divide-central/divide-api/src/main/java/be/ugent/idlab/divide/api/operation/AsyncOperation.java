@@ -0,0 +1,105 @@
+package be.ugent.idlab.divide.api.operation;
+
+/**
+ * State of an asynchronous operation of the DIVIDE API, which can be polled
+ * via the operation status endpoint. The state is only updated by the thread
+ * executing the operation, and its fields are volatile so that the status
+ * endpoint can read them at any time.
+ */
+public class AsyncOperation {
+
+    private final String id;
+    private final String description;
+    private final long createdTime;
+
+    private volatile AsyncOperationStatus status;
+    private volatile long startedTime;
+    private volatile long finishedTime;
+    private volatile int statusCode;
+    private volatile String message;
+    private volatile Object result;
+
+    AsyncOperation(String id, String description) {
+        this.id = id;
+        this.description = description;
+        this.createdTime = System.currentTimeMillis();
+        this.status = AsyncOperationStatus.PENDING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public AsyncOperationStatus getStatus() {
+        return status;
+    }
+
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * @return time at which the execution of the operation was started,
+     *         or 0 if it is still pending
+     */
+    public long getStartedTime() {
+        return startedTime;
+    }
+
+    /**
+     * @return time at which the operation finished, or 0 if it is not finished yet
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    /**
+     * @return HTTP status code that the synchronous version of the request would
+     *         have resulted in, or 0 if the operation is not finished yet
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return result of a successful operation (can be null)
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    public boolean isFinished() {
+        AsyncOperationStatus currentStatus = status;
+        return currentStatus == AsyncOperationStatus.SUCCEEDED
+                || currentStatus == AsyncOperationStatus.FAILED;
+    }
+
+    void markRunning() {
+        this.startedTime = System.currentTimeMillis();
+        this.status = AsyncOperationStatus.RUNNING;
+    }
+
+    void markSucceeded(Object result) {
+        this.result = result;
+        this.statusCode = 200;
+        this.message = "Operation successfully completed";
+        this.finishedTime = System.currentTimeMillis();
+        this.status = AsyncOperationStatus.SUCCEEDED;
+    }
+
+    void markFailed(int statusCode, String message) {
+        this.statusCode = statusCode;
+        this.message = message;
+        this.finishedTime = System.currentTimeMillis();
+        this.status = AsyncOperationStatus.FAILED;
+    }
+
+}
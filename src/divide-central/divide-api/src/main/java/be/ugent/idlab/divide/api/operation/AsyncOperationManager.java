@@ -0,0 +1,202 @@
+package be.ugent.idlab.divide.api.operation;
+
+import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
+import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
+import be.ugent.idlab.divide.core.query.parser.InvalidDivideQueryParserInputException;
+import be.ugent.idlab.divide.util.Constants;
+import be.ugent.idlab.divide.util.component.ComponentEntryParserException;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manager of the asynchronous operations of the DIVIDE API.
+ *
+ * Requests for long-running work (e.g., registering a DIVIDE query, which involves
+ * validating it with the EYE reasoner) can be answered immediately with the ID of
+ * an asynchronous operation, instead of blocking a thread of the HTTP connector
+ * until the work is done. The work itself is executed on a dedicated thread pool
+ * of this manager, and its status can be polled via the operation status endpoint.
+ *
+ * Finished operations are kept for a limited retention period, after which they
+ * are removed when new operations are submitted.
+ *
+ * Both the number of operations waiting for a thread and the number of kept
+ * operations are bounded, so that a burst of requests cannot exhaust the memory
+ * of the DIVIDE server: if the maximum number of kept operations is reached, the
+ * oldest finished operations are removed before their retention period ends, and
+ * new operations are rejected if this does not free up any room.
+ */
+public class AsyncOperationManager {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(AsyncOperationManager.class.getName());
+
+    private static final long FINISHED_OPERATION_RETENTION_MS = TimeUnit.HOURS.toMillis(1);
+
+    public static final int DEFAULT_MAX_QUEUED_OPERATIONS = 1000;
+    public static final int DEFAULT_MAX_KEPT_OPERATIONS = 10000;
+
+    private final ExecutorService operationExecutor;
+
+    private final Map<String, AsyncOperation> operations;
+    private final int maxKeptOperations;
+
+    /**
+     * @param threadCount number of threads on which asynchronous operations
+     *                    are executed in parallel
+     */
+    public AsyncOperationManager(int threadCount) {
+        this(threadCount, DEFAULT_MAX_QUEUED_OPERATIONS, DEFAULT_MAX_KEPT_OPERATIONS);
+    }
+
+    /**
+     * @param threadCount number of threads on which asynchronous operations
+     *                    are executed in parallel
+     * @param maxQueuedOperations maximum number of operations waiting for a thread
+     * @param maxKeptOperations maximum number of operations (pending, running and
+     *                          finished) kept by this manager
+     */
+    public AsyncOperationManager(int threadCount, int maxQueuedOperations, int maxKeptOperations) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Number of asynchronous operation threads should be strictly positive");
+        }
+        if (maxQueuedOperations <= 0 || maxKeptOperations <= 0) {
+            throw new IllegalArgumentException(
+                    "Maximum numbers of queued and kept operations should be strictly positive");
+        }
+
+        // fixed thread pool with a bounded queue: operations that do not fit in
+        // the queue are rejected
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor operationThreadPool = new ThreadPoolExecutor(
+                threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxQueuedOperations),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "divide-api-async-operation-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.operationExecutor = operationThreadPool;
+        this.operations = new ConcurrentHashMap<>();
+        this.maxKeptOperations = maxKeptOperations;
+
+        // expose the saturation of the operation thread pool
+        MetricsRegistry.getInstance().registerThreadPoolGauges(
+                "api_async_operation", operationThreadPool);
+    }
+
+    /**
+     * Submits a new asynchronous operation, which is executed as soon as a
+     * thread of this manager is available.
+     *
+     * @param description short description of the operation
+     * @param task work of the operation
+     * @return the created operation, which is still pending
+     * @throws AsyncOperationRejectedException if the maximum number of queued or
+     *                                         kept operations is reached
+     */
+    public synchronized AsyncOperation submit(String description, IAsyncOperationTask task)
+            throws AsyncOperationRejectedException {
+        removeExpiredOperations();
+        if (operations.size() >= maxKeptOperations) {
+            removeOldestFinishedOperations(operations.size() - maxKeptOperations + 1);
+            if (operations.size() >= maxKeptOperations) {
+                LOGGER.warn("Rejecting asynchronous operation '{}': {} operations are " +
+                        "still pending or running", description, operations.size());
+                throw new AsyncOperationRejectedException(
+                        "Too many asynchronous operations are pending or running");
+            }
+        }
+
+        AsyncOperation operation = new AsyncOperation(UUID.randomUUID().toString(), description);
+        operations.put(operation.getId(), operation);
+
+        LOGGER.info("Submitting asynchronous operation {}: {}", operation.getId(), description);
+        try {
+            operationExecutor.execute(() -> execute(operation, task));
+        } catch (RejectedExecutionException e) {
+            operations.remove(operation.getId());
+            LOGGER.warn("Rejecting asynchronous operation {}: queue of pending operations " +
+                    "is full", operation.getId());
+            throw new AsyncOperationRejectedException(
+                    "Too many asynchronous operations are waiting to be executed");
+        }
+
+        return operation;
+    }
+
+    /**
+     * @return operation with the given ID, or null if no such operation exists
+     *         (anymore)
+     */
+    public AsyncOperation getOperation(String id) {
+        return operations.get(id);
+    }
+
+    private void execute(AsyncOperation operation, IAsyncOperationTask task) {
+        operation.markRunning();
+        LOGGER.debug(Constants.METRIC_MARKER, "ASYNC_OPERATION_START\t{}\t{}",
+                operation.getId(), operation.getStartedTime() - operation.getCreatedTime());
+
+        try {
+            operation.markSucceeded(task.execute());
+
+        } catch (ComponentEntryParserException | DivideInvalidInputException
+                | InvalidDivideQueryParserInputException e) {
+            operation.markFailed(400, String.format("Input invalid: %s", e.getMessage()));
+
+        } catch (DivideNotInitializedException e) {
+            operation.markFailed(503, e.getMessage());
+
+        } catch (Exception e) {
+            String eMessage = e.getMessage();
+            LOGGER.error("Error while executing asynchronous operation {}", operation.getId(), e);
+            operation.markFailed(500, "Error while executing operation" +
+                    (eMessage != null ? ": " + eMessage : ""));
+
+        } catch (Error e) {
+            // an error should never leave the operation running forever, but it
+            // is still rethrown since it is not recoverable by this manager
+            LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                    "Error while executing asynchronous operation {}", operation.getId(), e);
+            operation.markFailed(500, "Error while executing operation");
+            throw e;
+        }
+
+        LOGGER.info("Asynchronous operation {} finished with status {}: {}",
+                operation.getId(), operation.getStatus(), operation.getMessage());
+        LOGGER.debug(Constants.METRIC_MARKER, "ASYNC_OPERATION_END\t{}\t{}\t{}",
+                operation.getId(), operation.getStatusCode(),
+                operation.getFinishedTime() - operation.getStartedTime());
+    }
+
+    private void removeExpiredOperations() {
+        long expirationTime = System.currentTimeMillis() - FINISHED_OPERATION_RETENTION_MS;
+        operations.values().removeIf(operation ->
+                operation.isFinished() && operation.getFinishedTime() < expirationTime);
+    }
+
+    private void removeOldestFinishedOperations(int count) {
+        operations.values().stream()
+                .filter(AsyncOperation::isFinished)
+                .sorted(Comparator.comparingLong(AsyncOperation::getFinishedTime))
+                .limit(count)
+                .map(AsyncOperation::getId)
+                .forEach(operations::remove);
+    }
+
+}
@@ -0,0 +1,13 @@
+package be.ugent.idlab.divide.api.operation;
+
+/**
+ * Exception thrown when a new asynchronous operation cannot be accepted,
+ * because the maximum number of queued or kept operations is reached.
+ */
+public class AsyncOperationRejectedException extends Exception {
+
+    public AsyncOperationRejectedException(String description) {
+        super(description);
+    }
+
+}
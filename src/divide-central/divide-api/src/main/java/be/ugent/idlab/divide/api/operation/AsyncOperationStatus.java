@@ -0,0 +1,10 @@
+package be.ugent.idlab.divide.api.operation;
+
+public enum AsyncOperationStatus {
+
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+
+}
@@ -0,0 +1,21 @@
+package be.ugent.idlab.divide.api.operation;
+
+/**
+ * Long-running work of a DIVIDE API request that is executed asynchronously,
+ * after the request has already been answered.
+ */
+@FunctionalInterface
+public interface IAsyncOperationTask {
+
+    /**
+     * Executes the work of the asynchronous operation.
+     *
+     * @return object representing the result of the operation, which will be
+     *         serialized to JSON when the status of the operation is retrieved
+     *         (can be null if the operation has no result)
+     * @throws Exception if the operation fails; the exception type determines
+     *                   the status code reported for the failed operation
+     */
+    Object execute() throws Exception;
+
+}
@@ -0,0 +1,21 @@
+package be.ugent.idlab.divide.api.representation.component;
+
+import java.util.List;
+
+@SuppressWarnings({"FieldCanBeLocal", "unused"})
+public class BatchComponentRegistrationRepresentation {
+
+    private final List<ComponentRepresentation> registeredComponents;
+    private final int duplicateCount;
+    private final ComponentWarmUpProgressRepresentation warmUpProgress;
+
+    public BatchComponentRegistrationRepresentation(
+            List<ComponentRepresentation> registeredComponents,
+            int duplicateCount,
+            ComponentWarmUpProgressRepresentation warmUpProgress) {
+        this.registeredComponents = registeredComponents;
+        this.duplicateCount = duplicateCount;
+        this.warmUpProgress = warmUpProgress;
+    }
+
+}
@@ -0,0 +1,22 @@
+package be.ugent.idlab.divide.api.representation.component;
+
+import be.ugent.idlab.divide.core.engine.ComponentWarmUpProgress;
+
+@SuppressWarnings({"FieldCanBeLocal", "unused"})
+public class ComponentWarmUpProgressRepresentation {
+
+    private final int scheduled;
+    private final int released;
+    private final int skipped;
+    private final int pending;
+    private final boolean finished;
+
+    public ComponentWarmUpProgressRepresentation(ComponentWarmUpProgress progress) {
+        this.scheduled = progress.getScheduledCount();
+        this.released = progress.getReleasedCount();
+        this.skipped = progress.getSkippedCount();
+        this.pending = progress.getPendingCount();
+        this.finished = progress.isFinished();
+    }
+
+}
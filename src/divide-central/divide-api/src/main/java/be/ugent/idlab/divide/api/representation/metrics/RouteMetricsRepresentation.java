@@ -0,0 +1,31 @@
+package be.ugent.idlab.divide.api.representation.metrics;
+
+import be.ugent.idlab.divide.api.metrics.RouteMetrics;
+
+@SuppressWarnings({"FieldCanBeLocal", "unused"})
+public class RouteMetricsRepresentation {
+
+    private final String route;
+    private final String method;
+    private final long requestCount;
+    private final long clientErrorCount;
+    private final long serverErrorCount;
+    private final long activeRequestCount;
+    private final double averageLatencyMs;
+    private final double maxLatencyMs;
+    private final double throughputPerSecond;
+
+    public RouteMetricsRepresentation(RouteMetrics routeMetrics, long uptimeMs) {
+        this.route = routeMetrics.getRoute();
+        this.method = routeMetrics.getMethod();
+        this.requestCount = routeMetrics.getRequestCount();
+        this.clientErrorCount = routeMetrics.getClientErrorCount();
+        this.serverErrorCount = routeMetrics.getServerErrorCount();
+        this.activeRequestCount = routeMetrics.getActiveRequestCount();
+        this.averageLatencyMs = requestCount > 0 ?
+                routeMetrics.getTotalLatencyNanos() / 1e6 / requestCount : 0;
+        this.maxLatencyMs = routeMetrics.getMaxLatencyNanos() / 1e6;
+        this.throughputPerSecond = uptimeMs > 0 ? requestCount * 1000.0 / uptimeMs : 0;
+    }
+
+}
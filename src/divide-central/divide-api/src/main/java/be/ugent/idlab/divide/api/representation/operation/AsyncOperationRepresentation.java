@@ -0,0 +1,37 @@
+package be.ugent.idlab.divide.api.representation.operation;
+
+import be.ugent.idlab.divide.api.operation.AsyncOperation;
+
+@SuppressWarnings({"FieldCanBeLocal", "unused"})
+public class AsyncOperationRepresentation {
+
+    private final String id;
+    private final String description;
+    private final String status;
+    private final long createdTime;
+    private final Long startedTime;
+    private final Long finishedTime;
+    private final Integer statusCode;
+    private final String message;
+    private final Object result;
+
+    public AsyncOperationRepresentation(AsyncOperation operation) {
+        this.id = operation.getId();
+        this.description = operation.getDescription();
+        this.status = operation.getStatus().toString().toLowerCase();
+        this.createdTime = operation.getCreatedTime();
+        this.startedTime = operation.getStartedTime() > 0 ? operation.getStartedTime() : null;
+        if (operation.isFinished()) {
+            this.finishedTime = operation.getFinishedTime();
+            this.statusCode = operation.getStatusCode();
+            this.message = operation.getMessage();
+            this.result = operation.getResult();
+        } else {
+            this.finishedTime = null;
+            this.statusCode = null;
+            this.message = null;
+            this.result = null;
+        }
+    }
+
+}
@@ -28,7 +28,8 @@ public class CsvComponentEntryParser {
      * @return a list of parsed component entries of which the gettable fields can
      *         directly be used as input for the registration of components in a
      *         DIVIDE engine using the {@link IDivideEngine#registerComponent(
-     *         String, List, RspQueryLanguage, int)} method
+     *         String, List, RspQueryLanguage, int)} method, or as a whole using the
+     *         {@link IDivideEngine#registerComponents(List)} method
      * @throws ComponentEntryParserException if a component configuration in the CSV file is
      *                                       invalid (invalid list of additional context IRIs,
      *                                       invalid RSP engine URL, or invalid
@@ -5,6 +5,7 @@ import be.ugent.idlab.divide.rsp.RspQueryLanguage;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,6 +45,42 @@ public class JsonComponentEntryParser {
         return parseComponentEntry(jsonComponentEntry);
     }
 
+    /**
+     * Parses a list of DIVIDE component entries, which is specified as a JSON array
+     * of which every element has the format of a single component entry.
+     *
+     * @param json component configurations as a JSON array string
+     * @return list of parsed component entries, in the order of the JSON array,
+     *         which can directly be used as input for the registration of components
+     *         in a DIVIDE engine using the {@link IDivideEngine#registerComponents(List)}
+     *         method
+     * @throws ComponentEntryParserException if any of the specified component
+     *                                       configurations is not in the required
+     *                                       JSON format
+     */
+    public static List<ComponentEntry> parseComponentEntries(String json)
+            throws ComponentEntryParserException {
+        // parse json
+        JsonComponentEntry[] jsonComponentEntries =
+                GSON.fromJson(json, JsonComponentEntry[].class);
+        if (jsonComponentEntries == null) {
+            throw new ComponentEntryParserException("No JSON array of component entries present");
+        }
+
+        List<ComponentEntry> componentEntries = new ArrayList<>();
+        for (int i = 0; i < jsonComponentEntries.length; i++) {
+            // check if all fields are non-null
+            if (jsonComponentEntries[i] == null || !jsonComponentEntries[i].validateIfNonNull()) {
+                throw new ComponentEntryParserException(String.format(
+                        "Not all required JSON fields are present in component entry %d", i));
+            }
+
+            componentEntries.add(parseComponentEntry(jsonComponentEntries[i]));
+        }
+
+        return componentEntries;
+    }
+
     private static ComponentEntry parseComponentEntry(JsonComponentEntry jsonComponentEntry)
             throws ComponentEntryParserException {
         // parse context IRIs
@@ -0,0 +1,47 @@
+package be.ugent.idlab.divide.core.component;
+
+import be.ugent.idlab.divide.core.engine.IDivideEngine;
+import be.ugent.idlab.divide.rsp.RspQueryLanguage;
+
+import java.util.List;
+
+/**
+ * Definition of a component that should be registered to a DIVIDE engine,
+ * consisting of the inputs of the {@link IDivideEngine#registerComponent(String,
+ * List, RspQueryLanguage, int)} method. It is used to register multiple
+ * components at once with the {@link IDivideEngine#registerComponents(List)} method.
+ */
+public class ComponentDefinition {
+
+    private final String ipAddress;
+    private final List<String> contextIris;
+    private final RspQueryLanguage rspQueryLanguage;
+    private final int rspEngineServerPort;
+
+    public ComponentDefinition(String ipAddress,
+                               List<String> contextIris,
+                               RspQueryLanguage rspQueryLanguage,
+                               int rspEngineServerPort) {
+        this.ipAddress = ipAddress;
+        this.contextIris = contextIris;
+        this.rspQueryLanguage = rspQueryLanguage;
+        this.rspEngineServerPort = rspEngineServerPort;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public List<String> getContextIris() {
+        return contextIris;
+    }
+
+    public RspQueryLanguage getRspQueryLanguage() {
+        return rspQueryLanguage;
+    }
+
+    public int getRspEngineServerPort() {
+        return rspEngineServerPort;
+    }
+
+}
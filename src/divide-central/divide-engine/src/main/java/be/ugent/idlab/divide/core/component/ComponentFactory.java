@@ -28,6 +28,9 @@ public class ComponentFactory {
      *                    context associated to the new {@link IComponent}
      * @param localRspQueryLanguage RSP query language used by the RSP engine running on
      *                              the created component
+     * @param hotSwapQueries whether the RSP engine handler of the created component should
+     *                       hot-swap the queries on its RSP engine when their registration
+     *                       is updated
      * @return the new {@link IComponent}
      * @throws DivideInvalidInputException if the RSP engine URL is no valid URL
      */
@@ -35,6 +38,7 @@ public class ComponentFactory {
                                             List<String> contextIris,
                                             RspQueryLanguage localRspQueryLanguage,
                                             int localRspEngineServerPort,
+                                            boolean hotSwapQueries,
                                             IDivideEngine divideEngine)
             throws DivideInvalidInputException {
         // construct the URL to communicate with the local RSP engine
@@ -61,7 +65,8 @@ public class ComponentFactory {
 
         // create a handler for the RSP engine running on the new component
         IRspEngineHandler rspEngineHandler = RspEngineHandlerFactory.createInstance(
-                localRspQueryLanguage, localRspEngineUrl, localRspEngineServerPort, componentId, divideEngine);
+                localRspQueryLanguage, localRspEngineUrl, localRspEngineServerPort,
+                componentId, hotSwapQueries, divideEngine);
 
         return new Component(componentId, ipAddress, rspEngineHandler, contextIris);
     }
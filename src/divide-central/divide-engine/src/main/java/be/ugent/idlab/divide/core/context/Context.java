@@ -1,7 +1,6 @@
 package be.ugent.idlab.divide.core.context;
 
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 
 import java.util.UUID;
 
@@ -46,7 +45,7 @@ public class Context {
     }
 
     public Context copy() {
-        Model newModel = ModelFactory.createDefaultModel();
+        Model newModel = ContextGraphFactory.createModel();
         newModel.add(context.listStatements());
         return new Context(newModel);
     }
@@ -142,7 +142,7 @@ public class ContextEnricher implements IContextEnricher {
                 context.getId(), componentId, context.size());
 
         // create model for resulting context and add base context
-        Model result = ModelFactory.createDefaultModel();
+        Model result = ContextGraphFactory.createModel();
         result.add(context.getContext());
 
         // add context data to model to execute queries
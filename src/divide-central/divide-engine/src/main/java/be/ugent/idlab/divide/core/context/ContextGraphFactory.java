@@ -0,0 +1,31 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+public class ContextGraphFactory {
+
+    /**
+     * Create and return a new empty graph to store (part of) the context of a
+     * DIVIDE component. This graph is dictionary-encoded: it stores its triples
+     * as integer node IDs in primitive arrays, and shares the storage of IRIs
+     * with all other context graphs.
+     *
+     * @return newly created empty context graph
+     */
+    public static Graph createGraph() {
+        return new EncodedContextGraph();
+    }
+
+    /**
+     * Create and return a new empty model backed by a graph created with
+     * {@link #createGraph()}.
+     *
+     * @return newly created empty context model
+     */
+    public static Model createModel() {
+        return ModelFactory.createModelForGraph(createGraph());
+    }
+
+}
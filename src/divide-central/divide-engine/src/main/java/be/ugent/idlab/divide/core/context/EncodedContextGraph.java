@@ -0,0 +1,376 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.apache.jena.graph.GraphEvents;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact, dictionary-encoded Jena {@link org.apache.jena.graph.Graph} to store
+ * the context of components.
+ *
+ * Every triple is stored as a row of three integer node IDs in primitive column
+ * arrays, instead of as a {@link Triple} object referring to three {@link Node}
+ * objects. IRIs are encoded with the {@link NodeDictionary} shared by all context
+ * graphs, while literals and blank nodes are encoded with a dictionary local to this
+ * graph (with negative IDs). The rows are indexed by subject, predicate and object
+ * (the leading keys of SPO, POS and OSP indexes); a triple pattern is answered by
+ * scanning the smallest matching row list, and the full triples are looked up
+ * in a primitive open addressing hash table.
+ *
+ * Removed triples are marked as removed, and the arrays are compacted once more
+ * rows are removed than alive. As with the default in-memory graph, iterators
+ * returned by {@link #find} should not be used anymore after the graph has been
+ * modified other than via their own {@link java.util.Iterator#remove()} method.
+ * Nodes are matched on term equality. Like the default in-memory graph, this graph
+ * is not thread-safe for writes, but it can be read concurrently once it is no
+ * longer modified (as is the case for the context snapshots).
+ */
+class EncodedContextGraph extends GraphBase {
+
+    private static final int REMOVED = Integer.MIN_VALUE;
+    private static final int NOT_FOUND = NodeDictionary.NOT_FOUND;
+    private static final int ANY = Integer.MAX_VALUE;
+
+    private static final int MIN_REMOVED_ROWS_BEFORE_COMPACTION = 1024;
+
+    private final NodeDictionary dictionary;
+
+    // local dictionary of the literals and blank nodes in this graph:
+    // the node with ID -(i + 1) is stored at index i of the list
+    private final List<Node> localNodes;
+    private final Map<Node, Integer> localIds;
+
+    // rows of node IDs: the subject of a removed row is set to REMOVED
+    private int[] subjects;
+    private int[] predicates;
+    private int[] objects;
+    private int rowCount;
+    private int aliveRowCount;
+
+    // open addressing hash table of the alive rows, storing row + 1
+    // (0 represents an empty slot, -1 a slot of a removed row)
+    private int[] table;
+    private int usedSlots;
+
+    private IntPostingIndex subjectIndex;
+    private IntPostingIndex predicateIndex;
+    private IntPostingIndex objectIndex;
+
+    EncodedContextGraph() {
+        this.dictionary = NodeDictionary.getInstance();
+        this.localNodes = new ArrayList<>();
+        this.localIds = new HashMap<>();
+        allocate(16);
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+        int s = encode(triple.getSubject());
+        int p = encode(triple.getPredicate());
+        int o = encode(triple.getObject());
+        if (findRow(s, p, o) >= 0) {
+            return;
+        }
+
+        if (rowCount == subjects.length) {
+            int capacity = subjects.length * 2;
+            subjects = Arrays.copyOf(subjects, capacity);
+            predicates = Arrays.copyOf(predicates, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        int row = rowCount++;
+        subjects[row] = s;
+        predicates[row] = p;
+        objects[row] = o;
+        aliveRowCount++;
+
+        insertInTable(row);
+        subjectIndex.add(s, row);
+        predicateIndex.add(p, row);
+        objectIndex.add(o, row);
+    }
+
+    @Override
+    public void performDelete(Triple triple) {
+        int s = lookup(triple.getSubject());
+        int p = lookup(triple.getPredicate());
+        int o = lookup(triple.getObject());
+        if (s == NOT_FOUND || p == NOT_FOUND || o == NOT_FOUND) {
+            return;
+        }
+        int slot = findSlot(s, p, o);
+        if (slot < 0) {
+            return;
+        }
+
+        subjects[table[slot] - 1] = REMOVED;
+        table[slot] = -1;
+        aliveRowCount--;
+
+        int removedRowCount = rowCount - aliveRowCount;
+        if (removedRowCount > MIN_REMOVED_ROWS_BEFORE_COMPACTION &&
+                removedRowCount > aliveRowCount) {
+            compact();
+        }
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        int s = pattern.getSubject().isConcrete() ? lookup(pattern.getSubject()) : ANY;
+        int p = pattern.getPredicate().isConcrete() ? lookup(pattern.getPredicate()) : ANY;
+        int o = pattern.getObject().isConcrete() ? lookup(pattern.getObject()) : ANY;
+
+        // a concrete node that is not in the dictionaries cannot match any triple
+        if (s == NOT_FOUND || p == NOT_FOUND || o == NOT_FOUND) {
+            return NiceIterator.emptyIterator();
+        }
+
+        // fully concrete pattern: look up the triple in the hash table
+        if (s != ANY && p != ANY && o != ANY) {
+            int row = findRow(s, p, o);
+            return new RowIterator(row >= 0 ? new int[]{row} : new int[0], s, p, o);
+        }
+
+        // otherwise, scan the smallest list of rows matching one of the concrete nodes
+        int[] rows = null;
+        int bestCount = Integer.MAX_VALUE;
+        if (s != ANY && subjectIndex.count(s) < bestCount) {
+            bestCount = subjectIndex.count(s);
+            rows = subjectIndex.rows(s);
+        }
+        if (p != ANY && predicateIndex.count(p) < bestCount) {
+            bestCount = predicateIndex.count(p);
+            rows = predicateIndex.rows(p);
+        }
+        if (o != ANY && objectIndex.count(o) < bestCount) {
+            rows = objectIndex.rows(o);
+        }
+        if (rows == null) {
+            rows = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = i;
+            }
+        }
+        return new RowIterator(rows, s, p, o);
+    }
+
+    @Override
+    protected boolean graphBaseContains(Triple triple) {
+        if (!triple.isConcrete()) {
+            return super.graphBaseContains(triple);
+        }
+        int s = lookup(triple.getSubject());
+        int p = lookup(triple.getPredicate());
+        int o = lookup(triple.getObject());
+        return s != NOT_FOUND && p != NOT_FOUND && o != NOT_FOUND && findRow(s, p, o) >= 0;
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return aliveRowCount;
+    }
+
+    @Override
+    public void clear() {
+        localNodes.clear();
+        localIds.clear();
+        allocate(16);
+        getEventManager().notifyEvent(this, GraphEvents.removeAll);
+    }
+
+    private int encode(Node node) {
+        if (node.isURI()) {
+            return dictionary.encode(node);
+        }
+        Integer id = localIds.get(node);
+        if (id == null) {
+            localNodes.add(node);
+            id = -localNodes.size();
+            localIds.put(node, id);
+        }
+        return id;
+    }
+
+    private int lookup(Node node) {
+        if (node.isURI()) {
+            return dictionary.lookup(node);
+        }
+        Integer id = localIds.get(node);
+        return id != null ? id : NOT_FOUND;
+    }
+
+    private Node decode(int id) {
+        return id >= 0 ? dictionary.decode(id) : localNodes.get(-id - 1);
+    }
+
+    private int findRow(int s, int p, int o) {
+        int slot = findSlot(s, p, o);
+        return slot >= 0 ? table[slot] - 1 : -1;
+    }
+
+    private int findSlot(int s, int p, int o) {
+        int mask = table.length - 1;
+        int slot = hash(s, p, o) & mask;
+        while (table[slot] != 0) {
+            int row = table[slot] - 1;
+            if (row >= 0 && subjects[row] == s && predicates[row] == p && objects[row] == o) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertInTable(int row) {
+        if ((usedSlots + 1) * 2 > table.length) {
+            rebuildTable(aliveRowCount * 2 > table.length / 2 ? table.length * 2 : table.length);
+        }
+        int mask = table.length - 1;
+        int slot = hash(subjects[row], predicates[row], objects[row]) & mask;
+        while (table[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == 0) {
+            usedSlots++;
+        }
+        table[slot] = row + 1;
+    }
+
+    private void rebuildTable(int capacity) {
+        table = new int[capacity];
+        usedSlots = 0;
+        int mask = capacity - 1;
+        for (int row = 0; row < rowCount; row++) {
+            if (subjects[row] != REMOVED) {
+                int slot = hash(subjects[row], predicates[row], objects[row]) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = row + 1;
+                usedSlots++;
+            }
+        }
+    }
+
+    /**
+     * Removes the rows of removed triples, by creating new arrays and indexes
+     * (iterators created before keep using the old arrays).
+     */
+    private void compact() {
+        int[] oldSubjects = subjects;
+        int[] oldPredicates = predicates;
+        int[] oldObjects = objects;
+        int oldRowCount = rowCount;
+
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, aliveRowCount)) * 2));
+        for (int row = 0; row < oldRowCount; row++) {
+            if (oldSubjects[row] != REMOVED) {
+                int newRow = rowCount++;
+                subjects[newRow] = oldSubjects[row];
+                predicates[newRow] = oldPredicates[row];
+                objects[newRow] = oldObjects[row];
+                aliveRowCount++;
+                insertInTable(newRow);
+                subjectIndex.add(subjects[newRow], newRow);
+                predicateIndex.add(predicates[newRow], newRow);
+                objectIndex.add(objects[newRow], newRow);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        subjects = new int[capacity];
+        predicates = new int[capacity];
+        objects = new int[capacity];
+        rowCount = 0;
+        aliveRowCount = 0;
+        table = new int[capacity * 2];
+        usedSlots = 0;
+        subjectIndex = new IntPostingIndex();
+        predicateIndex = new IntPostingIndex();
+        objectIndex = new IntPostingIndex();
+    }
+
+    private static int hash(int s, int p, int o) {
+        return IntPostingIndex.mix(s * 31 * 31 + p * 31 + o);
+    }
+
+    /**
+     * Iterator over the given candidate rows that are still alive and match the
+     * given node IDs (ANY representing a wildcard). It keeps a reference to the
+     * row arrays at creation time, so that a compaction caused by removing the
+     * current triple does not affect the remainder of the iteration.
+     */
+    private class RowIterator extends NiceIterator<Triple> {
+
+        private final int[] rows;
+        private final int s;
+        private final int p;
+        private final int o;
+        private final int[] rowSubjects;
+        private final int[] rowPredicates;
+        private final int[] rowObjects;
+
+        private int index;
+        private Triple next;
+        private Triple last;
+
+        private RowIterator(int[] rows, int s, int p, int o) {
+            this.rows = rows;
+            this.s = s;
+            this.p = p;
+            this.o = o;
+            this.rowSubjects = subjects;
+            this.rowPredicates = predicates;
+            this.rowObjects = objects;
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && index < rows.length) {
+                int row = rows[index++];
+                int rowSubject = rowSubjects[row];
+                if (rowSubject != REMOVED &&
+                        (s == ANY || s == rowSubject) &&
+                        (p == ANY || p == rowPredicates[row]) &&
+                        (o == ANY || o == rowObjects[row])) {
+                    next = Triple.create(decode(rowSubject),
+                            decode(rowPredicates[row]), decode(rowObjects[row]));
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Triple next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            delete(last);
+            last = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package be.ugent.idlab.divide.core.context;
+
+import java.util.Arrays;
+
+/**
+ * Index mapping an integer key (a node ID) to the list of rows (triple IDs) in
+ * which it occurs, using open addressing and primitive arrays only.
+ *
+ * Rows are only appended; rows of removed triples remain in the lists until the
+ * owning graph is compacted, so users of the index should check whether a row
+ * is still alive.
+ */
+class IntPostingIndex {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[][] postings;
+    private int[] sizes;
+    private int count;
+
+    IntPostingIndex() {
+        allocate(16);
+    }
+
+    void add(int key, int row) {
+        if ((count + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            postings[slot] = new int[2];
+            count++;
+        } else if (sizes[slot] == postings[slot].length) {
+            postings[slot] = Arrays.copyOf(postings[slot], sizes[slot] * 2);
+        }
+        postings[slot][sizes[slot]++] = row;
+    }
+
+    /**
+     * @return number of rows in which the given key occurs (including removed rows)
+     */
+    int count(int key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? 0 : sizes[slot];
+    }
+
+    /**
+     * @return copy of the rows in which the given key occurs (including removed rows)
+     */
+    int[] rows(int key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? new int[0] : Arrays.copyOf(postings[slot], sizes[slot]);
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[][] oldPostings = postings;
+        int[] oldSizes = sizes;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                postings[slot] = oldPostings[i];
+                sizes[slot] = oldSizes[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        postings = new int[capacity][];
+        sizes = new int[capacity];
+    }
+
+    static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
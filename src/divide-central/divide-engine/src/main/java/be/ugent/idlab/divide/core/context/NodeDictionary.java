@@ -0,0 +1,79 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.apache.jena.graph.Node;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary shared by all context graphs, which maps every IRI node to a
+ * non-negative integer ID. This ensures that every distinct IRI is only kept once
+ * in memory, independently of the number of context graphs (and triples) it is
+ * used in.
+ *
+ * Only IRIs are stored in this shared dictionary, since they are the nodes that
+ * are shared across contexts. IDs are never released, so literals and blank nodes
+ * are kept in a local dictionary of each context graph instead, to avoid that the
+ * shared dictionary keeps growing with every new sensor value.
+ */
+class NodeDictionary {
+
+    static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static final NodeDictionary INSTANCE = new NodeDictionary();
+
+    static NodeDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<Node, Integer> ids;
+
+    // nodes are written before their ID is published via the concurrent map,
+    // so readers can safely decode every ID they have obtained
+    private volatile Node[] nodes;
+    private int size;
+
+    private NodeDictionary() {
+        this.ids = new ConcurrentHashMap<>();
+        this.nodes = new Node[1024];
+        this.size = 0;
+    }
+
+    /**
+     * @param node IRI node
+     * @return ID of the given IRI node, which is created if it does not exist yet
+     */
+    int encode(Node node) {
+        Integer id = ids.get(node);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(node);
+            if (id != null) {
+                return id;
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size] = node;
+            ids.put(node, size);
+            return size++;
+        }
+    }
+
+    /**
+     * @param node IRI node
+     * @return ID of the given IRI node, or {@link #NOT_FOUND} if it has no ID yet
+     */
+    int lookup(Node node) {
+        Integer id = ids.get(node);
+        return id != null ? id : NOT_FOUND;
+    }
+
+    Node decode(int id) {
+        return nodes[id];
+    }
+
+}
@@ -0,0 +1,341 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.core.context.ContextGraphFactory;
+import be.ugent.idlab.divide.util.metrics.Counter;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import be.ugent.idlab.kb.IKnowledgeBase;
+import be.ugent.idlab.kb.exception.KnowledgeBaseOperationException;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Difference;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Assembles the context of components from immutable snapshots of the ABoxes
+ * in the knowledge base that are associated to their context IRIs.
+ *
+ * Exactly one snapshot is kept per context IRI, and this snapshot is shared by all
+ * components that have this IRI in their context. The context of a component is
+ * composed as a read-only union view over the snapshots of its context IRIs, so no
+ * statements are copied when assembling it. Since the snapshots are never modified
+ * after creation, a composed context remains a consistent view of the context at
+ * the moment it was assembled, even if newer snapshots are stored afterwards.
+ *
+ * The ABox of a context IRI is only copied once, when its first snapshot is created.
+ * Every update of the ABox is converted into a {@link ContextDelta} with the added
+ * and removed triples, which results in a new snapshot version that is layered on top
+ * of the same materialized base graph: it only stores the triples added to and
+ * removed from this base graph. Once these layers become too large compared to the
+ * base graph, the snapshot is materialized again into a new base graph.
+ *
+ * Consumers of an assembled context should copy it before modifying it (which is
+ * already the case for the query derivation, that copies the context for every
+ * DIVIDE query before enriching it).
+ *
+ * Retrievals and updates of the snapshot of the same context IRI are serialized
+ * via a lock per context IRI. The retrieval of an ABox from the knowledge base and
+ * the calculation of a change are never done inside an operation of the snapshot
+ * map itself, since such an operation would block all other operations on the
+ * context IRIs that are stored in the same bin of this map.
+ */
+class ComponentContextAssembler {
+
+    /**
+     * Minimum number of layered triple changes before a snapshot is materialized
+     * again, and maximum fraction of the base graph size these changes may have
+     */
+    private static final int MIN_CHANGES_BEFORE_MATERIALIZATION = 1000;
+    private static final double MAX_CHANGES_FRACTION_BEFORE_MATERIALIZATION = 0.1;
+
+    private static final String SNAPSHOT_LOOKUPS_METRIC = "divide_context_snapshot_lookups_total";
+    private static final String SNAPSHOT_LOOKUPS_METRIC_HELP =
+            "Number of lookups of the context snapshot of a context IRI, by result " +
+                    "(a miss requires retrieving the ABox from the knowledge base)";
+
+    private final IKnowledgeBase<Model> knowledgeBase;
+
+    /**
+     * Map of the latest versioned snapshot of the ABox of every context IRI
+     * that is part of the context of at least one component
+     */
+    private final Map<String, ContextSnapshot> contextSnapshots;
+
+    /**
+     * Map of the lock of every context IRI that currently has a snapshot, or of
+     * which the snapshot is being retrieved or updated
+     */
+    private final Map<String, ReentrantLock> contextLocks;
+
+    private final Counter snapshotHitCounter;
+    private final Counter snapshotMissCounter;
+
+    ComponentContextAssembler(IKnowledgeBase<Model> knowledgeBase) {
+        this.knowledgeBase = knowledgeBase;
+        this.contextSnapshots = new ConcurrentHashMap<>();
+        this.contextLocks = new ConcurrentHashMap<>();
+
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        this.snapshotHitCounter = metricsRegistry.counter(
+                SNAPSHOT_LOOKUPS_METRIC, SNAPSHOT_LOOKUPS_METRIC_HELP, "result", "hit");
+        this.snapshotMissCounter = metricsRegistry.counter(
+                SNAPSHOT_LOOKUPS_METRIC, SNAPSHOT_LOOKUPS_METRIC_HELP, "result", "miss");
+        metricsRegistry.registerGauge("divide_context_snapshots",
+                "Number of context IRIs of which a context snapshot is kept",
+                contextSnapshots::size);
+    }
+
+    /**
+     * Updates the snapshot of the given context IRI to the given updated ABox, by
+     * calculating the change compared to the current snapshot and applying it as a
+     * new snapshot version. Contexts that were assembled before remain unaffected.
+     *
+     * @param contextIri context IRI of which the ABox is updated
+     * @param aBox updated ABox of the given context IRI
+     * @return change of the ABox, or null if no snapshot existed before the
+     *         update (i.e., the change is unknown)
+     */
+    ContextDelta updateSnapshot(String contextIri, Model aBox) {
+        // the update is done while holding the lock of this context IRI only, so
+        // that updates of the same context IRI are applied one after the other
+        ReentrantLock lock = lockContextIri(contextIri);
+        try {
+            ContextSnapshot snapshot = contextSnapshots.get(contextIri);
+            if (snapshot == null) {
+                contextSnapshots.put(contextIri, ContextSnapshot.create(aBox.getGraph()));
+                return null;
+            }
+
+            ContextDelta delta = ContextDelta.between(
+                    contextIri, snapshot.version, snapshot.graph, aBox.getGraph());
+            if (!delta.isEmpty()) {
+                contextSnapshots.put(contextIri, snapshot.apply(delta));
+            }
+            return delta;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the snapshot of the given context IRI, e.g., because no component
+     * has this IRI in its context anymore.
+     *
+     * @param contextIri context IRI of which the snapshot can be discarded
+     */
+    void discardSnapshot(String contextIri) {
+        ReentrantLock lock = lockContextIri(contextIri);
+        try {
+            contextSnapshots.remove(contextIri);
+            contextLocks.remove(contextIri);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Assembles the context of the given component from the current snapshots of
+     * all its context IRIs. If no snapshot exists yet for a context IRI, its ABox
+     * is retrieved from the knowledge base and stored as snapshot.
+     *
+     * @param component component of which the context should be assembled
+     * @return read-only model representing the current context of the component
+     * @throws KnowledgeBaseOperationException if the ABox of a context IRI without
+     *                                         snapshot cannot be retrieved from the
+     *                                         knowledge base
+     */
+    Model assembleContext(IComponent component) throws KnowledgeBaseOperationException {
+        List<String> contextIris = component.getContextIris();
+
+        // a component with a single context IRI can directly use the snapshot
+        if (contextIris.size() == 1) {
+            return getSnapshot(contextIris.get(0)).model;
+        }
+
+        MultiUnion union = new MultiUnion();
+        for (String contextIri : contextIris) {
+            union.addGraph(getSnapshot(contextIri).graph);
+        }
+        return ModelFactory.createModelForGraph(new GraphReadOnly(union));
+    }
+
+    /**
+     * Ensures that a snapshot exists for the given context IRI, by retrieving its
+     * ABox from the knowledge base if no snapshot exists yet. This allows retrieving
+     * the snapshots of context IRIs shared by many components only once, before
+     * the context of these components is assembled.
+     *
+     * @param contextIri context IRI of which a snapshot should exist
+     * @throws KnowledgeBaseOperationException if the ABox of the context IRI cannot
+     *                                         be retrieved from the knowledge base
+     */
+    void prefetchSnapshot(String contextIri) throws KnowledgeBaseOperationException {
+        getSnapshot(contextIri);
+    }
+
+    private ContextSnapshot getSnapshot(String contextIri)
+            throws KnowledgeBaseOperationException {
+        ContextSnapshot snapshot = contextSnapshots.get(contextIri);
+        if (snapshot != null) {
+            snapshotHitCounter.increment();
+            return snapshot;
+        }
+        // a concurrent retrieval of the same context IRI may still store the
+        // snapshot first, in which case this miss does not cause a retrieval
+        snapshotMissCounter.increment();
+
+        // the ABox is retrieved while holding the lock of this context IRI only,
+        // so that a concurrent update of the same context IRI is only applied
+        // after (and therefore on top of) the retrieved ABox
+        ReentrantLock lock = lockContextIri(contextIri);
+        try {
+            snapshot = contextSnapshots.get(contextIri);
+            if (snapshot == null) {
+                snapshot = ContextSnapshot.create(
+                        knowledgeBase.getABox(contextIri).getGraph());
+                contextSnapshots.put(contextIri, snapshot);
+            }
+            return snapshot;
+
+        } finally {
+            // the lock of a context IRI of which the ABox could not be retrieved
+            // is not kept
+            if (!contextSnapshots.containsKey(contextIri)) {
+                contextLocks.remove(contextIri, lock);
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires the lock of the given context IRI, creating it if it does not
+     * exist yet. If the lock is removed from the lock map while waiting for it
+     * (because the snapshot was discarded), the lock that is currently in the
+     * map is acquired instead, so that at most one thread at a time operates
+     * on the snapshot of a context IRI.
+     *
+     * @return acquired lock, which should be unlocked by the caller
+     */
+    private ReentrantLock lockContextIri(String contextIri) {
+        while (true) {
+            ReentrantLock lock = contextLocks.computeIfAbsent(
+                    contextIri, iri -> new ReentrantLock());
+            lock.lock();
+            if (contextLocks.get(contextIri) == lock) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Immutable version of the ABox of a context IRI, consisting of a materialized
+     * base graph, and the triples added to and removed from this base graph
+     * (the added triples are never part of the base graph, and the removed triples
+     * always are).
+     */
+    private static class ContextSnapshot {
+
+        private final long version;
+        private final Graph base;
+        private final Set<Triple> addedTriples;
+        private final Set<Triple> removedTriples;
+
+        // read-only view representing this snapshot
+        private final Graph graph;
+        private final Model model;
+
+        private ContextSnapshot(long version, Graph base,
+                                Set<Triple> addedTriples, Set<Triple> removedTriples) {
+            this.version = version;
+            this.base = base;
+            this.addedTriples = addedTriples;
+            this.removedTriples = removedTriples;
+
+            Graph view = base;
+            if (!removedTriples.isEmpty()) {
+                view = new Difference(view, createGraph(removedTriples));
+            }
+            if (!addedTriples.isEmpty()) {
+                view = new Union(view, createGraph(addedTriples));
+            }
+            this.graph = new GraphReadOnly(view);
+            this.model = ModelFactory.createModelForGraph(graph);
+        }
+
+        /**
+         * Creates the first snapshot version of an ABox, which requires copying it
+         * (since the graph passed by the knowledge base is not guaranteed to remain
+         * unmodified afterwards).
+         */
+        private static ContextSnapshot create(Graph aBox) {
+            return new ContextSnapshot(1, copyGraph(aBox),
+                    Collections.emptySet(), Collections.emptySet());
+        }
+
+        /**
+         * Creates a new snapshot version by applying the given change to this
+         * snapshot. Only the layered triple changes are copied, unless they have
+         * become too large and the new snapshot is materialized.
+         */
+        private ContextSnapshot apply(ContextDelta delta) {
+            Set<Triple> added = new HashSet<>(addedTriples);
+            Set<Triple> removed = new HashSet<>(removedTriples);
+            for (Triple triple : delta.getAddedTriples()) {
+                if (!removed.remove(triple) && !base.contains(triple)) {
+                    added.add(triple);
+                }
+            }
+            for (Triple triple : delta.getRemovedTriples()) {
+                if (!added.remove(triple) && base.contains(triple)) {
+                    removed.add(triple);
+                }
+            }
+
+            ContextSnapshot snapshot = new ContextSnapshot(
+                    delta.getVersion(), base, added, removed);
+            int changes = added.size() + removed.size();
+            if (changes > MIN_CHANGES_BEFORE_MATERIALIZATION &&
+                    changes > MAX_CHANGES_FRACTION_BEFORE_MATERIALIZATION * base.size()) {
+                return new ContextSnapshot(delta.getVersion(), copyGraph(snapshot.graph),
+                        Collections.emptySet(), Collections.emptySet());
+            }
+            return snapshot;
+        }
+
+        private static Graph copyGraph(Graph graph) {
+            Graph copy = ContextGraphFactory.createGraph();
+            ExtendedIterator<Triple> iterator = graph.find();
+            try {
+                while (iterator.hasNext()) {
+                    copy.add(iterator.next());
+                }
+            } finally {
+                iterator.close();
+            }
+            return copy;
+        }
+
+        private static Graph createGraph(Set<Triple> triples) {
+            Graph graph = ContextGraphFactory.createGraph();
+            triples.forEach(graph::add);
+            return graph;
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package be.ugent.idlab.divide.core.engine;
+
+/**
+ * Snapshot of the progress of the staged initial DIVIDE query derivations of
+ * components that are registered in bulk to a DIVIDE engine via the
+ * {@link IDivideEngine#registerComponents(java.util.List)} method.
+ */
+public class ComponentWarmUpProgress {
+
+    private final int scheduledCount;
+    private final int releasedCount;
+    private final int skippedCount;
+    private final int pendingCount;
+
+    ComponentWarmUpProgress(int scheduledCount,
+                            int releasedCount,
+                            int skippedCount,
+                            int pendingCount) {
+        this.scheduledCount = scheduledCount;
+        this.releasedCount = releasedCount;
+        this.skippedCount = skippedCount;
+        this.pendingCount = pendingCount;
+    }
+
+    /**
+     * @return total number of components of which the initial query derivation
+     *         has been scheduled since the start of the engine
+     */
+    public int getScheduledCount() {
+        return scheduledCount;
+    }
+
+    /**
+     * @return number of components of which the initial query derivation
+     *         has been enqueued
+     */
+    public int getReleasedCount() {
+        return releasedCount;
+    }
+
+    /**
+     * @return number of components of which no initial query derivation has
+     *         been enqueued, because they were unregistered in the meantime or
+     *         because no (non-empty) context was available for them
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return number of components that are still waiting for their initial
+     *         query derivation to be enqueued
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return true if the initial query derivation of all scheduled components
+     *         has been handled
+     */
+    public boolean isFinished() {
+        return pendingCount == 0;
+    }
+
+}
@@ -0,0 +1,152 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Scheduler that stages the initial DIVIDE query derivations of components that
+ * are registered in bulk, e.g., at startup of a DIVIDE server with a large set of
+ * known components.
+ *
+ * Enqueueing the initial query derivation of all these components at once would
+ * start all derivations at the same time, competing for the same worker threads
+ * and query deriver. Instead, the scheduled components are kept in a FIFO queue
+ * from which a limited batch of components is released at a fixed interval. The
+ * size of every batch is determined by the DIVIDE engine when it is released, so
+ * that it can take into account how busy the engine is at that moment.
+ */
+class ComponentWarmUpScheduler {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ComponentWarmUpScheduler.class.getName());
+
+    private static final long RELEASE_INTERVAL_MS = 1000;
+
+    private final IntSupplier batchSize;
+    private final Predicate<IComponent> releaseAction;
+
+    private final Queue<IComponent> pendingComponents;
+    private final AtomicInteger scheduledCount;
+    private final AtomicInteger releasedCount;
+    private final AtomicInteger skippedCount;
+
+    private final ScheduledExecutorService releaseExecutor;
+
+    /**
+     * Periodic task releasing the pending components, which is only
+     * running while there are pending components (guarded by this)
+     */
+    private ScheduledFuture<?> releaseTask;
+
+    /**
+     * @param batchSize supplier of the maximum number of components that can be
+     *                  released at a given moment
+     * @param releaseAction action that enqueues the initial query derivation of
+     *                      a released component, returning false if this has been
+     *                      skipped for the given component
+     */
+    ComponentWarmUpScheduler(IntSupplier batchSize,
+                             Predicate<IComponent> releaseAction) {
+        this.batchSize = batchSize;
+        this.releaseAction = releaseAction;
+
+        this.pendingComponents = new ConcurrentLinkedQueue<>();
+        this.scheduledCount = new AtomicInteger();
+        this.releasedCount = new AtomicInteger();
+        this.skippedCount = new AtomicInteger();
+
+        this.releaseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "divide-component-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the initial query derivation of the given components, which will
+     * be released after the components that were already scheduled before.
+     */
+    synchronized void schedule(Collection<IComponent> components) {
+        if (components.isEmpty()) {
+            return;
+        }
+
+        pendingComponents.addAll(components);
+        scheduledCount.addAndGet(components.size());
+        LOGGER.info("Component warm-up: scheduled initial query derivation of {} components " +
+                "({} components pending)", components.size(), pendingComponents.size());
+
+        if (releaseTask == null) {
+            LOGGER.debug(Constants.METRIC_MARKER, "COMPONENT_WARM_UP_START");
+            releaseTask = releaseExecutor.scheduleWithFixedDelay(
+                    this::releaseNextBatch, 0, RELEASE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    ComponentWarmUpProgress getProgress() {
+        return new ComponentWarmUpProgress(scheduledCount.get(), releasedCount.get(),
+                skippedCount.get(), pendingComponents.size());
+    }
+
+    /**
+     * Stops releasing components; pending components are no longer released.
+     */
+    void shutdown() {
+        releaseExecutor.shutdownNow();
+        pendingComponents.clear();
+    }
+
+    private void releaseNextBatch() {
+        int size = Math.max(1, batchSize.getAsInt());
+        for (int i = 0; i < size; i++) {
+            IComponent component = pendingComponents.poll();
+            if (component == null) {
+                break;
+            }
+
+            // an exception for one component should not stop the periodic task
+            try {
+                if (releaseAction.test(component)) {
+                    releasedCount.incrementAndGet();
+                } else {
+                    skippedCount.incrementAndGet();
+                }
+            } catch (Exception e) {
+                skippedCount.incrementAndGet();
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "Component warm-up: unexpected error when releasing initial query " +
+                                "derivation of component with ID {}", component.getId(), e);
+            }
+        }
+
+        ComponentWarmUpProgress progress = getProgress();
+        LOGGER.info("Component warm-up: initial query derivation enqueued for {} of {} " +
+                        "components ({} skipped, {} pending)",
+                progress.getReleasedCount(), progress.getScheduledCount(),
+                progress.getSkippedCount(), progress.getPendingCount());
+
+        // stop the periodic task if no components are pending anymore
+        // (this check is synchronized with the scheduling of new components)
+        synchronized (this) {
+            if (pendingComponents.isEmpty() && releaseTask != null) {
+                releaseTask.cancel(false);
+                releaseTask = null;
+                LOGGER.debug(Constants.METRIC_MARKER, "COMPONENT_WARM_UP_END");
+            }
+        }
+    }
+
+}
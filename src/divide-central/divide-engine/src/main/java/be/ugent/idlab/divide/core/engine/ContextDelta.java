@@ -0,0 +1,94 @@
+package be.ugent.idlab.divide.core.engine;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Change of the ABox associated to a context IRI in the knowledge base, represented
+ * as the set of added and the set of removed triples, together with the version of
+ * the ABox snapshot resulting from applying this change.
+ */
+class ContextDelta {
+
+    private final String contextIri;
+    private final long version;
+    private final Set<Triple> addedTriples;
+    private final Set<Triple> removedTriples;
+
+    ContextDelta(String contextIri,
+                 long version,
+                 Set<Triple> addedTriples,
+                 Set<Triple> removedTriples) {
+        this.contextIri = contextIri;
+        this.version = version;
+        this.addedTriples = Collections.unmodifiableSet(addedTriples);
+        this.removedTriples = Collections.unmodifiableSet(removedTriples);
+    }
+
+    /**
+     * Calculates the change between two versions of an ABox. This only requires a
+     * lookup of every triple of both versions in the other version, and does not
+     * copy any triple that is not part of the change.
+     *
+     * @param contextIri context IRI of the ABox
+     * @param previousVersion version of the previous ABox snapshot
+     * @param previous previous version of the ABox
+     * @param current new version of the ABox
+     * @return change from the previous to the new version; its version is the
+     *         next version, or the previous version if nothing has changed
+     */
+    static ContextDelta between(String contextIri, long previousVersion,
+                                Graph previous, Graph current) {
+        Set<Triple> addedTriples = difference(current, previous);
+        Set<Triple> removedTriples = difference(previous, current);
+        boolean changed = !addedTriples.isEmpty() || !removedTriples.isEmpty();
+        return new ContextDelta(contextIri, changed ? previousVersion + 1 : previousVersion,
+                addedTriples, removedTriples);
+    }
+
+    private static Set<Triple> difference(Graph graph, Graph otherGraph) {
+        Set<Triple> difference = new HashSet<>();
+        ExtendedIterator<Triple> iterator = graph.find();
+        try {
+            while (iterator.hasNext()) {
+                Triple triple = iterator.next();
+                if (!otherGraph.contains(triple)) {
+                    difference.add(triple);
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+        return difference;
+    }
+
+    String getContextIri() {
+        return contextIri;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    Set<Triple> getAddedTriples() {
+        return addedTriples;
+    }
+
+    Set<Triple> getRemovedTriples() {
+        return removedTriples;
+    }
+
+    boolean isEmpty() {
+        return addedTriples.isEmpty() && removedTriples.isEmpty();
+    }
+
+    int size() {
+        return addedTriples.size() + removedTriples.size();
+    }
+
+}
@@ -1,10 +1,12 @@
 package be.ugent.idlab.divide.core.engine;
 
+import be.ugent.idlab.divide.core.component.ComponentDefinition;
 import be.ugent.idlab.divide.core.component.ComponentFactory;
 import be.ugent.idlab.divide.core.component.IComponent;
 import be.ugent.idlab.divide.core.context.Context;
 import be.ugent.idlab.divide.core.exception.DivideInitializationException;
 import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
 import be.ugent.idlab.divide.rsp.RspQueryLanguage;
 import be.ugent.idlab.divide.util.Constants;
 import be.ugent.idlab.kb.IIriResolver;
@@ -13,15 +15,20 @@ import be.ugent.idlab.kb.IKnowledgeBaseObserver;
 import be.ugent.idlab.kb.exception.InvalidIriException;
 import be.ugent.idlab.kb.exception.KnowledgeBaseOperationException;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
 
@@ -40,9 +47,28 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
      * components the ABox with that IRI in the knowledge base partly defines its
      * context. If a change to a specific context IRI is observed, this means that
      * the query derivation should be triggered for each component in the
-     * associated list.
+     * associated set.
+     *
+     * The map and its sets are concurrent, so that observers can be added & removed
+     * without blocking the handling of knowledge base updates (and vice versa). The
+     * copy-on-write sets ensure that an update is fanned out to a stable set of
+     * observers, which is cheap since observers change rarely compared to updates.
+     */
+    private final Map<String, Set<IComponent>> contextIriObservers;
+
+    /**
+     * Assembler of the context of the managed components from snapshots of the
+     * ABoxes of their context IRIs, which are shared between components
      */
-    private final Map<String, List<IComponent>> contextIriObservers;
+    private final ComponentContextAssembler contextAssembler;
+
+    /**
+     * Single thread executor on which knowledge base updates are fanned out to
+     * the observing components, so that the thread of the knowledge base that
+     * notifies the update is not blocked by this. Since a single thread is used,
+     * updates are handled in the order in which they were notified.
+     */
+    private final ExecutorService contextUpdateExecutor;
 
     /**
      * Boolean representing whether RSP engine streams on a component should be paused
@@ -51,6 +77,14 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
      */
     private final boolean pauseRspEngineStreamsOnContextChanges;
 
+    /**
+     * Boolean representing whether the RSP engine handlers of the managed components
+     * should hot-swap the queries on their RSP engine when context changes trigger a
+     * query registration update, i.e., register new query versions alongside the old
+     * ones and only retire the old ones once the new ones are live.
+     */
+    private final boolean hotSwapQueriesOnContextChanges;
+
     /**
      * Creates a new instance of a {@link DivideComponentManager} associated
      * to the given {@link DivideEngine} and {@link IKnowledgeBase<Model>}.
@@ -65,27 +99,118 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
      *                                              when context changes are detected that
      *                                              trigger the DIVIDE query derivation for
      *                                              that component
+     * @param hotSwapQueriesOnContextChanges boolean representing whether the RSP engine
+     *                                       queries on a component should be hot-swapped
+     *                                       when the query derivation triggered by context
+     *                                       changes results in new query versions
      */
     DivideComponentManager(DivideEngine divideEngine,
                            IKnowledgeBase<Model> knowledgeBase,
-                           boolean pauseRspEngineStreamsOnContextChanges) {
+                           boolean pauseRspEngineStreamsOnContextChanges,
+                           boolean hotSwapQueriesOnContextChanges) {
         this.divideEngine = divideEngine;
         this.knowledgeBase = knowledgeBase;
 
-        this.registeredComponents = new HashMap<>();
-        this.contextIriObservers = new HashMap<>();
+        this.registeredComponents = new ConcurrentHashMap<>();
+        this.contextIriObservers = new ConcurrentHashMap<>();
+
+        this.contextAssembler = new ComponentContextAssembler(knowledgeBase);
+        this.contextUpdateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "divide-context-update-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
 
         this.knowledgeBase.registerObserver(this);
 
         this.pauseRspEngineStreamsOnContextChanges = pauseRspEngineStreamsOnContextChanges;
+        this.hotSwapQueriesOnContextChanges = hotSwapQueriesOnContextChanges;
     }
 
-    synchronized IComponent registerComponent(String ipAddress,
-                                              List<String> contextIris,
-                                              RspQueryLanguage localRspQueryLanguage,
-                                              int localRspEngineServerPort)
+    IComponent registerComponent(String ipAddress,
+                                 List<String> contextIris,
+                                 RspQueryLanguage localRspQueryLanguage,
+                                 int localRspEngineServerPort)
             throws DivideInvalidInputException {
         // resolve all context IRIs
+        List<String> resolvedContextIris = resolveContextIris(contextIris);
+
+        // create component
+        IComponent component = ComponentFactory.createInstance(
+                ipAddress, resolvedContextIris, localRspQueryLanguage, localRspEngineServerPort,
+                hotSwapQueriesOnContextChanges, divideEngine);
+
+        // keep track of component
+        return trackComponent(component, false);
+    }
+
+    /**
+     * Registers a component for each of the given component definitions. All
+     * components are created before any component is registered, so that either
+     * all components are registered, or none (if any definition is invalid).
+     *
+     * @return list with the registered component for each given definition (in the
+     *         same order), containing null for definitions of which a component with
+     *         the same ID is already registered
+     * @throws DivideInvalidInputException if a context IRI of any of the given
+     *                                     definitions cannot be resolved, or if no
+     *                                     component can be created for any of them
+     */
+    List<IComponent> registerComponents(List<? extends ComponentDefinition> definitions)
+            throws DivideInvalidInputException {
+        // resolve all context IRIs of all definitions & create all components
+        List<IComponent> createdComponents = new ArrayList<>();
+        for (ComponentDefinition definition : definitions) {
+            createdComponents.add(ComponentFactory.createInstance(
+                    definition.getIpAddress(),
+                    resolveContextIris(definition.getContextIris()),
+                    definition.getRspQueryLanguage(),
+                    definition.getRspEngineServerPort(),
+                    hotSwapQueriesOnContextChanges, divideEngine));
+        }
+
+        // keep track of all created components
+        List<IComponent> components = new ArrayList<>();
+        for (IComponent component : createdComponents) {
+            components.add(trackComponent(component, true));
+        }
+
+        LOGGER.info("Registered {} of {} components in bulk",
+                components.stream().filter(Objects::nonNull).count(), definitions.size());
+
+        return components;
+    }
+
+    /**
+     * Retrieves the ABoxes of all distinct context IRIs of the given components from
+     * the knowledge base, in parallel. Context IRIs shared by multiple components
+     * are therefore only retrieved once, instead of when the context of each
+     * individual component is assembled for the first time.
+     * If the ABox of a context IRI cannot be retrieved, this is only logged, since
+     * it will be retried when the context of a component is assembled.
+     */
+    void prefetchContexts(Collection<IComponent> components) {
+        Set<String> contextIris = new HashSet<>();
+        for (IComponent component : components) {
+            contextIris.addAll(component.getContextIris());
+        }
+
+        long start = System.currentTimeMillis();
+        contextIris.parallelStream().forEach(contextIri -> {
+            try {
+                contextAssembler.prefetchSnapshot(contextIri);
+            } catch (KnowledgeBaseOperationException e) {
+                LOGGER.warn("Could not prefetch ABox with IRI '{}' from the knowledge base " +
+                        "-> will be retried when assembling component context", contextIri, e);
+            }
+        });
+
+        LOGGER.debug(Constants.METRIC_MARKER, "CONTEXT_PREFETCH\t{}\t{}",
+                contextIris.size(), System.currentTimeMillis() - start);
+    }
+
+    private List<String> resolveContextIris(List<String> contextIris)
+            throws DivideInvalidInputException {
         List<String> resolvedContextIris = new ArrayList<>();
         try {
             IIriResolver iriResolver = knowledgeBase.getIriResolver();
@@ -96,33 +221,42 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
             throw new DivideInvalidInputException("Invalid context IRI(s) which cannot be " +
                     "resolved by the DIVIDE knowledge base", e);
         }
+        return resolvedContextIris;
+    }
 
-        // create component
-        IComponent component = ComponentFactory.createInstance(
-                ipAddress, resolvedContextIris, localRspQueryLanguage, localRspEngineServerPort, divideEngine);
-
-        // ensure component with that ID does not yet exist
-        if (registeredComponents.containsKey(component.getId())) {
-            LOGGER.warn("Trying to register component with already existing ID");
+    /**
+     * @return the given component if it is now registered, null if a component
+     *         with the same ID was already registered
+     */
+    private IComponent trackComponent(IComponent component, boolean bulk) {
+        // keep track of component by ID, while atomically ensuring that
+        // a component with that ID does not yet exist
+        if (registeredComponents.putIfAbsent(component.getId(), component) != null) {
+            LOGGER.warn("Trying to register component with already existing ID '{}'",
+                    component.getId());
             return null;
         }
 
-        LOGGER.info("Registering component with ID '{}'", component.getId());
-
-        // keep track of component by ID
-        registeredComponents.put(component.getId(), component);
+        // in bulk registrations, individual registrations are only logged at debug level
+        if (bulk) {
+            LOGGER.debug("Registering component with ID '{}'", component.getId());
+        } else {
+            LOGGER.info("Registering component with ID '{}'", component.getId());
+        }
 
         return component;
     }
 
     void addContextIriObserver(String contextIri, IComponent component) {
-        if (contextIriObservers.containsKey(contextIri)) {
-            contextIriObservers.get(contextIri).add(component);
-        } else {
-            List<IComponent> observers = new ArrayList<>();
+        // atomically add the observer (while holding the lock on this context
+        // IRI entry only) to avoid a race with the removal of the last observer
+        contextIriObservers.compute(contextIri, (iri, observers) -> {
+            if (observers == null) {
+                observers = new CopyOnWriteArraySet<>();
+            }
             observers.add(component);
-            contextIriObservers.put(contextIri, observers);
-        }
+            return observers;
+        });
     }
 
     /**
@@ -130,40 +264,47 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
      *         from the list of registered components, null if no component with
      *         given ID exists
      */
-    synchronized IComponent unregisterComponent(String componentId) {
+    IComponent unregisterComponent(String componentId) {
         IComponent component = registeredComponents.remove(componentId);
         if (component != null) {
             LOGGER.info("Unregistering component with ID '{}'", componentId);
 
-            // remove component as observer for its context IRIs
-            component.getContextIris().forEach(
-                    s -> contextIriObservers.get(s).remove(component));
+            // remove component as observer for its context IRIs, and discard the
+            // snapshot of context IRIs that are no longer observed by any component
+            for (String contextIri : component.getContextIris()) {
+                Set<IComponent> observers = contextIriObservers.computeIfPresent(
+                        contextIri, (iri, set) -> {
+                            set.remove(component);
+                            return set.isEmpty() ? null : set;
+                        });
+                if (observers == null) {
+                    contextAssembler.discardSnapshot(contextIri);
+                }
+            }
         }
 
         return component;
     }
 
-    synchronized Collection<IComponent> getRegisteredComponents() {
+    Collection<IComponent> getRegisteredComponents() {
         return registeredComponents.values();
     }
 
-    synchronized IComponent getRegisteredComponentById(String id) {
+    IComponent getRegisteredComponentById(String id) {
         return registeredComponents.get(id);
     }
 
+    /**
+     * @param id ID of the component
+     * @return read-only model representing the current context of the component
+     *         with the given ID, or null if no such component exists or if its
+     *         context cannot be retrieved from the knowledge base
+     */
     Model getContextAssociatedToComponent(String id) {
         IComponent component = registeredComponents.get(id);
         if (component != null) {
             try {
-                Model componentContext = ModelFactory.createDefaultModel();
-                for (String contextIri : component.getContextIris()) {
-                    // get ABox associated to each context IRI
-                    Model context = knowledgeBase.getABox(contextIri);
-
-                    // add retrieved context to full context of this component
-                    componentContext.add(context.listStatements());
-                }
-                return componentContext;
+                return contextAssembler.assembleContext(component);
 
             } catch (KnowledgeBaseOperationException e) {
                 // if an error occurs when retrieving the knowledge base context
@@ -183,67 +324,102 @@ class DivideComponentManager implements IKnowledgeBaseObserver<Model> {
     }
 
     @Override
-    public synchronized void notifyABoxUpdated(String iri, Model model) {
+    public void notifyABoxUpdated(String iri, Model model) {
         // check if queries need to be updated for components
         // (is the case for components observing this iri)
-        boolean updateQueries = contextIriObservers.containsKey(iri) &&
-                !contextIriObservers.get(iri).isEmpty();
+        Set<IComponent> observers = contextIriObservers.get(iri);
+        if (observers == null || observers.isEmpty()) {
+            // a snapshot might already exist for an IRI of a component that is being
+            // registered but not yet observing -> it is outdated now, so it should be
+            // retrieved again from the knowledge base when it is needed
+            contextAssembler.discardSnapshot(iri);
+            return;
+        }
 
-        if (updateQueries) {
-            LOGGER.info("Receiving knowledge base update for ABox with IRI '{}'", iri);
+        LOGGER.info("Receiving knowledge base update for ABox with IRI '{}'", iri);
+
+        // apply the change of the updated ABox to the single snapshot of this IRI,
+        // shared by all observing components (this is done before returning to the
+        // knowledge base, so that every context assembled after this update includes
+        // it, and while the updated ABox is guaranteed to be unmodified)
+        ContextDelta delta = contextAssembler.updateSnapshot(iri, model);
+        if (delta != null && delta.isEmpty()) {
+            LOGGER.info("Knowledge base update for ABox with IRI '{}' does not change " +
+                    "any triple -> no query derivation enqueued", iri);
+            return;
+        }
+        if (delta != null) {
+            LOGGER.info("Knowledge base update for ABox with IRI '{}' results in version {}: " +
+                            "{} triples added, {} triples removed", iri, delta.getVersion(),
+                    delta.getAddedTriples().size(), delta.getRemovedTriples().size());
+        }
+
+        // fan out the update to the observing components on the dedicated thread
+        contextUpdateExecutor.submit(() -> handleABoxUpdate(iri, delta));
+    }
+
+    private void handleABoxUpdate(String iri, ContextDelta delta) {
+        // retrieve the observers again, since they might have changed
+        // in between the notification and the handling of the update
+        Set<IComponent> observers = contextIriObservers.get(iri);
+        if (observers == null) {
+            return;
+        }
+
+        // determine which DIVIDE queries can be affected by the changed triples
+        // -> the change is the same for all observing components, so this only
+        //    needs to be done once
+        List<IDivideQuery> affectedDivideQueries =
+                divideEngine.getDivideQueriesAffectedByContextChange(delta);
+        if (affectedDivideQueries.isEmpty()) {
+            LOGGER.info("Knowledge base update for ABox with IRI '{}' does not affect " +
+                    "any registered DIVIDE query -> no query derivation enqueued", iri);
+            return;
+        }
 
-            // as soon as a context change is detected, the RSP engine should be paused
-            // until further notice (i.e., until the query registration finished at some
-            // point and restarts it again)
-            if (pauseRspEngineStreamsOnContextChanges) {
-                for (IComponent component : contextIriObservers.get(iri)) {
+        // handle every observing component
+        for (IComponent component : observers) {
+            try {
+                // compose context of component from the (shared) snapshots of
+                // all IRIs that are part of this component's context
+                Model componentContext = contextAssembler.assembleContext(component);
+
+                // as soon as the new context of the component is known, its RSP engine
+                // should be paused until further notice (i.e., until the query registration
+                // finished at some point and restarts it again)
+                // -> this is only done once the context is assembled, since no query
+                //    registration will restart the streams if assembling it fails
+                if (pauseRspEngineStreamsOnContextChanges) {
                     component.getRspEngineHandler().pauseRspEngineStreams();
                 }
-            }
 
-            // keep track of map with fetched contexts
-            Map<String, Model> contextSnapshots = new HashMap<>();
-
-            // handle every observing component
-            for (IComponent component : contextIriObservers.get(iri)) {
-                try {
-                    Model componentContext = ModelFactory.createDefaultModel();
-
-                    // retrieve context for every IRI that is part of this component's context
-                    for (String contextIri : component.getContextIris()) {
-                        Model context;
-                        if (iri.equals(contextIri)) {
-                            context = model;
-                        } else if (contextSnapshots.containsKey(contextIri)) {
-                            context = contextSnapshots.get(contextIri);
-                        } else {
-                            context = knowledgeBase.getABox(contextIri);
-                            contextSnapshots.put(contextIri, context);
-                        }
-
-                        // add retrieved context to full context of this component
-                        componentContext.add(context.listStatements());
-                    }
-
-                    // update queries for component using its full context
-                    divideEngine.enqueueGeneralDivideQueryDerivationTask(
-                            component, new Context(componentContext));
-
-                } catch (KnowledgeBaseOperationException e) {
-                    // if an error occurs when retrieving the knowledge base context
-                    // for a given component, no RSP query update is enqueued for this
-                    // component (because the context is incomplete)
-                    LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
-                            "Error occurred when retrieving current context of" +
-                            " component with ID {} -> queries are NOT updated",
-                            component.getId(), e);
-                }
+                // update queries of affected DIVIDE queries for component
+                // using its full context
+                divideEngine.enqueueContextChangeDivideQueryDerivationTasks(
+                        component, new Context(componentContext), affectedDivideQueries);
+
+            } catch (KnowledgeBaseOperationException e) {
+                // if an error occurs when retrieving the knowledge base context
+                // for a given component, no RSP query update is enqueued for this
+                // component (because the context is incomplete)
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "Error occurred when retrieving current context of" +
+                        " component with ID {} -> queries are NOT updated",
+                        component.getId(), e);
+
+            } catch (Exception e) {
+                // any other exception should not stop the fan-out to the other
+                // components, nor the handling of subsequent updates
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "Unexpected error when handling context update of" +
+                        " component with ID {} -> queries are NOT updated",
+                        component.getId(), e);
             }
         }
     }
 
     @Override
-    public synchronized void notifyTBoxUpdated(Model model) {
+    public void notifyTBoxUpdated(Model model) {
         Thread tBoxUpdateThread = new Thread(() -> {
             try {
                 LOGGER.info("TBox of DIVIDE knowledge base updated -> reloaded as DIVIDE ontology");
@@ -1,5 +1,6 @@
 package be.ugent.idlab.divide.core.engine;
 
+import be.ugent.idlab.divide.core.component.ComponentDefinition;
 import be.ugent.idlab.divide.core.component.IComponent;
 import be.ugent.idlab.divide.core.context.Context;
 import be.ugent.idlab.divide.core.context.ContextEnrichment;
@@ -21,6 +22,7 @@ import be.ugent.idlab.divide.monitor.metamodel.IDivideMetaModel;
 import be.ugent.idlab.divide.rsp.RspEngineHandlerException;
 import be.ugent.idlab.divide.rsp.RspQueryLanguage;
 import be.ugent.idlab.divide.util.Constants;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
 import be.ugent.idlab.kb.IKnowledgeBase;
 import be.ugent.idlab.kb.exception.KnowledgeBaseOperationException;
 import be.ugent.idlab.util.rdf.jena3.owlapi4.JenaOwlApiUtilities;
@@ -35,11 +37,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +62,11 @@ class DivideEngine implements IDivideEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DivideEngine.class.getName());
 
+    private static final String COMPONENT_QUEUE_DEPTH_METRIC =
+            "divide_component_query_update_queue_depth";
+    private static final String COMPONENT_WARM_UP_PENDING_METRIC =
+            "divide_component_warm_up_pending_components";
+
     /**
      * Worker thread pool of maximum 100 threads to parallelize
      * the query derivation process
@@ -73,6 +89,12 @@ class DivideEngine implements IDivideEngine {
      */
     private final Map<String, IDivideQuery> divideQueryMap;
 
+    /**
+     * Static relevance index of the registered DIVIDE queries, which is used
+     * to only derive the DIVIDE queries that can be affected by a context change
+     */
+    private final DivideQueryRelevanceIndex divideQueryRelevanceIndex;
+
     /**
      * Map linking a component ID to its queue where query update
      * requests can be put
@@ -85,6 +107,19 @@ class DivideEngine implements IDivideEngine {
      */
     private final Map<String, Thread> componentQueryUpdateThreadMap;
 
+    /**
+     * Scheduler releasing the first query derivations of components that are
+     * registered in bulk at a limited rate
+     */
+    private final ComponentWarmUpScheduler componentWarmUpScheduler;
+
+    /**
+     * IDs of the components of which the first query derivation is staged by the
+     * component warm-up scheduler, and for which no query derivation has been
+     * enqueued in the meantime
+     */
+    private final Set<String> stagedComponentIds;
+
     private DivideOntology divideOntology;
 
     private IDivideMonitor divideMonitor;
@@ -103,6 +138,13 @@ class DivideEngine implements IDivideEngine {
      */
     private boolean pauseRspEngineStreamsOnContextChanges;
 
+    /**
+     * Boolean representing whether RSP engine queries on a component should be
+     * hot-swapped when context changes trigger the DIVIDE query derivation for
+     * that component (instead of pausing the RSP engine streams)
+     */
+    private boolean hotSwapQueriesOnContextChanges;
+
     /**
      * Boolean representing whether variable matches in the input for the DIVIDE
      * query parser that are not defined as mappings, should be considered as
@@ -150,8 +192,9 @@ class DivideEngine implements IDivideEngine {
         this.divideQueryDeriver = null;
         this.divideComponentManager = null;
         this.divideQueryMap = new HashMap<>();
-        this.componentQueryUpdateQueueMap = new HashMap<>();
-        this.componentQueryUpdateThreadMap = new HashMap<>();
+        this.divideQueryRelevanceIndex = new DivideQueryRelevanceIndex();
+        this.componentQueryUpdateQueueMap = new ConcurrentHashMap<>();
+        this.componentQueryUpdateThreadMap = new ConcurrentHashMap<>();
         this.divideOntology = null;
 
         // initialize ID
@@ -169,6 +212,21 @@ class DivideEngine implements IDivideEngine {
         // outside this worker thread pool (it is only used for the query derivation for
         // a single DIVIDE query, submitted by the query update thread!)
         this.workerThreadPool.setKeepAliveTime(1, TimeUnit.HOURS);
+
+        // create scheduler staging the first query derivations of components
+        // registered in bulk
+        this.componentWarmUpScheduler = new ComponentWarmUpScheduler(
+                this::getComponentWarmUpBatchSize, this::releaseStagedInitialDivideQueryDerivation);
+        this.stagedComponentIds = ConcurrentHashMap.newKeySet();
+
+        // expose the saturation of the worker thread pool and the number of
+        // staged component warm-ups in the metrics registry
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        metricsRegistry.registerThreadPoolGauges("query_derivation_worker", workerThreadPool);
+        metricsRegistry.registerGauge(COMPONENT_WARM_UP_PENDING_METRIC,
+                "Number of registered components of which the first query derivation " +
+                        "is still staged by the component warm-up scheduler",
+                () -> componentWarmUpScheduler.getProgress().getPendingCount());
     }
 
     @Override
@@ -176,6 +234,7 @@ class DivideEngine implements IDivideEngine {
                            IKnowledgeBase<Model> knowledgeBase,
                            Model divideOntologyModel,
                            boolean pauseRspEngineStreamsOnContextChanges,
+                           boolean hotSwapQueriesOnContextChanges,
                            boolean processUnmappedVariableMatchesInParser,
                            boolean validateUnboundVariablesInRspQlQueryBodyInParser)
             throws DivideInvalidInputException, DivideInitializationException {
@@ -200,8 +259,17 @@ class DivideEngine implements IDivideEngine {
                     "Error when registering DIVIDE ontology as TBox in knowledge base", e);
         }
 
-        // save setting on pausing RSP engine streams
-        this.pauseRspEngineStreamsOnContextChanges = pauseRspEngineStreamsOnContextChanges;
+        // save settings on pausing RSP engine streams & hot-swapping queries
+        // -> when queries are hot-swapped, the old query versions keep on processing
+        //    the stream data until the new versions are live, so there is no reason
+        //    to pause the RSP engine streams anymore (this would only drop data)
+        if (hotSwapQueriesOnContextChanges && pauseRspEngineStreamsOnContextChanges) {
+            LOGGER.warn("Hot-swapping of RSP engine queries on context changes is enabled, " +
+                    "so RSP engine streams will NOT be paused on context changes");
+        }
+        this.hotSwapQueriesOnContextChanges = hotSwapQueriesOnContextChanges;
+        this.pauseRspEngineStreamsOnContextChanges =
+                pauseRspEngineStreamsOnContextChanges && !hotSwapQueriesOnContextChanges;
 
         // save parser settings
         this.processUnmappedVariableMatchesInParser = processUnmappedVariableMatchesInParser;
@@ -210,7 +278,8 @@ class DivideEngine implements IDivideEngine {
 
         // create DIVIDE component manager
         this.divideComponentManager = new DivideComponentManager(
-                this, knowledgeBase, pauseRspEngineStreamsOnContextChanges);
+                this, knowledgeBase, this.pauseRspEngineStreamsOnContextChanges,
+                this.hotSwapQueriesOnContextChanges);
 
         // register successful initialization
         this.initialized = true;
@@ -282,6 +351,9 @@ class DivideEngine implements IDivideEngine {
     public void shutdown() throws DivideNotInitializedException {
         LOGGER.info("Shutting down DIVIDE engine");
 
+        // stop releasing the staged first query derivations of components
+        componentWarmUpScheduler.shutdown();
+
         // remove all components & queries
         // (also includes stopping the monitor for every component if it is active)
         LOGGER.info("Shutdown: removing all components & unregistering all DIVIDE-originating queries from it");
@@ -372,6 +444,10 @@ class DivideEngine implements IDivideEngine {
         // save ontology model and rules to engine
         this.divideOntology = new DivideOntology(divideOntologyModel, divideOntologyRules);
 
+        // recalculate the dependencies of the DIVIDE queries, since these
+        // depend on what can be derived with the rules of the ontology
+        divideQueryRelevanceIndex.updateOntology(this.divideOntology);
+
         // update context enrichers for all components registered to engine
         if (divideComponentManager != null) {
             for (IComponent component : divideComponentManager.getRegisteredComponents()) {
@@ -390,84 +466,165 @@ class DivideEngine implements IDivideEngine {
                                        String goal,
                                        ContextEnrichment contextEnrichment) throws
             DivideNotInitializedException, DivideQueryDeriverException, DivideInvalidInputException {
-        LOGGER.info("Adding DIVIDE query with name '{}'...", name);
+        List<IDivideQuery> addedDivideQueries = addDivideQueries(Collections.singletonList(
+                DivideQueryFactory.createInstance(
+                        name, queryPattern, sensorQueryRule, goal, contextEnrichment)));
+        return addedDivideQueries.isEmpty() ? null : addedDivideQueries.get(0);
+    }
+
+    @Override
+    public List<IDivideQuery> addDivideQueries(List<IDivideQuery> divideQueries) throws
+            DivideNotInitializedException, DivideQueryDeriverException, DivideInvalidInputException {
+        LOGGER.info("Adding {} DIVIDE queries with names {}...", divideQueries.size(),
+                divideQueries.stream().map(IDivideQuery::getName).collect(Collectors.toList()));
 
         if (!initialized) {
             throw new DivideNotInitializedException();
         }
 
-        // ensure DIVIDE query with that name does not yet exist
-        if (divideQueryMap.containsKey(name)) {
-            LOGGER.warn("Trying to add DIVIDE query with already existing name '{}'", name);
-            return null;
+        // ensure DIVIDE queries with those names do not yet exist, and that the
+        // given list does not contain multiple DIVIDE queries with the same name
+        Map<String, IDivideQuery> newDivideQueryMap = new LinkedHashMap<>();
+        for (IDivideQuery divideQuery : divideQueries) {
+            if (divideQueryMap.containsKey(divideQuery.getName()) ||
+                    newDivideQueryMap.containsKey(divideQuery.getName())) {
+                LOGGER.warn("Trying to add DIVIDE query with already existing name '{}'",
+                        divideQuery.getName());
+            } else {
+                newDivideQueryMap.put(divideQuery.getName(), divideQuery);
+            }
+        }
+        if (newDivideQueryMap.isEmpty()) {
+            return new ArrayList<>();
         }
-
-        // preprocess sensor query rule to avoid issues with overlapping variables
-        sensorQueryRule = preprocessSensorQueryRule(sensorQueryRule);
-
-        // create DIVIDE query
-        IDivideQuery divideQuery = DivideQueryFactory.createInstance(
-                name, queryPattern, sensorQueryRule, goal, contextEnrichment);
 
         try {
-            // validate the defined context enrichment of the new DIVIDE query
-            validateContextEnrichment(divideQuery.getContextEnrichment());
+            // preprocess the sensor query rules, create the actual DIVIDE queries
+            // and validate their context enrichment, in parallel for all DIVIDE queries
+            List<IDivideQuery> newDivideQueries =
+                    prepareDivideQueries(new ArrayList<>(newDivideQueryMap.values()));
+
+            // register DIVIDE queries at query deriver
+            // -> this is done for all DIVIDE queries at once, so that the query deriver
+            //    can validate and convert them in bulk
+            divideQueryDeriver.registerQueries(newDivideQueries, getQueryParser());
+
+            for (IDivideQuery divideQuery : newDivideQueries) {
+                // keep track of DIVIDE query in map
+                synchronized (divideQueryMap) {
+                    divideQueryMap.put(divideQuery.getName(), divideQuery);
+                }
 
-            // register DIVIDE query at query deriver
-            divideQueryDeriver.registerQuery(divideQuery, getQueryParser());
+                // determine on which context changes this DIVIDE query depends
+                divideQueryRelevanceIndex.addDivideQuery(divideQuery);
 
-            // keep track of DIVIDE query in map
-            synchronized (divideQueryMap) {
-                divideQueryMap.put(name, divideQuery);
+                // add DIVIDE query to DIVIDE meta model
+                this.divideMetaModel.addDivideQuery(divideQuery);
             }
 
-            // add DIVIDE query to DIVIDE meta model
-            this.divideMetaModel.addDivideQuery(divideQuery);
-
-            // start query derivation for this DIVIDE query only,
+            // start query derivation for the new DIVIDE queries only,
             // for each component registered to the engine
+            // -> a single derivation task is enqueued per component for all new
+            //    DIVIDE queries, instead of one task per new DIVIDE query
             for (IComponent component : divideComponentManager.getRegisteredComponents()) {
-                // to do so, first a context enricher should be created for this new query
-                // -> enqueue task to register new context enricher
-                enqueueContextEnricherUpdaterTask(component, divideQuery);
+                // to do so, first a context enricher should be created for the new queries
+                // -> enqueue tasks to register new context enrichers
+                for (IDivideQuery divideQuery : newDivideQueries) {
+                    enqueueContextEnricherUpdaterTask(component, divideQuery);
+                }
 
                 // retrieve current context associated to component
                 Model componentContext = divideComponentManager.
                         getContextAssociatedToComponent(component.getId());
 
-                // enqueue query derivation for new DIVIDE query if context of component
+                // enqueue query derivation for new DIVIDE queries if context of component
                 // exists and is non-empty
                 if (componentContext == null) {
                     LOGGER.info("No context available yet for component '{}' " +
-                            "=> no query derivation for new DIVIDE query '{}' enqueued",
-                            component.getId(), divideQuery.getName());
+                            "=> no query derivation for new DIVIDE queries enqueued",
+                            component.getId());
                 } else if (componentContext.isEmpty()) {
                     LOGGER.info("Available context for component '{}' is empty " +
-                            "=> no query derivation for new DIVIDE query '{}' enqueued",
-                            component.getId(), divideQuery.getName());
+                            "=> no query derivation for new DIVIDE queries enqueued",
+                            component.getId());
                 } else {
                     LOGGER.info("Context for component '{}' is available and non-empty " +
-                            "=> query derivation for new DIVIDE query '{}' enqueued",
-                            component.getId(), divideQuery.getName());
+                            "=> query derivation for new DIVIDE queries enqueued",
+                            component.getId());
                     enqueueSpecificDivideQueryDerivationTask(
-                            component, new Context(componentContext), divideQuery);
+                            component, new Context(componentContext), newDivideQueries);
                 }
             }
 
-            return divideQuery;
+            return newDivideQueries;
 
         } catch (DivideInvalidInputException e) {
-            LOGGER.warn("Something went wrong when registering the new DIVIDE query to " +
+            LOGGER.warn("Something went wrong when registering the new DIVIDE queries " +
                     "because the given input is invalid", e);
             throw e;
 
         } catch (DivideQueryDeriverException e) {
-            LOGGER.warn("Something went wrong when registering the new DIVIDE query to " +
-                    "the query deriver - DIVIDE query is therefore NOT registered", e);
+            LOGGER.warn("Something went wrong when registering the new DIVIDE queries to " +
+                    "the query deriver - DIVIDE queries are therefore NOT registered", e);
             throw e;
         }
     }
 
+    /**
+     * Creates the DIVIDE queries that will actually be registered to this engine
+     * from the given DIVIDE queries: their sensor query rule is preprocessed, and
+     * their context enrichment is validated. Since the DIVIDE queries are independent
+     * of each other, this is done in parallel on the worker thread pool.
+     *
+     * @return list of DIVIDE queries to register, in the same order as the given list
+     * @throws DivideInvalidInputException if the input of any of the DIVIDE queries
+     *                                     is invalid
+     * @throws DivideQueryDeriverException if the preparation is interrupted
+     */
+    private List<IDivideQuery> prepareDivideQueries(List<IDivideQuery> divideQueries)
+            throws DivideInvalidInputException, DivideQueryDeriverException {
+        List<Callable<IDivideQuery>> preparations = new ArrayList<>();
+        for (IDivideQuery divideQuery : divideQueries) {
+            preparations.add(() -> {
+                // preprocess sensor query rule to avoid issues with overlapping variables
+                String sensorQueryRule = preprocessSensorQueryRule(
+                        divideQuery.getSensorQueryRule());
+
+                // create DIVIDE query
+                IDivideQuery preparedDivideQuery = DivideQueryFactory.createInstance(
+                        divideQuery.getName(), divideQuery.getQueryPattern(),
+                        sensorQueryRule, divideQuery.getGoal(),
+                        divideQuery.getContextEnrichment());
+
+                // validate the defined context enrichment of the new DIVIDE query
+                validateContextEnrichment(preparedDivideQuery.getContextEnrichment());
+
+                return preparedDivideQuery;
+            });
+        }
+
+        try {
+            List<IDivideQuery> preparedDivideQueries = new ArrayList<>();
+            for (Future<IDivideQuery> preparation : workerThreadPool.invokeAll(preparations)) {
+                preparedDivideQueries.add(preparation.get());
+            }
+            return preparedDivideQueries;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DivideInvalidInputException) {
+                throw (DivideInvalidInputException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DivideQueryDeriverException(
+                    "Interrupted while preparing the new DIVIDE queries", e);
+        }
+    }
+
     private void validateContextEnrichment(ContextEnrichment contextEnrichment)
             throws DivideInvalidInputException {
         // validate every individual query
@@ -494,6 +651,9 @@ class DivideEngine implements IDivideEngine {
             divideQuery = divideQueryMap.remove(name);
         }
         if (divideQuery != null) {
+            // remove DIVIDE query from relevance index
+            divideQueryRelevanceIndex.removeDivideQuery(name);
+
             // remove DIVIDE query from DIVIDE meta model
             this.divideMetaModel.removeDivideQuery(divideQuery);
 
@@ -546,7 +706,75 @@ class DivideEngine implements IDivideEngine {
         IComponent component = divideComponentManager.registerComponent(
                 ipAddress, contextIris, localRspEngineQueryLanguage, localRspEngineServerPort);
 
-        // if component is created, try to configure the central RSP engine if existing
+        // if component is not null, prepare the engine for handling query update
+        // requests and immediately enqueue the first query derivation
+        if (component != null) {
+            initializeRegisteredComponent(component, false);
+        }
+
+        return component;
+    }
+
+    @Override
+    public List<IComponent> registerComponents(List<? extends ComponentDefinition> definitions)
+            throws DivideNotInitializedException, DivideInvalidInputException {
+        LOGGER.info("Adding {} new DIVIDE components in bulk...", definitions.size());
+
+        if (!initialized) {
+            throw new DivideNotInitializedException();
+        }
+
+        long start = System.currentTimeMillis();
+
+        // register all new components at component manager
+        // (if any definition is invalid, none of the components is registered)
+        List<IComponent> components = divideComponentManager.registerComponents(definitions);
+        List<IComponent> newComponents = components.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // retrieve the ABoxes of all (shared) context IRIs of the new components
+        // once and in parallel, before their contexts are assembled
+        divideComponentManager.prefetchContexts(newComponents);
+
+        // prepare the engine for handling query update requests of the new components
+        // -> their first query derivation is only staged, since starting the derivations
+        //    of all new components at once would let them compete for the same worker
+        //    threads and query deriver
+        for (IComponent component : newComponents) {
+            initializeRegisteredComponent(component, true);
+        }
+        componentWarmUpScheduler.schedule(newComponents);
+
+        LOGGER.debug(Constants.METRIC_MARKER, "BULK_COMPONENT_REGISTRATION\t{}\t{}\t{}",
+                definitions.size(), newComponents.size(), System.currentTimeMillis() - start);
+
+        return components;
+    }
+
+    @Override
+    public ComponentWarmUpProgress getComponentWarmUpProgress()
+            throws DivideNotInitializedException {
+        if (!initialized) {
+            throw new DivideNotInitializedException();
+        }
+
+        return componentWarmUpScheduler.getProgress();
+    }
+
+    /**
+     * Prepares this engine for handling query update requests of the given component,
+     * which has just been registered at the component manager.
+     *
+     * @param component newly registered component
+     * @param stageInitialDerivation if true, the first query derivation for this
+     *                               component is not enqueued, since it will be
+     *                               released by the component warm-up scheduler
+     */
+    private void initializeRegisteredComponent(IComponent component,
+                                               boolean stageInitialDerivation)
+            throws DivideInvalidInputException {
+        // try to configure the central RSP engine if existing
         synchronized (this.centralRspEngineGuard) {
             if (this.centralRspEngineUrl != null) {
                 component.getRspEngineHandler().configureCentralRspEngine(
@@ -556,60 +784,116 @@ class DivideEngine implements IDivideEngine {
             }
         }
 
-        // if component is not zero, prepare the engine for handling query update requests
-        if (component != null) {
-            // add DIVIDE component to DIVIDE meta model
-            this.divideMetaModel.addComponent(component);
-
-            // create a queue for this component where query updates requests can be put
-            final LinkedBlockingQueue<IDivideQueryUpdateTask> queryUpdateQueue =
-                    new LinkedBlockingQueue<>();
-            componentQueryUpdateQueueMap.put(component.getId(), queryUpdateQueue);
-
-            // create and start a thread for this component that continuously processes
-            // the query update queue
-            LOGGER.info("Starting new query update thread for component '{}'", component.getId());
-            Thread queryUpdateThread = new Thread(() ->
-                    processRspQueryUpdateQueue(component, queryUpdateQueue));
-            queryUpdateThread.start();
-            componentQueryUpdateThreadMap.put(component.getId(), queryUpdateThread);
-
-            // enqueue a task to register a new context enricher associated to this component
-            // -> this will be done in parallel for the different existing DIVIDE queries
-            enqueueContextEnricherUpdaterTask(component);
-
-            // check if context is available for component, and if so, enqueue first
-            // query derivation before registering observers
-            Model componentContext = divideComponentManager.
-                    getContextAssociatedToComponent(component.getId());
-            if (componentContext == null) {
-                LOGGER.info("No context available yet for component '{}' " +
-                        "=> no query derivation enqueued yet", component.getId());
-            } else if (componentContext.isEmpty()) {
-                LOGGER.info("Available context for component '{}' is empty " +
-                        "=> no query derivation enqueued yet", component.getId());
-            } else {
-                LOGGER.info("Context for component '{}' is available and non-empty " +
-                        "=> first query derivation enqueued", component.getId());
-                enqueueGeneralDivideQueryDerivationTask(component, new Context(componentContext));
-            }
-
-            // register component as observer for all its context IRIs
-            component.getContextIris().forEach(
-                    s -> divideComponentManager.addContextIriObserver(s, component));
+        // add DIVIDE component to DIVIDE meta model
+        this.divideMetaModel.addComponent(component);
+
+        // create a queue for this component where query updates requests can be put
+        final LinkedBlockingQueue<IDivideQueryUpdateTask> queryUpdateQueue =
+                new LinkedBlockingQueue<>();
+        componentQueryUpdateQueueMap.put(component.getId(), queryUpdateQueue);
+        MetricsRegistry.getInstance().registerGauge(COMPONENT_QUEUE_DEPTH_METRIC,
+                "Number of query update tasks waiting in the queue of a component",
+                queryUpdateQueue::size, "component", component.getId());
+
+        // create and start a thread for this component that continuously processes
+        // the query update queue
+        LOGGER.info("Starting new query update thread for component '{}'", component.getId());
+        Thread queryUpdateThread = new Thread(() ->
+                processRspQueryUpdateQueue(component, queryUpdateQueue));
+        queryUpdateThread.start();
+        componentQueryUpdateThreadMap.put(component.getId(), queryUpdateThread);
+
+        // enqueue a task to register a new context enricher associated to this component
+        // -> this will be done in parallel for the different existing DIVIDE queries
+        enqueueContextEnricherUpdaterTask(component);
+
+        // check if context is available for component, and if so, enqueue first
+        // query derivation before registering observers
+        // (unless this is staged, in which case a context change observed before the
+        //  first derivation is released will just trigger this derivation earlier)
+        if (stageInitialDerivation) {
+            stagedComponentIds.add(component.getId());
+        } else {
+            enqueueInitialDivideQueryDerivation(component);
         }
 
-        // if component is not null & monitor is active,
-        // create & start a local monitor on that component
-        if (component != null && divideMonitor != null) {
+        // register component as observer for all its context IRIs
+        component.getContextIris().forEach(
+                s -> divideComponentManager.addContextIriObserver(s, component));
+
+        // if monitor is active, create & start a local monitor on that component
+        if (divideMonitor != null) {
             try {
                 divideMonitor.addComponent(component);
             } catch (MonitorException e) {
                 LOGGER.error("Could not add component with ID {} to DIVIDE Monitor", component.getId());
             }
         }
+    }
 
-        return component;
+    /**
+     * Enqueues the first query derivation for the given component, if a non-empty
+     * context is available for it.
+     *
+     * @return true if the first query derivation is enqueued, false if the component
+     *         is no longer registered or no non-empty context is available for it
+     */
+    private boolean enqueueInitialDivideQueryDerivation(IComponent component) {
+        // a staged component might have been unregistered in the meantime
+        if (!componentQueryUpdateQueueMap.containsKey(component.getId())) {
+            LOGGER.info("Component '{}' is no longer registered " +
+                    "=> no query derivation enqueued", component.getId());
+            return false;
+        }
+
+        Model componentContext = divideComponentManager.
+                getContextAssociatedToComponent(component.getId());
+        if (componentContext == null) {
+            LOGGER.info("No context available yet for component '{}' " +
+                    "=> no query derivation enqueued yet", component.getId());
+            return false;
+        } else if (componentContext.isEmpty()) {
+            LOGGER.info("Available context for component '{}' is empty " +
+                    "=> no query derivation enqueued yet", component.getId());
+            return false;
+        } else {
+            LOGGER.info("Context for component '{}' is available and non-empty " +
+                    "=> first query derivation enqueued", component.getId());
+            enqueueGeneralDivideQueryDerivationTask(component, new Context(componentContext));
+            return true;
+        }
+    }
+
+    /**
+     * Enqueues the staged first query derivation for the given component, when it
+     * is released by the component warm-up scheduler.
+     *
+     * @return true if the first query derivation is enqueued, false if a query
+     *         derivation has already been enqueued for the component since it was
+     *         staged, or if the first query derivation could not be enqueued
+     */
+    private boolean releaseStagedInitialDivideQueryDerivation(IComponent component) {
+        // a context change observed for a staged component enqueues a derivation
+        // of all DIVIDE queries that replaces the staged one, so that the same
+        // derivation is not done twice
+        if (!stagedComponentIds.remove(component.getId())) {
+            LOGGER.info("Query derivation already enqueued for component '{}' " +
+                    "=> staged first query derivation skipped", component.getId());
+            return false;
+        }
+        return enqueueInitialDivideQueryDerivation(component);
+    }
+
+    /**
+     * @return number of components of which the first query derivation can be
+     *         released by the component warm-up scheduler at this moment, based on
+     *         the number of worker threads that are not yet occupied (each
+     *         derivation for a component occupies a worker thread per DIVIDE query)
+     */
+    private int getComponentWarmUpBatchSize() {
+        int freeWorkerThreads = workerThreadPool.getMaximumPoolSize()
+                - workerThreadPool.getActiveCount() - workerThreadPool.getQueue().size();
+        return Math.max(1, freeWorkerThreads / Math.max(1, divideQueryMap.size()));
     }
 
     @Override
@@ -631,6 +915,8 @@ class DivideEngine implements IDivideEngine {
 
             // no longer keep track of query update queue
             componentQueryUpdateQueueMap.remove(id);
+            stagedComponentIds.remove(id);
+            MetricsRegistry.getInstance().unregister(COMPONENT_QUEUE_DEPTH_METRIC, "component", id);
 
             // interrupt the query update thread but still keep track of it so that
             // it can be observed that this thread was interrupted
@@ -846,6 +1132,9 @@ class DivideEngine implements IDivideEngine {
                             "with ID '{}' and context ID '{}'",
                     component.getId(), context.getId());
 
+            // this task replaces a staged first query derivation of the component
+            stagedComponentIds.remove(component.getId());
+
             // retrieve component's query update request queue
             LinkedBlockingQueue<IDivideQueryUpdateTask> queue =
                     componentQueryUpdateQueueMap.get(component.getId());
@@ -866,7 +1155,22 @@ class DivideEngine implements IDivideEngine {
             //    query: since the new query derivation task will involve the query
             //    derivation for all registered DIVIDE queries, it will automatically
             //    also include the derivation of this new DIVIDE query
-            queue.clear();
+            // -> for a task to derive the DIVIDE queries affected by an earlier
+            //    context change: same reasoning, but the RSP engine streams paused
+            //    for that context change should still be restarted (which will not
+            //    actually restart them as long as newer pause requests are pending)
+            List<IDivideQueryUpdateTask> removedTasks = new ArrayList<>();
+            queue.drainTo(removedTasks);
+            int rspEngineStreamRestarts = 0;
+            for (IDivideQueryUpdateTask task : removedTasks) {
+                if (task instanceof SpecificDivideQueryDerivationTask) {
+                    rspEngineStreamRestarts +=
+                            ((SpecificDivideQueryDerivationTask) task).rspEngineStreamRestarts;
+                }
+            }
+            for (int i = 0; i < rspEngineStreamRestarts; i++) {
+                component.getRspEngineHandler().restartRspEngineStreams();
+            }
 
             // enqueue query update request with newest context in the component's queue
             queue.put(new GeneralDivideQueryDerivationTask(component, context));
@@ -888,25 +1192,29 @@ class DivideEngine implements IDivideEngine {
 
     /**
      * Adds a task to this component's queue to update the RSP queries associated
-     * to the given {@link IDivideQuery} for this {@link IComponent}, with the
+     * to the given DIVIDE queries for this {@link IComponent}, with the
      * specified context as input for the query derivation.
-     * This method will be called upon the registration of a new DIVIDE query.
+     * This method will be called upon the registration of new DIVIDE queries:
+     * a single task is enqueued for all DIVIDE queries registered together, which
+     * derives the queries of the different DIVIDE queries in parallel.
      *
      * @param component {@link IComponent} for which the RSP queries should be updated
      * @param context context model to use as input for the query derivation, i.e.,
      *                the relevant context of the context IRIs associated to the given
      *                {@link IComponent} instance
-     * @param divideQuery DIVIDE query for which the query derivation task should
-     *                    be enqueued
+     * @param divideQueries DIVIDE queries for which the query derivation task should
+     *                      be enqueued
      */
     void enqueueSpecificDivideQueryDerivationTask(IComponent component,
                                                   Context context,
-                                                  IDivideQuery divideQuery) {
+                                                  List<IDivideQuery> divideQueries) {
+        List<String> divideQueryNames = divideQueries.stream()
+                .map(IDivideQuery::getName).collect(Collectors.toList());
         try {
             LOGGER.info("Enqueueing specific DIVIDE query derivation task for DIVIDE " +
-                            "query '{}' for component " +
+                            "queries {} for component " +
                             "with ID '{}' and context ID '{}'",
-                    divideQuery.getName(), component.getId(), context.getId());
+                    divideQueryNames, component.getId(), context.getId());
 
             // retrieve component's query update request queue
             LinkedBlockingQueue<IDivideQueryUpdateTask> queue =
@@ -914,24 +1222,116 @@ class DivideEngine implements IDivideEngine {
 
             // enqueue query update request with newest context in the component's queue
             queue.put(new SpecificDivideQueryDerivationTask(
-                    component, context, divideQuery));
+                    component, context, divideQueries));
 
             // restart query update thread if needed
             restartQueryUpdateThreadIfNeeded(component, queue);
 
         } catch (InterruptedException ignored) {
             LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
-                    "Enqueueing specific DIVIDE query derivation task for DIVIDE query '{}'," +
+                    "Enqueueing specific DIVIDE query derivation task for DIVIDE queries {}," +
                             "component with ID '{}' and context ID '{}' resulted " +
                             "in unexpected InterruptedException",
-                    divideQuery.getName(), component.getId(), context.getId());
+                    divideQueryNames, component.getId(), context.getId());
 
             // retry if interrupted while waiting (but the queue is not bounded
             // so normally the queue put operation should not block)
-            enqueueSpecificDivideQueryDerivationTask(component, context, divideQuery);
+            enqueueSpecificDivideQueryDerivationTask(component, context, divideQueries);
         }
     }
 
+    /**
+     * Determines which registered DIVIDE queries can be affected by the given change
+     * of an ABox, based on the static relevance index of the DIVIDE queries.
+     *
+     * @param delta change of the ABox, or null if the change is unknown
+     * @return list of registered DIVIDE queries that are affected by the change
+     *         (all registered DIVIDE queries if the change is unknown)
+     */
+    List<IDivideQuery> getDivideQueriesAffectedByContextChange(ContextDelta delta) {
+        Collection<IDivideQuery> divideQueries;
+        synchronized (divideQueryMap) {
+            divideQueries = new ArrayList<>(divideQueryMap.values());
+        }
+        return divideQueryRelevanceIndex.getAffectedDivideQueries(divideQueries, delta);
+    }
+
+    /**
+     * Adds the tasks to this component's queue to update the RSP queries associated
+     * to the given DIVIDE queries that are affected by a context change of this
+     * {@link IComponent}, with the specified context as input for the query derivation.
+     * This method will be called by the {@link DivideComponentManager} when knowledge
+     * base changes to the context relevant for the given component are observed.
+     *
+     * If all registered DIVIDE queries are affected, a general DIVIDE query derivation
+     * task is enqueued. Otherwise, a specific DIVIDE query derivation task is enqueued
+     * for every affected DIVIDE query; pending specific tasks for the same DIVIDE
+     * queries that were enqueued for an earlier context change are removed from the
+     * queue, since their derivation would be based on an outdated context.
+     *
+     * @param component {@link IComponent} for which the RSP queries should be updated
+     * @param context context model to use as input for the query derivation, i.e.,
+     *                the relevant context of the context IRIs associated to the given
+     *                {@link IComponent} instance
+     * @param affectedDivideQueries DIVIDE queries that are affected by the context change
+     */
+    void enqueueContextChangeDivideQueryDerivationTasks(IComponent component,
+                                                        Context context,
+                                                        List<IDivideQuery> affectedDivideQueries) {
+        boolean allDivideQueriesAffected;
+        synchronized (divideQueryMap) {
+            allDivideQueriesAffected = affectedDivideQueries.containsAll(divideQueryMap.values());
+        }
+
+        // if the first query derivation of the component is still staged, all DIVIDE
+        // queries should be derived instead of only the affected ones
+        // -> this general derivation replaces the staged one, which is skipped
+        //    when released by the component warm-up scheduler
+        if (allDivideQueriesAffected || stagedComponentIds.remove(component.getId())) {
+            enqueueGeneralDivideQueryDerivationTask(component, context);
+            return;
+        }
+
+        LOGGER.info("Enqueueing specific DIVIDE query derivation tasks for the DIVIDE " +
+                        "queries {} affected by context change of component with ID '{}' " +
+                        "and context ID '{}'",
+                affectedDivideQueries.stream().map(IDivideQuery::getName)
+                        .collect(Collectors.toList()),
+                component.getId(), context.getId());
+
+        // retrieve component's query update request queue
+        LinkedBlockingQueue<IDivideQueryUpdateTask> queue =
+                componentQueryUpdateQueueMap.get(component.getId());
+
+        // remove superseded specific tasks for the affected DIVIDE queries
+        // -> the RSP engine streams were paused once for every context change,
+        //    so the restarts of removed tasks should be taken over
+        int rspEngineStreamRestarts = pauseRspEngineStreamsOnContextChanges ? 1 : 0;
+        for (IDivideQueryUpdateTask task : queue) {
+            if (task instanceof SpecificDivideQueryDerivationTask) {
+                SpecificDivideQueryDerivationTask specificTask =
+                        (SpecificDivideQueryDerivationTask) task;
+                if (specificTask.contextChange &&
+                        affectedDivideQueries.containsAll(specificTask.divideQueries) &&
+                        queue.remove(specificTask)) {
+                    rspEngineStreamRestarts += specificTask.rspEngineStreamRestarts;
+                }
+            }
+        }
+
+        // enqueue a specific task per affected DIVIDE query, of which the
+        // last one restarts the RSP engine streams if they have been paused
+        for (int i = 0; i < affectedDivideQueries.size(); i++) {
+            boolean last = i == affectedDivideQueries.size() - 1;
+            queue.add(new SpecificDivideQueryDerivationTask(
+                    component, context, affectedDivideQueries.get(i),
+                    true, last ? rspEngineStreamRestarts : 0));
+        }
+
+        // restart query update thread if needed
+        restartQueryUpdateThreadIfNeeded(component, queue);
+    }
+
     /**
      * Adds a task to this component's queue to unregister the RSP queries for
      * this {@link IComponent} that are currently registered via the DIVIDE query
@@ -1199,7 +1599,7 @@ class DivideEngine implements IDivideEngine {
             // retrieve list of queries
             Collection<IDivideQuery> divideQueries;
             synchronized (divideQueryMap) {
-                divideQueries = divideQueryMap.values();
+                divideQueries = new ArrayList<>(divideQueryMap.values());
             }
 
             // stop if list of queries is empty
@@ -1212,37 +1612,43 @@ class DivideEngine implements IDivideEngine {
 
             // run the query derivation scripts in parallel for every DIVIDE query,
             // each on a dedicated thread in the worker thread pool
-            CountDownLatch latch = new CountDownLatch(divideQueries.size());
+            // -> the derivation threads are submitted via a completion service, so that
+            //    the registration of the queries originating from each DIVIDE query can
+            //    be updated as soon as the derivation for that DIVIDE query has finished,
+            //    instead of waiting for the slowest DIVIDE query to finish
+            long start = System.currentTimeMillis();
+            CompletionService<IDivideQuery> completionService =
+                    new ExecutorCompletionService<>(workerThreadPool);
+            Map<Future<IDivideQuery>, IDivideQuery> pendingDerivations = new HashMap<>();
             DivideOntology ontology = getDivideOntology();
             for (IDivideQuery divideQuery : divideQueries) {
-                workerThreadPool.submit(new SingleQueryDeriver(
-                        divideQuery, context, component,
-                        divideQueryDeriver, ontology, latch));
+                pendingDerivations.put(
+                        completionService.submit(new SingleQueryDeriver(
+                                divideQuery, context, component,
+                                divideQueryDeriver, ontology), divideQuery),
+                        divideQuery);
             }
 
             // keep track of whether the thread gets interrupted while waiting for
             // the other threads to finish
             boolean interruptedWhileWaiting = false;
 
-            // wait until the query derivation threads have all finished
-            boolean queryDerivationThreadsFinished = false;
-            while (!queryDerivationThreadsFinished) {
+            // handle the query derivation threads one by one as they finish, until
+            // they have all finished
+            while (!pendingDerivations.isEmpty()) {
+                Future<IDivideQuery> finishedDerivation;
                 try {
                     LOGGER.info("DIVIDE query derivation for component with ID '{}' and context '{}': " +
-                                    "waiting for other threads to finish the individual query derivations" +
-                                    " for the different DIVIDE queries",
-                            component.getId(), context.getId());
+                                    "waiting for {} other threads to finish the individual query " +
+                                    "derivations for the different DIVIDE queries",
+                            component.getId(), context.getId(), pendingDerivations.size());
 
-                    // wait for the latch to be decremented by the query derivation threads
-                    latch.await();
-
-                    // if the previous call returns, this means that all threads have
-                    // finished (since they all count down the latch when finished)
-                    queryDerivationThreadsFinished = true;
+                    // wait for the next query derivation thread to finish
+                    finishedDerivation = completionService.take();
 
                 } catch (InterruptedException e) {
                     // interrupts of this thread should be ignored, since it is really
-                    // required to await the latch being count down to zero
+                    // required to await all query derivation threads to finish
                     // (and only handle interrupt requests at the end of this method)
                     LOGGER.info("DIVIDE query derivation for component with ID '{}' and context '{}': " +
                                     "query update thread interrupted while waiting for other threads",
@@ -1251,57 +1657,86 @@ class DivideEngine implements IDivideEngine {
                     // it is however important to remember that this interruption happened
                     // while waiting
                     interruptedWhileWaiting = true;
+                    continue;
                 }
+
+                IDivideQuery divideQuery = pendingDerivations.remove(finishedDerivation);
+                updateRegistrationOfDivideQuery(divideQuery, interruptedWhileWaiting, start);
             }
 
+            QueryDerivationMetrics.getInstance().record(
+                    QueryDerivationMetrics.Stage.GENERAL_DERIVATION_TASK,
+                    System.currentTimeMillis() - start);
+            QueryDerivationMetrics.getInstance().logSummary(LOGGER);
+
+            // in any case, it is still important to try restarting the engine
+            // (if being interrupted explicitly because the component is being
+            //  removed, then all updates will be stopped explicitly anyway)
+            // -> and if no restart is allowed because of new pause requests
+            if (pauseRspEngineStreamsOnContextChanges) {
+                component.getRspEngineHandler().restartRspEngineStreams();
+            }
+
+            LOGGER.info("Finished DIVIDE query derivation for component with ID '{}' and context '{}'",
+                    component.getId(), context.getId());
+
+            return interruptedWhileWaiting || Thread.currentThread().isInterrupted();
+        }
+
+        private void updateRegistrationOfDivideQuery(IDivideQuery divideQuery,
+                                                     boolean interruptedWhileWaiting,
+                                                     long taskStart) {
             // check if thread has been interrupted up to this point
             // -> if so, no query registration update should take place
             //    (in normal circumstances this only happens if the component is
             //     unregistered from the engine)
             if (interruptedWhileWaiting || Thread.currentThread().isInterrupted()) {
                 LOGGER.info("DIVIDE query derivation for component with ID '{}' and context '{}': " +
-                                "not registering queries since query update thread has been interrupted",
-                        component.getId(), context.getId());
+                                "not registering queries of DIVIDE query '{}' since query update " +
+                                "thread has been interrupted",
+                        component.getId(), context.getId(), divideQuery.getName());
 
                 // clearing registration schedule since no queries will be registered anymore
-                component.getRspEngineHandler().clearRegistrationSchedule();
+                component.getRspEngineHandler().clearRegistrationSchedule(divideQuery);
 
                 // check if there already is a new general DIVIDE query derivation task
                 // in the queue at this point, AND the RSP engine streams are paused
-                // on context changes
+                // on context changes or the queries are hot-swapped
                 // -> if yes, no query registration update should take place (since the
                 //    RSP engine streams are paused, and it only makes sense to update
                 //    them after the last general DIVIDE query derivation task in the
                 //    queue has completed (since they are derived from the most recent
                 //    up-to-date context)
-            } else if (pauseRspEngineStreamsOnContextChanges &&
+                // -> when hot-swapping, the currently registered queries simply remain
+                //    active until the queries derived from the most recent context are
+                //    live, so swapping to an intermediate version is useless
+                // -> this check is done for every DIVIDE query separately, so that the
+                //    most recent context still wins if it arrives while the queries of
+                //    other DIVIDE queries have already been registered
+            } else if ((pauseRspEngineStreamsOnContextChanges || hotSwapQueriesOnContextChanges) &&
                     componentQueryUpdateQueueMap.get(component.getId()).stream().anyMatch(
                     queryUpdateTask -> queryUpdateTask instanceof GeneralDivideQueryDerivationTask)) {
                 LOGGER.info("DIVIDE query derivation for component with ID '{}' and context '{}': " +
-                                "not registering queries since query update queue contains new " +
-                                "general DIVIDE query derivation task",
-                        component.getId(), context.getId());
+                                "not registering queries of DIVIDE query '{}' since query update " +
+                                "queue contains new general DIVIDE query derivation task",
+                        component.getId(), context.getId(), divideQuery.getName());
 
                 // clearing registration schedule since no queries will be registered anymore
-                component.getRspEngineHandler().clearRegistrationSchedule();
+                component.getRspEngineHandler().clearRegistrationSchedule(divideQuery);
 
             } else {
-                // update query registration at actual RSP engine
-                component.getRspEngineHandler().updateRegistration();
-            }
+                // update query registration at actual RSP engine for this DIVIDE query
+                long registrationStart = System.currentTimeMillis();
+                component.getRspEngineHandler().updateRegistration(divideQuery);
 
-            // in any case, it is still important to try restarting the engine
-            // (if being interrupted explicitly because the component is being
-            //  removed, then all updates will be stopped explicitly anyway)
-            // -> and if no restart is allowed because of new pause requests
-            if (pauseRspEngineStreamsOnContextChanges) {
-                component.getRspEngineHandler().restartRspEngineStreams();
+                long registrationEnd = System.currentTimeMillis();
+                QueryDerivationMetrics.getInstance().record(
+                        QueryDerivationMetrics.Stage.REGISTRATION_UPDATE,
+                        registrationEnd - registrationStart);
+                QueryDerivationMetrics.getInstance().record(
+                        QueryDerivationMetrics.Stage.TIME_TO_DEPLOYMENT,
+                        registrationEnd - taskStart);
             }
-
-            LOGGER.info("Finished DIVIDE query derivation for component with ID '{}' and context '{}'",
-                    component.getId(), context.getId());
-
-            return interruptedWhileWaiting || Thread.currentThread().isInterrupted();
         }
     }
 
@@ -1312,68 +1747,126 @@ class DivideEngine implements IDivideEngine {
 
         private final IComponent component;
         private final Context context;
-        private final IDivideQuery divideQuery;
+        private final List<IDivideQuery> divideQueries;
+
+        /**
+         * Whether this task is triggered by a context change (instead of by the
+         * registration of new DIVIDE queries), and the number of times the RSP
+         * engine streams should be restarted after the task (once for every
+         * context change that paused them and is handled by this task)
+         */
+        private final boolean contextChange;
+        private final int rspEngineStreamRestarts;
 
         SpecificDivideQueryDerivationTask(IComponent component,
                                           Context context,
-                                          IDivideQuery divideQuery) {
+                                          List<IDivideQuery> divideQueries) {
+            this(component, context, divideQueries, false, 0);
+        }
+
+        SpecificDivideQueryDerivationTask(IComponent component,
+                                          Context context,
+                                          IDivideQuery divideQuery,
+                                          boolean contextChange,
+                                          int rspEngineStreamRestarts) {
+            this(component, context, Collections.singletonList(divideQuery),
+                    contextChange, rspEngineStreamRestarts);
+        }
+
+        private SpecificDivideQueryDerivationTask(IComponent component,
+                                                  Context context,
+                                                  List<IDivideQuery> divideQueries,
+                                                  boolean contextChange,
+                                                  int rspEngineStreamRestarts) {
             this.component = component;
             this.context = context;
-            this.divideQuery = divideQuery;
+            this.divideQueries = new ArrayList<>(divideQueries);
+            this.contextChange = contextChange;
+            this.rspEngineStreamRestarts = rspEngineStreamRestarts;
         }
 
         @Override
         public boolean execute() {
-            LOGGER.info("Preparing specific DIVIDE query derivation for DIVIDE query '{}', " +
+            List<String> divideQueryNames = divideQueries.stream()
+                    .map(IDivideQuery::getName).collect(Collectors.toList());
+            LOGGER.info("Preparing specific DIVIDE query derivation for DIVIDE queries {}, " +
                             "for component with ID '{}' " +
                             "and context '{}' in RSP query update thread",
-                    divideQuery.getName(), component.getId(), context.getId());
+                    divideQueryNames, component.getId(), context.getId());
 
-            // run the query derivation script in for the given DIVIDE query,
-            // on a dedicated thread in the worker thread pool
-            CountDownLatch latch = new CountDownLatch(1);
-            workerThreadPool.submit(new SingleQueryDeriver(
-                    divideQuery, context, component,
-                    divideQueryDeriver, getDivideOntology(), latch));
+            // run the query derivation script for each of the given DIVIDE queries,
+            // each on a dedicated thread in the worker thread pool
+            // -> as for the general DIVIDE query derivation task, the registration of
+            //    the queries originating from each DIVIDE query is updated as soon as
+            //    the derivation for that DIVIDE query has finished
+            long start = System.currentTimeMillis();
+            CompletionService<IDivideQuery> completionService =
+                    new ExecutorCompletionService<>(workerThreadPool);
+            Map<Future<IDivideQuery>, IDivideQuery> pendingDerivations = new HashMap<>();
+            DivideOntology ontology = getDivideOntology();
+            for (IDivideQuery divideQuery : divideQueries) {
+                pendingDerivations.put(
+                        completionService.submit(new SingleQueryDeriver(
+                                divideQuery, context, component,
+                                divideQueryDeriver, ontology), divideQuery),
+                        divideQuery);
+            }
 
             // keep track of whether the thread gets interrupted while waiting for
             // the other threads to finish
             boolean interruptedWhileWaiting = false;
 
-            // wait until the query derivation threads have all finished
-            boolean queryDerivationThreadsFinished = false;
-            while (!queryDerivationThreadsFinished) {
+            // handle the query derivation threads one by one as they finish, until
+            // they have all finished
+            while (!pendingDerivations.isEmpty()) {
+                Future<IDivideQuery> finishedDerivation;
                 try {
-                    LOGGER.info("Specific DIVIDE query derivation for DIVIDE query '{}', " +
+                    LOGGER.info("Specific DIVIDE query derivation for DIVIDE queries {}, " +
                                     "for component with ID '{}' and context '{}': " +
-                                    "waiting for other thread to finish the individual query derivation",
-                            divideQuery.getName(), component.getId(), context.getId());
+                                    "waiting for {} other threads to finish the individual " +
+                                    "query derivations",
+                            divideQueryNames, component.getId(), context.getId(),
+                            pendingDerivations.size());
 
-                    // wait for the latch to be decremented by the the query derivation threads
-                    latch.await();
-
-                    // if the previous call returns, this means that the thread has finished
-                    queryDerivationThreadsFinished = true;
+                    // wait for the next query derivation thread to finish
+                    finishedDerivation = completionService.take();
 
                 } catch (InterruptedException e) {
                     // interrupts of this thread should be ignored, since it is really
-                    // required to await the latch being count down to zero
+                    // required to await all query derivation threads to finish
                     // (and only handle interrupt requests at the end of this method)
-                    LOGGER.info("Specific DIVIDE query derivation for DIVIDE query '{}', " +
+                    LOGGER.info("Specific DIVIDE query derivation for DIVIDE queries {}, " +
                                     "for component with ID '{}' and context '{}': " +
                                     "query update thread interrupted while waiting for other threads",
-                            divideQuery.getName(), component.getId(), context.getId());
+                            divideQueryNames, component.getId(), context.getId());
 
                     // it is however important to remember that this interruption happened
                     // while waiting
                     interruptedWhileWaiting = true;
+                    continue;
                 }
+
+                IDivideQuery divideQuery = pendingDerivations.remove(finishedDerivation);
+                updateRegistrationOfDivideQuery(divideQuery, interruptedWhileWaiting, start);
             }
 
-            if (!interruptedWhileWaiting && !Thread.currentThread().isInterrupted()) {
-                // update query registration at actual RSP engine for this DIVIDE query
-                component.getRspEngineHandler().updateRegistration(divideQuery);
-            } else {
+            // restart the RSP engine streams for every context change that paused them
+            for (int i = 0; i < rspEngineStreamRestarts; i++) {
+                component.getRspEngineHandler().restartRspEngineStreams();
+            }
+
+            LOGGER.info("Finished DIVIDE query derivation for component with ID '{}' and context '{}'",
+                    component.getId(), context.getId());
+
+            return interruptedWhileWaiting || Thread.currentThread().isInterrupted();
+        }
+
+        private void updateRegistrationOfDivideQuery(IDivideQuery divideQuery,
+                                                     boolean interruptedWhileWaiting,
+                                                     long taskStart) {
+            // check if thread has been interrupted up to this point
+            // -> if so, no query registration update should take place
+            if (interruptedWhileWaiting || Thread.currentThread().isInterrupted()) {
                 LOGGER.info("Specific DIVIDE query derivation for DIVIDE query '{}', " +
                                 "for component with ID '{}' and context '{}': " +
                                 "not registering queries since query update thread has been interrupted",
@@ -1381,12 +1874,38 @@ class DivideEngine implements IDivideEngine {
 
                 // clearing registration schedule since no queries will be registered anymore
                 component.getRspEngineHandler().clearRegistrationSchedule(divideQuery);
-            }
 
-            LOGGER.info("Finished DIVIDE query derivation for component with ID '{}' and context '{}'",
-                    component.getId(), context.getId());
+                // as for the general DIVIDE query derivation task, no query registration
+                // update should take place if there already is a new general DIVIDE query
+                // derivation task in the queue, AND the RSP engine streams are paused on
+                // context changes or the queries are hot-swapped
+                // -> this new task derives the queries of this DIVIDE query as well,
+                //    from a more recent context
+            } else if ((pauseRspEngineStreamsOnContextChanges || hotSwapQueriesOnContextChanges) &&
+                    componentQueryUpdateQueueMap.get(component.getId()).stream().anyMatch(
+                    queryUpdateTask -> queryUpdateTask instanceof GeneralDivideQueryDerivationTask)) {
+                LOGGER.info("Specific DIVIDE query derivation for DIVIDE query '{}', " +
+                                "for component with ID '{}' and context '{}': " +
+                                "not registering queries since query update queue contains " +
+                                "new general DIVIDE query derivation task",
+                        divideQuery.getName(), component.getId(), context.getId());
 
-            return interruptedWhileWaiting || Thread.currentThread().isInterrupted();
+                // clearing registration schedule since no queries will be registered anymore
+                component.getRspEngineHandler().clearRegistrationSchedule(divideQuery);
+
+            } else {
+                // update query registration at actual RSP engine for this DIVIDE query
+                long registrationStart = System.currentTimeMillis();
+                component.getRspEngineHandler().updateRegistration(divideQuery);
+
+                long registrationEnd = System.currentTimeMillis();
+                QueryDerivationMetrics.getInstance().record(
+                        QueryDerivationMetrics.Stage.REGISTRATION_UPDATE,
+                        registrationEnd - registrationStart);
+                QueryDerivationMetrics.getInstance().record(
+                        QueryDerivationMetrics.Stage.TIME_TO_DEPLOYMENT,
+                        registrationEnd - taskStart);
+            }
         }
     }
 
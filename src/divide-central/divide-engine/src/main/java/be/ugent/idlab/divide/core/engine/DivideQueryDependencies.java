@@ -0,0 +1,122 @@
+package be.ugent.idlab.divide.core.engine;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of predicates and classes on which the query derivation of a DIVIDE query
+ * depends, i.e., the predicates and classes used in its sensor query rule, its goal
+ * and its context-enriching queries (closed under the rules of the DIVIDE ontology).
+ * A change of a context triple can only influence the result of the query derivation
+ * if the predicate of this triple is one of these predicates, or if it is an
+ * rdf:type triple with one of these classes as object.
+ *
+ * If the dependencies of a DIVIDE query cannot be determined statically (e.g.,
+ * because it contains a triple pattern with a variable predicate), the DIVIDE
+ * query depends on any predicate, so that every context change is relevant.
+ *
+ * The predicates of the internal DIVIDE vocabulary (the sensdesc namespaces)
+ * are relevant for every DIVIDE query, since they are used by the query
+ * derivation scripts of DIVIDE itself.
+ */
+class DivideQueryDependencies {
+
+    private static final String DIVIDE_NAMESPACE = "http://idlab.ugent.be/sensdesc";
+
+    private final Set<String> predicates;
+    private final Set<String> classes;
+    private boolean anyPredicate;
+
+    DivideQueryDependencies() {
+        this.predicates = new HashSet<>();
+        this.classes = new HashSet<>();
+        this.anyPredicate = false;
+    }
+
+    /**
+     * @return new dependencies of a DIVIDE query that depends on any predicate
+     */
+    static DivideQueryDependencies any() {
+        DivideQueryDependencies dependencies = new DivideQueryDependencies();
+        dependencies.addAnyPredicate();
+        return dependencies;
+    }
+
+    DivideQueryDependencies copy() {
+        DivideQueryDependencies copy = new DivideQueryDependencies();
+        copy.addAll(this);
+        return copy;
+    }
+
+    void addPredicate(String predicate) {
+        predicates.add(predicate);
+    }
+
+    /**
+     * Adds an rdf:type dependency with the given class as object.
+     */
+    void addClass(String clazz) {
+        classes.add(clazz);
+    }
+
+    /**
+     * Adds a dependency on all rdf:type triples, i.e., for a pattern
+     * where the class is not known statically.
+     */
+    void addAnyClass() {
+        predicates.add(RDF.type.getURI());
+    }
+
+    void addAnyPredicate() {
+        anyPredicate = true;
+    }
+
+    /**
+     * @return true if something was added to these dependencies
+     */
+    boolean addAll(DivideQueryDependencies dependencies) {
+        boolean changed = !anyPredicate && dependencies.anyPredicate;
+        anyPredicate |= dependencies.anyPredicate;
+        changed |= predicates.addAll(dependencies.predicates);
+        changed |= classes.addAll(dependencies.classes);
+        return changed;
+    }
+
+    boolean dependsOnAnyPredicate() {
+        return anyPredicate;
+    }
+
+    /**
+     * @return true if a triple with the given predicate and object can match
+     *         these dependencies; a null or variable node matches any node
+     */
+    boolean matches(Node predicate, Node object) {
+        if (anyPredicate || predicate == null || !predicate.isURI()) {
+            return true;
+        }
+        String predicateUri = predicate.getURI();
+        if (predicates.contains(predicateUri) || predicateUri.startsWith(DIVIDE_NAMESPACE)) {
+            return true;
+        }
+        if (RDF.type.getURI().equals(predicateUri)) {
+            if (object == null || !object.isURI()) {
+                return !classes.isEmpty();
+            }
+            return classes.contains(object.getURI()) ||
+                    object.getURI().startsWith(DIVIDE_NAMESPACE);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (anyPredicate) {
+            return "{any predicate}";
+        }
+        return String.format("{predicates=%s, classes=%s}", predicates, classes);
+    }
+
+}
@@ -0,0 +1,508 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.core.context.ContextEnrichingQuery;
+import be.ugent.idlab.divide.core.context.ContextEnrichment;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.reasoner.TriplePattern;
+import org.apache.jena.reasoner.rulesys.ClauseEntry;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.path.P_Link;
+import org.apache.jena.sparql.path.P_Path1;
+import org.apache.jena.sparql.path.P_Path2;
+import org.apache.jena.sparql.path.P_ReverseLink;
+import org.apache.jena.sparql.path.Path;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.ElementVisitorBase;
+import org.apache.jena.sparql.syntax.ElementWalker;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static analysis of a DIVIDE query to determine the predicates and classes on
+ * which its query derivation depends. This analysis is done once when the DIVIDE
+ * query is registered, and is used to check which DIVIDE queries are affected by
+ * a change of the context of a component.
+ *
+ * The analysis is conservative: any construct of which the dependencies cannot be
+ * determined statically results in a dependency on any predicate.
+ */
+class DivideQueryDependencyExtractor {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(DivideQueryDependencyExtractor.class.getName());
+
+    private DivideQueryDependencyExtractor() {
+        // utility class
+    }
+
+    /**
+     * Extracts the dependencies of the sensor query rule, goal and
+     * context-enriching queries of the given DIVIDE query.
+     *
+     * @param divideQuery DIVIDE query to analyze
+     * @return dependencies of the given DIVIDE query (not yet closed under the
+     *         rules of the DIVIDE ontology)
+     */
+    static DivideQueryDependencies extract(IDivideQuery divideQuery) {
+        DivideQueryDependencies dependencies = new DivideQueryDependencies();
+        try {
+            new N3DependencyParser(divideQuery.getSensorQueryRule(), dependencies).parse();
+            new N3DependencyParser(divideQuery.getGoal(), dependencies).parse();
+
+            // the context-enriching queries change the context on which the sensor
+            // query rule is evaluated, so all patterns they query are relevant
+            ContextEnrichment contextEnrichment = divideQuery.getContextEnrichment();
+            if (contextEnrichment != null) {
+                for (ContextEnrichingQuery query : contextEnrichment.getQueries()) {
+                    extractFromSparqlQuery(query.getQuery(), dependencies);
+                }
+            }
+
+        } catch (Exception e) {
+            LOGGER.warn("Dependencies of DIVIDE query '{}' cannot be determined statically " +
+                    "-> it is considered affected by every context change: {}",
+                    divideQuery.getName(), e.getMessage());
+            return DivideQueryDependencies.any();
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Closes the given dependencies under the given rules: if a rule can derive a
+     * triple on which the dependencies depend, all triple patterns in the body of
+     * that rule are dependencies as well.
+     *
+     * @param dependencies dependencies to close
+     * @param rules rules of the DIVIDE ontology
+     * @return new dependencies representing the closure
+     */
+    static DivideQueryDependencies closeUnderRules(DivideQueryDependencies dependencies,
+                                                   List<Rule> rules) {
+        DivideQueryDependencies closure = dependencies.copy();
+        if (rules == null) {
+            return closure;
+        }
+
+        boolean changed = true;
+        while (changed && !closure.dependsOnAnyPredicate()) {
+            changed = false;
+            for (Rule rule : rules) {
+                if (canDerive(rule, closure)) {
+                    DivideQueryDependencies bodyDependencies = new DivideQueryDependencies();
+                    for (ClauseEntry clauseEntry : rule.getBody()) {
+                        if (clauseEntry instanceof TriplePattern) {
+                            addTriplePattern((TriplePattern) clauseEntry, bodyDependencies);
+                        }
+                    }
+                    changed |= closure.addAll(bodyDependencies);
+                }
+            }
+        }
+
+        return closure;
+    }
+
+    private static boolean canDerive(Rule rule, DivideQueryDependencies dependencies) {
+        for (ClauseEntry clauseEntry : rule.getHead()) {
+            if (clauseEntry instanceof TriplePattern) {
+                TriplePattern pattern = (TriplePattern) clauseEntry;
+                if (dependencies.matches(pattern.getPredicate(), pattern.getObject())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addTriplePattern(TriplePattern pattern,
+                                         DivideQueryDependencies dependencies) {
+        addPattern(pattern.getPredicate(), pattern.getObject(), dependencies);
+    }
+
+    private static void addPattern(Node predicate, Node object,
+                                   DivideQueryDependencies dependencies) {
+        if (predicate == null || !predicate.isURI()) {
+            dependencies.addAnyPredicate();
+        } else if (RDF.type.getURI().equals(predicate.getURI())) {
+            if (object != null && object.isURI()) {
+                dependencies.addClass(object.getURI());
+            } else {
+                dependencies.addAnyClass();
+            }
+        } else {
+            dependencies.addPredicate(predicate.getURI());
+        }
+    }
+
+    private static void extractFromSparqlQuery(String queryString,
+                                               DivideQueryDependencies dependencies) {
+        Query query = QueryFactory.create(queryString);
+        ElementWalker.walk(query.getQueryPattern(), new ElementVisitorBase() {
+            @Override
+            public void visit(ElementPathBlock el) {
+                for (TriplePath triplePath : el.getPattern().getList()) {
+                    if (triplePath.isTriple()) {
+                        addPattern(triplePath.getPredicate(),
+                                triplePath.getObject(), dependencies);
+                    } else {
+                        addPath(triplePath.getPath(), dependencies);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void addPath(Path path, DivideQueryDependencies dependencies) {
+        if (path instanceof P_Link) {
+            addPattern(((P_Link) path).getNode(), null, dependencies);
+        } else if (path instanceof P_ReverseLink) {
+            addPattern(((P_ReverseLink) path).getNode(), null, dependencies);
+        } else if (path instanceof P_Path1) {
+            addPath(((P_Path1) path).getSubPath(), dependencies);
+        } else if (path instanceof P_Path2) {
+            addPath(((P_Path2) path).getLeft(), dependencies);
+            addPath(((P_Path2) path).getRight(), dependencies);
+        } else {
+            // e.g., negated property sets
+            dependencies.addAnyPredicate();
+        }
+    }
+
+    /**
+     * Minimal parser of the N3 subset used in sensor query rules and goals, which
+     * only keeps track of the predicate and object of every triple pattern (also
+     * inside nested formulas, blank node property lists and collections).
+     * Any unsupported construct results in an {@link IllegalArgumentException}.
+     */
+    private static class N3DependencyParser {
+
+        private enum TermType { IRI, VARIABLE, BLANK_NODE, LITERAL, NESTED, IMPLICATION }
+
+        private static class Term {
+            private final TermType type;
+            private final String value;
+
+            private Term(TermType type, String value) {
+                this.type = type;
+                this.value = value;
+            }
+        }
+
+        private enum FrameType { FORMULA, PROPERTY_LIST, COLLECTION }
+
+        private static class Frame {
+            private final FrameType type;
+            private int position;
+            private Term predicate;
+
+            private Frame(FrameType type) {
+                this.type = type;
+                this.position = type == FrameType.PROPERTY_LIST ? 1 : 0;
+            }
+        }
+
+        private final String text;
+        private final DivideQueryDependencies dependencies;
+        private final Map<String, String> prefixes;
+        private final Deque<Frame> frames;
+        private int index;
+
+        private N3DependencyParser(String text, DivideQueryDependencies dependencies) {
+            this.text = text == null ? "" : text;
+            this.dependencies = dependencies;
+            this.prefixes = new HashMap<>();
+            this.frames = new ArrayDeque<>();
+            this.index = 0;
+        }
+
+        private void parse() {
+            frames.push(new Frame(FrameType.FORMULA));
+            while (true) {
+                skipWhitespaceAndComments();
+                if (index >= text.length()) {
+                    break;
+                }
+                char c = text.charAt(index);
+
+                if (c == '{' || c == '[' || c == '(') {
+                    index++;
+                    frames.push(new Frame(c == '{' ? FrameType.FORMULA :
+                            c == '[' ? FrameType.PROPERTY_LIST : FrameType.COLLECTION));
+
+                } else if (c == '}' || c == ']' || c == ')') {
+                    index++;
+                    if (frames.size() <= 1) {
+                        throw new IllegalArgumentException("unbalanced '" + c + "'");
+                    }
+                    frames.pop();
+                    handleTerm(new Term(TermType.NESTED, null));
+
+                } else if (c == ';' || c == ',' || c == '.') {
+                    index++;
+                    Frame frame = frames.peek();
+                    if (frame.type != FrameType.COLLECTION) {
+                        frame.position = c == ';' ? 1 : c == ',' ? 2 : 0;
+                    }
+
+                } else if (c == '@' || startsWithKeyword("PREFIX")) {
+                    parseDirective();
+
+                } else {
+                    handleTerm(readTerm());
+                }
+            }
+        }
+
+        private void handleTerm(Term term) {
+            Frame frame = frames.peek();
+            if (frame.type == FrameType.COLLECTION) {
+                return;
+            }
+
+            if (frame.position == 0) {
+                frame.position = 1;
+
+            } else if (frame.position == 1) {
+                frame.predicate = term;
+                frame.position = 2;
+                if (term.type == TermType.VARIABLE || term.type == TermType.BLANK_NODE) {
+                    dependencies.addAnyPredicate();
+                } else if (term.type == TermType.IRI &&
+                        !RDF.type.getURI().equals(term.value)) {
+                    dependencies.addPredicate(term.value);
+                }
+
+            } else {
+                Term predicate = frame.predicate;
+                if (predicate != null && predicate.type == TermType.IRI &&
+                        RDF.type.getURI().equals(predicate.value)) {
+                    if (term.type == TermType.IRI) {
+                        dependencies.addClass(term.value);
+                    } else {
+                        dependencies.addAnyClass();
+                    }
+                }
+            }
+        }
+
+        private Term readTerm() {
+            char c = text.charAt(index);
+
+            if (text.startsWith("=>", index)) {
+                index += 2;
+                return new Term(TermType.IMPLICATION, null);
+            }
+            if (text.startsWith("<=", index) && (index + 2 >= text.length() ||
+                    Character.isWhitespace(text.charAt(index + 2)) || text.charAt(index + 2) == '{')) {
+                index += 2;
+                return new Term(TermType.IMPLICATION, null);
+            }
+            if (c == '=') {
+                index++;
+                return new Term(TermType.IRI, OWL.sameAs.getURI());
+            }
+            if (c == '<') {
+                return new Term(TermType.IRI, readIri());
+            }
+            if (c == '?') {
+                index++;
+                readName();
+                return new Term(TermType.VARIABLE, null);
+            }
+            if (text.startsWith("_:", index)) {
+                index += 2;
+                readName();
+                return new Term(TermType.BLANK_NODE, null);
+            }
+            if (c == '"' || c == '\'') {
+                readString();
+                readLiteralSuffix();
+                return new Term(TermType.LITERAL, null);
+            }
+            if (c == '+' || c == '-' || Character.isDigit(c)) {
+                readNumber();
+                return new Term(TermType.LITERAL, null);
+            }
+            if (c == ':' || Character.isLetter(c) || c == '_') {
+                return readPrefixedNameOrKeyword();
+            }
+
+            throw new IllegalArgumentException(String.format(
+                    "unsupported character '%c' at position %d", c, index));
+        }
+
+        private void parseDirective() {
+            if (text.charAt(index) == '@') {
+                index++;
+            }
+            String keyword = readName();
+            if (!"prefix".equalsIgnoreCase(keyword)) {
+                throw new IllegalArgumentException("unsupported directive @" + keyword);
+            }
+            skipWhitespaceAndComments();
+            int colon = text.indexOf(':', index);
+            if (colon < 0) {
+                throw new IllegalArgumentException("invalid prefix declaration");
+            }
+            String prefix = text.substring(index, colon).trim();
+            index = colon + 1;
+            skipWhitespaceAndComments();
+            prefixes.put(prefix, readIri());
+            skipWhitespaceAndComments();
+            if (index < text.length() && text.charAt(index) == '.') {
+                index++;
+            }
+        }
+
+        private Term readPrefixedNameOrKeyword() {
+            int start = index;
+            String prefix = readName();
+            if (index < text.length() && text.charAt(index) == ':') {
+                index++;
+                String localName = readLocalName();
+                String namespace = prefixes.get(prefix);
+                if (namespace == null) {
+                    throw new IllegalArgumentException("undeclared prefix '" + prefix + ":'");
+                }
+                return new Term(TermType.IRI, namespace + localName);
+            }
+            if ("a".equals(prefix)) {
+                return new Term(TermType.IRI, RDF.type.getURI());
+            }
+            if ("true".equals(prefix) || "false".equals(prefix)) {
+                return new Term(TermType.LITERAL, null);
+            }
+            throw new IllegalArgumentException(String.format(
+                    "unsupported keyword '%s' at position %d", prefix, start));
+        }
+
+        private String readIri() {
+            if (index >= text.length() || text.charAt(index) != '<') {
+                throw new IllegalArgumentException("IRI expected at position " + index);
+            }
+            int end = text.indexOf('>', index);
+            if (end < 0) {
+                throw new IllegalArgumentException("unterminated IRI");
+            }
+            String iri = text.substring(index + 1, end);
+            index = end + 1;
+            return iri;
+        }
+
+        private String readName() {
+            int start = index;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (Character.isLetterOrDigit(c) || c == '_' || c == '-') {
+                    index++;
+                } else {
+                    break;
+                }
+            }
+            return text.substring(start, index);
+        }
+
+        private String readLocalName() {
+            int start = index;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (Character.isLetterOrDigit(c) || c == '_' || c == '-' ||
+                        c == '.' || c == ':' || c == '%') {
+                    index++;
+                } else {
+                    break;
+                }
+            }
+            // a local name cannot end with a dot (it ends the statement)
+            while (index > start && text.charAt(index - 1) == '.') {
+                index--;
+            }
+            return text.substring(start, index);
+        }
+
+        private void readString() {
+            char quote = text.charAt(index);
+            String longQuote = new String(new char[]{quote, quote, quote});
+            if (text.startsWith(longQuote, index)) {
+                int end = text.indexOf(longQuote, index + 3);
+                if (end < 0) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                index = end + 3;
+                return;
+            }
+            index++;
+            while (index < text.length() && text.charAt(index) != quote) {
+                index += text.charAt(index) == '\\' ? 2 : 1;
+            }
+            if (index >= text.length()) {
+                throw new IllegalArgumentException("unterminated string");
+            }
+            index++;
+        }
+
+        private void readLiteralSuffix() {
+            if (text.startsWith("^^", index)) {
+                index += 2;
+                if (index < text.length() && text.charAt(index) == '<') {
+                    readIri();
+                } else {
+                    readPrefixedNameOrKeyword();
+                }
+            } else if (index < text.length() && text.charAt(index) == '@') {
+                index++;
+                readName();
+            }
+        }
+
+        private void readNumber() {
+            index++;
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                boolean decimalPoint = c == '.' && index + 1 < text.length() &&
+                        Character.isDigit(text.charAt(index + 1));
+                if (Character.isDigit(c) || decimalPoint || c == 'e' || c == 'E') {
+                    index++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private boolean startsWithKeyword(String keyword) {
+            return text.regionMatches(true, index, keyword, 0, keyword.length()) &&
+                    index + keyword.length() < text.length() &&
+                    Character.isWhitespace(text.charAt(index + keyword.length()));
+        }
+
+        private void skipWhitespaceAndComments() {
+            while (index < text.length()) {
+                char c = text.charAt(index);
+                if (Character.isWhitespace(c)) {
+                    index++;
+                } else if (c == '#') {
+                    while (index < text.length() && text.charAt(index) != '\n') {
+                        index++;
+                    }
+                } else {
+                    break;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,173 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.vocabulary.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static relevance index of the registered DIVIDE queries, which keeps track of the
+ * predicates and classes on which the query derivation of each DIVIDE query depends.
+ * It is used to determine which DIVIDE queries should be derived again after a
+ * change of the context of a component, so that the derivation of DIVIDE queries
+ * that cannot be affected by the change is avoided.
+ *
+ * The dependencies of a DIVIDE query are extracted once upon its registration, and
+ * closed under the rules of the DIVIDE ontology, since the reasoning during the
+ * query derivation can derive relevant triples from other context triples. If the
+ * ontology is reloaded, the closures are recalculated.
+ */
+class DivideQueryRelevanceIndex {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(DivideQueryRelevanceIndex.class.getName());
+
+    /**
+     * Map of the dependencies of each registered DIVIDE query (by name),
+     * as extracted from the DIVIDE query itself
+     */
+    private final Map<String, DivideQueryDependencies> extractedDependencies;
+
+    /**
+     * Map of the dependencies of each registered DIVIDE query (by name),
+     * closed under the rules of the current DIVIDE ontology
+     */
+    private final Map<String, DivideQueryDependencies> closedDependencies;
+
+    private List<Rule> ontologyRules;
+
+    DivideQueryRelevanceIndex() {
+        this.extractedDependencies = new ConcurrentHashMap<>();
+        this.closedDependencies = new ConcurrentHashMap<>();
+        this.ontologyRules = null;
+    }
+
+    /**
+     * Adds the given DIVIDE query to the index.
+     *
+     * @param divideQuery newly registered DIVIDE query
+     */
+    synchronized void addDivideQuery(IDivideQuery divideQuery) {
+        DivideQueryDependencies dependencies =
+                DivideQueryDependencyExtractor.extract(divideQuery);
+        extractedDependencies.put(divideQuery.getName(), dependencies);
+        closedDependencies.put(divideQuery.getName(),
+                DivideQueryDependencyExtractor.closeUnderRules(dependencies, ontologyRules));
+
+        LOGGER.info("Dependencies of DIVIDE query '{}' in relevance index: {}",
+                divideQuery.getName(), closedDependencies.get(divideQuery.getName()));
+    }
+
+    /**
+     * Removes the DIVIDE query with the given name from the index.
+     *
+     * @param name name of the unregistered DIVIDE query
+     */
+    synchronized void removeDivideQuery(String name) {
+        extractedDependencies.remove(name);
+        closedDependencies.remove(name);
+    }
+
+    /**
+     * Recalculates the dependencies of all DIVIDE queries in the index using
+     * the rules of the given (newly loaded) DIVIDE ontology.
+     *
+     * @param ontology newly loaded DIVIDE ontology
+     */
+    synchronized void updateOntology(DivideOntology ontology) {
+        this.ontologyRules = ontology.getRules();
+        for (Map.Entry<String, DivideQueryDependencies> entry :
+                extractedDependencies.entrySet()) {
+            closedDependencies.put(entry.getKey(),
+                    DivideQueryDependencyExtractor.closeUnderRules(
+                            entry.getValue(), ontologyRules));
+        }
+    }
+
+    /**
+     * Determines which of the given DIVIDE queries are affected by the given
+     * change of an ABox.
+     *
+     * @param divideQueries DIVIDE queries of which should be checked whether
+     *                      they are affected
+     * @param delta change of the ABox, or null if the change is unknown
+     * @return sublist of the given DIVIDE queries that are affected by the change
+     *         (all given DIVIDE queries if the change is unknown)
+     */
+    List<IDivideQuery> getAffectedDivideQueries(Collection<IDivideQuery> divideQueries,
+                                                ContextDelta delta) {
+        if (delta == null) {
+            return new ArrayList<>(divideQueries);
+        }
+
+        // collect the distinct (predicate, object) pairs relevant for matching
+        // of the triples that are removed or added
+        Set<PredicateObject> changes = new HashSet<>();
+        collectChanges(delta.getAddedTriples(), changes);
+        collectChanges(delta.getRemovedTriples(), changes);
+
+        List<IDivideQuery> affectedDivideQueries = new ArrayList<>();
+        if (changes.isEmpty()) {
+            return affectedDivideQueries;
+        }
+        for (IDivideQuery divideQuery : divideQueries) {
+            DivideQueryDependencies dependencies = closedDependencies.get(divideQuery.getName());
+            if (dependencies == null || changes.stream().anyMatch(
+                    change -> dependencies.matches(change.predicate, change.object))) {
+                affectedDivideQueries.add(divideQuery);
+            }
+        }
+        return affectedDivideQueries;
+    }
+
+    private static void collectChanges(Set<Triple> triples, Set<PredicateObject> changes) {
+        for (Triple triple : triples) {
+            // the object is only relevant for the matching of rdf:type triples
+            changes.add(new PredicateObject(triple.getPredicate(),
+                    RDF.type.asNode().equals(triple.getPredicate()) ?
+                            triple.getObject() : null));
+        }
+    }
+
+    private static class PredicateObject {
+
+        private final Node predicate;
+        private final Node object;
+
+        private PredicateObject(Node predicate, Node object) {
+            this.predicate = predicate;
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PredicateObject that = (PredicateObject) o;
+            return predicate.equals(that.predicate) &&
+                    (object == null ? that.object == null : object.equals(that.object));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * predicate.hashCode() + (object == null ? 0 : object.hashCode());
+        }
+
+    }
+
+}
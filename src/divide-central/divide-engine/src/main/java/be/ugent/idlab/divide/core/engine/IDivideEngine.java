@@ -1,5 +1,6 @@
 package be.ugent.idlab.divide.core.engine;
 
+import be.ugent.idlab.divide.core.component.ComponentDefinition;
 import be.ugent.idlab.divide.core.component.IComponent;
 import be.ugent.idlab.divide.core.context.ContextEnrichment;
 import be.ugent.idlab.divide.core.exception.DivideInitializationException;
@@ -54,7 +55,15 @@ public interface IDivideEngine {
      *                                              streams on a component should be paused
      *                                              when context changes are detected that
      *                                              trigger the DIVIDE query derivation for
-     *                                              that component
+     *                                              that component (ignored if
+     *                                              hotSwapQueriesOnContextChanges is true)
+     * @param hotSwapQueriesOnContextChanges boolean representing whether RSP engine queries
+     *                                       on a component should be hot-swapped when context
+     *                                       changes trigger the DIVIDE query derivation for that
+     *                                       component, i.e., whether new query versions should
+     *                                       be registered alongside the old ones and the old
+     *                                       ones only retired once the new ones are live, so
+     *                                       that the RSP engine streams never need to be paused
      * @param processUnmappedVariableMatchesInParser boolean representing whether variable
      *                                               matches in the input for the DIVIDE query
      *                                               parser that are not defined as mappings,
@@ -78,6 +87,7 @@ public interface IDivideEngine {
                     IKnowledgeBase<Model> knowledgeBase,
                     Model divideOntology,
                     boolean pauseRspEngineStreamsOnContextChanges,
+                    boolean hotSwapQueriesOnContextChanges,
                     boolean processUnmappedVariableMatchesInParser,
                     boolean validateUnboundVariablesInRspQlQueryBodyInParser)
             throws DivideInitializationException, DivideInvalidInputException;
@@ -149,6 +159,38 @@ public interface IDivideEngine {
                                 ContextEnrichment contextEnrichment)
             throws DivideNotInitializedException, DivideQueryDeriverException, DivideInvalidInputException;
 
+    /**
+     * Register multiple new DIVIDE queries to this DIVIDE engine at once.
+     * This is equivalent to calling {@link #addDivideQuery(String, String, String,
+     * String, ContextEnrichment)} for each of the given DIVIDE queries, but is more
+     * efficient when registering many DIVIDE queries (e.g., at startup): the DIVIDE
+     * queries are processed in parallel, validated by the query deriver in bulk, and
+     * a single query derivation task is started per registered component for all
+     * new DIVIDE queries together.
+     *
+     * The registration is atomic: if any of the given DIVIDE queries is invalid,
+     * an exception is thrown and none of them is registered.
+     *
+     * @param divideQueries DIVIDE queries to register, created with the
+     *                      {@link be.ugent.idlab.divide.core.query.DivideQueryFactory}
+     *                      (the engine registers its own instances of these queries)
+     * @return the newly created {@link IDivideQuery} instances that are registered
+     *         to the DIVIDE engine, in the order of the given list (DIVIDE queries
+     *         with a name that is already registered to the engine, or that occurs
+     *         multiple times in the given list, are skipped)
+     * @throws DivideNotInitializedException if {@link #initialize(IDivideQueryDeriver,
+     *                                       IKnowledgeBase, Model, boolean, boolean, boolean)}
+     *                                       has not been called yet
+     * @throws DivideQueryDeriverException when something goes wrong when registering the new
+     *                                     DIVIDE queries to the {@link IDivideQueryDeriver} of
+     *                                     this engine - this error has nothing to do with
+     *                                     invalid parameters
+     * @throws DivideInvalidInputException when the registration fails because any of the
+     *                                     new DIVIDE queries has invalid parameters
+     */
+    List<IDivideQuery> addDivideQueries(List<IDivideQuery> divideQueries)
+            throws DivideNotInitializedException, DivideQueryDeriverException, DivideInvalidInputException;
+
     /**
      * Removes an {@link IDivideQuery} with the given name from the list
      * of queries registered to this DIVIDE engine.
@@ -220,6 +262,42 @@ public interface IDivideEngine {
                                  int localRspEngineServerPort)
             throws DivideNotInitializedException, DivideInvalidInputException;
 
+    /**
+     * Creates and registers a new {@link IComponent} for each of the given
+     * component definitions, similarly to
+     * {@link #registerComponent(String, List, RspQueryLanguage, int)}.
+     * The ABoxes of the context IRIs of all new components are retrieved once
+     * before the components are initialized, and the first query derivation of
+     * the new components is not enqueued immediately, but released gradually
+     * depending on the available capacity of this {@link IDivideEngine}. The
+     * progress of these first query derivations can be retrieved with
+     * {@link #getComponentWarmUpProgress()}.
+     *
+     * @param definitions definitions of the components to be registered
+     * @return list containing the new {@link IComponent} that is registered for each
+     *         definition, in the same order as the given definitions (an entry is null
+     *         if a component with the same ID is already registered)
+     * @throws DivideNotInitializedException if {@link #initialize(IDivideQueryDeriver,
+     *                                       IKnowledgeBase, Model, boolean, boolean, boolean)}
+     *                                       has not been called yet
+     * @throws DivideInvalidInputException if any of the context IRIs of any of the
+     *                                     definitions is not valid (in that case, none
+     *                                     of the components is registered)
+     */
+    List<IComponent> registerComponents(List<? extends ComponentDefinition> definitions)
+            throws DivideNotInitializedException, DivideInvalidInputException;
+
+    /**
+     * Retrieves the progress of the first query derivations of all components
+     * that have been registered in bulk via {@link #registerComponents(List)}.
+     *
+     * @return snapshot of the current warm-up progress of these components
+     * @throws DivideNotInitializedException if {@link #initialize(IDivideQueryDeriver,
+     *                                       IKnowledgeBase, Model, boolean, boolean, boolean)}
+     *                                       has not been called yet
+     */
+    ComponentWarmUpProgress getComponentWarmUpProgress() throws DivideNotInitializedException;
+
     /**
      * Unregisters an {@link IComponent} with the given ID.
      * After successful completion of this method (no null is returned), changes to
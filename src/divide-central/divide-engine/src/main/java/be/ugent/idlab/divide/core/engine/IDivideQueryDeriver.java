@@ -9,6 +9,8 @@ import be.ugent.idlab.divide.core.query.IDivideQuery;
 import be.ugent.idlab.divide.core.query.parser.IDivideQueryParser;
 import org.apache.jena.rdf.model.Model;
 
+import java.util.List;
+
 /**
  * Class responsible for deriving the actual RSP-QL queries from an {@link IDivideQuery}.
  */
@@ -54,6 +56,28 @@ public interface IDivideQueryDeriver {
                        IDivideQueryParser queryParser)
             throws DivideQueryDeriverException, DivideInvalidInputException;
 
+    /**
+     * Register multiple new {@link IDivideQuery} instances to this query deriver at
+     * once. This has the same effect as calling {@link #registerQuery(IDivideQuery,
+     * IDivideQueryParser)} for each of them, but allows the query deriver to validate
+     * and prepare the DIVIDE queries in bulk. If any of the DIVIDE queries has invalid
+     * fields, none of them is registered.
+     *
+     * @param divideQueries {@link IDivideQuery} instances to be registered to this query
+     *                      deriver (null entries and DIVIDE queries with a name that is
+     *                      already registered are ignored)
+     * @param queryParser {@link IDivideQueryParser} to be used when the query deriver wants
+     *                    to parse the context-enriching queries of the DIVIDE queries to
+     *                    possibly manipulate the context enrichment
+     * @throws DivideQueryDeriverException when something goes wrong during the registration
+     *                                     of the new DIVIDE queries, which prevents the
+     *                                     instance from performing the query derivation
+     * @throws DivideInvalidInputException when any of the given DIVIDE queries has invalid fields
+     */
+    void registerQueries(List<IDivideQuery> divideQueries,
+                         IDivideQueryParser queryParser)
+            throws DivideQueryDeriverException, DivideInvalidInputException;
+
     /**
      * Unregister a {@link IDivideQuery} from this query deriver.
      * In this way, this query deriver knows it will no longer need to derive
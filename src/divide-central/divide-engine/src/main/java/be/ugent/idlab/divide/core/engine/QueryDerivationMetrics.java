@@ -0,0 +1,102 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.util.Constants;
+import be.ugent.idlab.divide.util.metrics.LatencyHistogram;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keeps track of latency histograms for the different stages of the DIVIDE
+ * query derivation pipeline, aggregated over all components and DIVIDE queries.
+ * The histograms are registered in the {@link MetricsRegistry}, labelled with
+ * their stage, and are periodically summarized in the metric logs.
+ */
+class QueryDerivationMetrics {
+
+    private static final QueryDerivationMetrics instance = new QueryDerivationMetrics();
+
+    static QueryDerivationMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stages of the DIVIDE query derivation pipeline for which latencies are tracked
+     */
+    enum Stage {
+        /**
+         * Updating the context enricher, copying the context and enriching
+         * it for a single DIVIDE query
+         */
+        CONTEXT_ENRICHMENT,
+
+        /**
+         * Actual query derivation for a single DIVIDE query by the DIVIDE query deriver
+         */
+        QUERY_DERIVATION,
+
+        /**
+         * Updating the registration of the RSP queries originating from a single
+         * DIVIDE query at the RSP engine
+         */
+        REGISTRATION_UPDATE,
+
+        /**
+         * Time between the start of a general or specific query derivation task
+         * and the completion of the registration update of a single DIVIDE query
+         */
+        TIME_TO_DEPLOYMENT,
+
+        /**
+         * Total duration of a general query derivation task, for all DIVIDE queries
+         */
+        GENERAL_DERIVATION_TASK
+    }
+
+    private static final String HISTOGRAM_NAME =
+            "divide_query_derivation_stage_duration_seconds";
+    private static final String HISTOGRAM_HELP =
+            "Duration of the stages of the DIVIDE query derivation pipeline";
+
+    // class code
+
+    private final Map<Stage, LatencyHistogram> histograms;
+
+    private QueryDerivationMetrics() {
+        this.histograms = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            this.histograms.put(stage, MetricsRegistry.getInstance().registerHistogram(
+                    HISTOGRAM_NAME, HISTOGRAM_HELP, new LatencyHistogram(stage.name()),
+                    "stage", stage.name().toLowerCase()));
+        }
+    }
+
+    void record(Stage stage, long latencyMillis) {
+        histograms.get(stage).record(latencyMillis);
+    }
+
+    LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Logs a summary of the histogram of every stage with the metric marker, at
+     * debug level: the histograms are already exposed via the metrics registry,
+     * so logging them after every query derivation task at info level would only
+     * flood the logs.
+     *
+     * @param logger logger to be used for logging the summaries
+     */
+    void logSummary(Logger logger) {
+        if (!logger.isDebugEnabled(Constants.METRIC_MARKER)) {
+            return;
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            logger.debug(Constants.METRIC_MARKER,
+                    "QUERY_DERIVATION_STAGE_LATENCY\t{}", histogram.summarize());
+        }
+    }
+
+}
@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * Runnable which has the task of performing the derivation of a single
@@ -27,20 +26,17 @@ class SingleQueryDeriver implements Runnable {
     private final IComponent component;
     private final IDivideQueryDeriver divideQueryDeriver;
     private final DivideOntology divideOntology;
-    private final CountDownLatch latch;
 
     SingleQueryDeriver(IDivideQuery divideQuery,
                        Context context,
                        IComponent component,
                        IDivideQueryDeriver divideQueryDeriver,
-                       DivideOntology divideOntology,
-                       CountDownLatch latch) {
+                       DivideOntology divideOntology) {
         this.divideQuery = divideQuery;
         this.context = context;
         this.component = component;
         this.divideQueryDeriver = divideQueryDeriver;
         this.divideOntology = divideOntology;
-        this.latch = latch;
     }
 
     @Override
@@ -71,6 +67,9 @@ class SingleQueryDeriver implements Runnable {
             // at the given DIVIDE component for the given DIVIDE query
             IContextEnricher contextEnricher = component.getContextEnricher(divideQuery);
             contextEnricher.enrichContext(copiedContext);
+            long enrichmentEnd = System.currentTimeMillis();
+            QueryDerivationMetrics.getInstance().record(
+                    QueryDerivationMetrics.Stage.CONTEXT_ENRICHMENT, enrichmentEnd - start);
 
             // derive all query instances for the given DIVIDE query name and up-to-date context
             // -> what about the exceptions?
@@ -83,15 +82,17 @@ class SingleQueryDeriver implements Runnable {
             //      controlled static inputs of DIVIDE which are known to be valid, or outputs of
             //      previous reasoning steps); I/O errors can of course never be ruled out
             //    * other possible unchecked exceptions: always possible
-            // -> any exception should ALWAYS be caught and ignored, since otherwise the query
-            //    update processing queue of this component will block FOREVER (since it is
-            //    waiting for each started thread, including this one, to count down the latch)
-            //    => whatever the exception is, this thread should simply stop and count down
-            //       the latch, without having scheduled any queries for registration at the
-            //       RSP engine handler
+            // -> any exception should ALWAYS be caught and logged here, since the query
+            //    update processing queue of this component only uses the future of this
+            //    derivation to know when it has finished, and never inspects its outcome
+            //    => whatever the exception is, this thread should simply stop, without
+            //       having scheduled any queries for registration at the RSP engine handler
             IDivideQueryDeriverResult divideQueryDeriverResult = divideQueryDeriver.deriveQueries(
                     divideQuery.getName(), copiedContext, component.getId());
             List<String> substitutedQueries = divideQueryDeriverResult.getSubstitutedRspQlQueries();
+            QueryDerivationMetrics.getInstance().record(
+                    QueryDerivationMetrics.Stage.QUERY_DERIVATION,
+                    System.currentTimeMillis() - enrichmentEnd);
 
             // save query derivation result
             DivideQueryDeriverResultManager.getInstance().saveQueryDeriverResult(
@@ -112,12 +113,6 @@ class SingleQueryDeriver implements Runnable {
                     "Error during the DIVIDE query derivation for query '{}' " +
                     "(for component with ID '{}', and context '{}')",
                     divideQuery.getName(), component.getId(), context.getId(), e);
-
-        } finally {
-            // whatever happens along the way, count down latch at the end so
-            // the main query derivation thread (in DivideEngine class) is not
-            // blocked forever
-            latch.countDown();
         }
     }
 
@@ -9,13 +9,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 class DivideQueryGenerator {
 
-    static long COUNTER = 1;
+    // counter used to create unique pattern and prefixes IRIs; it is atomic and
+    // every query pattern reserves its own value, so that multiple DIVIDE queries
+    // can be parsed concurrently (e.g., when registering them in bulk)
+    private static final AtomicLong COUNTER = new AtomicLong(1);
 
     private static final Set<Prefix> DIVIDE_PREFIXES = new HashSet<>();
     private static final Set<String> DIVIDE_PREFIX_NAMES;
@@ -86,6 +89,8 @@ class DivideQueryGenerator {
 
     private static final String RSP_QL_QUERY_BODY_WHERE_GRAPH_TEMPLATE = "WINDOW :win%d {\n%s\n}";
 
+    private static final Pattern WINDOW_NAME_PATTERN = Pattern.compile("win\\d+");
+
     /**
      * @param queryForm query form of the RSP-QL query template for which
      *                  this pattern is created
@@ -102,11 +107,15 @@ class DivideQueryGenerator {
                               String rspQlQueryBody) {
         Set<Prefix> dividePrefixes = new HashSet<>(DIVIDE_PREFIXES);
 
+        // retrieve prefixes used in the RSP-QL query body, ignoring the
+        // generated window names
+        Set<String> usedPrefixNames = SparqlTokenizer.getUsedPrefixNames(
+                rspQlQueryBody, localName -> !WINDOW_NAME_PATTERN.matcher(localName).matches());
+
         // loop over prefixes
         Set<Prefix> prefixesPresent = new HashSet<>();
         for (Prefix prefix : prefixes) {
-            if (Pattern.compile("(\\s|\\(|^|\\^)" + prefix.getName() + "(?!win\\d+\\s)")
-                    .matcher(rspQlQueryBody).find()) {
+            if (usedPrefixNames.contains(prefix.getName())) {
                 if (":".equals(prefix.getName())) {
                     // a prefix without a name cannot be defined in SHACL, so should
                     // be replaced with a DIVIDE prefix
@@ -118,9 +127,9 @@ class DivideQueryGenerator {
                     prefixesPresent.add(newPrefix);
 
                     // update RSP-QL query body according to new prefix
-                    Pattern replacingPattern = Pattern.compile("(\\s|\\(|^|\\^):(?!win\\d+\\s)");
-                    Matcher m = replacingPattern.matcher(rspQlQueryBody);
-                    rspQlQueryBody = m.replaceAll("$1" + newPrefix.getName());
+                    rspQlQueryBody = SparqlTokenizer.replacePrefixName(
+                            rspQlQueryBody, ":", newPrefix.getName(),
+                            localName -> !WINDOW_NAME_PATTERN.matcher(localName).matches());
 
                 } else {
                     // only include in prefix set if prefix occurs in RSP-QL query body
@@ -135,11 +144,12 @@ class DivideQueryGenerator {
         templates.add(SHACL_PREFIX_DECLARATION_TEMPLATE);
         templates = solveConflictsWithDividePrefixes(templates, prefixesPresent, dividePrefixes);
 
+        long patternId = COUNTER.getAndIncrement();
         return String.format(templates.get(0),
                 getTurtlePrefixList(dividePrefixes),
-                COUNTER,
-                getShaclPrefixList(prefixesPresent, templates.get(1)),
-                COUNTER,
+                patternId,
+                getShaclPrefixList(prefixesPresent, templates.get(1), patternId),
+                patternId,
                 queryForm.toString().toLowerCase(),
                 rspQlQueryBody);
     }
@@ -461,11 +471,8 @@ class DivideQueryGenerator {
                     // update prefix template
                     List<String> newTemplates = new ArrayList<>();
                     for (String template : templates) {
-                        Pattern replacingPattern =
-                                Pattern.compile("(\\s|\\(|^|\\^)" + conflictingPrefix.getName());
-                        Matcher m = replacingPattern.matcher(template);
-                        template = m.replaceAll("$1" + newPrefix.getName());
-                        newTemplates.add(template);
+                        newTemplates.add(SparqlTokenizer.replacePrefixName(
+                                template, conflictingPrefix.getName(), newPrefix.getName()));
                     }
                     templates = new ArrayList<>(newTemplates);
                 }
@@ -482,10 +489,10 @@ class DivideQueryGenerator {
         return String.join(" ", turtlePrefixList);
     }
 
-    private String getShaclPrefixList(Set<Prefix> prefixes, String template) {
+    private String getShaclPrefixList(Set<Prefix> prefixes, String template, long patternId) {
         List<String> shaclPrefixList = new ArrayList<>();
         for (Prefix prefix : prefixes) {
-            shaclPrefixList.add(convertPrefixToShaclPrefix(template, prefix));
+            shaclPrefixList.add(convertPrefixToShaclPrefix(template, prefix, patternId));
         }
         return String.join("\n", shaclPrefixList);
     }
@@ -494,9 +501,9 @@ class DivideQueryGenerator {
         return String.format(TURTLE_PREFIX_TEMPLATE, prefix.getName(), prefix.getUri());
     }
 
-    private String convertPrefixToShaclPrefix(String template, Prefix prefix) {
+    private String convertPrefixToShaclPrefix(String template, Prefix prefix, long patternId) {
         return String.format(template,
-                COUNTER,
+                patternId,
                 prefix.getName().substring(0, prefix.getName().length() - 1),
                 prefix.getUri().substring(1, prefix.getUri().length() - 1));
     }
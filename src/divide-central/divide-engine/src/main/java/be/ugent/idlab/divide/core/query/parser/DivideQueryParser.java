@@ -20,6 +20,7 @@ import org.apache.jena.sparql.syntax.ElementWalker;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -37,10 +39,7 @@ public class DivideQueryParser implements IDivideQueryParser {
 
     private static final boolean DEBUG = false;
     
-    private static int PREFIX_COUNTER = 0;
-
-    private static final Pattern PREFIX_PATTERN = Pattern.compile(
-            "(\\s*PREFIX\\s+(\\S+)\\s+(<[^<>]+>))", Pattern.CASE_INSENSITIVE);
+    private static final AtomicInteger PREFIX_COUNTER = new AtomicInteger();
 
     private static final Pattern SPARQL_FROM_NAMED_GRAPH_PATTERN = Pattern.compile(
             "\\s*FROM\\s+NAMED\\s+(\\S+)", Pattern.CASE_INSENSITIVE);
@@ -68,15 +67,8 @@ public class DivideQueryParser implements IDivideQueryParser {
     private static final Pattern RSP_QL_WHERE_CLAUSE_GRAPH_OR_WINDOW_PATTERN = Pattern.compile(
             "\\s*(WINDOW|GRAPH)\\s+(\\S+)\\s+\\{", Pattern.CASE_INSENSITIVE);
 
-    private static final Pattern SPARQL_QUERY_SPLIT_PATTERN = Pattern.compile(
-            "^\\s*" + // beginning of query string
-                    "(" + PREFIX_PATTERN.pattern() + "*)" + // prefix group 1
-                    "\\s+(CONSTRUCT|SELECT|ASK|DESCRIBE)((.(?!FROM))*)" + // form group 5, result group 6
-                    "(\\s*(FROM(.(?!WHERE))+)*)\\s*" + // from clauses group 8
-                    "(WHERE\\s*\\{(.+)})" + // where clause group 12
-                    "([^{}]*)" + // remainder group 13
-                    "\\s*$", // end of query string
-            Pattern.CASE_INSENSITIVE);
+    private static final Pattern RSP_QL_WHERE_CLAUSE_WINDOW_PATTERN = Pattern.compile(
+            "WINDOW\\s+(\\S+)");
 
     private static final Pattern SPECIAL_SPARQL_PATTERN =
             Pattern.compile("(OPTIONAL|UNION|GRAPH|BIND|GROUP BY|HAVING|MINUS|FILTER)" +
@@ -92,14 +84,6 @@ public class DivideQueryParser implements IDivideQueryParser {
                     "[\u3001-\uD7FF]|[\uF900-\uFDCF]|[\uFDF0-\uFFFD]|[\\x{10000}-\\x{EFFFF}])");
     private static final Pattern PN_CHARS_U_PATTERN =
             Pattern.compile(String.format("(%s)|_", PN_CHARS_BASE_PATTERN));
-    private static final Pattern PN_CHARS_PATTERN =
-            Pattern.compile(String.format(
-                    "(%s)|-|[0-9]|\u00B7|[\u0300-\u036F]|[\u203F-\u2040]", PN_CHARS_U_PATTERN));
-    private static final Pattern PN_PREFIX_PATTERN =
-            Pattern.compile(String.format("(%s)(((%s)|'.')*(%s))?",
-                    PN_CHARS_BASE_PATTERN, PN_CHARS_PATTERN, PN_CHARS_PATTERN));
-    private static final Pattern PN_NAME_NS_PATTERN =
-            Pattern.compile(String.format("(\\s|\\(|^|\\^)((%s)?:)", PN_PREFIX_PATTERN));
     private static final Pattern VARNAME_PATTERN =
             Pattern.compile(String.format(
                     "((%s)|[0-9])((%s)|[0-9]|\u00B7|[\u0300-\u036F]|[\u203F-\u2040])*",
@@ -107,7 +91,6 @@ public class DivideQueryParser implements IDivideQueryParser {
     private static final Pattern VAR1_PATTERN =
             Pattern.compile(String.format("\\?(%s)", VARNAME_PATTERN));
 
-    private static final Pattern USED_PREFIX_PATTERN = PN_NAME_NS_PATTERN;
     private static final Pattern UNBOUND_VARIABLES_PATTERN = VAR1_PATTERN;
     private static final Pattern UNBOUND_VARIABLES_IN_STREAM_WINDOW_PATTERN =
             Pattern.compile(String.format("\\?\\{(%s)}", VARNAME_PATTERN));
@@ -127,6 +110,17 @@ public class DivideQueryParser implements IDivideQueryParser {
     private static final Pattern SELECT_CLAUSE_PATTERN =
             Pattern.compile(String.format("(%s)+", SELECT_CLAUSE_PATTERN_ENTRY));
 
+    private static final Map<QueryForm, Pattern> RSP_QL_QUERY_BODY_PATTERNS =
+            new EnumMap<>(QueryForm.class);
+
+    static {
+        for (QueryForm queryForm : QueryForm.values()) {
+            RSP_QL_QUERY_BODY_PATTERNS.put(queryForm, Pattern.compile(
+                    String.format(":%s \"\"\".+\"\"\"\\.", queryForm.toString().toLowerCase()),
+                    Pattern.DOTALL));
+        }
+    }
+
     private static final List<String> POSSIBLE_WHERE_CLAUSE_SPARQL_KEYWORDS = new ArrayList<>();
 
     static {
@@ -228,9 +222,6 @@ public class DivideQueryParser implements IDivideQueryParser {
         // process output again, based on variable mapping
         result = restoreOriginalVariablesInOutput(result, cleanInput.getVariableMapping());
 
-        // increase the counter of the generator which is used to create unique
-        // pattern and prefixes IRIs
-        DivideQueryGenerator.COUNTER++;
         return result;
     }
 
@@ -1162,7 +1153,7 @@ public class DivideQueryParser implements IDivideQueryParser {
             }
 
             // create SPARQL WHERE clause
-            Matcher m1 = Pattern.compile("WINDOW\\s+(\\S+)").matcher(
+            Matcher m1 = RSP_QL_WHERE_CLAUSE_WINDOW_PATTERN.matcher(
                     parsedStreamQuery.getSplitSparqlQuery().getWherePart());
             String sparqlWhereClause = parsedStreamQuery.getSplitSparqlQuery().getWherePart();
             while (m1.find()) {
@@ -1501,25 +1492,23 @@ public class DivideQueryParser implements IDivideQueryParser {
                 }
                 // if not, create a new prefix with new name and same URI
                 if (newPrefixName == null) {
-                    newPrefixName = String.format("newPrefix%d:", PREFIX_COUNTER++);
+                    newPrefixName = String.format("newPrefix%d:", PREFIX_COUNTER.getAndIncrement());
                     newPrefix = new Prefix(newPrefixName, conflictingPrefix.getUri());
                 }
 
                 // replace prefix name in existing query parts
-                Pattern replacingPattern =
-                        Pattern.compile("(\\s|\\(|^|\\^)" + conflictingPrefix.getName());
-                Matcher m1 = replacingPattern.matcher(prefixPart);
-                prefixPart = m1.replaceAll("$1" + newPrefixName);
+                prefixPart = SparqlTokenizer.replacePrefixName(
+                        prefixPart, conflictingPrefix.getName(), newPrefixName);
                 if ((parsedSparqlQuery.getSplitSparqlQuery().getQueryForm() == QueryForm.CONSTRUCT ||
                         parsedSparqlQuery.getSplitSparqlQuery().getQueryForm() == QueryForm.DESCRIBE ||
                         parsedSparqlQuery.getSplitSparqlQuery().getQueryForm() == QueryForm.SELECT)
                         && resultPart != null) {
-                    Matcher m2 = replacingPattern.matcher(resultPart);
-                    resultPart = m2.replaceAll("$1" + newPrefixName);
+                    resultPart = SparqlTokenizer.replacePrefixName(
+                            resultPart, conflictingPrefix.getName(), newPrefixName);
                 }
                 if (wherePart != null) {
-                    Matcher m3 = replacingPattern.matcher(wherePart);
-                    wherePart = m3.replaceAll("$1" + newPrefixName);
+                    wherePart = SparqlTokenizer.replacePrefixName(
+                            wherePart, conflictingPrefix.getName(), newPrefixName);
                 }
 
                 // update set of prefixes
@@ -1723,17 +1712,16 @@ public class DivideQueryParser implements IDivideQueryParser {
         // check for prefix names occurring in query string without being defined as a prefix
         String queryWithoutPrefixes = query.replace(splitSparqlQuery.getPrefixPart(), "");
         Set<String> existingPrefixNames = prefixMap.keySet();
-        Matcher m = USED_PREFIX_PATTERN.matcher(queryWithoutPrefixes);
-        while (m.find()) {
-            if (!existingPrefixNames.contains(m.group(2)) && !"_:".equals(m.group(2))) {
+        Set<String> usedPrefixNames = SparqlTokenizer.getUsedPrefixNames(queryWithoutPrefixes);
+        for (String usedPrefixName : usedPrefixNames) {
+            if (!existingPrefixNames.contains(usedPrefixName)) {
                 throw new InvalidDivideQueryParserInputException(
-                        String.format("Query string contains undefined prefix '%s'", m.group(2)));
+                        String.format("Query string contains undefined prefix '%s'", usedPrefixName));
             }
         }
 
         // remove prefixes that do not occur in query body
-        prefixes.removeIf(prefix -> !Pattern.compile("(\\s|\\(|^|\\^)" + prefix.getName())
-                .matcher(queryWithoutPrefixes).find());
+        prefixes.removeIf(prefix -> !usedPrefixNames.contains(prefix.getName()));
 
         return new ParsedSparqlQuery(
                 splitSparqlQuery,
@@ -1768,10 +1756,10 @@ public class DivideQueryParser implements IDivideQueryParser {
         // check for prefix names occurring in query string without being defined as a prefix
         String queryWithoutPrefixes = query.replace(splitSparqlQuery.getPrefixPart(), "");
         Set<String> existingPrefixNames = new HashSet<>(prefixMap.keySet());
-        Matcher m = USED_PREFIX_PATTERN.matcher(queryWithoutPrefixes);
-        while (m.find()) {
-            if (!existingPrefixNames.contains(m.group(2))) {
-                if (":".equals(m.group(2))) {
+        Set<String> usedPrefixNames = SparqlTokenizer.getUsedPrefixNames(queryWithoutPrefixes);
+        for (String usedPrefixName : usedPrefixNames) {
+            if (!existingPrefixNames.contains(usedPrefixName)) {
+                if (":".equals(usedPrefixName)) {
                     String prefixUri = "<http://acrasycompany.org/rsp#>";
                     splitSparqlQuery = new SplitSparqlQuery(
                             splitSparqlQuery.getPrefixPart() + " PREFIX : " + prefixUri,
@@ -1784,14 +1772,13 @@ public class DivideQueryParser implements IDivideQueryParser {
                     prefixes.add(new Prefix(":", prefixUri));
                 } else {
                     throw new InvalidDivideQueryParserInputException(
-                            String.format("Query string contains undefined prefix '%s'", m.group(2)));
+                            String.format("Query string contains undefined prefix '%s'", usedPrefixName));
                 }
             }
         }
 
         // remove prefixes that do not occur in query body
-        prefixes.removeIf(prefix -> !Pattern.compile("(\\s|\\(|^|\\^)" + prefix.getName())
-                .matcher(queryWithoutPrefixes).find());
+        prefixes.removeIf(prefix -> !usedPrefixNames.contains(prefix.getName()));
 
         return new ParsedSparqlQuery(
                 splitSparqlQuery,
@@ -1799,39 +1786,99 @@ public class DivideQueryParser implements IDivideQueryParser {
     }
 
     /**
+     * Splits a SPARQL or RSP-QL query into its different parts, based on a single
+     * pass over its tokens: the prefix declarations, the query form, the result
+     * part, the FROM clauses, the WHERE clause and the remainder (solution modifiers).
+     * Only keywords and curly braces outside IRIs, literals and nested graph patterns
+     * are considered to split the query.
+     *
      * @param query SPARQL query body string
      * @return split SPARQL query containing the different parts
      * @throws InvalidDivideQueryParserInputException if the query is of invalid syntax
      */
     private SplitSparqlQuery splitSparqlQuery(String query)
             throws InvalidDivideQueryParserInputException {
-        // try to match the query pattern on the SPARQL query
-        Matcher m = SPARQL_QUERY_SPLIT_PATTERN.matcher(query);
-        if (m.find()) {
-            // parse query form
-            QueryForm queryForm = QueryForm.fromString(m.group(5).trim());
-            if (queryForm == null) {
+        List<SparqlTokenizer.Token> tokens = SparqlTokenizer.tokenize(query);
+        int index = 0;
+
+        // skip prefix declarations
+        int prefixPartEnd = 0;
+        while (index + 2 < tokens.size() && tokens.get(index).isKeyword("PREFIX")) {
+            if (tokens.get(index + 1).getType() != SparqlTokenizer.TokenType.PREFIXED_NAME ||
+                    tokens.get(index + 2).getType() != SparqlTokenizer.TokenType.IRI) {
                 throw new InvalidDivideQueryParserInputException(
-                        "Invalid query form specified in query");
+                        "Query does not have valid SPARQL format");
             }
+            prefixPartEnd = tokens.get(index + 2).getEnd();
+            index += 3;
+        }
 
-            // parse result part (output) & remove curly braces
-            String resultPart = m.group(6).trim();
-            resultPart = parseQueryResultPart(resultPart, queryForm);
-
-            // create split query & make sure all strings are trimmed
-            return new SplitSparqlQuery(
-                    m.group(1) == null ? null : m.group(1).trim(),
-                    queryForm,
-                    resultPart,
-                    m.group(8) == null ? null : m.group(8).trim(),
-                    m.group(12) == null ? null : m.group(12).trim(),
-                    m.group(13) == null ? null : m.group(13).trim());
+        // parse query form
+        if (index >= tokens.size() ||
+                tokens.get(index).getType() != SparqlTokenizer.TokenType.WORD) {
+            throw new InvalidDivideQueryParserInputException(
+                    "Query does not have valid SPARQL format");
+        }
+        QueryForm queryForm = QueryForm.fromString(tokens.get(index).getText());
+        if (queryForm == null) {
+            throw new InvalidDivideQueryParserInputException(
+                    "Invalid query form specified in query");
+        }
+        int resultPartStart = tokens.get(index).getEnd();
+        index++;
+
+        // find the FROM clauses and the WHERE keyword outside curly braces
+        // (e.g., outside the template of a CONSTRUCT query)
+        int fromPartStart = -1;
+        int whereIndex = -1;
+        int depth = 0;
+        for (; index < tokens.size() && whereIndex < 0; index++) {
+            SparqlTokenizer.Token token = tokens.get(index);
+            if (token.isPunctuation('{')) {
+                depth++;
+            } else if (token.isPunctuation('}')) {
+                depth--;
+            } else if (depth == 0 && token.isKeyword("FROM") && fromPartStart < 0) {
+                fromPartStart = token.getStart();
+            } else if (depth == 0 && token.isKeyword("WHERE")) {
+                whereIndex = index;
+            }
+        }
+        if (whereIndex < 0 || whereIndex + 1 >= tokens.size() ||
+                !tokens.get(whereIndex + 1).isPunctuation('{')) {
+            throw new InvalidDivideQueryParserInputException(
+                    "Query does not have valid SPARQL format");
+        }
 
-        } else {
+        // the WHERE clause ends at the last closing curly brace of the query,
+        // the remainder of the query cannot contain curly braces
+        int whereClauseEnd = -1;
+        for (int i = tokens.size() - 1; i > whereIndex + 1 && whereClauseEnd < 0; i--) {
+            if (tokens.get(i).isPunctuation('}')) {
+                whereClauseEnd = i;
+            }
+        }
+        if (whereClauseEnd < 0) {
             throw new InvalidDivideQueryParserInputException(
                     "Query does not have valid SPARQL format");
         }
+
+        int whereKeywordStart = tokens.get(whereIndex).getStart();
+        String resultPart = query.substring(resultPartStart,
+                fromPartStart >= 0 ? fromPartStart : whereKeywordStart).trim();
+        resultPart = parseQueryResultPart(resultPart, queryForm);
+        String fromPart = fromPartStart >= 0
+                ? query.substring(fromPartStart, whereKeywordStart).trim() : "";
+
+        // create split query & make sure all strings are trimmed
+        return new SplitSparqlQuery(
+                query.substring(0, prefixPartEnd).trim(),
+                queryForm,
+                resultPart,
+                fromPart,
+                query.substring(tokens.get(whereIndex + 1).getEnd(),
+                        tokens.get(whereClauseEnd).getStart()).trim(),
+                query.substring(tokens.get(whereClauseEnd).getEnd()).trim());
     }
 
     /**
@@ -1865,12 +1912,15 @@ public class DivideQueryParser implements IDivideQueryParser {
      * @return parsed set of prefixes
      */
     private Set<Prefix> getPrefixes(String prefixString) {
-        Matcher m = PREFIX_PATTERN.matcher(prefixString);
+        List<SparqlTokenizer.Token> tokens = SparqlTokenizer.tokenize(prefixString);
         Set<Prefix> prefixes = new HashSet<>();
-        while (m.find()) {
-            String prefixName = m.group(2).trim();
-            String prefixURI = m.group(3).trim();
-            prefixes.add(new Prefix(prefixName, prefixURI));
+        for (int i = 0; i + 2 < tokens.size(); i++) {
+            if (tokens.get(i).isKeyword("PREFIX") &&
+                    tokens.get(i + 1).getType() == SparqlTokenizer.TokenType.PREFIXED_NAME &&
+                    tokens.get(i + 2).getType() == SparqlTokenizer.TokenType.IRI) {
+                prefixes.add(new Prefix(tokens.get(i + 1).getText(), tokens.get(i + 2).getText()));
+                i += 2;
+            }
         }
         return prefixes;
     }
@@ -3002,10 +3052,7 @@ public class DivideQueryParser implements IDivideQueryParser {
 
     private String extractRspQlQueryBodyFromQueryPattern(String queryPattern,
                                                          QueryForm queryForm) {
-        final Pattern pattern = Pattern.compile(
-                String.format(":%s \"\"\"(\\n|\\r|.)+\"\"\"\\.",
-                        queryForm.toString().toLowerCase()));
-        Matcher m = pattern.matcher(queryPattern);
+        Matcher m = RSP_QL_QUERY_BODY_PATTERNS.get(queryForm).matcher(queryPattern);
         if (m.find()) {
             return m.group();
         } else {
@@ -0,0 +1,403 @@
+package be.ugent.idlab.divide.core.query.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass tokenizer for the subset of SPARQL and RSP-QL accepted by the
+ * DIVIDE query parser.
+ *
+ * In contrast to regular expressions applied on the full query string, the
+ * tokenizer processes every character exactly once and knows the context in which
+ * it occurs: characters inside IRIs, string literals and comments are never mistaken
+ * for prefixed names, keywords or curly braces. The tokens keep their offsets in the
+ * tokenized string, so that parts of a query can be extracted from the original string.
+ */
+class SparqlTokenizer {
+
+    enum TokenType {
+        IRI,
+        PREFIXED_NAME,
+        BLANK_NODE,
+        VARIABLE,
+        STRING,
+        NUMBER,
+        WORD,
+        PUNCTUATION
+    }
+
+    static class Token {
+
+        private final TokenType type;
+        private final String input;
+        private final int start;
+        private final int end;
+
+        private Token(TokenType type, String input, int start, int end) {
+            this.type = type;
+            this.input = input;
+            this.start = start;
+            this.end = end;
+        }
+
+        TokenType getType() {
+            return type;
+        }
+
+        /**
+         * @return offset of the first character of this token in the tokenized string
+         */
+        int getStart() {
+            return start;
+        }
+
+        /**
+         * @return offset after the last character of this token in the tokenized string
+         */
+        int getEnd() {
+            return end;
+        }
+
+        String getText() {
+            return input.substring(start, end);
+        }
+
+        /**
+         * @return prefix name of a prefixed name token, including the colon
+         *         (e.g. 'ex:' for 'ex:Sensor', and ':' for ':Sensor')
+         */
+        String getPrefixName() {
+            return input.substring(start, input.indexOf(':', start) + 1);
+        }
+
+        /**
+         * @return local name of a prefixed name token (e.g. 'Sensor' for 'ex:Sensor')
+         */
+        String getLocalName() {
+            return input.substring(input.indexOf(':', start) + 1, end);
+        }
+
+        /**
+         * @return true if this token is a word equal to the given keyword,
+         *         ignoring case
+         */
+        boolean isKeyword(String keyword) {
+            return type == TokenType.WORD && end - start == keyword.length() &&
+                    input.regionMatches(true, start, keyword, 0, keyword.length());
+        }
+
+        boolean isPunctuation(char c) {
+            return type == TokenType.PUNCTUATION && input.charAt(start) == c;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(" + getText() + ")";
+        }
+
+    }
+
+    private final String input;
+    private final int length;
+    private int position;
+
+    private SparqlTokenizer(String input) {
+        this.input = input;
+        this.length = input.length();
+        this.position = 0;
+    }
+
+    /**
+     * @param input SPARQL or RSP-QL string (query or part of a query)
+     * @return all tokens of the given string, in order of occurrence
+     */
+    static List<Token> tokenize(String input) {
+        if (input == null || input.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new SparqlTokenizer(input).tokenize();
+    }
+
+    /**
+     * @param input SPARQL or RSP-QL string (query or part of a query)
+     * @return names of the prefixes used in prefixed names in the given string
+     *         (including the colon), in order of first occurrence
+     */
+    static Set<String> getUsedPrefixNames(String input) {
+        return getUsedPrefixNames(input, localName -> true);
+    }
+
+    /**
+     * @param input SPARQL or RSP-QL string (query or part of a query)
+     * @param localNameFilter filter on the local names of the prefixed names
+     *                        that should be considered
+     * @return names of the prefixes used in the considered prefixed names in the
+     *         given string (including the colon), in order of first occurrence
+     */
+    static Set<String> getUsedPrefixNames(String input, Predicate<String> localNameFilter) {
+        Set<String> prefixNames = new LinkedHashSet<>();
+        for (Token token : tokenize(input)) {
+            if (token.type == TokenType.PREFIXED_NAME &&
+                    localNameFilter.test(token.getLocalName())) {
+                prefixNames.add(token.getPrefixName());
+            }
+        }
+        return prefixNames;
+    }
+
+    /**
+     * Replaces the prefix of all prefixed names with the given prefix name.
+     *
+     * @param input SPARQL or RSP-QL string (query or part of a query)
+     * @param prefixName name of prefix to be replaced (including the colon)
+     * @param newPrefixName name of new prefix (including the colon)
+     * @return string in which the prefix has been replaced
+     */
+    static String replacePrefixName(String input, String prefixName, String newPrefixName) {
+        return replacePrefixName(input, prefixName, newPrefixName, localName -> true);
+    }
+
+    /**
+     * Replaces the prefix of all prefixed names with the given prefix name, for
+     * which the local name is accepted by the given filter.
+     *
+     * @param input SPARQL or RSP-QL string (query or part of a query)
+     * @param prefixName name of prefix to be replaced (including the colon)
+     * @param newPrefixName name of new prefix (including the colon)
+     * @param localNameFilter filter on the local names of the prefixed names
+     *                        of which the prefix should be replaced
+     * @return string in which the prefix has been replaced
+     */
+    static String replacePrefixName(String input, String prefixName, String newPrefixName,
+                                    Predicate<String> localNameFilter) {
+        if (input == null) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(input.length());
+        int copied = 0;
+        for (Token token : tokenize(input)) {
+            if (token.type == TokenType.PREFIXED_NAME &&
+                    input.startsWith(prefixName, token.start) &&
+                    input.indexOf(':', token.start) == token.start + prefixName.length() - 1 &&
+                    localNameFilter.test(token.getLocalName())) {
+                result.append(input, copied, token.start).append(newPrefixName);
+                copied = token.start + prefixName.length();
+            }
+        }
+        return result.append(input, copied, input.length()).toString();
+    }
+
+    private List<Token> tokenize() {
+        List<Token> tokens = new ArrayList<>();
+        while (true) {
+            skipWhitespaceAndComments();
+            if (position >= length) {
+                return tokens;
+            }
+            tokens.add(nextToken());
+        }
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < length) {
+            char c = input.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '#') {
+                while (position < length &&
+                        input.charAt(position) != '\n' && input.charAt(position) != '\r') {
+                    position++;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private Token nextToken() {
+        int start = position;
+        char c = input.charAt(position);
+
+        if (c == '<' && scanIri()) {
+            return token(TokenType.IRI, start);
+        }
+        if (c == '"' || c == '\'') {
+            scanString(c);
+            return token(TokenType.STRING, start);
+        }
+        if ((c == '?' || c == '$') && position + 1 < length) {
+            char next = input.charAt(position + 1);
+            if (next == '{') {
+                // RSP-QL window parameter variable of the form ?{name}
+                int close = input.indexOf('}', position + 2);
+                if (close > 0 && isName(position + 2, close)) {
+                    position = close + 1;
+                    return token(TokenType.VARIABLE, start);
+                }
+            } else if (isNameChar(next)) {
+                position++;
+                scanNameChars(false);
+                return token(TokenType.VARIABLE, start);
+            }
+        }
+        if (c == '_' && position + 1 < length && input.charAt(position + 1) == ':') {
+            position += 2;
+            scanNameChars(false);
+            return token(TokenType.BLANK_NODE, start);
+        }
+        if (Character.isDigit(c)) {
+            scanNumber();
+            return token(TokenType.NUMBER, start);
+        }
+        if (c == ':' || isNameStartChar(c)) {
+            boolean prefixed = scanNameChars(true);
+            return token(prefixed ? TokenType.PREFIXED_NAME : TokenType.WORD, start);
+        }
+
+        position++;
+        return token(TokenType.PUNCTUATION, start);
+    }
+
+    private Token token(TokenType type, int start) {
+        return new Token(type, input, start, position);
+    }
+
+    /**
+     * Scans an IRI starting at the current '&lt;' character. If no valid IRI starts
+     * here (e.g., because the character is a less-than operator), the position is
+     * not changed.
+     */
+    private boolean scanIri() {
+        int i = position + 1;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c == '>') {
+                position = i + 1;
+                return true;
+            }
+            if (c <= ' ' || c == '<' || c == '"' || c == '{' || c == '}' ||
+                    c == '|' || c == '^' || c == '`' || c == '\\') {
+                return false;
+            }
+            i++;
+        }
+        return false;
+    }
+
+    /**
+     * Scans a (possibly long) string literal, including its language tag if any.
+     */
+    private void scanString(char quote) {
+        boolean longString = position + 2 < length &&
+                input.charAt(position + 1) == quote && input.charAt(position + 2) == quote;
+        position += longString ? 3 : 1;
+        while (position < length) {
+            char c = input.charAt(position);
+            if (c == '\\') {
+                position += 2;
+            } else if (c == quote && (!longString || (position + 2 < length &&
+                    input.charAt(position + 1) == quote && input.charAt(position + 2) == quote))) {
+                position += longString ? 3 : 1;
+                break;
+            } else {
+                position++;
+            }
+        }
+        position = Math.min(position, length);
+
+        if (position < length && input.charAt(position) == '@') {
+            position++;
+            while (position < length && (Character.isLetterOrDigit(input.charAt(position)) ||
+                    input.charAt(position) == '-')) {
+                position++;
+            }
+        }
+    }
+
+    private void scanNumber() {
+        while (position < length && Character.isDigit(input.charAt(position))) {
+            position++;
+        }
+        // a dot is only part of the number if it is followed by a digit,
+        // otherwise it ends a triple pattern
+        if (position + 1 < length && input.charAt(position) == '.' &&
+                Character.isDigit(input.charAt(position + 1))) {
+            position++;
+            while (position < length && Character.isDigit(input.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < length && (input.charAt(position) == 'e' || input.charAt(position) == 'E')) {
+            int i = position + 1;
+            if (i < length && (input.charAt(i) == '+' || input.charAt(i) == '-')) {
+                i++;
+            }
+            if (i < length && Character.isDigit(input.charAt(i))) {
+                position = i;
+                while (position < length && Character.isDigit(input.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the characters of a name, i.e., a keyword, (part of) a prefixed name,
+     * a variable name or a blank node label. A name cannot end with a dot, since
+     * this dot ends the triple pattern instead.
+     *
+     * @param allowColon whether the name may contain colons (prefixed names)
+     * @return true if the scanned name contains a colon
+     */
+    private boolean scanNameChars(boolean allowColon) {
+        boolean colon = false;
+        int lastValid = position;
+        while (position < length) {
+            char c = input.charAt(position);
+            if (c == ':' && allowColon) {
+                colon = true;
+                position++;
+                lastValid = position;
+            } else if (colon && (c == '%' || c == '\\') && position + 1 < length) {
+                // percent-encoded or escaped characters in a local name
+                position += c == '%' ? Math.min(3, length - position) : 2;
+                lastValid = position;
+            } else if (isNameChar(c)) {
+                position++;
+                lastValid = position;
+            } else if (c == '.') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        position = lastValid;
+        return colon;
+    }
+
+    private boolean isName(int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isNameChar(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameStartChar(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '\u00B7' ||
+                (c >= '\u0300' && c <= '\u036F') || (c >= '\u203F' && c <= '\u2040');
+    }
+
+}
@@ -8,4 +8,10 @@ public class DivideGlobalMonitorConstants {
                                                                                  // reasoning service cannot handle this
     public static final int RS_TUMBLING_WINDOW_SIZE_SECONDS = 20;
 
+    public static final int MEASUREMENT_FRAME_SERVER_PORT = 54556;
+
+    public static final int LOCAL_MONITOR_CONTROL_PORT = 54557;
+    public static final int LOCAL_MONITOR_HEARTBEAT_TIMEOUT_IN_SECONDS = 15;
+    public static final int LOCAL_MONITOR_STARTUP_GRACE_PERIOD_IN_SECONDS = 90;
+
 }
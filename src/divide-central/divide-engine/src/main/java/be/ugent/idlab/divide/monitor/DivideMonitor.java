@@ -25,6 +25,7 @@ class DivideMonitor implements IDivideMonitor {
     private final String deviceNetworkIp;
 
     private final Map<String, LocalMonitorManager> localMonitorManagerMap;
+    private final LocalMonitorControlServer localMonitorControlServer;
 
     DivideMonitor(IDivideEngine divideEngine,
                   IDivideGlobalMonitor globalMonitor,
@@ -39,6 +40,8 @@ class DivideMonitor implements IDivideMonitor {
         this.deviceNetworkIp = deviceNetworkIp;
 
         this.localMonitorManagerMap = new HashMap<>();
+        this.localMonitorControlServer = new LocalMonitorControlServer(
+                DivideGlobalMonitorConstants.LOCAL_MONITOR_CONTROL_PORT);
     }
 
     @Override
@@ -58,6 +61,10 @@ class DivideMonitor implements IDivideMonitor {
         // start global monitor
         this.globalMonitor.start();
 
+        // start the server of the control channels over which the local monitors
+        // send their heartbeats & receive commands
+        this.localMonitorControlServer.start();
+
         // manage local monitor: perform general initialization task &
         // start a local monitor on every registered component
         LocalMonitorManager.initialize();
@@ -115,7 +122,9 @@ class DivideMonitor implements IDivideMonitor {
 
         if (!this.localMonitorManagerMap.containsKey(component.getId())) {
             LocalMonitorManager localMonitorManager =
-                    new LocalMonitorManager(component, localMonitorJarPath, deviceNetworkIp);
+                    new LocalMonitorManager(component, localMonitorJarPath, deviceNetworkIp,
+                            globalMonitor.getMeasurementFramePort(),
+                            localMonitorControlServer);
             this.localMonitorManagerMap.put(component.getId(), localMonitorManager);
             localMonitorManager.start();
 
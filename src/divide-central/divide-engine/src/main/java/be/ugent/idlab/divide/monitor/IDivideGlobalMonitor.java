@@ -8,4 +8,10 @@ public interface IDivideGlobalMonitor {
 
     IDivideMetaModel getDivideMetaModel();
 
+    /**
+     * @return port of the server accepting binary measurement frames of the
+     *         Local Monitors, or -1 if this binary transport is disabled
+     */
+    int getMeasurementFramePort();
+
 }
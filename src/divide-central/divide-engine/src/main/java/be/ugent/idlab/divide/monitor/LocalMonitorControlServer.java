@@ -0,0 +1,225 @@
+package be.ugent.idlab.divide.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server side of the control channels between the DIVIDE Monitor and the Local
+ * Monitors. Every running Local Monitor keeps a persistent TCP connection open to
+ * this server, over which it identifies itself with its component ID and then
+ * periodically sends a heartbeat. The time of the last heartbeat of every Local
+ * Monitor is kept in memory, so that the status of a Local Monitor can be read
+ * without checking the running processes on its device via SSH.
+ *
+ * The protocol is line-based (UTF-8): the Local Monitor sends
+ * <code>HELLO &lt;component ID&gt;</code> once, followed by <code>HEARTBEAT</code>
+ * messages; this server can send a <code>STOP</code> command, which the Local Monitor
+ * acknowledges with <code>STOPPING</code> before exiting.
+ */
+class LocalMonitorControlServer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalMonitorControlServer.class.getName());
+
+    private final int port;
+    private final Map<String, ControlConnection> connectionMap;
+
+    LocalMonitorControlServer(int port) {
+        this.port = port;
+        this.connectionMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts accepting control channel connections of Local Monitors
+     * in a dedicated daemon thread.
+     *
+     * @throws MonitorException if the server socket cannot be opened
+     */
+    void start() throws MonitorException {
+        ServerSocket serverSocket;
+        try {
+            serverSocket = new ServerSocket(port);
+        } catch (IOException e) {
+            throw new MonitorException(String.format(
+                    "Could not open Local Monitor control server on port %d", port), e);
+        }
+        LOGGER.info("Local Monitor control server listening on port {}", port);
+
+        Thread thread = new Thread(() -> acceptConnections(serverSocket),
+                "local-monitor-control-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param componentId ID of the component of the Local Monitor
+     * @return true if the Local Monitor on the given component is connected and has
+     *         sent a heartbeat within the heartbeat timeout, false otherwise
+     */
+    boolean isAlive(String componentId) {
+        ControlConnection connection = connectionMap.get(componentId);
+        return connection != null && System.currentTimeMillis() - connection.lastHeartbeatTime <
+                DivideGlobalMonitorConstants.LOCAL_MONITOR_HEARTBEAT_TIMEOUT_IN_SECONDS * 1000L;
+    }
+
+    /**
+     * Sends a STOP command to the Local Monitor on the given component.
+     *
+     * @param componentId ID of the component of the Local Monitor
+     * @return true if the command was sent, false if the Local Monitor is not
+     *         connected or if sending the command failed
+     */
+    boolean sendStop(String componentId) {
+        ControlConnection connection = connectionMap.get(componentId);
+        if (connection == null) {
+            return false;
+        }
+        try {
+            connection.send("STOP");
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not send STOP command to Local Monitor on component with ID {}: {}",
+                    componentId, e.getMessage());
+            connection.close();
+            return false;
+        }
+    }
+
+    private void acceptConnections(ServerSocket serverSocket) {
+        // accept connections until the server socket is closed
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+
+            } catch (SocketException e) {
+                // a socket exception means that the server socket is closed or broken,
+                // so every next accept would fail immediately as well: the server is
+                // stopped instead of retrying in a tight loop
+                if (serverSocket.isClosed()) {
+                    LOGGER.info("Local Monitor control server on port {} stopped", port);
+                } else {
+                    LOGGER.error("Local Monitor control server on port {} stopped because " +
+                            "of an error while accepting connections", port, e);
+                    try {
+                        serverSocket.close();
+                    } catch (IOException ignored) {
+                        // the server socket is unusable anyway
+                    }
+                }
+                break;
+
+            } catch (IOException e) {
+                LOGGER.error("Error while accepting Local Monitor control connection", e);
+                continue;
+            }
+
+            Thread thread = new Thread(() -> handleConnection(socket),
+                    "local-monitor-control-connection");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        String componentId = null;
+        ControlConnection connection = null;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), StandardCharsets.UTF_8));
+
+            // the first message identifies the Local Monitor
+            String hello = reader.readLine();
+            if (hello == null || !hello.startsWith("HELLO ")) {
+                LOGGER.warn("Closing Local Monitor control connection from {}: invalid " +
+                        "first message '{}'", socket.getRemoteSocketAddress(), hello);
+                return;
+            }
+            componentId = hello.substring("HELLO ".length()).trim();
+            connection = new ControlConnection(socket);
+
+            // a reconnecting Local Monitor replaces its previous connection
+            ControlConnection previousConnection = connectionMap.put(componentId, connection);
+            if (previousConnection != null) {
+                previousConnection.close();
+            }
+            LOGGER.info("Local Monitor on component with ID {} connected to control " +
+                    "server from {}", componentId, socket.getRemoteSocketAddress());
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if ("HEARTBEAT".equals(line)) {
+                    connection.lastHeartbeatTime = System.currentTimeMillis();
+                } else if ("STOPPING".equals(line)) {
+                    LOGGER.info("Local Monitor on component with ID {} confirmed it is stopping",
+                            componentId);
+                    break;
+                }
+            }
+
+        } catch (IOException e) {
+            LOGGER.warn("Local Monitor control connection of component with ID {} lost: {}",
+                    componentId, e.getMessage());
+
+        } finally {
+            if (componentId != null && connection != null) {
+                connectionMap.remove(componentId, connection);
+                LOGGER.info("Local Monitor on component with ID {} disconnected " +
+                        "from control server", componentId);
+                connection.close();
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    private static class ControlConnection {
+
+        private final Socket socket;
+        private final BufferedWriter writer;
+
+        // the HELLO message counts as the first heartbeat
+        private volatile long lastHeartbeatTime;
+
+        ControlConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.writer = new BufferedWriter(new OutputStreamWriter(
+                    socket.getOutputStream(), StandardCharsets.UTF_8));
+            this.lastHeartbeatTime = System.currentTimeMillis();
+        }
+
+        synchronized void send(String message) throws IOException {
+            writer.write(message);
+            writer.write('\n');
+            writer.flush();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing to do
+            }
+        }
+
+    }
+
+}
@@ -22,15 +22,22 @@ class LocalMonitorManager {
     private final IComponent component;
     private final String localMonitorJarPath;
     private final String centralIpAddress;
+    private final int measurementFramePort;
+    private final LocalMonitorControlServer controlServer;
 
     private boolean firstStarted;
+    private long lastLaunchTime;
 
     LocalMonitorManager(IComponent component,
                         String localMonitorJarPath,
-                        String centralIpAddress) {
+                        String centralIpAddress,
+                        int measurementFramePort,
+                        LocalMonitorControlServer controlServer) {
         this.component = component;
         this.localMonitorJarPath = localMonitorJarPath;
         this.centralIpAddress = centralIpAddress;
+        this.measurementFramePort = measurementFramePort;
+        this.controlServer = controlServer;
 
         // set the initial state to not started yet
         this.firstStarted = false;
@@ -50,9 +57,21 @@ class LocalMonitorManager {
     }
 
     void start() throws MonitorException {
+        // a Local Monitor that is connected over its control channel is already
+        // running, so there is no need to deploy & launch it again
+        if (controlServer.isAlive(component.getId())) {
+            LOGGER.info("Local Monitor on component with ID {} is connected over its " +
+                    "control channel, so it is already running", component.getId());
+            this.firstStarted = true;
+            return;
+        }
+
         try {
+            // launching the Local Monitor process still happens via SSH, since
+            // there is no process yet to send a message to
             LOGGER.info("Starting Local Monitor on component with ID {}", component.getId());
             this.firstStarted = true;
+            this.lastLaunchTime = System.currentTimeMillis();
             String response = executeGlobalMonitorPythonManager("start");
             LOGGER.info("Output of script starting Local Monitor on component with ID {}: {}",
                     component.getId(), response);
@@ -67,6 +86,16 @@ class LocalMonitorManager {
     }
 
     void stop() throws MonitorException {
+        // a stopped Local Monitor is no longer considered to be starting up
+        this.lastLaunchTime = 0;
+
+        // stop the Local Monitor over its control channel if it is connected
+        if (controlServer.sendStop(component.getId())) {
+            LOGGER.info("Sent STOP command to Local Monitor on component with ID {} " +
+                    "over its control channel", component.getId());
+            return;
+        }
+
         try {
             LOGGER.info("Stopping Local Monitor on component with ID {}", component.getId());
             String response = executeGlobalMonitorPythonManager("stop");
@@ -82,7 +111,7 @@ class LocalMonitorManager {
         }
     }
 
-    LocalMonitorStatus getStatus() throws MonitorException {
+    LocalMonitorStatus getStatus() {
         LOGGER.info("Retrieving status of Local Monitor on component with ID {}",
                 component.getId());
 
@@ -93,32 +122,25 @@ class LocalMonitorManager {
             return LocalMonitorStatus.STOPPED;
         }
 
-        // otherwise, check the status on the local component via SSH
-        try {
-            String response = executeGlobalMonitorPythonManager("check");
-
-            if (response.isEmpty()) {
-                throw new MonitorException(String.format("Status check of local monitor with ID %s returned an " +
-                        "empty response", component.getId()));
-            }
-
-            LOGGER.info("Output of status check of Local Monitor on component with ID {}: {}",
-                    component.getId(), response);
-            if (response.contains("status:running")) {
-                return LocalMonitorStatus.RUNNING;
-            } else if (response.contains("status:stopped")) {
-                return LocalMonitorStatus.STOPPED;
-            } else { // default
-                return LocalMonitorStatus.STOPPED;
-            }
+        // otherwise, the status follows from the last heartbeat received over the
+        // control channel of the Local Monitor
+        if (controlServer.isAlive(component.getId())) {
+            return LocalMonitorStatus.RUNNING;
+        }
 
-        } catch (IOException | ProcessException e) {
-            String message = String.format(
-                    "Error while checking status of local monitor for component with ID %s",
-                    component.getId());
-            LOGGER.error(message, e);
-            throw new MonitorException(message, e);
+        // a Local Monitor that has just been launched is considered to be running
+        // until it has had the time to start up and connect its control channel
+        // (to avoid launching a second process on the component)
+        if (System.currentTimeMillis() - lastLaunchTime <
+                DivideGlobalMonitorConstants.LOCAL_MONITOR_STARTUP_GRACE_PERIOD_IN_SECONDS * 1000L) {
+            LOGGER.info("Local Monitor on component with ID {} is not connected yet, but " +
+                    "has been launched recently, so status is 'RUNNING'", component.getId());
+            return LocalMonitorStatus.RUNNING;
         }
+
+        LOGGER.info("Local Monitor on component with ID {} is not connected over its " +
+                "control channel, so status is 'STOPPED'", component.getId());
+        return LocalMonitorStatus.STOPPED;
     }
 
     private String executeGlobalMonitorPythonManager(String action) throws ProcessException, IOException {
@@ -131,6 +153,9 @@ class LocalMonitorManager {
                 "--global-monitor-reasoning-service-port", String.valueOf(
                         DivideGlobalMonitorConstants.RS_SERVER_PORT),
                 "--global-monitor-reasoning-service-uri", DivideGlobalMonitorConstants.RS_SERVER_URI,
+                "--global-monitor-binary-port", String.valueOf(measurementFramePort),
+                "--control-port", String.valueOf(
+                        DivideGlobalMonitorConstants.LOCAL_MONITOR_CONTROL_PORT),
                 "--divide-central-ip-address", centralIpAddress
         });
     }
@@ -55,4 +55,55 @@ public class DummyDivideMetaModel implements IDivideMetaModel {
         // empty on purpose
     }
 
+    @Override
+    public IDivideMetaModelUpdate createUpdate() {
+        return new DummyDivideMetaModelUpdate();
+    }
+
+    private static class DummyDivideMetaModelUpdate implements IDivideMetaModelUpdate {
+
+        @Override
+        public void addDivideQuery(IDivideQuery divideQuery) {
+            // empty on purpose
+        }
+
+        @Override
+        public void removeDivideQuery(IDivideQuery divideQuery) {
+            // empty on purpose
+        }
+
+        @Override
+        public void updateDivideQueryDeployment(IDivideQuery divideQuery,
+                                                IComponent component,
+                                                RspLocation rspLocation) {
+            // empty on purpose
+        }
+
+        @Override
+        public void addComponent(IComponent component) {
+            // empty on purpose
+        }
+
+        @Override
+        public void removeComponent(IComponent component) {
+            // empty on purpose
+        }
+
+        @Override
+        public void addRegisteredQuery(IRspQuery rspQuery) {
+            // empty on purpose
+        }
+
+        @Override
+        public void removeRegisteredQuery(IRspQuery rspQuery) {
+            // empty on purpose
+        }
+
+        @Override
+        public void commit() {
+            // empty on purpose
+        }
+
+    }
+
 }
@@ -26,4 +26,14 @@ public interface IDivideMetaModel {
 
     void removeRegisteredQuery(IRspQuery rspQuery);
 
+    /**
+     * Creates a new batch of changes to this meta model. All changes made to the
+     * returned update are applied as a single delta once it is committed, which is
+     * more efficient than performing each change separately through the methods of
+     * this interface.
+     *
+     * @return a new, empty update of this meta model
+     */
+    IDivideMetaModelUpdate createUpdate();
+
 }
@@ -0,0 +1,42 @@
+package be.ugent.idlab.divide.monitor.metamodel;
+
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import be.ugent.idlab.divide.rsp.RspLocation;
+import be.ugent.idlab.divide.rsp.query.IRspQuery;
+
+/**
+ * Batch of changes to the DIVIDE Meta Model. The changes are only collected by
+ * this object; none of them is applied to the meta model until {@link #commit()}
+ * is called. At that point, all changes of the batch are applied at once as a
+ * single delta.
+ *
+ * An update object is not thread-safe, and should only be used for a single
+ * logical operation (e.g., the registration update of an RSP engine).
+ */
+public interface IDivideMetaModelUpdate {
+
+    void addDivideQuery(IDivideQuery divideQuery);
+
+    void removeDivideQuery(IDivideQuery divideQuery);
+
+    void updateDivideQueryDeployment(IDivideQuery divideQuery,
+                                     IComponent component,
+                                     RspLocation rspLocation);
+
+    void addComponent(IComponent component);
+
+    void removeComponent(IComponent component);
+
+    void addRegisteredQuery(IRspQuery rspQuery);
+
+    void removeRegisteredQuery(IRspQuery rspQuery);
+
+    /**
+     * Submits all changes of this batch to the meta model. The meta model applies
+     * them asynchronously, so this method does not block on the reasoning service.
+     * Calling this method on an empty batch has no effect.
+     */
+    void commit();
+
+}
@@ -57,6 +57,9 @@ public interface IRspEngineHandler {
      * method) since the last call of this method. Registered queries that are not again scheduled
      * for registration are unregistered from the RSP engine. Queries scheduled for
      * registration that are not yet registered are registered on the RSP engine.
+     * If this handler hot-swaps queries, the new queries of a DIVIDE query are registered
+     * first, and the old queries of that DIVIDE query are only unregistered once all
+     * new ones are live on the RSP engine.
      */
     void updateRegistration();
 
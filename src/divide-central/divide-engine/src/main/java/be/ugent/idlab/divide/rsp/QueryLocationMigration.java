@@ -0,0 +1,437 @@
+package be.ugent.idlab.divide.rsp;
+
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import be.ugent.idlab.divide.monitor.metamodel.IDivideMetaModel;
+import be.ugent.idlab.divide.monitor.metamodel.IDivideMetaModelUpdate;
+import be.ugent.idlab.divide.rsp.api.IRspEngineApiManager;
+import be.ugent.idlab.divide.rsp.api.RspEngineQueryRegistration;
+import be.ugent.idlab.divide.rsp.engine.IRspEngine;
+import be.ugent.idlab.divide.rsp.query.IRspQuery;
+import be.ugent.idlab.divide.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Plan for moving the RSP queries originating from a single DIVIDE query from one
+ * RSP engine (the source engine) to another RSP engine (the target engine).
+ *
+ * The plan consists of stream preparation steps (e.g., registering a stream at the
+ * target engine and forwarding the original stream to it), query moves (registering
+ * a new query at the target engine that replaces an original query at the source
+ * engine), and stream cleanup steps (e.g., disabling a stream forwarding that is no
+ * longer used). Stream steps are identified by a key: if multiple queries share the
+ * same stream, the step for that stream is only added (and executed) once.
+ *
+ * The plan is executed in consecutive phases. All API calls within a phase are
+ * independent of each other, and are therefore performed in parallel:
+ * 1. all stream preparation steps are executed, and the observers of the original
+ *    queries are retrieved
+ * 2. all new queries are registered at the target engine, and the observers of the
+ *    original queries are registered to them
+ * 3. the new queries take over from the original queries (e.g., the location of the
+ *    DIVIDE query is updated), after which all original queries are unregistered
+ *    from the source engine
+ * 4. all stream cleanup steps are executed
+ *
+ * Since the original queries are only unregistered once all new queries are running
+ * with the observers of the original queries, no query results are lost during the
+ * migration. If the migration fails before the takeover, the new queries that were
+ * already registered are unregistered again, and the stream preparations are undone
+ * with their cleanup actions, so that the original queries remain the only active
+ * queries and no streams are left prepared for queries that are not running.
+ */
+class QueryLocationMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryLocationMigration.class.getName());
+
+    private final IDivideQuery divideQuery;
+
+    private final IRspEngine sourceRspEngine;
+    private final IRspEngineApiManager sourceRspEngineApiManager;
+    private final IRspEngine targetRspEngine;
+    private final IRspEngineApiManager targetRspEngineApiManager;
+
+    private final IComponent associatedComponent;
+    private final IDivideMetaModel divideMetaModel;
+
+    private final Map<String, MigrationStep> streamPreparationSteps;
+    private final List<QueryMove> queryMoves;
+    private final Map<String, MigrationStep> streamCleanupSteps;
+
+    QueryLocationMigration(IDivideQuery divideQuery,
+                           IRspEngine sourceRspEngine,
+                           IRspEngineApiManager sourceRspEngineApiManager,
+                           IRspEngine targetRspEngine,
+                           IRspEngineApiManager targetRspEngineApiManager,
+                           IComponent associatedComponent,
+                           IDivideMetaModel divideMetaModel) {
+        this.divideQuery = divideQuery;
+        this.sourceRspEngine = sourceRspEngine;
+        this.sourceRspEngineApiManager = sourceRspEngineApiManager;
+        this.targetRspEngine = targetRspEngine;
+        this.targetRspEngineApiManager = targetRspEngineApiManager;
+        this.associatedComponent = associatedComponent;
+        this.divideMetaModel = divideMetaModel;
+
+        this.streamPreparationSteps = new LinkedHashMap<>();
+        this.queryMoves = new ArrayList<>();
+        this.streamCleanupSteps = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a step that should be executed before any new query is registered at
+     * the target engine. If a step with the same key has already been added,
+     * this step is ignored.
+     *
+     * @param key key identifying the step, e.g., the stream it prepares
+     * @param description description of the step, used when the step fails
+     * @param action action performing the step asynchronously
+     * @param cleanupAction action undoing the step asynchronously, which is executed
+     *                      when the migration is aborted before the takeover
+     */
+    void addStreamPreparationStep(String key,
+                                  String description,
+                                  Supplier<CompletableFuture<Void>> action,
+                                  Supplier<CompletableFuture<Void>> cleanupAction) {
+        streamPreparationSteps.putIfAbsent(
+                key, new MigrationStep(description, action, cleanupAction));
+    }
+
+    /**
+     * Adds a step that should be executed after all original queries have been
+     * unregistered from the source engine. If a step with the same key has already
+     * been added, this step is ignored.
+     *
+     * @param key key identifying the step, e.g., the stream it cleans up
+     * @param description description of the step, used when the step fails
+     * @param action action performing the step asynchronously
+     */
+    void addStreamCleanupStep(String key,
+                              String description,
+                              Supplier<CompletableFuture<Void>> action) {
+        streamCleanupSteps.putIfAbsent(key, new MigrationStep(description, action, null));
+    }
+
+    /**
+     * Adds a query move to this migration.
+     *
+     * @param originalQuery query registered at the source engine
+     * @param newQuery query that should replace the original query at the target engine
+     */
+    void addQueryMove(IRspQuery originalQuery, IRspQuery newQuery) {
+        queryMoves.add(new QueryMove(originalQuery, newQuery));
+    }
+
+    /**
+     * Executes this migration.
+     *
+     * @param onTakeOver action that is executed once all new queries are registered,
+     *                   before the original queries are unregistered
+     * @param onUnregistrationFailure action that is executed with the list of original
+     *                                queries that could not be unregistered from the source
+     *                                engine, if this list is not empty
+     * @throws RspEngineHandlerException when a stream preparation step fails or a new query
+     *                                   cannot be registered (in which case the original
+     *                                   queries are still active, the stream preparations
+     *                                   are undone and the take over action is not
+     *                                   executed), or when a stream cleanup step fails
+     */
+    void execute(Runnable onTakeOver,
+                 Consumer<List<IRspQuery>> onUnregistrationFailure)
+            throws RspEngineHandlerException {
+        long start = System.currentTimeMillis();
+
+        LOGGER.info("Migrating {} queries of DIVIDE query '{}' from {} to {}: {} stream " +
+                        "preparation steps, {} stream cleanup steps",
+                queryMoves.size(), divideQuery.getName(), sourceRspEngine.getBaseUrl(),
+                targetRspEngine.getBaseUrl(), streamPreparationSteps.size(),
+                streamCleanupSteps.size());
+
+        // PHASE 1: prepare all streams & retrieve observers of original queries
+        for (QueryMove queryMove : queryMoves) {
+            queryMove.originalObservers = sourceRspEngineApiManager
+                    .getQueryObserversAsync(queryMove.originalQuery.getQueryName())
+                    .exceptionally(t -> {
+                        LOGGER.warn("Could not retrieve observers of original query {}",
+                                queryMove.originalQuery.getQueryName(), unwrap(t));
+                        return Collections.emptyList();
+                    });
+        }
+        try {
+            executeSteps(streamPreparationSteps);
+        } catch (RspEngineHandlerException e) {
+            undoStreamPreparations();
+            throw e;
+        }
+
+        // the observers are awaited on this thread, so that transferring them to the
+        // new queries never blocks a thread of the RSP engine API client
+        // (retrieval failures are already handled, so this never throws)
+        for (QueryMove queryMove : queryMoves) {
+            await(queryMove.originalObservers);
+        }
+
+        // PHASE 2: register all new queries and transfer the observers to them
+        List<CompletableFuture<Void>> registrations = new ArrayList<>();
+        for (QueryMove queryMove : queryMoves) {
+            registrations.add(targetRspEngineApiManager
+                    .registerQueryAsync(queryMove.newQuery.getQueryName(),
+                            queryMove.newQuery.getQueryBody())
+                    .thenCompose(registration -> {
+                        queryMove.registration = registration;
+                        queryMove.registered = true;
+                        return transferObservers(queryMove);
+                    }));
+        }
+        RspEngineHandlerException registrationException = null;
+        for (int i = 0; i < queryMoves.size(); i++) {
+            Throwable failure = await(registrations.get(i));
+            QueryMove queryMove = queryMoves.get(i);
+            if (failure != null && !queryMove.registered && registrationException == null) {
+                registrationException = new RspEngineHandlerException(
+                        String.format("The new query with name %s could not be registered at %s",
+                                queryMove.newQuery.getQueryName(), targetRspEngine.getBaseUrl()),
+                        toException(failure));
+            }
+        }
+        if (registrationException != null) {
+            rollBackRegistrations();
+            undoStreamPreparations();
+            throw registrationException;
+        }
+        IDivideMetaModelUpdate registrationUpdate = divideMetaModel.createUpdate();
+        for (QueryMove queryMove : queryMoves) {
+            if (queryMove.registration != null) {
+                queryMove.newQuery.updateAfterRegistration(
+                        queryMove.registration.getId(),
+                        queryMove.registration.getStreamWindows(),
+                        targetRspEngine,
+                        associatedComponent);
+            } else {
+                LOGGER.warn("No registration information available for query {} at {}: " +
+                                "query information is not updated",
+                        queryMove.newQuery.getQueryName(), targetRspEngine.getBaseUrl());
+            }
+            targetRspEngine.addRegisteredQuery(queryMove.newQuery);
+            registrationUpdate.addRegisteredQuery(queryMove.newQuery);
+        }
+        registrationUpdate.commit();
+
+        // PHASE 3: let the new queries take over and unregister the original queries
+        onTakeOver.run();
+        List<CompletableFuture<Void>> unregistrations = new ArrayList<>();
+        for (QueryMove queryMove : queryMoves) {
+            unregistrations.add(sourceRspEngineApiManager.unregisterQueryAsync(
+                    queryMove.originalQuery.getQueryName()));
+        }
+        List<IRspQuery> failedUnregistrations = new ArrayList<>();
+        IDivideMetaModelUpdate unregistrationUpdate = divideMetaModel.createUpdate();
+        for (int i = 0; i < queryMoves.size(); i++) {
+            IRspQuery originalQuery = queryMoves.get(i).originalQuery;
+            Throwable failure = await(unregistrations.get(i));
+            if (failure == null) {
+                sourceRspEngine.removeRegisteredQuery(originalQuery);
+                unregistrationUpdate.removeRegisteredQuery(originalQuery);
+            } else {
+                LOGGER.error("The original query with name {} could not be unregistered from {}",
+                        originalQuery.getQueryName(), sourceRspEngine.getBaseUrl(), failure);
+                failedUnregistrations.add(originalQuery);
+            }
+        }
+        unregistrationUpdate.commit();
+        if (!failedUnregistrations.isEmpty()) {
+            onUnregistrationFailure.accept(failedUnregistrations);
+        }
+
+        // PHASE 4: clean up the streams that are no longer used
+        executeSteps(streamCleanupSteps);
+
+        LOGGER.info(Constants.METRIC_MARKER, "QUERY_LOCATION_MIGRATION\t{}\t{}\t{}\t{}\t{}",
+                divideQuery.getName(),
+                associatedComponent.getId(),
+                targetRspEngine.getBaseUrl(),
+                queryMoves.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private CompletableFuture<Void> transferObservers(QueryMove queryMove) {
+        // the observers of the original query have already been awaited before
+        // phase 2, so joining the future does not block
+        List<String> originalObservers = queryMove.originalObservers.join();
+        if (originalObservers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String newQueryName = queryMove.newQuery.getQueryName();
+        return targetRspEngineApiManager.getQueryObserversAsync(newQueryName)
+                .exceptionally(t -> {
+                    LOGGER.warn("Could not retrieve observers of new query {}",
+                            newQueryName, unwrap(t));
+                    return Collections.emptyList();
+                })
+                .thenCompose(newObservers -> {
+                    List<CompletableFuture<Void>> observerRegistrations = new ArrayList<>();
+                    for (String observer : originalObservers) {
+                        if (newObservers.contains(observer)) {
+                            LOGGER.info("Not registering query observer {} to new query {} at {}: " +
+                                            "observer already exists",
+                                    observer, newQueryName, targetRspEngine.getBaseUrl());
+                        } else {
+                            observerRegistrations.add(targetRspEngineApiManager
+                                    .registerQueryObserverAsync(newQueryName, observer)
+                                    .exceptionally(t -> {
+                                        LOGGER.warn("Could not register observer {} of new query {}",
+                                                observer, newQueryName, unwrap(t));
+                                        return null;
+                                    }));
+                        }
+                    }
+                    return CompletableFuture.allOf(
+                            observerRegistrations.toArray(new CompletableFuture[0]));
+                });
+    }
+
+    private void rollBackRegistrations() {
+        LOGGER.warn("Rolling back migration of queries of DIVIDE query '{}' from {} to {}: " +
+                        "unregistering new queries, original queries remain active",
+                divideQuery.getName(), sourceRspEngine.getBaseUrl(), targetRspEngine.getBaseUrl());
+
+        List<QueryMove> registeredQueryMoves = new ArrayList<>();
+        List<CompletableFuture<Void>> unregistrations = new ArrayList<>();
+        for (QueryMove queryMove : queryMoves) {
+            if (queryMove.registered) {
+                registeredQueryMoves.add(queryMove);
+                unregistrations.add(targetRspEngineApiManager.unregisterQueryAsync(
+                        queryMove.newQuery.getQueryName()));
+            }
+        }
+        for (int i = 0; i < registeredQueryMoves.size(); i++) {
+            Throwable failure = await(unregistrations.get(i));
+            if (failure != null) {
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "New query with name {} could not be unregistered from {} " +
+                                "during roll back of query location migration",
+                        registeredQueryMoves.get(i).newQuery.getQueryName(),
+                        targetRspEngine.getBaseUrl(), failure);
+            }
+        }
+    }
+
+    /**
+     * Executes the cleanup actions of all stream preparation steps, after the migration
+     * has been aborted. Failures are only logged, since the original queries remain
+     * active regardless of whether a stream preparation could be undone.
+     */
+    private void undoStreamPreparations() {
+        List<MigrationStep> stepList = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (MigrationStep step : streamPreparationSteps.values()) {
+            if (step.cleanupAction != null) {
+                stepList.add(step);
+                futures.add(step.cleanupAction.get());
+            }
+        }
+        for (int i = 0; i < stepList.size(); i++) {
+            Throwable failure = await(futures.get(i));
+            if (failure != null) {
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "Stream preparation could not be undone during roll back of " +
+                                "query location migration: {}",
+                        stepList.get(i).description, failure);
+            }
+        }
+    }
+
+    private void executeSteps(Map<String, MigrationStep> steps) throws RspEngineHandlerException {
+        List<MigrationStep> stepList = new ArrayList<>(steps.values());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (MigrationStep step : stepList) {
+            futures.add(step.action.get());
+        }
+
+        // await all steps before reporting a failure, so that no step is still
+        // running when the migration is aborted
+        RspEngineHandlerException exception = null;
+        for (int i = 0; i < stepList.size(); i++) {
+            Throwable failure = await(futures.get(i));
+            if (failure != null && exception == null) {
+                exception = new RspEngineHandlerException(
+                        stepList.get(i).description, toException(failure));
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Waits for the given future to complete.
+     *
+     * @return cause of the exceptional completion of the future, or null if it
+     *         completed normally
+     */
+    private static Throwable await(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException | CancellationException e) {
+            return unwrap(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            return t.getCause();
+        }
+        return t;
+    }
+
+    private static Exception toException(Throwable t) {
+        return t instanceof Exception ? (Exception) t : new RuntimeException(t);
+    }
+
+    private static class MigrationStep {
+
+        private final String description;
+        private final Supplier<CompletableFuture<Void>> action;
+        private final Supplier<CompletableFuture<Void>> cleanupAction;
+
+        MigrationStep(String description,
+                      Supplier<CompletableFuture<Void>> action,
+                      Supplier<CompletableFuture<Void>> cleanupAction) {
+            this.description = description;
+            this.action = action;
+            this.cleanupAction = cleanupAction;
+        }
+
+    }
+
+    private static class QueryMove {
+
+        private final IRspQuery originalQuery;
+        private final IRspQuery newQuery;
+
+        private CompletableFuture<List<String>> originalObservers;
+        private volatile RspEngineQueryRegistration registration;
+        private volatile boolean registered;
+
+        QueryMove(IRspQuery originalQuery, IRspQuery newQuery) {
+            this.originalQuery = originalQuery;
+            this.newQuery = newQuery;
+        }
+
+    }
+
+}
@@ -5,24 +5,21 @@ import be.ugent.idlab.divide.core.engine.IDivideEngine;
 import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
 import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
 import be.ugent.idlab.divide.core.query.IDivideQuery;
+import be.ugent.idlab.divide.monitor.metamodel.IDivideMetaModelUpdate;
 import be.ugent.idlab.divide.rsp.api.IRspEngineApiManager;
 import be.ugent.idlab.divide.rsp.api.RspEngineApiInputException;
 import be.ugent.idlab.divide.rsp.api.RspEngineApiManagerFactory;
 import be.ugent.idlab.divide.rsp.api.RspEngineApiNetworkException;
 import be.ugent.idlab.divide.rsp.api.RspEngineApiResponseException;
+import be.ugent.idlab.divide.rsp.api.RspEngineQueryRegistration;
 import be.ugent.idlab.divide.rsp.engine.IRspEngine;
 import be.ugent.idlab.divide.rsp.engine.RspEngineFactory;
 import be.ugent.idlab.divide.rsp.query.IRspQuery;
 import be.ugent.idlab.divide.rsp.query.RspQueryFactory;
-import be.ugent.idlab.divide.rsp.query.window.IStreamWindow;
-import be.ugent.idlab.divide.rsp.query.window.StreamWindowFactory;
 import be.ugent.idlab.divide.rsp.translate.IQueryTranslator;
 import be.ugent.idlab.divide.rsp.translate.QueryTranslatorFactory;
 import be.ugent.idlab.divide.util.Constants;
 import be.ugent.idlab.util.io.IOUtilities;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import org.apache.jena.atlas.lib.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +35,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -126,16 +124,25 @@ class RspEngineHandler implements IRspEngineHandler {
      * Scheduled executor used to retry query registrations that failed because
      * of a network error
      */
-    private ScheduledThreadPoolExecutor retrialScheduledExecutor;
+    private final ScheduledThreadPoolExecutor retrialScheduledExecutor;
     /**
-     * Future object used for executing retrials of query registration updates
+     * Map of the pending retrial task of query registration updates of every
+     * DIVIDE query on every RSP engine (guarded by this handler): there is at most
+     * one retrial task per DIVIDE query and RSP engine, so that a new registration
+     * update of a DIVIDE query only cancels the retrial of that DIVIDE query, and
+     * not the retrials of the failed registrations and postponed retirements of
+     * the other DIVIDE queries
      */
-    private Future<?> retrialFuture;
+    private final Map<Pair<IDivideQuery, IRspEngine>, QueryRegistrationUpdateRetrialTask> retrialTasks;
+
     /**
-     * Guard that ensures synchronization across thread for accessing the
-     * retrial-related objects of this class
+     * Boolean representing whether query registration updates should hot-swap
+     * the RSP engine queries of a DIVIDE query: if true, new query versions are
+     * first registered alongside the old ones, and the old ones are only retired
+     * once all new versions are live on the RSP engine; if false, the old queries
+     * are unregistered before the new ones are registered
      */
-    private final Boolean retrialFutureGuard = false;
+    private final boolean hotSwapQueries;
 
     private final IDivideEngine divideEngine;
 
@@ -148,6 +155,7 @@ class RspEngineHandler implements IRspEngineHandler {
                      String localRspEngineUrl,
                      int localRspEngineServerPort,
                      String componentId,
+                     boolean hotSwapQueries,
                      IDivideEngine divideEngine) throws DivideInvalidInputException {
         // generate ID for this RSP engine handler
         this.id = generateAlphabeticId();
@@ -198,6 +206,10 @@ class RspEngineHandler implements IRspEngineHandler {
         this.retrialScheduledExecutor = (ScheduledThreadPoolExecutor)
                 Executors.newScheduledThreadPool(1);
         this.retrialScheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.retrialTasks = new HashMap<>();
+
+        // save how query registration updates should be performed
+        this.hotSwapQueries = hotSwapQueries;
 
         // keep reference to DIVIDE engine
         this.divideEngine = divideEngine;
@@ -497,6 +509,14 @@ class RspEngineHandler implements IRspEngineHandler {
                 .filter(rspQuery -> rspQuery.getOriginalDivideQuery().equals(divideQuery))
                 .collect(Collectors.toList());
 
+        // stop the pending query update retrial of this DIVIDE query on this RSP
+        // engine (if any): the registration update takes over the failed
+        // unregistrations of this retrial, since these queries are still in the
+        // blueprint of the RSP engine, while failed registrations are scheduled
+        // again if they are still derived
+        // -> the retrials of other DIVIDE queries are not affected
+        cancelQueryUpdateRetrial(divideQuery, rspEngine);
+
         // perform registration update
         List<Pair<IRspQuery, Boolean>> queriesToRetry = updateRegistration(
                 previousQueries, scheduledQueries, rspEngine, rspEngineApiManager);
@@ -515,17 +535,13 @@ class RspEngineHandler implements IRspEngineHandler {
         // retry queries for which the (un)registering failed due to network issue
         // (but of course only if there are queries to be retried)
         if (!queriesToRetry.isEmpty()) {
-            synchronized (this.retrialFutureGuard) {
-                LOGGER.info("Query update at {} for DIVIDE query '{}': " +
-                                "rescheduling retrial of {} failed queries",
-                        rspEngine.getBaseUrl(),
-                        divideQuery.getName(),
-                        queriesToRetry.size());
-                this.retrialFuture = retrialScheduledExecutor.schedule(
-                        new QueryRegistrationUpdateRetrialTask(
-                                queriesToRetry, 10, rspEngine, rspEngineApiManager),
-                        10, TimeUnit.SECONDS);
-            }
+            LOGGER.info("Query update at {} for DIVIDE query '{}': " +
+                            "rescheduling retrial of {} failed queries",
+                    rspEngine.getBaseUrl(),
+                    divideQuery.getName(),
+                    queriesToRetry.size());
+            scheduleQueryUpdateRetrial(divideQuery, queriesToRetry, 10,
+                    rspEngine, rspEngineApiManager);
         } else {
             LOGGER.info("Finished query update for DIVIDE query '{}' at {} - no queries to retry",
                     divideQuery.getName(), rspEngine.getBaseUrl());
@@ -567,12 +583,13 @@ class RspEngineHandler implements IRspEngineHandler {
             List<IRspQuery> scheduledQueries,
             IRspEngine rspEngine,
             IRspEngineApiManager rspEngineApiManager) {
-        // stop all query retrials
-        stopQueryUpdateRetrials();
-
         // create empty list of queries that should be retried
         List<Pair<IRspQuery, Boolean>> queriesToRetry = new ArrayList<>();
 
+        // collect all changes to the meta model of this registration update in a
+        // single batch, which is committed at once at the end of the update
+        IDivideMetaModelUpdate metaModelUpdate = divideEngine.getDivideMetaModel().createUpdate();
+
         LOGGER.info("Query update at {}: scheduled query names: {} - " +
                         "currently registered query names: {}",
                 rspEngine.getBaseUrl(),
@@ -581,7 +598,9 @@ class RspEngineHandler implements IRspEngineHandler {
                 Arrays.toString(previousQueries.stream().map(
                         IRspQuery::getQueryName).toArray()));
 
-        // unregister previously valid queries that are no longer valid
+        // split previously valid queries in queries that are still valid, and queries
+        // that are no longer valid and should therefore be retired
+        List<IRspQuery> retiredQueries = new ArrayList<>();
         for (IRspQuery previousQuery : previousQueries) {
             // check if the previous query is scheduled again by checking if it is
             // present in the list of scheduled queries
@@ -592,64 +611,127 @@ class RspEngineHandler implements IRspEngineHandler {
             // (otherwise, it can be kept registered, and nothing should be done for this query;
             //  except removing it from the scheduled list, which is done in the else clause)
             if (!scheduledAgain) {
-                try {
-                    // unregister query from RSP engine
-                    rspEngineApiManager.unregisterQuery(previousQuery.getQueryName());
+                retiredQueries.add(previousQuery);
 
-                    // only if successful (i.e., if no exception is thrown),
-                    // the blueprint of this RSP engine's queries is also updated
-                    rspEngine.removeRegisteredQuery(previousQuery);
+            } else {
+                LOGGER.info("Query with name '{}' is still registered as query with name '{}'",
+                        scheduledQueries.get(scheduledQueries.indexOf(previousQuery)).getQueryName(),
+                        previousQuery.getQueryName());
 
-                    // update meta model after successfully unregistering
-                    divideEngine.getDivideMetaModel().removeRegisteredQuery(previousQuery);
+                // remove query from scheduled queries
+                scheduledQueries.remove(previousQuery);
+            }
+        }
 
-                    // if a failure occurs when unregistering this query, the RSP engine's
-                    // blueprint of queries is not updated (i.e., this query is not removed
-                    // from the list)
-                    // => at the following call of this method, this blueprint tells DIVIDE
-                    //    that this query is still registered on the engine, and that it
-                    //    should again be tried to unregister this query (unless by then it
-                    //    is again part of the scheduled queries)
+        if (hotSwapQueries) {
+            // hot-swap handover: the new query versions are first registered alongside
+            // the old ones, so that the RSP engine keeps on evaluating the old queries
+            // on the incoming stream data while the new ones are being registered
+            // -> this avoids the need to pause the RSP engine streams during the
+            //    query derivation & registration update
+            registerScheduledQueries(scheduledQueries, rspEngine, rspEngineApiManager,
+                    queriesToRetry, metaModelUpdate);
+
+            if (queriesToRetry.isEmpty()) {
+                // all new query versions are live (or have failed in a way that retrying
+                // will not solve), so the old queries can now be retired all at once
+                unregisterRetiredQueries(retiredQueries, rspEngine, rspEngineApiManager,
+                        queriesToRetry, metaModelUpdate);
 
-                } catch (RspEngineApiNetworkException e) {
-                    LOGGER.error("External network error when unregistering query '{}' at {}",
-                            previousQuery.getQueryName(), rspEngine.getBaseUrl());
+            } else {
+                // at least one new query version is not live yet because of a network
+                // error: the old queries should remain registered until the retrial of
+                // the failed registrations succeeds
+                // -> the retrial task handles the queries in order, and only unregisters
+                //    retired queries if all registrations in the same retrial succeeded
+                LOGGER.info("Query update at {}: postponing retirement of queries {} until " +
+                                "the registration of {} new queries is retried successfully",
+                        rspEngine.getBaseUrl(),
+                        Arrays.toString(retiredQueries.stream().map(
+                                IRspQuery::getQueryName).toArray()),
+                        queriesToRetry.size());
+                for (IRspQuery retiredQuery : retiredQueries) {
+                    queriesToRetry.add(Pair.create(retiredQuery, false));
+                }
+            }
 
-                    // retrying the request could potentially solve the issue since this is
-                    // a network error (i.e., the destination could not be reached)
-                    // -> most likely there are network connection issues
-                    //    OR the RSP engine server is down
-                    queriesToRetry.add(Pair.create(previousQuery, false));
+        } else {
+            // unregister previously valid queries that are no longer valid
+            unregisterRetiredQueries(retiredQueries, rspEngine, rspEngineApiManager,
+                    queriesToRetry, metaModelUpdate);
 
-                } catch (RspEngineApiResponseException e) {
-                    LOGGER.error("External server error when unregistering query '{}' at {}",
-                            previousQuery.getQueryName(), rspEngine.getBaseUrl(), e);
+            // register newly valid queries
+            registerScheduledQueries(scheduledQueries, rspEngine, rspEngineApiManager,
+                    queriesToRetry, metaModelUpdate);
+        }
 
-                    // retrying the request is NOT useful, since this is an RSP engine server error
-                    // (and the RSP engine server should ensure it can handle the registration
-                    //  requests sent by DIVIDE)
+        // apply all meta model changes of this update at once
+        metaModelUpdate.commit();
 
-                } catch (DivideInvalidInputException e) {
-                    // note: this will normally never occur
-                    LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
-                            "Internal URL error within DIVIDE when trying to unregister " +
-                                    "query '{}' at {}",
-                            previousQuery.getQueryName(), rspEngine.getBaseUrl());
+        return queriesToRetry;
+    }
 
-                    // retrying the request is NOT useful, since this error represents an
-                    // internal condition that will not change
-                }
+    private void unregisterRetiredQueries(List<IRspQuery> retiredQueries,
+                                          IRspEngine rspEngine,
+                                          IRspEngineApiManager rspEngineApiManager,
+                                          List<Pair<IRspQuery, Boolean>> queriesToRetry,
+                                          IDivideMetaModelUpdate metaModelUpdate) {
+        for (IRspQuery previousQuery : retiredQueries) {
+            try {
+                // unregister query from RSP engine
+                rspEngineApiManager.unregisterQuery(previousQuery.getQueryName());
 
-            } else {
-                LOGGER.info("Query with name '{}' is still registered as query with name '{}'",
-                        scheduledQueries.get(scheduledQueries.indexOf(previousQuery)).getQueryName(),
-                        previousQuery.getQueryName());
+                // only if successful (i.e., if no exception is thrown),
+                // the blueprint of this RSP engine's queries is also updated
+                rspEngine.removeRegisteredQuery(previousQuery);
 
-                // remove query from scheduled queries
-                scheduledQueries.remove(previousQuery);
+                // update meta model after successfully unregistering
+                metaModelUpdate.removeRegisteredQuery(previousQuery);
+
+                // if a failure occurs when unregistering this query, the RSP engine's
+                // blueprint of queries is not updated (i.e., this query is not removed
+                // from the list)
+                // => at the following call of this method, this blueprint tells DIVIDE
+                //    that this query is still registered on the engine, and that it
+                //    should again be tried to unregister this query (unless by then it
+                //    is again part of the scheduled queries)
+
+            } catch (RspEngineApiNetworkException e) {
+                LOGGER.error("External network error when unregistering query '{}' at {}",
+                        previousQuery.getQueryName(), rspEngine.getBaseUrl());
+
+                // retrying the request could potentially solve the issue since this is
+                // a network error (i.e., the destination could not be reached)
+                // -> most likely there are network connection issues
+                //    OR the RSP engine server is down
+                queriesToRetry.add(Pair.create(previousQuery, false));
+
+            } catch (RspEngineApiResponseException e) {
+                LOGGER.error("External server error when unregistering query '{}' at {}",
+                        previousQuery.getQueryName(), rspEngine.getBaseUrl(), e);
+
+                // retrying the request is NOT useful, since this is an RSP engine server error
+                // (and the RSP engine server should ensure it can handle the registration
+                //  requests sent by DIVIDE)
+
+            } catch (DivideInvalidInputException e) {
+                // note: this will normally never occur
+                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
+                        "Internal URL error within DIVIDE when trying to unregister " +
+                                "query '{}' at {}",
+                        previousQuery.getQueryName(), rspEngine.getBaseUrl());
+
+                // retrying the request is NOT useful, since this error represents an
+                // internal condition that will not change
             }
         }
+    }
 
+    private void registerScheduledQueries(List<IRspQuery> scheduledQueries,
+                                          IRspEngine rspEngine,
+                                          IRspEngineApiManager rspEngineApiManager,
+                                          List<Pair<IRspQuery, Boolean>> queriesToRetry,
+                                          IDivideMetaModelUpdate metaModelUpdate) {
         // register newly valid queries by looping over the list of scheduled queries
         // -> if a scheduled query was already registered before on the RSP engine,
         //    it has already been removed from the list of scheduled queries
@@ -658,12 +740,12 @@ class RspEngineHandler implements IRspEngineHandler {
         for (IRspQuery query : scheduledQueries) {
             try {
                 // register query to RSP engine
-                JsonObject jsonQuery = rspEngineApiManager.registerQuery(
+                RspEngineQueryRegistration registration = rspEngineApiManager.registerQuery(
                         query.getQueryName(), query.getQueryBody());
 
                 // update RSP query information
                 try {
-                    updateQueryAfterRegistration(query, jsonQuery, rspEngine,
+                    updateQueryAfterRegistration(query, registration, rspEngine,
                             divideEngine.getRegisteredComponentById(componentId));
                 } catch (DivideNotInitializedException e) {
                     // will not happen, DIVIDE will always be initialized at this point
@@ -674,8 +756,8 @@ class RspEngineHandler implements IRspEngineHandler {
                 // the blueprint of this RSP engine's queries is also updated
                 rspEngine.addRegisteredQuery(query);
 
-                // update meta model after successfully unregistering
-                divideEngine.getDivideMetaModel().addRegisteredQuery(query);
+                // update meta model after successfully registering
+                metaModelUpdate.addRegisteredQuery(query);
 
                 // if a failure occurs when registering this query, the RSP engine's
                 // blueprint of queries is not updated (i.e., this query is not removed
@@ -722,31 +804,25 @@ class RspEngineHandler implements IRspEngineHandler {
                 // internal condition that will not change
             }
         }
-
-        return queriesToRetry;
     }
 
     private void updateQueryAfterRegistration(IRspQuery query,
-                                              JsonObject jsonQuery,
+                                              RspEngineQueryRegistration registration,
                                               IRspEngine rspEngine,
                                               IComponent associatedComponent) {
+        if (registration == null) {
+            // the query is registered, but the RSP engine response could not be parsed
+            LOGGER.warn("No registration information available for query {} at {}: " +
+                    "query information is not updated", query.getQueryName(), rspEngine.getBaseUrl());
+            return;
+        }
         query.updateAfterRegistration(
-                jsonQuery.get("id").getAsString(),
-                convertToStreamWindows(jsonQuery.getAsJsonArray("streamWindows")),
+                registration.getId(),
+                registration.getStreamWindows(),
                 rspEngine,
                 associatedComponent);
     }
 
-    private List<IStreamWindow> convertToStreamWindows(JsonArray jsonArrayStreamWindows) {
-        List<IStreamWindow> result = new ArrayList<>();
-        for (JsonElement jsonElement : jsonArrayStreamWindows) {
-            result.add(StreamWindowFactory.createInstance(
-                    jsonElement.getAsJsonObject().get("streamIri").getAsString(),
-                    jsonElement.getAsJsonObject().get("windowDefinition").getAsString()));
-        }
-        return result;
-    }
-
 
 
     // RETRYING FAILED QUERY REGISTRATION UPDATES IN CASE OF NETWORKING ERRORS
@@ -756,6 +832,11 @@ class RspEngineHandler implements IRspEngineHandler {
         private final Logger LOGGER = LoggerFactory.getLogger(
                 QueryRegistrationUpdateRetrialTask.class.getName());
 
+        /**
+         * DIVIDE query from which all queries of this retrial originate
+         */
+        private final IDivideQuery divideQuery;
+
         /**
          * List of pairs representing queries for which the registering or
          * unregistering should be retried. Each pair consists of the query
@@ -774,10 +855,17 @@ class RspEngineHandler implements IRspEngineHandler {
         private final IRspEngine rspEngine;
         private final IRspEngineApiManager rspEngineApiManager;
 
-        public QueryRegistrationUpdateRetrialTask(List<Pair<IRspQuery, Boolean>> queryPairs,
+        /**
+         * Future of the scheduled execution of this task (guarded by the handler)
+         */
+        private Future<?> future;
+
+        public QueryRegistrationUpdateRetrialTask(IDivideQuery divideQuery,
+                                                  List<Pair<IRspQuery, Boolean>> queryPairs,
                                                   long delayBeforeRetrial,
                                                   IRspEngine rspEngine,
                                                   IRspEngineApiManager rspEngineApiManager) {
+            this.divideQuery = divideQuery;
             this.queryPairs = queryPairs;
             this.delayBeforeRetrial = delayBeforeRetrial;
             this.rspEngine = rspEngine;
@@ -786,6 +874,33 @@ class RspEngineHandler implements IRspEngineHandler {
 
         @Override
         public void run() {
+            // the retrial is performed while holding the lock of the handler, so that
+            // it never runs concurrently with a registration update, query location
+            // migration or unregistration of queries, which all cancel the retrials
+            // they affect while holding this lock (without waiting for them to finish)
+            synchronized (RspEngineHandler.this) {
+                // a retrial that was cancelled or replaced while waiting for this
+                // lock should not be performed anymore
+                Pair<IDivideQuery, IRspEngine> key = Pair.create(divideQuery, rspEngine);
+                if (retrialTasks.get(key) != this) {
+                    LOGGER.info("Query update retrial at {} for DIVIDE query '{}': " +
+                                    "retrial was cancelled",
+                            rspEngine.getBaseUrl(), divideQuery.getName());
+                    return;
+                }
+                retrialTasks.remove(key);
+
+                retry();
+            }
+        }
+
+        private void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private void retry() {
             LOGGER.info("Starting retrial of updating registration at {} for {} queries: {}",
                     rspEngine.getBaseUrl(),
                     queryPairs.size(),
@@ -797,10 +912,28 @@ class RspEngineHandler implements IRspEngineHandler {
             // create empty list of queries that should be retried
             List<Pair<IRspQuery, Boolean>> queriesToRetry = new ArrayList<>();
 
+            // keep track of whether a registration failed again during this retrial
+            // (when hot-swapping queries, retired queries are only unregistered if all
+            //  new query versions have been registered successfully)
+            boolean registrationFailed = false;
+
+            // collect all meta model changes of this retrial in a single batch
+            IDivideMetaModelUpdate metaModelUpdate = divideEngine.getDivideMetaModel().createUpdate();
+
             for (Pair<IRspQuery, Boolean> queryBooleanPair : queryPairs) {
                 IRspQuery query = queryBooleanPair.getLeft();
                 boolean register = queryBooleanPair.getRight();
 
+                // postpone the retirement of an old query to the next retrial if not
+                // all new query versions are live yet
+                if (hotSwapQueries && !register && registrationFailed) {
+                    LOGGER.info("Query update retrial at {}: postponing unregistering {}",
+                            rspEngine.getBaseUrl(),
+                            query.getQueryName());
+                    queriesToRetry.add(Pair.create(query, false));
+                    continue;
+                }
+
                 LOGGER.info("Query update retrial at {}: retry {} {}",
                         rspEngine.getBaseUrl(),
                         register ? "registering" : "unregistering",
@@ -809,12 +942,12 @@ class RspEngineHandler implements IRspEngineHandler {
                 try {
                     // register or unregister query at RSP engine
                     if (register) {
-                        JsonObject jsonQuery = rspEngineApiManager.registerQuery(
+                        RspEngineQueryRegistration registration = rspEngineApiManager.registerQuery(
                                 query.getQueryName(), query.getQueryBody());
 
                         // update RSP query information
                         try {
-                            updateQueryAfterRegistration(query, jsonQuery, rspEngine,
+                            updateQueryAfterRegistration(query, registration, rspEngine,
                                     divideEngine.getRegisteredComponentById(componentId));
                         } catch (DivideNotInitializedException e) {
                             // will not happen, DIVIDE will always be initialized at this point
@@ -826,14 +959,14 @@ class RspEngineHandler implements IRspEngineHandler {
                     }
 
                     // only if successful (i.e., if no exception is thrown),
-                    // the blueprint of this RSP engine's queries is also updated
-                    rspEngine.addRegisteredQuery(query);
-
-                    // update meta model after successful update
+                    // the blueprint of this RSP engine's queries is also updated,
+                    // as well as the meta model
                     if (register) {
-                        divideEngine.getDivideMetaModel().addRegisteredQuery(query);
+                        rspEngine.addRegisteredQuery(query);
+                        metaModelUpdate.addRegisteredQuery(query);
                     } else {
-                        divideEngine.getDivideMetaModel().removeRegisteredQuery(query);
+                        rspEngine.removeRegisteredQuery(query);
+                        metaModelUpdate.removeRegisteredQuery(query);
                     }
 
                 } catch (RspEngineApiNetworkException e) {
@@ -842,6 +975,7 @@ class RspEngineHandler implements IRspEngineHandler {
 
                     // retry once again if registration failed again
                     queriesToRetry.add(Pair.create(query, register));
+                    registrationFailed |= register;
 
                 } catch (RspEngineApiResponseException e) {
                     LOGGER.error("External server error when registering query '{}' at {}",
@@ -876,31 +1010,29 @@ class RspEngineHandler implements IRspEngineHandler {
                     LOGGER.info("Query update retrial at {}: task interrupted after updating {}",
                             rspEngine.getBaseUrl(),
                             query.getQueryName());
+                    metaModelUpdate.commit();
                     return;
                 }
             }
 
+            // apply all meta model changes of this retrial at once
+            metaModelUpdate.commit();
+
             if (!queriesToRetry.isEmpty()) {
-                synchronized (retrialFutureGuard) {
-                    // only reschedule if thread has not been interrupted by now
-                    if (!Thread.currentThread().isInterrupted()) {
-                        LOGGER.info("Query update retrial at {}: rescheduling retrial " +
-                                        "of {} failed queries",
-                                rspEngine.getBaseUrl(), queriesToRetry.size());
-
-                        // schedule new retry, with a doubled delay
-                        retrialFuture = retrialScheduledExecutor.schedule(
-                                new QueryRegistrationUpdateRetrialTask(
-                                        queriesToRetry, delayBeforeRetrial * 2,
-                                        rspEngine, rspEngineApiManager),
-                                delayBeforeRetrial * 2,
-                                TimeUnit.SECONDS);
+                // only reschedule if thread has not been interrupted by now
+                if (!Thread.currentThread().isInterrupted()) {
+                    LOGGER.info("Query update retrial at {}: rescheduling retrial " +
+                                    "of {} failed queries",
+                            rspEngine.getBaseUrl(), queriesToRetry.size());
 
-                    } else {
-                        LOGGER.info("Query update retrial at {}: NOT rescheduling retrial " +
-                                        "of {} failed queries because of interruption",
-                                rspEngine.getBaseUrl(), queriesToRetry.size());
-                    }
+                    // schedule new retry, with a doubled delay
+                    scheduleQueryUpdateRetrial(divideQuery, queriesToRetry,
+                            delayBeforeRetrial * 2, rspEngine, rspEngineApiManager);
+
+                } else {
+                    LOGGER.info("Query update retrial at {}: NOT rescheduling retrial " +
+                                    "of {} failed queries because of interruption",
+                            rspEngine.getBaseUrl(), queriesToRetry.size());
                 }
             } else {
                 LOGGER.info("Finished query update retrial at {} - no queries to retry",
@@ -910,50 +1042,88 @@ class RspEngineHandler implements IRspEngineHandler {
 
     }
 
-    private void stopQueryUpdateRetrials() {
-        // shutdown scheduled executor
-        // -> no new tasks can be submitted
-        LOGGER.info("Shutting down retrial scheduled executor");
-        retrialScheduledExecutor.shutdown();
-
-        LOGGER.info("Trying to cancel the latest retrial task");
-        synchronized (retrialFutureGuard) {
-            if (retrialFuture != null) {
-                // cancel the task, and allow for interruption while running
-                // -> if not started yet, it will never start
-                //    (a shutdown does not prevent this, so this is required)
-                // -> if already started, the thread will be interrupted
-                //    (throwing an InterruptedException if sleeping, and otherwise
-                //     setting the interrupt flag so that the thread knows it can
-                //     finish but should not reschedule a new retrial on failure)
-                // -> if already finished, this method will simply return
-                LOGGER.info("Canceling the latest retrial task");
-                retrialFuture.cancel(true);
-                retrialFuture = null;
+    /**
+     * Schedules a retrial of the given failed query registration updates of the
+     * given DIVIDE query on the given RSP engine. If a retrial of this DIVIDE query
+     * on this RSP engine is still pending, it is replaced by a single retrial of
+     * the queries of both. Pending retrials of other DIVIDE queries are unaffected.
+     */
+    private synchronized void scheduleQueryUpdateRetrial(
+            IDivideQuery divideQuery,
+            List<Pair<IRspQuery, Boolean>> queriesToRetry,
+            long delayBeforeRetrial,
+            IRspEngine rspEngine,
+            IRspEngineApiManager rspEngineApiManager) {
+        Pair<IDivideQuery, IRspEngine> key = Pair.create(divideQuery, rspEngine);
+
+        QueryRegistrationUpdateRetrialTask previousTask = retrialTasks.remove(key);
+        if (previousTask != null) {
+            previousTask.cancel();
+
+            // the merged retrial handles all registrations before all unregistrations,
+            // so that retirements are still postponed if a registration fails again
+            List<Pair<IRspQuery, Boolean>> mergedQueries = new ArrayList<>();
+            for (boolean register : new boolean[]{true, false}) {
+                Stream.concat(previousTask.queryPairs.stream(), queriesToRetry.stream())
+                        .filter(pair -> pair.getRight() == register)
+                        .filter(pair -> !mergedQueries.contains(pair))
+                        .forEach(mergedQueries::add);
             }
+            queriesToRetry = mergedQueries;
+            delayBeforeRetrial = Math.min(delayBeforeRetrial, previousTask.delayBeforeRetrial);
         }
 
-        // await for termination of tasks of scheduled executor
-        // -> the last scheduled future has been canceled, so will not
-        //    start if it was not started yet, and will otherwise regularly
-        //    check for its interruption and return immediately at anchor point
-        try {
-            LOGGER.info("Awaiting termination of retrial tasks");
-            if (!retrialScheduledExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
-                retrialScheduledExecutor.shutdownNow();
-                LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
-                        "Awaiting termination not finished after 1 minute => hard shutdown");
-            }
-        } catch (InterruptedException e) {
-            LOGGER.error(Constants.UNKNOWN_ERROR_MARKER,
-                    "Interruption while awaiting termination of retrial tasks => hard shutdown");
-            retrialScheduledExecutor.shutdownNow();
+        QueryRegistrationUpdateRetrialTask task = new QueryRegistrationUpdateRetrialTask(
+                divideQuery, queriesToRetry, delayBeforeRetrial, rspEngine, rspEngineApiManager);
+        retrialTasks.put(key, task);
+        task.future = retrialScheduledExecutor.schedule(
+                task, delayBeforeRetrial, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cancels the pending query update retrial of the given DIVIDE query on the
+     * given RSP engine, if any. Since retrials are performed while holding the lock
+     * of this handler, this method never has to wait for a running retrial: a retrial
+     * that has not started yet will never start, and a retrial that is waiting for
+     * the lock will not be performed once it obtains it.
+     */
+    private synchronized void cancelQueryUpdateRetrial(IDivideQuery divideQuery,
+                                                       IRspEngine rspEngine) {
+        QueryRegistrationUpdateRetrialTask task =
+                retrialTasks.remove(Pair.create(divideQuery, rspEngine));
+        if (task != null) {
+            LOGGER.info("Canceling the pending query update retrial of DIVIDE query '{}' at {}",
+                    divideQuery.getName(), rspEngine.getBaseUrl());
+            task.cancel();
         }
+    }
 
-        // create a new retrial executor
-        this.retrialScheduledExecutor = (ScheduledThreadPoolExecutor)
-                Executors.newScheduledThreadPool(1);
-        this.retrialScheduledExecutor.setRemoveOnCancelPolicy(true);
+    /**
+     * Cancels the pending query update retrials of the given DIVIDE query on
+     * all RSP engines.
+     */
+    private synchronized void cancelQueryUpdateRetrials(IDivideQuery divideQuery) {
+        retrialTasks.entrySet().removeIf(entry -> {
+            if (entry.getKey().getLeft().equals(divideQuery)) {
+                LOGGER.info("Canceling the pending query update retrial of DIVIDE query '{}' at {}",
+                        divideQuery.getName(), entry.getKey().getRight().getBaseUrl());
+                entry.getValue().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Cancels the pending query update retrials of all DIVIDE queries.
+     */
+    private synchronized void cancelAllQueryUpdateRetrials() {
+        if (!retrialTasks.isEmpty()) {
+            LOGGER.info("Canceling the pending query update retrials of {} DIVIDE queries",
+                    retrialTasks.size());
+            retrialTasks.values().forEach(QueryRegistrationUpdateRetrialTask::cancel);
+            retrialTasks.clear();
+        }
     }
 
 
@@ -970,7 +1140,7 @@ class RspEngineHandler implements IRspEngineHandler {
                         : localRspEngine.getBaseUrl());
 
         // stop all query update retrials since the associated component will be unregistered
-        stopQueryUpdateRetrials();
+        cancelAllQueryUpdateRetrials();
 
         // create new list of all registered queries on local RSP engine
         List<IRspQuery> localQueriesToUnregister =
@@ -983,9 +1153,11 @@ class RspEngineHandler implements IRspEngineHandler {
                             IRspQuery::getQueryName).toArray()));
 
             // unregister queries
+            IDivideMetaModelUpdate metaModelUpdate = divideEngine.getDivideMetaModel().createUpdate();
             for (IRspQuery query : localQueriesToUnregister) {
-                unregisterQuery(query, localRspEngine, localRspEngineApiManager);
+                unregisterQuery(query, localRspEngine, localRspEngineApiManager, metaModelUpdate);
             }
+            metaModelUpdate.commit();
 
         } else {
             LOGGER.info("No RSP engine queries registered anymore at {}",
@@ -1005,9 +1177,12 @@ class RspEngineHandler implements IRspEngineHandler {
                                 IRspQuery::getQueryName).toArray()));
 
                 // unregister queries
+                IDivideMetaModelUpdate metaModelUpdate = divideEngine.getDivideMetaModel().createUpdate();
                 for (IRspQuery query : centralQueriesToUnregister) {
-                    unregisterQuery(query, centralRspEngine, centralRspEngineApiManager);
+                    unregisterQuery(query, centralRspEngine, centralRspEngineApiManager,
+                            metaModelUpdate);
                 }
+                metaModelUpdate.commit();
 
             } else {
                 LOGGER.info("No RSP engine queries registered anymore at {}",
@@ -1021,9 +1196,9 @@ class RspEngineHandler implements IRspEngineHandler {
         LOGGER.info("Unregistering RSP engine queries of DIVIDE query '{}'",
                 divideQuery.getName());
 
-        // stop all query update retrials since otherwise some new queries associated
-        // to this removed DIVIDE query might be re-registered
-        stopQueryUpdateRetrials();
+        // stop the query update retrials of this DIVIDE query since otherwise some
+        // new queries associated to this removed DIVIDE query might be re-registered
+        cancelQueryUpdateRetrials(divideQuery);
 
         // retrieve current RSP engine location to where queries of the
         // given DIVIDE query are be registered
@@ -1054,9 +1229,11 @@ class RspEngineHandler implements IRspEngineHandler {
                             IRspQuery::getQueryName).toArray()));
 
             // unregister queries
+            IDivideMetaModelUpdate metaModelUpdate = divideEngine.getDivideMetaModel().createUpdate();
             for (IRspQuery query : queriesToUnregister) {
-                unregisterQuery(query, rspEngine, rspEngineApiManager);
+                unregisterQuery(query, rspEngine, rspEngineApiManager, metaModelUpdate);
             }
+            metaModelUpdate.commit();
 
         } else {
             LOGGER.info("No RSP engine queries registered at {} that are associated to" +
@@ -1067,7 +1244,8 @@ class RspEngineHandler implements IRspEngineHandler {
 
     private void unregisterQuery(IRspQuery query,
                                  IRspEngine rspEngine,
-                                 IRspEngineApiManager rspEngineApiManager) {
+                                 IRspEngineApiManager rspEngineApiManager,
+                                 IDivideMetaModelUpdate metaModelUpdate) {
         try {
             // unregister query from RSP engine
             rspEngineApiManager.unregisterQuery(query.getQueryName());
@@ -1077,7 +1255,7 @@ class RspEngineHandler implements IRspEngineHandler {
             rspEngine.removeRegisteredQuery(query);
 
             // update meta model accordingly
-            divideEngine.getDivideMetaModel().removeRegisteredQuery(query);
+            metaModelUpdate.removeRegisteredQuery(query);
 
             // if unregistering fails, it is what it is and it should not be retried
 
@@ -1189,8 +1367,8 @@ class RspEngineHandler implements IRspEngineHandler {
             return;
         }
 
-        // stop the query update retrial tasks
-        stopQueryUpdateRetrials();
+        // stop the query update retrials of this DIVIDE query
+        cancelQueryUpdateRetrials(divideQuery);
 
         // retrieve all queries registered on the local RSP engine that originate
         // from the given DIVIDE query
@@ -1208,9 +1386,15 @@ class RspEngineHandler implements IRspEngineHandler {
                             "associated to that DIVIDE query", divideQuery.getName()));
         }
 
-        // update the registration for each query
+        // plan the migration of all queries: for each query, the updated query body for
+        // the central RSP engine is created, and the preparation of its input streams
+        // on the central RSP engine is planned (only once for every stream, even if
+        // multiple queries use the same stream)
+        QueryLocationMigration migration = createQueryLocationMigration(
+                divideQuery, localRspEngine, localRspEngineApiManager,
+                centralRspEngine, centralRspEngineApiManager);
         for (IRspQuery registeredLocalQuery : registeredLocalQueries) {
-            LOGGER.info("Updating location of registered local query {}",
+            LOGGER.info("Planning location update of registered local query {}",
                     registeredLocalQuery.getQueryName());
 
             // update the stream names of the original RSP-QL query body of this query
@@ -1234,68 +1418,33 @@ class RspEngineHandler implements IRspEngineHandler {
                 // get translation of stream URI for central RSP engine
                 // (which is also used in the updated RSP-QL query body)
                 String centralStreamUri = getLocalToCentralStreamUriTranslation(localStreamUri);
-
-                LOGGER.info("Updating input stream '{}' of local query {} to '{}': " +
-                                "registering new stream to central RSP engine & " +
-                                "enabling forwarding of stream on local RSP engine to central RSP engine",
-                        localStreamUri, registeredLocalQuery.getQueryName(), centralStreamUri);
+                String webSocketUrl = getCentralStreamWebSocketUrl(centralStreamUri);
 
                 // register this central stream URI to the central RSP engine
-                // (no exception will be thrown if the stream already exists)
-                try {
-                    this.centralRspEngineApiManager.registerStream(centralStreamUri, true);
-                } catch (RspEngineApiNetworkException | RspEngineApiResponseException
-                         | DivideInvalidInputException e) {
-                    throw new RspEngineHandlerException(
-                            String.format("The input stream %s could not be registered at the " +
-                                    "central RSP engine", centralStreamUri), e);
-                }
-
-                // generate WebSocket URL of the central stream URI input WebSocket server
-                // of the central RSP engine and register it as forwarding WebSocket to the
+                // (no exception will be thrown if the stream already exists), and
+                // register the WebSocket URL of the central stream URI input WebSocket
+                // server of the central RSP engine as forwarding WebSocket to the
                 // original stream at the local RSP engine
-                try {
-                    String webSocketUrl = String.format("%s/streams/%s",
-                            this.centralRspEngine.getWebSocketStreamUrl(),
-                            URLEncoder.encode(centralStreamUri, StandardCharsets.UTF_8.toString()));
-
-                    this.localRspEngineApiManager.enableStreamForwardingToWebSocket(
-                            localStreamUri, webSocketUrl);
-
-                } catch (UnsupportedEncodingException | RspEngineApiNetworkException
-                         | RspEngineApiResponseException | DivideInvalidInputException e) {
-                    throw new RspEngineHandlerException(
-                            String.format("The forwarding of the local stream URI %s to the WebSocket" +
-                                    " stream server of the central RSP engine (for central stream %s) " +
-                                    "could not be enabled", localStreamUri, centralStreamUri), e);
-                }
-            }
-
-            // retrieve the observer URLs of the original local query
-            List<String> localQueryObservers = new ArrayList<>();
-            try {
-                List<JsonObject> jsonObservers = localRspEngineApiManager.
-                        getQueryObservers(registeredLocalQuery.getQueryName());
-                for (JsonObject jsonObserver : jsonObservers) {
-                    localQueryObservers.add(jsonObserver.get("observerURL").getAsString());
-                }
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                    | RspEngineApiNetworkException e) {
-                LOGGER.warn("Could not retrieve observers of original local query {}",
-                        registeredLocalQuery.getQueryName(), e);
-            }
-
-            try {
-                // unregister the original query from the local RSP engine
-                localRspEngineApiManager.unregisterQuery(registeredLocalQuery.getQueryName());
-                localRspEngine.removeRegisteredQuery(registeredLocalQuery);
-                divideEngine.getDivideMetaModel().removeRegisteredQuery(registeredLocalQuery);
-
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                     | RspEngineApiNetworkException e) {
-                throw new RspEngineHandlerException(
-                        String.format("The old query with name %s could not be unregistered from the " +
-                                "local RSP engine", registeredLocalQuery.getQueryName()), e);
+                migration.addStreamPreparationStep(
+                        localStreamUri,
+                        String.format("The input stream %s could not be registered at the " +
+                                "central RSP engine, or the forwarding of the local stream URI " +
+                                "%s to the WebSocket stream server of the central RSP engine " +
+                                "could not be enabled", centralStreamUri, localStreamUri),
+                        () -> centralRspEngineApiManager
+                                .registerStreamAsync(centralStreamUri, true)
+                                .thenCompose(v -> localRspEngineApiManager
+                                        .enableStreamForwardingToWebSocketAsync(
+                                                localStreamUri, webSocketUrl)),
+                        // if the migration is aborted, the forwarding is disabled again
+                        // unless the central stream is used by another central query
+                        () -> centralRspEngineApiManager
+                                .retrieveQueriesWithInputStreamAsync(centralStreamUri)
+                                .thenCompose(streamQueries -> streamQueries.isEmpty() ?
+                                        localRspEngineApiManager
+                                                .disableStreamForwardingToWebSocketAsync(
+                                                        localStreamUri, webSocketUrl) :
+                                        CompletableFuture.completedFuture(null)));
             }
 
             // create a new RSP query instance for the central RSP query
@@ -1304,62 +1453,16 @@ class RspEngineHandler implements IRspEngineHandler {
                     preprocessQueryBeforeRegistration(translatedQueryBody),
                     preprocessQueryBeforeRegistration(updatedRspQlQueryBody),
                     divideQuery);
-
-            try {
-                // register the new query to the central RSP engine
-                JsonObject jsonQuery = centralRspEngineApiManager.registerQuery(
-                        newCentralQuery.getQueryName(), newCentralQuery.getQueryBody());
-                try {
-                    updateQueryAfterRegistration(newCentralQuery, jsonQuery, centralRspEngine,
-                            divideEngine.getRegisteredComponentById(componentId));
-                } catch (DivideNotInitializedException e) {
-                    // will not happen, DIVIDE will always be initialized at this point
-                    throw new RuntimeException(e);
-                }
-                centralRspEngine.addRegisteredQuery(newCentralQuery);
-                divideEngine.getDivideMetaModel().addRegisteredQuery(newCentralQuery);
-
-            } catch (RspEngineApiNetworkException | RspEngineApiResponseException
-                     | DivideInvalidInputException | RspEngineApiInputException e) {
-                throw new RspEngineHandlerException(
-                        String.format("The new query with name %s could not be registered at the " +
-                                "central RSP engine", newQueryName), e);
-            }
-
-            // retrieve the observer URLs of the newly registered central query
-            List<String> centralQueryObservers = new ArrayList<>();
-            try {
-                List<JsonObject> jsonObservers = centralRspEngineApiManager.
-                        getQueryObservers(newCentralQuery.getQueryName());
-                for (JsonObject jsonObserver : jsonObservers) {
-                    centralQueryObservers.add(jsonObserver.get("observerURL").getAsString());
-                }
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                     | RspEngineApiNetworkException e) {
-                LOGGER.warn("Could not retrieve observers of new central query {}",
-                        newCentralQuery.getQueryName(), e);
-            }
-
-            // register the observers of the original local query to the new central query
-            for (String localQueryObserver : localQueryObservers) {
-                if (centralQueryObservers.contains(localQueryObserver)) {
-                    LOGGER.info("Not registering query observer {} to new query {} at central RSP engine: " +
-                            "observer already exists", localQueryObserver, newCentralQuery.getQueryName());
-                } else {
-                    try {
-                        centralRspEngineApiManager.registerQueryObserver(
-                                newCentralQuery.getQueryName(), localQueryObserver);
-                    } catch (RspEngineApiNetworkException | RspEngineApiResponseException
-                             | DivideInvalidInputException e) {
-                        LOGGER.warn("Could not register observer {} of central query {}",
-                                localQueryObserver, newCentralQuery.getQueryName(), e);
-                    }
-                }
-            }
+            migration.addQueryMove(registeredLocalQuery, newCentralQuery);
         }
 
-        // update the location for the given DIVIDE query for future query derivations
-        updateLocationOfDivideQuery(divideQuery, RspLocation.CENTRAL);
+        // execute the migration: the new central queries take over before the
+        // original local queries are unregistered, at which point the location
+        // for the given DIVIDE query is updated for future query derivations
+        migration.execute(
+                () -> updateLocationOfDivideQuery(divideQuery, RspLocation.CENTRAL),
+                failedQueries -> scheduleUnregistrationRetrials(
+                        divideQuery, failedQueries, localRspEngine, localRspEngineApiManager));
     }
 
     @Override
@@ -1396,8 +1499,8 @@ class RspEngineHandler implements IRspEngineHandler {
             return;
         }
 
-        // stop the query update retrial tasks
-        stopQueryUpdateRetrials();
+        // stop the query update retrials of this DIVIDE query
+        cancelQueryUpdateRetrials(divideQuery);
 
         // retrieve all queries registered on the central RSP engine that originate
         // from the given DIVIDE query
@@ -1406,14 +1509,15 @@ class RspEngineHandler implements IRspEngineHandler {
                         .filter(iRspQuery -> iRspQuery.getOriginalDivideQuery().equals(divideQuery))
                         .collect(Collectors.toList());
 
-        // keep track of all input streams of the local RSP engine, of which the
-        // corresponding input stream of the central RSP engine was used as an input
-        // stream in one of the unregistered central RSP engine queries
-        List<String> localStreamUrisOfUnregisteredCentralQueries = new ArrayList<>();
-
-        // update the registration for each query
+        // plan the migration of all queries: for each query, the updated query body for
+        // the local RSP engine is created, and the cleanup of its input streams on the
+        // central RSP engine is planned (only once for every stream, even if multiple
+        // queries use the same stream)
+        QueryLocationMigration migration = createQueryLocationMigration(
+                divideQuery, centralRspEngine, centralRspEngineApiManager,
+                localRspEngine, localRspEngineApiManager);
         for (IRspQuery registeredCentralQuery : registeredCentralQueries) {
-            LOGGER.info("Updating location of registered central query {}",
+            LOGGER.info("Planning location update of registered central query {}",
                     registeredCentralQuery.getQueryName());
 
             // update the stream names of the original RSP-QL query body of this central query,
@@ -1424,43 +1528,40 @@ class RspEngineHandler implements IRspEngineHandler {
             String updatedRspQlQueryBody = updatedQueryResult.getLeft();
             List<String> inputStreamNames = updatedQueryResult.getRight();
 
-            // save all stream names to process after updating the query registrations
-            localStreamUrisOfUnregisteredCentralQueries.addAll(inputStreamNames);
-
             // create new query name
             String newQueryName = String.format("Q%d%s", this.queryCounter++, this.id);
 
-            // translate the updated RSP-QL query body for the central engine
+            // translate the updated RSP-QL query body for the local engine
             String translatedQueryBody = this.localQueryTranslator.translateQuery(
                     updatedRspQlQueryBody, newQueryName);
             LOGGER.info("Translated original RSP-QL query body '{}' to new body '{}'",
                     registeredCentralQuery.getRspQLQueryBody(), translatedQueryBody);
 
-            // retrieve the observer URLs of the original central query
-            List<String> centralQueryObservers = new ArrayList<>();
-            try {
-                List<JsonObject> jsonObservers = centralRspEngineApiManager.
-                        getQueryObservers(registeredCentralQuery.getQueryName());
-                for (JsonObject jsonObserver : jsonObservers) {
-                    centralQueryObservers.add(jsonObserver.get("observerURL").getAsString());
-                }
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                     | RspEngineApiNetworkException e) {
-                LOGGER.warn("Could not retrieve observers of original central query {}",
-                        registeredCentralQuery.getQueryName(), e);
-            }
+            // loop over all input streams of the local RSP engine, of which the
+            // corresponding input stream of the central RSP engine is used as an input
+            // stream in the central RSP engine query that will be unregistered
+            for (String localStreamUri : inputStreamNames) {
+                // get translation of stream URI for central RSP engine
+                // (which is the stream URI of the unregistered query)
+                String centralStreamUri = getLocalToCentralStreamUriTranslation(localStreamUri);
+                String webSocketUrl = getCentralStreamWebSocketUrl(centralStreamUri);
 
-            try {
-                // unregister the original query from the central RSP engine
-                centralRspEngineApiManager.unregisterQuery(registeredCentralQuery.getQueryName());
-                centralRspEngine.removeRegisteredQuery(registeredCentralQuery);
-                divideEngine.getDivideMetaModel().removeRegisteredQuery(registeredCentralQuery);
-
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                     | RspEngineApiNetworkException e) {
-                throw new RspEngineHandlerException(
-                        String.format("The old query with name %s could not be unregistered from the " +
-                                "central RSP engine", registeredCentralQuery.getQueryName()), e);
+                // after unregistering the central queries, check whether this stream is
+                // still used as input stream by another active central RSP query, and
+                // disable the forwarding of the original stream at the local RSP engine
+                // to the central RSP engine if this is not the case
+                migration.addStreamCleanupStep(
+                        localStreamUri,
+                        String.format("The forwarding of the local stream URI %s to the WebSocket" +
+                                " stream server of the central RSP engine (for central stream %s) " +
+                                "could not be disabled", localStreamUri, centralStreamUri),
+                        () -> centralRspEngineApiManager
+                                .retrieveQueriesWithInputStreamAsync(centralStreamUri)
+                                .thenCompose(streamQueries -> streamQueries.isEmpty() ?
+                                        localRspEngineApiManager
+                                                .disableStreamForwardingToWebSocketAsync(
+                                                        localStreamUri, webSocketUrl) :
+                                        CompletableFuture.completedFuture(null)));
             }
 
             // create a new RSP query instance for the local RSP query
@@ -1469,104 +1570,66 @@ class RspEngineHandler implements IRspEngineHandler {
                     preprocessQueryBeforeRegistration(translatedQueryBody),
                     preprocessQueryBeforeRegistration(updatedRspQlQueryBody),
                     divideQuery);
-
-            try {
-                // register the new query to the local RSP engine
-                JsonObject jsonQuery = localRspEngineApiManager.registerQuery(
-                        newLocalQuery.getQueryName(), newLocalQuery.getQueryBody());
-                try {
-                    updateQueryAfterRegistration(newLocalQuery, jsonQuery, localRspEngine,
-                            divideEngine.getRegisteredComponentById(componentId));
-                } catch (DivideNotInitializedException e) {
-                    // will not happen, DIVIDE will always be initialized at this point
-                    throw new RuntimeException(e);
-                }
-                localRspEngine.addRegisteredQuery(newLocalQuery);
-                divideEngine.getDivideMetaModel().addRegisteredQuery(newLocalQuery);
-
-            } catch (RspEngineApiNetworkException | RspEngineApiResponseException
-                     | DivideInvalidInputException | RspEngineApiInputException e) {
-                throw new RspEngineHandlerException(
-                        String.format("The new query with name %s could not be registered at the " +
-                                "local RSP engine", newQueryName), e);
-            }
-
-            // retrieve the observer URLs of the newly registered local query
-            List<String> localQueryObservers = new ArrayList<>();
-            try {
-                List<JsonObject> jsonObservers = localRspEngineApiManager.
-                        getQueryObservers(newLocalQuery.getQueryName());
-                for (JsonObject jsonObserver : jsonObservers) {
-                    localQueryObservers.add(jsonObserver.get("observerURL").getAsString());
-                }
-            } catch (DivideInvalidInputException | RspEngineApiResponseException
-                     | RspEngineApiNetworkException e) {
-                LOGGER.warn("Could not retrieve observers of new local query {}",
-                        newLocalQuery.getQueryName(), e);
-            }
-
-            // register the observers of the original central query to the new local query
-            for (String centralQueryObserver : centralQueryObservers) {
-                if (localQueryObservers.contains(centralQueryObserver)) {
-                    LOGGER.info("Not registering query observer {} to new query {} at local RSP engine: " +
-                            "observer already exists", centralQueryObserver, newLocalQuery.getQueryName());
-                } else {
-                    try {
-                        localRspEngineApiManager.registerQueryObserver(
-                                newLocalQuery.getQueryName(), centralQueryObserver);
-                    } catch (RspEngineApiNetworkException | RspEngineApiResponseException
-                             | DivideInvalidInputException e) {
-                        LOGGER.warn("Could not register observer {} of local query {}",
-                                centralQueryObserver, newLocalQuery.getQueryName(), e);
-                    }
-                }
-            }
+            migration.addQueryMove(registeredCentralQuery, newLocalQuery);
         }
 
-        // loop over all input streams of the local RSP engine, of which the
-        // corresponding input stream of the central RSP engine was used as an input
-        // stream in one of the unregistered central RSP engine queries
-        for (String localStreamUri : localStreamUrisOfUnregisteredCentralQueries) {
-            // get translation of stream URI for central RSP engine
-            // (which is the stream URI of at least 1 unregistered query)
-            String centralStreamUri = getLocalToCentralStreamUriTranslation(localStreamUri);
+        // execute the migration: the new local queries take over before the
+        // original central queries are unregistered, at which point the location
+        // for the given DIVIDE query is updated for future query derivations
+        migration.execute(
+                () -> updateLocationOfDivideQuery(divideQuery, RspLocation.LOCAL),
+                failedQueries -> scheduleUnregistrationRetrials(
+                        divideQuery, failedQueries, centralRspEngine, centralRspEngineApiManager));
+    }
 
-            try {
-                LOGGER.info("Processing input stream '{}' of unregistered central query: " +
-                                "checking whether this stream is still used as input stream by " +
-                                "another active central RSP query and disable forwarding of stream " +
-                                "on local RSP engine to central RSP engine if this is not the case",
-                        localStreamUri);
-
-                // get all queries on central RSP engine that use the central stream URI
-                // as an input stream
-                List<JsonObject> streamQueries = this.centralRspEngineApiManager.
-                        retrieveQueriesWithInputStream(centralStreamUri);
-
-                // only continue if the list is empty: otherwise the stream forwarding
-                // should remain enabled
-                if (streamQueries.isEmpty()) {
-                    // generate WebSocket URL of the central stream URI input WebSocket server
-                    // of the central RSP engine and disable the forwarding of the
-                    // original stream at the local RSP engine to this WebSocket
-                    String webSocketUrl = String.format("%s/streams/%s",
-                            this.centralRspEngine.getWebSocketStreamUrl(),
-                            URLEncoder.encode(centralStreamUri, StandardCharsets.UTF_8.toString()));
-                    this.localRspEngineApiManager.disableStreamForwardingToWebSocket(
-                            localStreamUri, webSocketUrl);
-                }
+    private QueryLocationMigration createQueryLocationMigration(
+            IDivideQuery divideQuery,
+            IRspEngine sourceRspEngine,
+            IRspEngineApiManager sourceRspEngineApiManager,
+            IRspEngine targetRspEngine,
+            IRspEngineApiManager targetRspEngineApiManager) {
+        try {
+            return new QueryLocationMigration(
+                    divideQuery,
+                    sourceRspEngine, sourceRspEngineApiManager,
+                    targetRspEngine, targetRspEngineApiManager,
+                    divideEngine.getRegisteredComponentById(componentId),
+                    divideEngine.getDivideMetaModel());
+        } catch (DivideNotInitializedException e) {
+            // will not happen, DIVIDE will always be initialized at this point
+            throw new RuntimeException(e);
+        }
+    }
 
-            } catch (UnsupportedEncodingException | RspEngineApiNetworkException
-                     | RspEngineApiResponseException | DivideInvalidInputException e) {
-                throw new RspEngineHandlerException(
-                        String.format("The forwarding of the local stream URI %s to the WebSocket" +
-                                " stream server of the central RSP engine (for central stream %s) " +
-                                "could not be enabled", localStreamUri, centralStreamUri), e);
-            }
+    private String getCentralStreamWebSocketUrl(String centralStreamUri)
+            throws RspEngineHandlerException {
+        // generate WebSocket URL of the central stream URI input WebSocket server
+        // of the central RSP engine
+        try {
+            return String.format("%s/streams/%s",
+                    this.centralRspEngine.getWebSocketStreamUrl(),
+                    URLEncoder.encode(centralStreamUri, StandardCharsets.UTF_8.toString()));
+        } catch (UnsupportedEncodingException e) {
+            throw new RspEngineHandlerException(
+                    String.format("The WebSocket URL for central stream %s could not be created",
+                            centralStreamUri), e);
         }
+    }
 
-        // update the location for the given DIVIDE query for future query derivations
-        updateLocationOfDivideQuery(divideQuery, RspLocation.LOCAL);
+    private void scheduleUnregistrationRetrials(IDivideQuery divideQuery,
+                                                List<IRspQuery> queries,
+                                                IRspEngine rspEngine,
+                                                IRspEngineApiManager rspEngineApiManager) {
+        // original queries that could not be unregistered after a query location
+        // migration are still in the blueprint of the RSP engine, and are retried
+        // in the same way as failed unregistrations of a regular registration update
+        List<Pair<IRspQuery, Boolean>> queriesToRetry = queries.stream()
+                .map(query -> Pair.create(query, false))
+                .collect(Collectors.toList());
+        LOGGER.info("Query location migration at {}: scheduling retrial of " +
+                "unregistering {} original queries", rspEngine.getBaseUrl(), queries.size());
+        scheduleQueryUpdateRetrial(divideQuery, queriesToRetry, 10,
+                rspEngine, rspEngineApiManager);
     }
 
 }
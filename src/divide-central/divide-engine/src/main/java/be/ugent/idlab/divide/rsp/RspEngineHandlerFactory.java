@@ -10,6 +10,9 @@ public class RspEngineHandlerFactory {
      * with the given query language and registration URL.
      * @param localRspEngineQueryLanguage query language used by the local RSP engine
      * @param localRspEngineUrl base URL which will be used for communication with the local RSP engine
+     * @param hotSwapQueries whether query registration updates should register new query versions
+     *                       alongside the old ones, and only retire the old ones once the new
+     *                       ones are live (instead of unregistering the old ones first)
      * @return a new instance of {@link IRspEngineHandler} that acts as a handler of the local RSP engine
      * @throws DivideInvalidInputException when the query registration URL is no valid URL
      */
@@ -17,11 +20,12 @@ public class RspEngineHandlerFactory {
                                                    String localRspEngineUrl,
                                                    int localRspEngineServerPort,
                                                    String componentId,
+                                                   boolean hotSwapQueries,
                                                    IDivideEngine divideEngine)
             throws DivideInvalidInputException {
         return new RspEngineHandler(
                 localRspEngineQueryLanguage, localRspEngineUrl, localRspEngineServerPort,
-                componentId, divideEngine);
+                componentId, hotSwapQueries, divideEngine);
     }
 
 }
@@ -1,9 +1,9 @@
 package be.ugent.idlab.divide.rsp.api;
 
 import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
-import com.google.gson.JsonObject;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class capable of registering queries to a wrapped registration URL,
@@ -17,6 +17,9 @@ public interface IRspEngineApiManager {
      *
      * @param queryName name of the query to be registered
      * @param queryBody body of the query to be registered
+     * @return information on the registered query returned by the RSP engine, i.e., the ID
+     *         of the query and its stream windows; null if the response of the RSP engine
+     *         could not be parsed (the query is then still registered)
      * @throws RspEngineApiNetworkException when a network error occurs during the registration
      *                                      of the query, causing the query to be not correctly
      *                                      registered at the RSP engine
@@ -28,7 +31,7 @@ public interface IRspEngineApiManager {
      * @throws DivideInvalidInputException when the URL to which the query should be registered
      *                                     appears to be invalid and no request can therefore be made
      */
-    JsonObject registerQuery(String queryName, String queryBody) throws
+    RspEngineQueryRegistration registerQuery(String queryName, String queryBody) throws
             RspEngineApiNetworkException,
             RspEngineApiInputException,
             RspEngineApiResponseException,
@@ -51,7 +54,19 @@ public interface IRspEngineApiManager {
             RspEngineApiResponseException,
             DivideInvalidInputException;
 
-    List<JsonObject> getQueryObservers(String queryName) throws
+    /**
+     * Retrieves the URLs of all observers of a query registered at the RSP engine.
+     *
+     * @param queryName name of the query of which the observers should be retrieved
+     * @return list of observer URLs of the query
+     * @throws RspEngineApiNetworkException when a network error occurs during retrieving the observers
+     * @throws RspEngineApiResponseException when retrieving the observers at the RSP engine
+     *                                       server fails (HTTP status code is not 2xx), or when
+     *                                       its response cannot be parsed
+     * @throws DivideInvalidInputException when the URL at which the observers should be retrieved
+     *                                     appears to be invalid and no request can therefore be made
+     */
+    List<String> getQueryObservers(String queryName) throws
             RspEngineApiNetworkException,
             RspEngineApiResponseException,
             DivideInvalidInputException;
@@ -115,20 +130,22 @@ public interface IRspEngineApiManager {
             DivideInvalidInputException;
 
     /**
-     * Retrieves all queries (their bodies) that are registered at the RSP engine
+     * Retrieves (the IDs of) all queries that are registered at the RSP engine
      * and that have the specified stream name as one of its input streams.
      *
      * @param streamName name (URI) of the stream that should be one of the input streams of the
      *                   returned queries
-     * @return list of query bodies that are registered at the RSP engine and that have the specified
-     *         stream name as one of its input stream
+     * @return list with the ID of every query that is registered at the RSP engine and that has
+     *         the specified stream name as one of its input stream (an entry is null if the
+     *         RSP engine did not return an ID for a query)
      * @throws RspEngineApiNetworkException when a network error occurs during retrieving the queries
      * @throws RspEngineApiResponseException when retrieving the queries at the RSP engine
-     *                                       server fails (HTTP status code is not 2xx)
+     *                                       server fails (HTTP status code is not 2xx), or when
+     *                                       its response cannot be parsed
      * @throws DivideInvalidInputException when the URL at which the queries should be retrieved
      *                                     appears to be invalid and no request can therefore be made
      */
-    List<JsonObject> retrieveQueriesWithInputStream(String streamName) throws
+    List<String> retrieveQueriesWithInputStream(String streamName) throws
             RspEngineApiNetworkException,
             RspEngineApiResponseException,
             DivideInvalidInputException;
@@ -174,4 +191,96 @@ public interface IRspEngineApiManager {
             RspEngineApiResponseException,
             DivideInvalidInputException;
 
+    /**
+     * Asynchronous variant of {@link #registerQuery(String, String)}, which
+     * performs the registration on a separate thread.
+     *
+     * @param queryName name of the query to be registered
+     * @param queryBody body of the query to be registered
+     * @return future that completes with the result of {@link #registerQuery(String, String)},
+     *         or completes exceptionally with one of the exceptions thrown by that method
+     */
+    CompletableFuture<RspEngineQueryRegistration> registerQueryAsync(String queryName, String queryBody);
+
+    /**
+     * Asynchronous variant of {@link #unregisterQuery(String)}, which
+     * performs the unregistering on a separate thread.
+     *
+     * @param queryName name of the query to be unregistered
+     * @return future that completes when the query is unregistered, or completes
+     *         exceptionally with one of the exceptions thrown by {@link #unregisterQuery(String)}
+     */
+    CompletableFuture<Void> unregisterQueryAsync(String queryName);
+
+    /**
+     * Asynchronous variant of {@link #registerQueryObserver(String, String)}, which
+     * performs the registration on a separate thread.
+     *
+     * @param queryName name of the query for which the observer should be registered
+     * @param observerUrl URL of the observer to be registered
+     * @return future that completes when the observer is registered, or completes
+     *         exceptionally with one of the exceptions thrown by
+     *         {@link #registerQueryObserver(String, String)}
+     */
+    CompletableFuture<Void> registerQueryObserverAsync(String queryName, String observerUrl);
+
+    /**
+     * Asynchronous variant of {@link #registerStream(String, boolean)}, which
+     * performs the registration on a separate thread.
+     *
+     * @param streamName name (URI) of the registered stream
+     * @param ignoreAlreadyExists see {@link #registerStream(String, boolean)}
+     * @return future that completes when the stream is registered, or completes
+     *         exceptionally with one of the exceptions thrown by
+     *         {@link #registerStream(String, boolean)}
+     */
+    CompletableFuture<Void> registerStreamAsync(String streamName, boolean ignoreAlreadyExists);
+
+    /**
+     * Asynchronous variant of {@link #getQueryObservers(String)}, which
+     * performs the retrieval on a separate thread.
+     *
+     * @param queryName name of the query of which the observers should be retrieved
+     * @return future that completes with the result of {@link #getQueryObservers(String)},
+     *         or completes exceptionally with one of the exceptions thrown by that method
+     */
+    CompletableFuture<List<String>> getQueryObserversAsync(String queryName);
+
+    /**
+     * Asynchronous variant of {@link #retrieveQueriesWithInputStream(String)}, which
+     * performs the retrieval on a separate thread.
+     *
+     * @param streamName name (URI) of the stream that should be one of the input streams of the
+     *                   returned queries
+     * @return future that completes with the result of {@link #retrieveQueriesWithInputStream(String)},
+     *         or completes exceptionally with one of the exceptions thrown by that method
+     */
+    CompletableFuture<List<String>> retrieveQueriesWithInputStreamAsync(String streamName);
+
+    /**
+     * Asynchronous variant of {@link #enableStreamForwardingToWebSocket(String, String)},
+     * which performs the update on a separate thread.
+     *
+     * @param streamName name (URI) of the stream of which the data should be forwarded
+     * @param webSocketUrl URL of the WebSocket server to which the data should be forwarded
+     * @return future that completes when the forwarding is enabled, or completes
+     *         exceptionally with one of the exceptions thrown by
+     *         {@link #enableStreamForwardingToWebSocket(String, String)}
+     */
+    CompletableFuture<Void> enableStreamForwardingToWebSocketAsync(String streamName,
+                                                                   String webSocketUrl);
+
+    /**
+     * Asynchronous variant of {@link #disableStreamForwardingToWebSocket(String, String)},
+     * which performs the update on a separate thread.
+     *
+     * @param streamName name (URI) of the stream of which the data should no longer be forwarded
+     * @param webSocketUrl URL of the WebSocket server to which the data should no longer be forwarded
+     * @return future that completes when the forwarding is disabled, or completes
+     *         exceptionally with one of the exceptions thrown by
+     *         {@link #disableStreamForwardingToWebSocket(String, String)}
+     */
+    CompletableFuture<Void> disableStreamForwardingToWebSocketAsync(String streamName,
+                                                                    String webSocketUrl);
+
 }
@@ -2,12 +2,7 @@ package be.ugent.idlab.divide.rsp.api;
 
 import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
 import be.ugent.idlab.divide.rsp.engine.IRspEngine;
-import be.ugent.idlab.util.http.HttpResponse;
-import be.ugent.idlab.util.http.HttpUtilities;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonParseException;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.conn.HttpHostConnectException;
 import org.slf4j.Logger;
@@ -20,8 +15,8 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 class RspEngineApiManager implements IRspEngineApiManager {
 
@@ -30,6 +25,8 @@ class RspEngineApiManager implements IRspEngineApiManager {
     private final String queriesUrl;
     private final String streamsUrl;
 
+    private final RspEngineHttpClient httpClient;
+
     RspEngineApiManager(IRspEngine rspEngine) throws DivideInvalidInputException {
         // first try to convert the base URL string to a URL and URI object
         // -> is required to perform the registration of queries and streams status
@@ -46,6 +43,9 @@ class RspEngineApiManager implements IRspEngineApiManager {
         String baseUrl = rspEngine.getBaseUrl();
         this.queriesUrl = String.format("%s/queries", baseUrl);
         this.streamsUrl = String.format("%s/streams", baseUrl);
+
+        // use the HTTP client with a connection pool that is shared by all API managers
+        this.httpClient = RspEngineHttpClient.getInstance();
     }
 
     @Override
@@ -58,7 +58,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
         LOGGER.info("Unregistering query with name '" + queryName + "' at " + url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.delete(url);
+            RspEngineApiResponse<?> httpResponse = httpClient.delete(url);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -89,7 +89,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
     }
 
     @Override
-    public JsonObject registerQuery(String queryName, String queryBody) throws
+    public RspEngineQueryRegistration registerQuery(String queryName, String queryBody) throws
             RspEngineApiNetworkException,
             RspEngineApiResponseException,
             RspEngineApiInputException,
@@ -99,7 +99,10 @@ class RspEngineApiManager implements IRspEngineApiManager {
         LOGGER.info("Registering query with name '" + queryName + "' at " + url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.put(url, queryBody);
+            // the response body is directly parsed into the registration information
+            // while it is read from the connection
+            RspEngineApiResponse<RspEngineQueryRegistration> httpResponse = httpClient.put(
+                    url, queryBody, RspEngineApiResponseParser::parseQueryRegistration);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -107,11 +110,13 @@ class RspEngineApiManager implements IRspEngineApiManager {
                                 "responded with status code %d and error message: %s",
                         statusCode, httpResponse.getBody()));
             }
-            try {
-                return new JsonParser().parse(httpResponse.getBody()).getAsJsonObject();
-            } catch (Exception e) {
-                return null;
-            }
+            return httpResponse.getContent();
+
+        } catch (JsonParseException e) {
+            // the query is registered, but the response body could not be parsed
+            LOGGER.warn("Could not parse response of RSP engine server to the " +
+                    "registration of query {} at {}", queryName, url, e);
+            return null;
 
         } catch (HttpHostConnectException | ClientProtocolException e) {
             String description = String.format("Could not register query to %s because " +
@@ -141,7 +146,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
     }
 
     @Override
-    public List<JsonObject> getQueryObservers(String queryName) throws
+    public List<String> getQueryObservers(String queryName) throws
             RspEngineApiNetworkException,
             RspEngineApiResponseException,
             DivideInvalidInputException {
@@ -150,7 +155,8 @@ class RspEngineApiManager implements IRspEngineApiManager {
         LOGGER.info("Retrieving observers of query with name '{}' at {}", queryName, url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.get(url);
+            RspEngineApiResponse<List<String>> httpResponse = httpClient.get(
+                    url, RspEngineApiResponseParser::parseQueryObserverUrls);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -158,15 +164,13 @@ class RspEngineApiManager implements IRspEngineApiManager {
                                 "responded with status code %d and error message: %s",
                         statusCode, httpResponse.getBody()));
             }
+            return httpResponse.getContent();
 
-            // parse response body
-            List<JsonObject> observers = new ArrayList<>();
-            JsonArray jsonArray = new JsonParser().parse(
-                    httpResponse.getBody()).getAsJsonArray();
-            for (JsonElement jsonElement : jsonArray) {
-                observers.add(jsonElement.getAsJsonObject());
-            }
-            return observers;
+        } catch (JsonParseException e) {
+            String description = String.format("Could not parse observers of query %s " +
+                    "retrieved at %s", queryName, url);
+            LOGGER.error(description, e);
+            throw new RspEngineApiResponseException(description, e);
 
         } catch (HttpHostConnectException | ClientProtocolException e) {
             String description = String.format("Could not retrieve observers of query %s at %s because " +
@@ -201,7 +205,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
                 observerUrl, queryName, url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.put(url, observerUrl);
+            RspEngineApiResponse<?> httpResponse = httpClient.put(url, observerUrl);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -255,7 +259,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
             RspEngineApiResponseException,
             DivideInvalidInputException {
         try {
-            HttpResponse httpResponse = HttpUtilities.post(streamsUrl, "action=" + action);
+            RspEngineApiResponse<?> httpResponse = httpClient.post(streamsUrl, "action=" + action);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -303,7 +307,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
         LOGGER.info("Registering stream with name '{}' at {}", streamName, url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.put(url);
+            RspEngineApiResponse<?> httpResponse = httpClient.put(url);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -339,7 +343,7 @@ class RspEngineApiManager implements IRspEngineApiManager {
     }
 
     @Override
-    public List<JsonObject> retrieveQueriesWithInputStream(String streamName) throws
+    public List<String> retrieveQueriesWithInputStream(String streamName) throws
             RspEngineApiNetworkException,
             RspEngineApiResponseException,
             DivideInvalidInputException {
@@ -355,7 +359,8 @@ class RspEngineApiManager implements IRspEngineApiManager {
         LOGGER.info("Retrieving queries with input stream '{}' at {}", streamName, url);
 
         try {
-            HttpResponse httpResponse = HttpUtilities.get(url);
+            RspEngineApiResponse<List<String>> httpResponse = httpClient.get(
+                    url, RspEngineApiResponseParser::parseQueryIds);
 
             int statusCode = httpResponse.getStatusCode();
             if (statusCode >= 300) {
@@ -363,15 +368,13 @@ class RspEngineApiManager implements IRspEngineApiManager {
                                 "responded with status code %d and error message: %s",
                         statusCode, httpResponse.getBody()));
             }
+            return httpResponse.getContent();
 
-            // parse response body
-            List<JsonObject> queryBodies = new ArrayList<>();
-            JsonArray jsonArray = new JsonParser().parse(
-                    httpResponse.getBody()).getAsJsonArray();
-            for (JsonElement jsonElement : jsonArray) {
-                queryBodies.add(jsonElement.getAsJsonObject());
-            }
-            return queryBodies;
+        } catch (JsonParseException e) {
+            String description = String.format("Could not parse queries with input stream %s " +
+                    "retrieved at %s", streamName, url);
+            LOGGER.error(description, e);
+            throw new RspEngineApiResponseException(description, e);
 
         } catch (HttpHostConnectException | ClientProtocolException e) {
             String description = String.format("Could not retrieve queries with input stream %s" +
@@ -435,11 +438,11 @@ class RspEngineApiManager implements IRspEngineApiManager {
                 enable ? "Enabling" : "Disabling", streamName, webSocketUrl, url);
 
         try {
-            HttpResponse httpResponse;
+            RspEngineApiResponse<?> httpResponse;
             if (enable) {
-                httpResponse = HttpUtilities.post(url);
+                httpResponse = httpClient.post(url);
             } else {
-                httpResponse = HttpUtilities.delete(url);
+                httpResponse = httpClient.delete(url);
             }
 
             int statusCode = httpResponse.getStatusCode();
@@ -476,4 +479,61 @@ class RspEngineApiManager implements IRspEngineApiManager {
         }
     }
 
+    @Override
+    public CompletableFuture<RspEngineQueryRegistration> registerQueryAsync(String queryName, String queryBody) {
+        return httpClient.executeAsync(() -> registerQuery(queryName, queryBody));
+    }
+
+    @Override
+    public CompletableFuture<Void> unregisterQueryAsync(String queryName) {
+        return httpClient.executeAsync(() -> {
+            unregisterQuery(queryName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> registerQueryObserverAsync(String queryName, String observerUrl) {
+        return httpClient.executeAsync(() -> {
+            registerQueryObserver(queryName, observerUrl);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> registerStreamAsync(String streamName, boolean ignoreAlreadyExists) {
+        return httpClient.executeAsync(() -> {
+            registerStream(streamName, ignoreAlreadyExists);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getQueryObserversAsync(String queryName) {
+        return httpClient.executeAsync(() -> getQueryObservers(queryName));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> retrieveQueriesWithInputStreamAsync(String streamName) {
+        return httpClient.executeAsync(() -> retrieveQueriesWithInputStream(streamName));
+    }
+
+    @Override
+    public CompletableFuture<Void> enableStreamForwardingToWebSocketAsync(String streamName,
+                                                                          String webSocketUrl) {
+        return httpClient.executeAsync(() -> {
+            enableStreamForwardingToWebSocket(streamName, webSocketUrl);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> disableStreamForwardingToWebSocketAsync(String streamName,
+                                                                           String webSocketUrl) {
+        return httpClient.executeAsync(() -> {
+            disableStreamForwardingToWebSocket(streamName, webSocketUrl);
+            return null;
+        });
+    }
+
 }
@@ -0,0 +1,38 @@
+package be.ugent.idlab.divide.rsp.api;
+
+/**
+ * Status code and body of a response of an RSP engine server to an API request.
+ *
+ * If the request was made with a response parser, the body of a successful response
+ * (status code below 300) is parsed while it is being read from the connection,
+ * and is only available as parsed content; the raw body is then not retained.
+ * The raw body of unsuccessful responses is always retained, since it contains
+ * the error message of the server.
+ *
+ * @param <T> type of the parsed content of the response body
+ */
+class RspEngineApiResponse<T> {
+
+    private final int statusCode;
+    private final String body;
+    private final T content;
+
+    RspEngineApiResponse(int statusCode, String body, T content) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.content = content;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    String getBody() {
+        return body;
+    }
+
+    T getContent() {
+        return content;
+    }
+
+}
@@ -0,0 +1,139 @@
+package be.ugent.idlab.divide.rsp.api;
+
+import be.ugent.idlab.divide.rsp.query.window.IStreamWindow;
+import be.ugent.idlab.divide.rsp.query.window.StreamWindowFactory;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull-based parsers of the JSON response bodies of an RSP engine server.
+ *
+ * These parsers read the response body token by token, directly from the response
+ * stream, and only retain the fields that are used by DIVIDE; all other fields are
+ * skipped without being materialized. This avoids building an intermediate JSON tree
+ * of the full response, which can be large for central RSP engines with many queries.
+ */
+class RspEngineApiResponseParser {
+
+    /**
+     * Functional interface for parsing a JSON response body from a {@link JsonReader}.
+     *
+     * @param <T> type of the parsed result
+     */
+    interface JsonResponseParser<T> {
+        T parse(JsonReader reader) throws IOException;
+    }
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_STREAM_WINDOWS = "streamWindows";
+    private static final String FIELD_STREAM_IRI = "streamIri";
+    private static final String FIELD_WINDOW_DEFINITION = "windowDefinition";
+    private static final String FIELD_OBSERVER_URL = "observerURL";
+
+    /**
+     * Parses the response to a query registration, i.e., a JSON object with the
+     * ID of the registered query and an array of its stream windows.
+     */
+    static RspEngineQueryRegistration parseQueryRegistration(JsonReader reader)
+            throws IOException {
+        String id = null;
+        List<IStreamWindow> streamWindows = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (FIELD_ID.equals(name)) {
+                id = nextNullableString(reader);
+            } else if (FIELD_STREAM_WINDOWS.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    streamWindows.add(parseStreamWindow(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new RspEngineQueryRegistration(id, streamWindows);
+    }
+
+    /**
+     * Parses a JSON array of query observers into the list of their observer URLs.
+     */
+    static List<String> parseQueryObserverUrls(JsonReader reader) throws IOException {
+        return parseStringFieldOfObjectArray(reader, FIELD_OBSERVER_URL, false);
+    }
+
+    /**
+     * Parses a JSON array of queries into the list of their IDs. The list contains
+     * an entry for every query in the array, which is null if no ID is present,
+     * so that the size of the list always equals the number of queries.
+     */
+    static List<String> parseQueryIds(JsonReader reader) throws IOException {
+        return parseStringFieldOfObjectArray(reader, FIELD_ID, true);
+    }
+
+    private static IStreamWindow parseStreamWindow(JsonReader reader) throws IOException {
+        String streamIri = null;
+        String windowDefinition = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (FIELD_STREAM_IRI.equals(name)) {
+                streamIri = nextNullableString(reader);
+            } else if (FIELD_WINDOW_DEFINITION.equals(name)) {
+                windowDefinition = nextNullableString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return StreamWindowFactory.createInstance(streamIri, windowDefinition);
+    }
+
+    private static List<String> parseStringFieldOfObjectArray(JsonReader reader,
+                                                              String field,
+                                                              boolean includeMissing)
+            throws IOException {
+        List<String> result = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String value = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (field.equals(name)) {
+                    value = nextNullableString(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (value != null || includeMissing) {
+                result.add(value);
+            }
+        }
+        reader.endArray();
+
+        return result;
+    }
+
+    private static String nextNullableString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+}
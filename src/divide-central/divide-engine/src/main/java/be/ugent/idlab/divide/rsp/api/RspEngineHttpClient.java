@@ -0,0 +1,370 @@
+package be.ugent.idlab.divide.rsp.api;
+
+import be.ugent.idlab.divide.rsp.api.RspEngineApiResponseParser.JsonResponseParser;
+import be.ugent.idlab.divide.util.Constants;
+import be.ugent.idlab.divide.util.metrics.Counter;
+import be.ugent.idlab.divide.util.metrics.LatencyHistogram;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP client shared by all {@link RspEngineApiManager} instances to communicate
+ * with the local and central RSP engines.
+ *
+ * It keeps a pool of persistent (keep-alive) HTTP/1.1 connections, with a limit on
+ * the number of connections per RSP engine host, so that bursts of query registration
+ * updates reuse the same connections instead of opening (and leaving behind in
+ * TIME_WAIT) a new connection for every request.
+ *
+ * It also offers a bounded executor to perform API calls asynchronously, and keeps
+ * track of metrics on connection reuse, request latencies and errors, which are both
+ * logged periodically and exposed via the {@link MetricsRegistry}.
+ */
+class RspEngineHttpClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RspEngineHttpClient.class.getName());
+
+    /**
+     * Maximum number of pooled connections in total, and per RSP engine host
+     */
+    private static final int MAX_CONNECTIONS_TOTAL = 200;
+    private static final int MAX_CONNECTIONS_PER_HOST = 10;
+
+    /**
+     * Timeouts (in milliseconds) for establishing a connection, for obtaining a
+     * connection from the pool, and for waiting on data of an open connection
+     */
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int CONNECTION_REQUEST_TIMEOUT_MILLIS = 10000;
+    private static final int SOCKET_TIMEOUT_MILLIS = 60000;
+
+    /**
+     * Time (in seconds) after which idle pooled connections are closed
+     */
+    private static final int MAX_IDLE_TIME_SECONDS = 60;
+
+    /**
+     * Time of inactivity (in milliseconds) after which a pooled connection is
+     * validated before it is reused
+     */
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    /**
+     * Number of threads used for performing asynchronous API calls
+     */
+    private static final int ASYNC_THREAD_COUNT = 16;
+
+    /**
+     * Maximum number of asynchronous API calls that can wait for a free thread;
+     * additional calls are rejected
+     */
+    private static final int ASYNC_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Number of requests after which the client metrics are logged
+     */
+    private static final int METRICS_LOGGING_INTERVAL = 100;
+
+    private static final String ERRORS_METRIC = "divide_rsp_engine_api_errors_total";
+    private static final String ERRORS_METRIC_HELP =
+            "Number of failed RSP engine API requests, by type of failure";
+
+    private static RspEngineHttpClient instance;
+
+    static synchronized RspEngineHttpClient getInstance() {
+        if (instance == null) {
+            instance = new RspEngineHttpClient();
+        }
+        return instance;
+    }
+
+    // class code
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService asyncExecutor;
+
+    private final AtomicLong requestCount;
+    private final AtomicLong connectionCount;
+    private final LatencyHistogram requestLatencyHistogram;
+
+    private final Counter connectionCounter;
+    private final Counter clientErrorCounter;
+    private final Counter serverErrorCounter;
+    private final Counter connectionErrorCounter;
+    private final Counter responseErrorCounter;
+
+    private RspEngineHttpClient() {
+        this.requestCount = new AtomicLong(0);
+        this.connectionCount = new AtomicLong(0);
+
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        this.requestLatencyHistogram = metricsRegistry.registerHistogram(
+                "divide_rsp_engine_api_request_duration_seconds",
+                "Duration of the requests to the API of the RSP engines",
+                new LatencyHistogram("RSP_ENGINE_API_REQUEST"));
+        this.connectionCounter = metricsRegistry.counter(
+                "divide_rsp_engine_api_connections_created_total",
+                "Number of connections created to the RSP engines (requests that " +
+                        "did not create a connection have reused a pooled one)");
+        this.clientErrorCounter = metricsRegistry.counter(
+                ERRORS_METRIC, ERRORS_METRIC_HELP, "type", "client");
+        this.serverErrorCounter = metricsRegistry.counter(
+                ERRORS_METRIC, ERRORS_METRIC_HELP, "type", "server");
+        this.connectionErrorCounter = metricsRegistry.counter(
+                ERRORS_METRIC, ERRORS_METRIC_HELP, "type", "connection");
+        this.responseErrorCounter = metricsRegistry.counter(
+                ERRORS_METRIC, ERRORS_METRIC_HELP, "type", "response");
+
+        // create pooling connection manager that counts how many new
+        // connections are created, to be able to monitor connection reuse
+        Registry<ConnectionSocketFactory> socketFactoryRegistry =
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build();
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                socketFactoryRegistry,
+                (route, config) -> {
+                    connectionCount.incrementAndGet();
+                    connectionCounter.increment();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                });
+        this.connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+        this.connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+        this.connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                .setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT_MILLIS)
+                .setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_TIME_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        // create executor for asynchronous calls with daemon threads, so that
+        // it never prevents the JVM from shutting down
+        // -> the queue of waiting calls is bounded, so that a burst of calls to
+        //    unresponsive RSP engines cannot pile up in memory: calls that do not
+        //    fit in the queue are rejected (and their future fails)
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        ThreadPoolExecutor asyncThreadPool = new ThreadPoolExecutor(
+                ASYNC_THREAD_COUNT, ASYNC_THREAD_COUNT, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(ASYNC_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "rsp-engine-api-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.asyncExecutor = asyncThreadPool;
+
+        // expose the saturation of the asynchronous executor and connection pool
+        metricsRegistry.registerThreadPoolGauges("rsp_engine_api_async", asyncThreadPool);
+        metricsRegistry.registerGauge("divide_rsp_engine_api_connections_leased",
+                "Number of pooled connections to the RSP engines that are in use",
+                () -> connectionManager.getTotalStats().getLeased());
+        metricsRegistry.registerGauge("divide_rsp_engine_api_connections_available",
+                "Number of idle pooled connections to the RSP engines",
+                () -> connectionManager.getTotalStats().getAvailable());
+        metricsRegistry.registerGauge("divide_rsp_engine_api_connections_pending",
+                "Number of requests waiting for a pooled connection to the RSP engines",
+                () -> connectionManager.getTotalStats().getPending());
+    }
+
+    RspEngineApiResponse<Void> get(String url) throws IOException, URISyntaxException {
+        return execute(new HttpGet(new URI(url)), null);
+    }
+
+    <T> RspEngineApiResponse<T> get(String url, JsonResponseParser<T> parser)
+            throws IOException, URISyntaxException {
+        return execute(new HttpGet(new URI(url)), parser);
+    }
+
+    RspEngineApiResponse<Void> delete(String url) throws IOException, URISyntaxException {
+        return execute(new HttpDelete(new URI(url)), null);
+    }
+
+    RspEngineApiResponse<Void> put(String url) throws IOException, URISyntaxException {
+        return execute(new HttpPut(new URI(url)), null);
+    }
+
+    RspEngineApiResponse<Void> put(String url, String body) throws IOException, URISyntaxException {
+        return execute(withBody(new HttpPut(new URI(url)), body), null);
+    }
+
+    <T> RspEngineApiResponse<T> put(String url, String body, JsonResponseParser<T> parser)
+            throws IOException, URISyntaxException {
+        return execute(withBody(new HttpPut(new URI(url)), body), parser);
+    }
+
+    RspEngineApiResponse<Void> post(String url) throws IOException, URISyntaxException {
+        return execute(new HttpPost(new URI(url)), null);
+    }
+
+    RspEngineApiResponse<Void> post(String url, String body) throws IOException, URISyntaxException {
+        return execute(withBody(new HttpPost(new URI(url)), body), null);
+    }
+
+    /**
+     * Executes the given API call on a thread of the asynchronous executor of this client.
+     *
+     * @param call API call to be executed
+     * @param <T> type of the result of the API call
+     * @return future that is completed with the result of the API call, or completed
+     *         exceptionally with the exception thrown by the API call, or with a
+     *         {@link RejectedExecutionException} if too many asynchronous API calls
+     *         are already waiting to be executed
+     */
+    <T> CompletableFuture<T> executeAsync(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Asynchronous RSP engine API call rejected since {} calls are " +
+                    "already waiting to be executed", ASYNC_QUEUE_CAPACITY);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    long getRequestCount() {
+        return requestCount.get();
+    }
+
+    long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    LatencyHistogram getRequestLatencyHistogram() {
+        return requestLatencyHistogram;
+    }
+
+    private HttpUriRequest withBody(HttpEntityEnclosingRequestBase request, String body) {
+        request.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Executes the given request. If a parser is given, the body of a successful
+     * response is parsed with this parser while it is streamed from the connection.
+     *
+     * @throws JsonParseException if the response body cannot be parsed by the given parser
+     */
+    private <T> RspEngineApiResponse<T> execute(HttpUriRequest request,
+                                                JsonResponseParser<T> parser) throws IOException {
+        long start = System.currentTimeMillis();
+
+        // the response is always closed, and its entity fully consumed, to make
+        // sure that the connection is released to the pool and can be reused
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (statusCode >= 500) {
+                serverErrorCounter.increment();
+            } else if (statusCode >= 400) {
+                clientErrorCounter.increment();
+            }
+
+            if (parser == null || statusCode >= 300 || entity == null) {
+                String body = entity != null ?
+                        EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+                return new RspEngineApiResponse<>(statusCode, body, null);
+            }
+
+            try {
+                JsonReader reader = new JsonReader(
+                        new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8));
+                return new RspEngineApiResponse<>(statusCode, null, parser.parse(reader));
+
+            } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+                responseErrorCounter.increment();
+                throw new JsonParseException("Invalid JSON response body", e);
+
+            } finally {
+                EntityUtils.consume(entity);
+            }
+
+        } catch (IOException e) {
+            connectionErrorCounter.increment();
+            throw e;
+
+        } finally {
+            requestLatencyHistogram.record(System.currentTimeMillis() - start);
+            if (requestCount.incrementAndGet() % METRICS_LOGGING_INTERVAL == 0) {
+                logMetrics();
+            }
+        }
+    }
+
+    private void logMetrics() {
+        long requests = requestCount.get();
+        long connections = connectionCount.get();
+        PoolStats poolStats = connectionManager.getTotalStats();
+        LOGGER.info(Constants.METRIC_MARKER,
+                "RSP_ENGINE_API_CONNECTIONS\t{}\t{}\t{}\t{}\t{}\t{}",
+                requests,
+                connections,
+                String.format("%.3f", requests == 0 ? 0.0 :
+                        (double) Math.max(0, requests - connections) / requests),
+                poolStats.getLeased(),
+                poolStats.getAvailable(),
+                poolStats.getPending());
+        LOGGER.info(Constants.METRIC_MARKER,
+                "RSP_ENGINE_API_LATENCY\t{}", requestLatencyHistogram.summarize());
+    }
+
+}
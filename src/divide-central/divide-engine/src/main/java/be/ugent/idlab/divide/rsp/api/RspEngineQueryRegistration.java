@@ -0,0 +1,31 @@
+package be.ugent.idlab.divide.rsp.api;
+
+import be.ugent.idlab.divide.rsp.query.window.IStreamWindow;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Information returned by an RSP engine server about a query that has been
+ * registered at that server, i.e., the ID assigned to the query by the engine,
+ * and the windows defined on the input streams of the query.
+ */
+public class RspEngineQueryRegistration {
+
+    private final String id;
+    private final List<IStreamWindow> streamWindows;
+
+    RspEngineQueryRegistration(String id, List<IStreamWindow> streamWindows) {
+        this.id = id;
+        this.streamWindows = Collections.unmodifiableList(streamWindows);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<IStreamWindow> getStreamWindows() {
+        return streamWindows;
+    }
+
+}
@@ -0,0 +1,35 @@
+package be.ugent.idlab.divide.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, monotonically increasing counter. Incrementing the counter is
+ * lock-free and does not allocate, so it can be done on hot paths.
+ */
+public class Counter {
+
+    private final LongAdder count;
+
+    Counter() {
+        this.count = new LongAdder();
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @param amount amount to increase the counter with (negative amounts
+     *               are ignored, since a counter can never decrease)
+     */
+    public void add(long amount) {
+        if (amount > 0) {
+            count.add(amount);
+        }
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+}
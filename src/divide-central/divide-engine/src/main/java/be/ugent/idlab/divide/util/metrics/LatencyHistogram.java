@@ -0,0 +1,156 @@
+package be.ugent.idlab.divide.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies (in milliseconds), with fixed bucket
+ * boundaries. Recording a latency is lock-free and does not allocate, so it can
+ * be done on hot paths. Percentiles are estimated as the upper bound of the bucket
+ * in which the requested rank falls (or the maximum observed latency if it falls
+ * in the overflow bucket).
+ */
+public class LatencyHistogram {
+
+    /**
+     * Default upper bounds (inclusive, in milliseconds) of the histogram buckets;
+     * an extra overflow bucket counts all latencies above the last bound
+     */
+    private static final long[] DEFAULT_BUCKET_UPPER_BOUNDS = new long[]{
+            1, 2, 5, 10, 20, 50, 100, 200, 500,
+            1000, 2000, 5000, 10000, 20000, 60000, 120000};
+
+    private final String name;
+    private final long[] bucketUpperBounds;
+    private final AtomicLongArray bucketCounts;
+    private final AtomicLong count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    public LatencyHistogram(String name) {
+        this(name, DEFAULT_BUCKET_UPPER_BOUNDS);
+    }
+
+    public LatencyHistogram(String name, long[] bucketUpperBounds) {
+        this.name = name;
+        this.bucketUpperBounds = bucketUpperBounds.clone();
+        this.bucketCounts = new AtomicLongArray(bucketUpperBounds.length + 1);
+        this.count = new AtomicLong(0);
+        this.sum = new LongAdder();
+        this.max = new AtomicLong(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a single latency observation.
+     *
+     * @param latencyMillis observed latency in milliseconds (negative values
+     *                      are recorded as 0)
+     */
+    public void record(long latencyMillis) {
+        long latency = Math.max(0, latencyMillis);
+        bucketCounts.incrementAndGet(bucketIndex(latency));
+        sum.add(latency);
+        max.accumulateAndGet(latency, Math::max);
+        count.incrementAndGet();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return copy of the upper bounds (in milliseconds) of all buckets except
+     *         the overflow bucket
+     */
+    public long[] getBucketUpperBounds() {
+        return bucketUpperBounds.clone();
+    }
+
+    /**
+     * @return snapshot of the (non-cumulative) count of every bucket; the last
+     *         element is the count of the overflow bucket
+     */
+    public long[] getBucketCounts() {
+        long[] result = new long[bucketCounts.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bucketCounts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the given percentile of the recorded latencies.
+     *
+     * @param percentile requested percentile, between 0 and 100
+     * @return estimated latency (in milliseconds) of the given percentile,
+     *         or 0 if nothing has been recorded yet
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * total);
+        rank = Math.max(1, rank);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return i < bucketUpperBounds.length ?
+                        Math.min(bucketUpperBounds[i], getMax()) : getMax();
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return tab-separated summary of this histogram (name, count, mean, p50,
+     *         p90, p99 and max), aligned with the format of the metric logs
+     */
+    public String summarize() {
+        long currentCount = getCount();
+        return String.format("%s\t%d\t%.1f\t%d\t%d\t%d\t%d",
+                name,
+                currentCount,
+                currentCount == 0 ? 0.0 : (double) getSum() / currentCount,
+                getPercentile(50),
+                getPercentile(90),
+                getPercentile(99),
+                getMax());
+    }
+
+    private int bucketIndex(long latency) {
+        // binary search for the first bucket with an upper bound that is
+        // at least the given latency
+        int low = 0;
+        int high = bucketUpperBounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketUpperBounds[mid] < latency) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,326 @@
+package be.ugent.idlab.divide.util.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of all metrics of a DIVIDE server (counters, gauges and latency
+ * histograms), which can be scraped in the Prometheus text exposition format.
+ *
+ * Metrics are identified by a metric name and an optional set of labels. All
+ * metrics with the same name form a metric family of a single type, with a single
+ * help text. Counters and histograms are created (or retrieved, if they already
+ * exist) via this registry and updated directly by the code that owns them, so
+ * that recording an observation never involves the registry itself. Gauges are
+ * registered as a supplier that is only called when the registry is scraped, which
+ * makes them suited to expose the current size of queues and thread pools.
+ *
+ * Latency histograms record milliseconds, but are exposed in seconds, following
+ * the Prometheus conventions: their metric names should therefore end with
+ * '_seconds'. The existing logging of metrics with the metric marker is not replaced
+ * by this registry; both can be used alongside each other.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private static final Pattern METRIC_NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL_NAME_PATTERN = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    private enum MetricType {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM
+    }
+
+    /**
+     * All metrics with the same name, mapped on their formatted labels
+     */
+    private static class MetricFamily {
+
+        private final String name;
+        private final String help;
+        private final MetricType type;
+        private final ConcurrentMap<String, Object> metrics;
+
+        private MetricFamily(String name, String help, MetricType type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.metrics = new ConcurrentSkipListMap<>();
+        }
+
+    }
+
+    // class code
+
+    private final ConcurrentMap<String, MetricFamily> families;
+
+    private MetricsRegistry() {
+        this.families = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Retrieves the counter with the given name and labels, or creates it
+     * if it does not exist yet.
+     *
+     * @param name metric name of the counter (should end with '_total')
+     * @param help description of the metric family
+     * @param labels label names and values, alternating (e.g., "component", "c1")
+     * @return counter with the given name and labels
+     * @throws IllegalArgumentException if the name or labels are invalid, or if a
+     *                                  metric family of another type exists with
+     *                                  the given name
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) getFamily(name, help, MetricType.COUNTER)
+                .metrics.computeIfAbsent(formatLabels(labels), key -> new Counter());
+    }
+
+    /**
+     * Retrieves the latency histogram with the given name and labels, or creates
+     * it with the default bucket boundaries if it does not exist yet.
+     *
+     * @param name metric name of the histogram (should end with '_seconds')
+     * @param help description of the metric family
+     * @param labels label names and values, alternating (e.g., "stage", "enrichment")
+     * @return histogram with the given name and labels
+     * @throws IllegalArgumentException if the name or labels are invalid, or if a
+     *                                  metric family of another type exists with
+     *                                  the given name
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) getFamily(name, help, MetricType.HISTOGRAM)
+                .metrics.computeIfAbsent(formatLabels(labels), key -> new LatencyHistogram(name));
+    }
+
+    /**
+     * Registers an existing latency histogram with the given name and labels,
+     * if no histogram is registered yet with this name and these labels.
+     * This allows exposing a histogram that is also summarized in the metric
+     * logs under its own name.
+     *
+     * @param name metric name of the histogram (should end with '_seconds')
+     * @param help description of the metric family
+     * @param histogram histogram to be registered
+     * @param labels label names and values, alternating (e.g., "stage", "enrichment")
+     * @return histogram that is registered with the given name and labels after
+     *         this call (which is not the given histogram if another one was
+     *         already registered before)
+     * @throws IllegalArgumentException if the name or labels are invalid, or if a
+     *                                  metric family of another type exists with
+     *                                  the given name
+     */
+    public LatencyHistogram registerHistogram(String name, String help,
+                                              LatencyHistogram histogram, String... labels) {
+        return (LatencyHistogram) getFamily(name, help, MetricType.HISTOGRAM)
+                .metrics.computeIfAbsent(formatLabels(labels), key -> histogram);
+    }
+
+    /**
+     * Registers a gauge with the given name and labels, of which the value is
+     * retrieved from the given supplier every time the registry is scraped.
+     * If a gauge with this name and these labels already exists, it is replaced.
+     *
+     * @param name metric name of the gauge
+     * @param help description of the metric family
+     * @param supplier supplier of the current value of the gauge (which should
+     *                 be cheap and thread-safe, since it is called on the thread
+     *                 scraping the registry)
+     * @param labels label names and values, alternating (e.g., "pool", "worker")
+     * @throws IllegalArgumentException if the name or labels are invalid, or if a
+     *                                  metric family of another type exists with
+     *                                  the given name
+     */
+    public void registerGauge(String name, String help,
+                              DoubleSupplier supplier, String... labels) {
+        getFamily(name, help, MetricType.GAUGE).metrics.put(formatLabels(labels), supplier);
+    }
+
+    /**
+     * Registers gauges exposing the saturation of the given thread pool: its number
+     * of active threads, current and maximum number of threads, and number of
+     * queued tasks, all labelled with the given pool name.
+     *
+     * @param pool name of the thread pool, used as value of the 'pool' label
+     * @param executor thread pool of which the saturation should be exposed
+     */
+    public void registerThreadPoolGauges(String pool, ThreadPoolExecutor executor) {
+        registerGauge("divide_thread_pool_active_threads",
+                "Number of threads of a thread pool that are actively executing tasks",
+                executor::getActiveCount, "pool", pool);
+        registerGauge("divide_thread_pool_threads",
+                "Current number of threads of a thread pool",
+                executor::getPoolSize, "pool", pool);
+        registerGauge("divide_thread_pool_max_threads",
+                "Maximum number of threads of a thread pool",
+                executor::getMaximumPoolSize, "pool", pool);
+        registerGauge("divide_thread_pool_queued_tasks",
+                "Number of tasks waiting in the queue of a thread pool",
+                () -> executor.getQueue().size(), "pool", pool);
+    }
+
+    /**
+     * Removes the metric with the given name and labels from the registry,
+     * e.g., because the component it relates to has been unregistered.
+     *
+     * @param name metric name
+     * @param labels label names and values, alternating
+     */
+    public void unregister(String name, String... labels) {
+        MetricFamily family = families.get(name);
+        if (family != null) {
+            family.metrics.remove(formatLabels(labels));
+        }
+    }
+
+    /**
+     * @return current value of all registered metrics, in the Prometheus text
+     *         exposition format (version 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder(4096);
+        for (MetricFamily family : families.values()) {
+            if (family.metrics.isEmpty()) {
+                continue;
+            }
+            builder.append("# HELP ").append(family.name).append(' ')
+                    .append(escapeHelp(family.help)).append('\n');
+            builder.append("# TYPE ").append(family.name).append(' ')
+                    .append(family.type.name().toLowerCase()).append('\n');
+
+            for (Map.Entry<String, Object> entry : family.metrics.entrySet()) {
+                String labels = entry.getKey();
+                switch (family.type) {
+                    case COUNTER:
+                        appendSample(builder, family.name, labels, null,
+                                ((Counter) entry.getValue()).get());
+                        break;
+
+                    case GAUGE:
+                        try {
+                            appendSample(builder, family.name, labels, null,
+                                    ((DoubleSupplier) entry.getValue()).getAsDouble());
+                        } catch (RuntimeException e) {
+                            // the value of a gauge that cannot be retrieved
+                            // (anymore) is omitted from this scrape
+                        }
+                        break;
+
+                    case HISTOGRAM:
+                        appendHistogram(builder, family.name, labels,
+                                (LatencyHistogram) entry.getValue());
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private MetricFamily getFamily(String name, String help, MetricType type) {
+        if (name == null || !METRIC_NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        MetricFamily family = families.computeIfAbsent(
+                name, key -> new MetricFamily(name, help != null ? help : "", type));
+        if (family.type != type) {
+            throw new IllegalArgumentException(String.format(
+                    "Metric %s is already registered as %s",
+                    name, family.type.name().toLowerCase()));
+        }
+        return family;
+    }
+
+    private void appendHistogram(StringBuilder builder, String name,
+                                 String labels, LatencyHistogram histogram) {
+        // the buckets are read first and the count is derived from them, so that
+        // the count always equals the value of the +Inf bucket, even if latencies
+        // are recorded concurrently
+        long[] bounds = histogram.getBucketUpperBounds();
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            String le = i < bounds.length ? formatValue(bounds[i] / 1000.0) : "+Inf";
+            appendSample(builder, name + "_bucket", labels, le, cumulative);
+        }
+        appendSample(builder, name + "_sum", labels, null, histogram.getSum() / 1000.0);
+        appendSample(builder, name + "_count", labels, null, cumulative);
+    }
+
+    private void appendSample(StringBuilder builder, String name,
+                              String labels, String le, double value) {
+        builder.append(name);
+        if (!labels.isEmpty() || le != null) {
+            builder.append('{').append(labels);
+            if (le != null) {
+                builder.append(labels.isEmpty() ? "" : ",")
+                        .append("le=\"").append(le).append('"');
+            }
+            builder.append('}');
+        }
+        builder.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatLabels(String... labels) {
+        if (labels == null || labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "Labels should be given as alternating label names and values");
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (labels[i] == null || !LABEL_NAME_PATTERN.matcher(labels[i]).matches()
+                    || "le".equals(labels[i])) {
+                throw new IllegalArgumentException("Invalid label name: " + labels[i]);
+            }
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"")
+                    .append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return builder.toString();
+    }
+
+    private static String escapeLabelValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        // integral values are printed without decimals and exponent
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+}
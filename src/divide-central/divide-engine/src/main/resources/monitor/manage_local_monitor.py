@@ -38,6 +38,8 @@ def start_monitor(ssh_client: SSHClient,
                   monitor_jar_path: str,
                   global_monitor_reasoning_service_port: int,
                   global_monitor_reasoning_service_uri: str,
+                  global_monitor_binary_port: int,
+                  control_port: int,
                   divide_central_ip_address: str):
     # create local monitor config
     monitor_config = {
@@ -46,7 +48,8 @@ def start_monitor(ssh_client: SSHClient,
         "monitor": {
             "rsp": True,
             "network": True,
-            "device": True
+            "device": True,
+            "self": True
         },
         "local": {
             "rsp_engine": {
@@ -61,8 +64,10 @@ def start_monitor(ssh_client: SSHClient,
                 "protocol": "http",
                 "host": divide_central_ip_address,
                 "port": global_monitor_reasoning_service_port,
-                "uri": global_monitor_reasoning_service_uri
-            }
+                "uri": global_monitor_reasoning_service_uri,
+                "binary_port": global_monitor_binary_port
+            },
+            "control_port": control_port
         }
     }
 
@@ -138,6 +143,8 @@ if __name__ == '__main__':
     p.add_argument('--action', choices=['start', 'stop', 'check'], required=True)
     p.add_argument('--global-monitor-reasoning-service-port', required=True)
     p.add_argument('--global-monitor-reasoning-service-uri', required=True)
+    p.add_argument('--global-monitor-binary-port', required=False, default=-1)
+    p.add_argument('--control-port', required=False, default=-1)
     p.add_argument('--divide-central-ip-address', required=True)
     parsed_args = p.parse_args(sys.argv[1:])
 
@@ -148,6 +155,8 @@ if __name__ == '__main__':
     _action = str(parsed_args.action)
     _global_monitor_reasoning_service_port = int(parsed_args.global_monitor_reasoning_service_port)
     _global_monitor_reasoning_service_uri = str(parsed_args.global_monitor_reasoning_service_uri)
+    _global_monitor_binary_port = int(parsed_args.global_monitor_binary_port)
+    _control_port = int(parsed_args.control_port)
     _divide_central_ip_address = str(parsed_args.divide_central_ip_address)
 
     # retrieve SSH & SCP clients
@@ -162,6 +171,8 @@ if __name__ == '__main__':
                       monitor_jar_path=_monitor_jar_path,
                       global_monitor_reasoning_service_port=_global_monitor_reasoning_service_port,
                       global_monitor_reasoning_service_uri=_global_monitor_reasoning_service_uri,
+                      global_monitor_binary_port=_global_monitor_binary_port,
+                      control_port=_control_port,
                       divide_central_ip_address=_divide_central_ip_address)
 
     elif _action == 'stop':
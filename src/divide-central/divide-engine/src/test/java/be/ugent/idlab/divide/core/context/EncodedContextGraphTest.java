@@ -0,0 +1,247 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EncodedContextGraphTest {
+
+    private static final String EX = "http://example.org/encoded-context-graph-test/";
+
+    @Test
+    public void addsAndFindsTriples() {
+        EncodedContextGraph graph = new EncodedContextGraph();
+        Triple triple = triple(uri("s"), uri("p"), NodeFactory.createLiteral("value"));
+
+        graph.add(triple);
+        graph.add(triple);
+
+        assertEquals(1, graph.size());
+        assertTrue(graph.contains(triple));
+        assertEquals(asSet(triple), asSet(graph.find(Node.ANY, uri("p"), Node.ANY)));
+        assertFalse(graph.contains(uri("s"), uri("p"), NodeFactory.createLiteral("other")));
+        assertFalse(graph.find(uri("unknown"), Node.ANY, Node.ANY).hasNext());
+    }
+
+    @Test
+    public void matchesLiteralsOnTermEquality() {
+        EncodedContextGraph graph = new EncodedContextGraph();
+        Node integer = NodeFactory.createLiteral("1", XSDDatatype.XSDinteger);
+        Node decimal = NodeFactory.createLiteral("1.0", XSDDatatype.XSDdecimal);
+        graph.add(triple(uri("s"), uri("p"), integer));
+
+        assertTrue(graph.contains(uri("s"), uri("p"), integer));
+        assertFalse(graph.contains(uri("s"), uri("p"), decimal));
+        assertFalse(graph.contains(uri("s"), uri("p"), NodeFactory.createLiteral("1")));
+    }
+
+    @Test
+    public void keepsBlankNodesLocalToGraph() {
+        Node blankNode = NodeFactory.createBlankNode();
+        EncodedContextGraph first = new EncodedContextGraph();
+        EncodedContextGraph second = new EncodedContextGraph();
+        first.add(triple(blankNode, uri("p"), uri("o")));
+
+        assertEquals(asSet(triple(blankNode, uri("p"), uri("o"))),
+                asSet(first.find(blankNode, Node.ANY, Node.ANY)));
+        assertFalse(second.find(blankNode, Node.ANY, Node.ANY).hasNext());
+    }
+
+    @Test
+    public void removesTriples() {
+        EncodedContextGraph graph = new EncodedContextGraph();
+        Triple first = triple(uri("s"), uri("p"), uri("o1"));
+        Triple second = triple(uri("s"), uri("p"), uri("o2"));
+        graph.add(first);
+        graph.add(second);
+
+        graph.delete(first);
+        graph.delete(first);
+        graph.delete(triple(uri("unknown"), uri("p"), uri("o1")));
+
+        assertEquals(1, graph.size());
+        assertFalse(graph.contains(first));
+        assertEquals(asSet(second), asSet(graph.find(uri("s"), Node.ANY, Node.ANY)));
+
+        // a removed triple can be added again
+        graph.add(first);
+        assertEquals(asSet(first, second), asSet(graph.find(Node.ANY, Node.ANY, Node.ANY)));
+    }
+
+    @Test
+    public void clearsAllTriples() {
+        EncodedContextGraph graph = new EncodedContextGraph();
+        graph.add(triple(uri("s"), uri("p"), NodeFactory.createLiteral("value")));
+
+        graph.clear();
+
+        assertEquals(0, graph.size());
+        assertFalse(graph.find(Node.ANY, Node.ANY, Node.ANY).hasNext());
+        graph.add(triple(uri("s"), uri("p"), uri("o")));
+        assertEquals(1, graph.size());
+    }
+
+    @Test
+    public void removesTriplesViaIteratorAcrossCompaction() {
+        EncodedContextGraph graph = new EncodedContextGraph();
+        Graph reference = GraphFactory.createDefaultGraph();
+        for (int i = 0; i < 5000; i++) {
+            Triple triple = triple(uri("s" + (i % 10)), uri("p" + (i % 3)),
+                    NodeFactory.createLiteral(Integer.toString(i)));
+            graph.add(triple);
+            reference.add(triple);
+        }
+
+        // removing the triples of two predicates via the iterator compacts the graph
+        // while iterating over the second one, which should not affect the remainder
+        // of the iteration
+        int removed = 0;
+        ExtendedIterator<Triple> iterator = graph.find(Node.ANY, uri("p1"), Node.ANY);
+        while (iterator.hasNext()) {
+            Triple triple = iterator.next();
+            iterator.remove();
+            reference.delete(triple);
+            removed++;
+        }
+        iterator = graph.find(Node.ANY, uri("p0"), Node.ANY);
+        while (iterator.hasNext()) {
+            Triple triple = iterator.next();
+            iterator.remove();
+            reference.delete(triple);
+            removed++;
+        }
+
+        assertEquals(3334, removed);
+        assertEquals(reference.size(), graph.size());
+        assertEquivalent(reference, graph, allNodes(reference, graph));
+    }
+
+    @Test
+    public void behavesAsDefaultGraphForRandomChanges() {
+        Random random = new Random(42);
+        List<Node> subjects = new ArrayList<>();
+        List<Node> predicates = new ArrayList<>();
+        List<Node> objects = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            subjects.add(uri("s" + i));
+            objects.add(uri("s" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            predicates.add(uri("p" + i));
+            Node blankNode = NodeFactory.createBlankNode();
+            subjects.add(blankNode);
+            objects.add(blankNode);
+        }
+        for (int i = 0; i < 30; i++) {
+            objects.add(NodeFactory.createLiteral(Integer.toString(i), XSDDatatype.XSDinteger));
+            objects.add(NodeFactory.createLiteral("value " + i, "en"));
+        }
+
+        EncodedContextGraph graph = new EncodedContextGraph();
+        Graph reference = GraphFactory.createDefaultGraph();
+        List<Node> patternNodes = new ArrayList<>(objects);
+        patternNodes.addAll(predicates);
+        patternNodes.add(uri("unknown"));
+
+        // rounds of mostly additions followed by rounds of mostly removals, so that
+        // the graph is compacted several times
+        for (int round = 0; round < 8; round++) {
+            double addProbability = round % 2 == 0 ? 0.8 : 0.2;
+            for (int i = 0; i < 3000; i++) {
+                Triple triple = triple(
+                        subjects.get(random.nextInt(subjects.size())),
+                        predicates.get(random.nextInt(predicates.size())),
+                        objects.get(random.nextInt(objects.size())));
+                if (random.nextDouble() < addProbability) {
+                    graph.add(triple);
+                    reference.add(triple);
+                } else {
+                    graph.delete(triple);
+                    reference.delete(triple);
+                }
+            }
+
+            assertEquals(reference.size(), graph.size());
+            assertEquivalent(reference, graph, patternNodes);
+        }
+    }
+
+    private static void assertEquivalent(Graph expected, Graph actual, List<Node> nodes) {
+        List<Node> patternNodes = sample(nodes);
+        for (Node s : patternNodes) {
+            for (Node p : patternNodes) {
+                for (Node o : patternNodes) {
+                    assertEquals("find(" + s + ", " + p + ", " + o + ")",
+                            asSet(expected.find(s, p, o)), asSet(actual.find(s, p, o)));
+                }
+            }
+        }
+        for (Triple triple : expected.find(Node.ANY, Node.ANY, Node.ANY).toList()) {
+            assertTrue(actual.contains(triple));
+        }
+    }
+
+    /**
+     * @return every fourth of the given nodes and the wildcard, to keep the number
+     *         of checked patterns limited
+     */
+    private static List<Node> sample(List<Node> nodes) {
+        List<Node> sample = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i += 4) {
+            sample.add(nodes.get(i));
+        }
+        sample.add(Node.ANY);
+        return sample;
+    }
+
+    private static List<Node> allNodes(Graph... graphs) {
+        Set<Node> nodes = new HashSet<>();
+        for (Graph graph : graphs) {
+            for (Triple triple : graph.find(Node.ANY, Node.ANY, Node.ANY).toList()) {
+                nodes.add(triple.getSubject());
+                nodes.add(triple.getPredicate());
+                nodes.add(triple.getObject());
+            }
+        }
+        return new ArrayList<>(nodes);
+    }
+
+    private static Set<Triple> asSet(ExtendedIterator<Triple> iterator) {
+        List<Triple> triples = iterator.toList();
+        Set<Triple> set = new HashSet<>(triples);
+        assertEquals("iterator returns duplicate triples", triples.size(), set.size());
+        return set;
+    }
+
+    private static Set<Triple> asSet(Triple... triples) {
+        Set<Triple> set = new HashSet<>();
+        for (Triple triple : triples) {
+            set.add(triple);
+        }
+        return set;
+    }
+
+    private static Triple triple(Node subject, Node predicate, Node object) {
+        return Triple.create(subject, predicate, object);
+    }
+
+    private static Node uri(String localName) {
+        return NodeFactory.createURI(EX + localName);
+    }
+
+}
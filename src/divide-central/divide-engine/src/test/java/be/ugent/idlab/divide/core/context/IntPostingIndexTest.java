@@ -0,0 +1,74 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class IntPostingIndexTest {
+
+    @Test
+    public void returnsNoRowsForUnknownKey() {
+        IntPostingIndex index = new IntPostingIndex();
+        index.add(1, 0);
+
+        assertEquals(0, index.count(2));
+        assertArrayEquals(new int[0], index.rows(2));
+    }
+
+    @Test
+    public void keepsRowsInOrderOfAddition() {
+        IntPostingIndex index = new IntPostingIndex();
+        index.add(7, 3);
+        index.add(-7, 4);
+        index.add(7, 5);
+        index.add(7, 3);
+
+        assertEquals(3, index.count(7));
+        assertArrayEquals(new int[]{3, 5, 3}, index.rows(7));
+        assertArrayEquals(new int[]{4}, index.rows(-7));
+    }
+
+    @Test
+    public void returnsCopyOfRows() {
+        IntPostingIndex index = new IntPostingIndex();
+        index.add(1, 0);
+
+        index.rows(1)[0] = 42;
+        int[] rows = index.rows(1);
+        index.add(1, 1);
+
+        assertArrayEquals(new int[]{0}, rows);
+        assertArrayEquals(new int[]{0, 1}, index.rows(1));
+    }
+
+    @Test
+    public void behavesAsMapOfListsForManyKeys() {
+        Random random = new Random(42);
+        IntPostingIndex index = new IntPostingIndex();
+        Map<Integer, List<Integer>> reference = new HashMap<>();
+
+        // keys include negative IDs (local nodes) and colliding hash values
+        for (int row = 0; row < 20000; row++) {
+            int key = random.nextInt(4000) - 2000;
+            if (row % 7 == 0) {
+                key = key << 16;
+            }
+            index.add(key, row);
+            reference.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+
+        for (Map.Entry<Integer, List<Integer>> entry : reference.entrySet()) {
+            int[] expected = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            assertEquals(expected.length, index.count(entry.getKey()));
+            assertArrayEquals(expected, index.rows(entry.getKey()));
+        }
+    }
+
+}
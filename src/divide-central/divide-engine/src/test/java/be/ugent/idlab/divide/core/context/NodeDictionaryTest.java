@@ -0,0 +1,82 @@
+package be.ugent.idlab.divide.core.context;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodeDictionaryTest {
+
+    private static final String EX = "http://example.org/node-dictionary-test/";
+
+    private final NodeDictionary dictionary = NodeDictionary.getInstance();
+
+    @Test
+    public void encodesEveryNodeOnce() {
+        Node node = NodeFactory.createURI(EX + "encodesEveryNodeOnce");
+        assertEquals(NodeDictionary.NOT_FOUND, dictionary.lookup(node));
+
+        int id = dictionary.encode(node);
+
+        assertTrue(id >= 0);
+        assertEquals(id, dictionary.encode(NodeFactory.createURI(EX + "encodesEveryNodeOnce")));
+        assertEquals(id, dictionary.lookup(node));
+        assertEquals(node, dictionary.decode(id));
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(dictionary.encode(NodeFactory.createURI(EX + "grows/" + i)));
+        }
+
+        assertEquals(5000, new HashSet<>(ids).size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(NodeFactory.createURI(EX + "grows/" + i), dictionary.decode(ids.get(i)));
+        }
+    }
+
+    @Test
+    public void assignsSameIdsWhenEncodingConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit((Callable<List<Integer>>) () -> {
+                    List<Integer> ids = new ArrayList<>();
+                    for (int i = 0; i < 2000; i++) {
+                        ids.add(dictionary.encode(NodeFactory.createURI(EX + "concurrent/" + i)));
+                    }
+                    return ids;
+                }));
+            }
+
+            List<Integer> expected = results.get(0).get();
+            for (Future<List<Integer>> result : results) {
+                assertEquals(expected, result.get());
+            }
+            Set<Integer> distinct = new HashSet<>(expected);
+            assertEquals(2000, distinct.size());
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(NodeFactory.createURI(EX + "concurrent/" + i),
+                        dictionary.decode(expected.get(i)));
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package be.ugent.idlab.divide.core.engine;
+
+import be.ugent.idlab.divide.core.context.ContextEnrichment;
+import be.ugent.idlab.divide.core.query.DivideQueryFactory;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DivideQueryDependencyExtractorTest {
+
+    private static final String EX = "http://example.org/";
+    private static final String SAREF = "https://saref.etsi.org/core/";
+
+    private static final String PREFIXES =
+            "@prefix sd: <http://idlab.ugent.be/sensdesc/query#> .\n" +
+            "@prefix saref: <" + SAREF + "> .\n" +
+            "@prefix ex: <" + EX + "> .\n";
+
+    private static final String GOAL = PREFIXES +
+            "{ ?q a sd:Query . } => { ?q a sd:Query . } .";
+
+    @Test
+    public void extractsPredicatesAndClassesOfSensorQueryRule() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "{\n" +
+                "    ?s a saref:Sensor ;\n" +
+                "       saref:measuresProperty ?p .\n" +
+                "    ?p a ex:Temperature , ex:Property .\n" +
+                "}\n" +
+                "=>\n" +
+                "{\n" +
+                "    _:q a sd:Query ;\n" +
+                "        sd:pattern ex:pattern ;\n" +
+                "        sd:inputVariables ((\"?s\" ?s)) ;\n" +
+                "        sd:windowParameters () .\n" +
+                "} .");
+
+        assertFalse(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, SAREF + "measuresProperty", null));
+        assertTrue(matches(dependencies, RDF.type.getURI(), SAREF + "Sensor"));
+        assertTrue(matches(dependencies, RDF.type.getURI(), EX + "Temperature"));
+        assertTrue(matches(dependencies, RDF.type.getURI(), EX + "Property"));
+        assertFalse(matches(dependencies, RDF.type.getURI(), EX + "Unrelated"));
+        assertFalse(matches(dependencies, EX + "unrelated", null));
+
+        // predicates of the internal DIVIDE vocabulary are always relevant
+        assertTrue(matches(dependencies, "http://idlab.ugent.be/sensdesc#other", null));
+    }
+
+    @Test
+    public void extractsPredicatesInsideNestedPropertyListsAndCollections() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "{ ?s ex:hasLocation [ ex:inRoom [ ex:roomType ?t ] ] ; " +
+                "ex:hasList ( ex:first [ ex:inList ?v ] ) . } => { ?s a sd:Query . } .");
+
+        assertTrue(matches(dependencies, EX + "hasLocation", null));
+        assertTrue(matches(dependencies, EX + "inRoom", null));
+        assertTrue(matches(dependencies, EX + "roomType", null));
+        assertTrue(matches(dependencies, EX + "hasList", null));
+        assertTrue(matches(dependencies, EX + "inList", null));
+        assertFalse(matches(dependencies, EX + "first", null));
+    }
+
+    @Test
+    public void ignoresPrefixedNamesInStringsAndComments() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "# ex:commented is not a pattern\n" +
+                "{ ?s ex:label \"ex:inString ?x . { ex:nested }\" ; " +
+                "ex:description \"\"\"multi-line\n ex:inLongString\"\"\"@en ; " +
+                "ex:value \"1\"^^<http://www.w3.org/2001/XMLSchema#integer> ; " +
+                "ex:threshold -1.5e3 ; ex:enabled true . } # ex:trailing\n" +
+                "=> { ?s a sd:Query . } .");
+
+        assertFalse(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, EX + "label", null));
+        assertTrue(matches(dependencies, EX + "description", null));
+        assertTrue(matches(dependencies, EX + "value", null));
+        assertTrue(matches(dependencies, EX + "threshold", null));
+        assertTrue(matches(dependencies, EX + "enabled", null));
+        assertFalse(matches(dependencies, EX + "commented", null));
+        assertFalse(matches(dependencies, EX + "inString", null));
+        assertFalse(matches(dependencies, EX + "nested", null));
+        assertFalse(matches(dependencies, EX + "inLongString", null));
+        assertFalse(matches(dependencies, EX + "trailing", null));
+    }
+
+    @Test
+    public void dependsOnAllTypeTriplesForVariableClass() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "{ ?s a ?type . } => { ?s a sd:Query . } .");
+
+        assertFalse(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, RDF.type.getURI(), EX + "AnyClass"));
+        assertFalse(matches(dependencies, EX + "unrelated", null));
+    }
+
+    @Test
+    public void dependsOnAnyPredicateForVariablePredicate() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "{ ?s ?p ?o . } => { ?s a sd:Query . } .");
+
+        assertTrue(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, EX + "unrelated", null));
+    }
+
+    @Test
+    public void dependsOnAnyPredicateForUnsupportedSyntax() {
+        // undeclared prefix
+        assertTrue(extract("{ ?s ex:p ?o . } => { ?s ex:q ?o . } .")
+                .dependsOnAnyPredicate());
+        // unbalanced formula
+        assertTrue(extract(PREFIXES + "{ ?s ex:p ?o . } } => { ?s ex:q ?o . } .")
+                .dependsOnAnyPredicate());
+        // unterminated string
+        assertTrue(extract(PREFIXES + "{ ?s ex:p \"open . } => { ?s ex:q ?o . } .")
+                .dependsOnAnyPredicate());
+        // unsupported keyword
+        assertTrue(extract(PREFIXES + "{ ?s ex:p ?o . } => { ?s ex:q unknown . } .")
+                .dependsOnAnyPredicate());
+    }
+
+    @Test
+    public void supportsSparqlStylePrefixDeclarations() {
+        DivideQueryDependencies dependencies = extract(
+                "PREFIX sd: <http://idlab.ugent.be/sensdesc/query#>\n" +
+                "PREFIX ex: <" + EX + ">\n" +
+                "{ ?s ex:p ?o . } => { ?s a sd:Query . } .");
+
+        assertFalse(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, EX + "p", null));
+    }
+
+    @Test
+    public void extractsPredicatesOfContextEnrichingQueries() {
+        IDivideQuery divideQuery = DivideQueryFactory.createInstance("query",
+                "", PREFIXES + "{ ?s ex:p ?o . } => { ?s a sd:Query . } .", GOAL,
+                new ContextEnrichment(false, false, Collections.singletonList(
+                        "PREFIX ex: <" + EX + ">\n" +
+                        "CONSTRUCT { ?s ex:derived ?o } " +
+                        "WHERE { ?s ex:a/ex:b ?o . ?o ^ex:c ?x . ?x a ex:Class . }")));
+
+        DivideQueryDependencies dependencies = DivideQueryDependencyExtractor.extract(divideQuery);
+
+        assertFalse(dependencies.dependsOnAnyPredicate());
+        assertTrue(matches(dependencies, EX + "a", null));
+        assertTrue(matches(dependencies, EX + "b", null));
+        assertTrue(matches(dependencies, EX + "c", null));
+        assertTrue(matches(dependencies, RDF.type.getURI(), EX + "Class"));
+        // only the WHERE clause of the query is relevant
+        assertFalse(matches(dependencies, EX + "derived", null));
+    }
+
+    @Test
+    public void dependsOnAnyPredicateForNegatedPropertySet() {
+        IDivideQuery divideQuery = DivideQueryFactory.createInstance("query",
+                "", PREFIXES + "{ ?s ex:p ?o . } => { ?s a sd:Query . } .", GOAL,
+                new ContextEnrichment(false, false, Collections.singletonList(
+                        "PREFIX ex: <" + EX + ">\n" +
+                        "CONSTRUCT { ?s ex:derived ?o } WHERE { ?s !ex:a ?o . }")));
+
+        assertTrue(DivideQueryDependencyExtractor.extract(divideQuery).dependsOnAnyPredicate());
+    }
+
+    @Test
+    public void closesDependenciesUnderRulesDerivingThem() {
+        DivideQueryDependencies dependencies = extract(PREFIXES +
+                "{ ?s a saref:Sensor . } => { ?s a sd:Query . } .");
+        List<Rule> rules = Rule.parseRules(
+                "[r1: (?x <" + EX + "partOf> ?y) -> " +
+                        "(?x <" + RDF.type.getURI() + "> <" + SAREF + "Sensor>)]\n" +
+                "[r2: (?x <" + EX + "locatedIn> ?y) -> (?x <" + EX + "partOf> ?y)]\n" +
+                "[r3: (?x <" + EX + "unrelated> ?y) -> (?x <" + EX + "other> ?y)]");
+
+        DivideQueryDependencies closure =
+                DivideQueryDependencyExtractor.closeUnderRules(dependencies, rules);
+
+        assertTrue(matches(closure, EX + "partOf", null));
+        assertTrue(matches(closure, EX + "locatedIn", null));
+        assertFalse(matches(closure, EX + "unrelated", null));
+        // the original dependencies are not changed by the closure
+        assertFalse(matches(dependencies, EX + "partOf", null));
+    }
+
+    private static DivideQueryDependencies extract(String sensorQueryRule) {
+        return DivideQueryDependencyExtractor.extract(DivideQueryFactory.createInstance(
+                "query", "", sensorQueryRule, GOAL, new ContextEnrichment()));
+    }
+
+    private static boolean matches(DivideQueryDependencies dependencies,
+                                   String predicate, String object) {
+        Node objectNode = object == null ?
+                NodeFactory.createVariable("o") : NodeFactory.createURI(object);
+        return dependencies.matches(NodeFactory.createURI(predicate), objectNode);
+    }
+
+}
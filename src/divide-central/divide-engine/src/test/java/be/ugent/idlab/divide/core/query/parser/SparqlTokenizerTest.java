@@ -0,0 +1,151 @@
+package be.ugent.idlab.divide.core.query.parser;
+
+import be.ugent.idlab.divide.core.query.parser.SparqlTokenizer.Token;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SparqlTokenizerTest {
+
+    private static final String QUERY =
+            "PREFIX ex: <http://example.org/ns#>\n" +
+            "PREFIX : <http://example.org/default#>\n" +
+            "# ex:commented {\n" +
+            "SELECT ?s (COUNT(?o) AS ?count)\n" +
+            "FROM NAMED WINDOW :w ON ex:stream [RANGE PT?{range}S STEP PT10S]\n" +
+            "WHERE {\n" +
+            "    ?s a ex:Sensor ; ex:label \"ex:inString { }\"@en ;\n" +
+            "       ex:note '''multi-line\n ex:inLongString'''^^<http://example.org/ns#Text> ;\n" +
+            "       ex:value ?o ; ex:id _:b0 . # ex:trailing }\n" +
+            "    FILTER (?o < 10 && ?o >= 2.5e-3)\n" +
+            "    ?s ex:loc%C3%A9 ex:Room.1 .\n" +
+            "}";
+
+    @Test
+    public void tokenizesQueryWithoutLosingCharacters() {
+        List<Token> tokens = SparqlTokenizer.tokenize(QUERY);
+
+        // everything in between tokens is whitespace or a comment
+        StringBuilder reconstructed = new StringBuilder();
+        int previousEnd = 0;
+        for (Token token : tokens) {
+            assertTrue(token.getStart() >= previousEnd);
+            String gap = QUERY.substring(previousEnd, token.getStart());
+            assertTrue("unexpected gap '" + gap + "'",
+                    gap.replaceAll("#[^\\n\\r]*", "").trim().isEmpty());
+            reconstructed.append(gap).append(token.getText());
+            previousEnd = token.getEnd();
+        }
+        reconstructed.append(QUERY.substring(previousEnd));
+
+        assertEquals(QUERY, reconstructed.toString());
+    }
+
+    @Test
+    public void recognizesTokenTypes() {
+        assertEquals(Arrays.asList(
+                "PREFIXED_NAME(ex:Sensor)", "PREFIXED_NAME(:w)", "IRI(<http://example.org/ns#>)",
+                "VARIABLE(?s)", "VARIABLE($o)", "VARIABLE(?{range})", "BLANK_NODE(_:b0)",
+                "STRING(\"text\"@en-GB)", "STRING('single')", "NUMBER(2.5e-3)", "WORD(SELECT)",
+                "PUNCTUATION({)", "PUNCTUATION(})"),
+                toStrings(SparqlTokenizer.tokenize(
+                        "ex:Sensor :w <http://example.org/ns#> ?s $o ?{range} _:b0 " +
+                                "\"text\"@en-GB 'single' 2.5e-3 SELECT { }")));
+    }
+
+    @Test
+    public void distinguishesLessThanOperatorFromIri() {
+        assertEquals(Arrays.asList(
+                "VARIABLE(?o)", "PUNCTUATION(<)", "NUMBER(10)", "PUNCTUATION(&)",
+                "PUNCTUATION(&)", "VARIABLE(?o)", "PUNCTUATION(>)", "NUMBER(2)"),
+                toStrings(SparqlTokenizer.tokenize("?o < 10 && ?o > 2")));
+        assertEquals(Arrays.asList(
+                "VARIABLE(?o)", "PUNCTUATION(<)", "VARIABLE(?max)"),
+                toStrings(SparqlTokenizer.tokenize("?o<?max")));
+    }
+
+    @Test
+    public void excludesTrailingDotFromNamesAndNumbers() {
+        assertEquals(Arrays.asList(
+                "VARIABLE(?s)", "PREFIXED_NAME(ex:p)", "PREFIXED_NAME(ex:Room.1)",
+                "PUNCTUATION(.)", "VARIABLE(?s)", "PREFIXED_NAME(ex:q)", "NUMBER(10)",
+                "PUNCTUATION(.)", "VARIABLE(?s)", "PREFIXED_NAME(ex:r)", "NUMBER(1.5)",
+                "PUNCTUATION(.)"),
+                toStrings(SparqlTokenizer.tokenize(
+                        "?s ex:p ex:Room.1. ?s ex:q 10. ?s ex:r 1.5.")));
+    }
+
+    @Test
+    public void splitsPrefixedNameInPrefixAndLocalName() {
+        List<Token> tokens = SparqlTokenizer.tokenize("ex:loc%C3%A9 :Sensor");
+
+        assertEquals(2, tokens.size());
+        assertEquals("ex:", tokens.get(0).getPrefixName());
+        assertEquals("loc%C3%A9", tokens.get(0).getLocalName());
+        assertEquals(":", tokens.get(1).getPrefixName());
+        assertEquals("Sensor", tokens.get(1).getLocalName());
+    }
+
+    @Test
+    public void recognizesKeywordsIgnoringCase() {
+        List<Token> tokens = SparqlTokenizer.tokenize("where WHERE wherever \"where\"");
+
+        assertTrue(tokens.get(0).isKeyword("WHERE"));
+        assertTrue(tokens.get(1).isKeyword("WHERE"));
+        assertFalse(tokens.get(2).isKeyword("WHERE"));
+        assertFalse(tokens.get(3).isKeyword("WHERE"));
+    }
+
+    @Test
+    public void tokenizesUnterminatedStringUntilEnd() {
+        assertEquals(Arrays.asList("VARIABLE(?s)", "STRING(\"open { ex:p })"),
+                toStrings(SparqlTokenizer.tokenize("?s \"open { ex:p }")));
+        assertEquals(Collections.emptyList(), SparqlTokenizer.tokenize(""));
+        assertEquals(Collections.emptyList(), SparqlTokenizer.tokenize(null));
+    }
+
+    @Test
+    public void findsUsedPrefixNamesOutsideIrisStringsAndComments() {
+        assertEquals(Arrays.asList("ex:", ":"),
+                new ArrayList<>(SparqlTokenizer.getUsedPrefixNames(QUERY)));
+        assertEquals(Collections.singletonList("ex:"),
+                new ArrayList<>(SparqlTokenizer.getUsedPrefixNames(
+                        "<http://example.org/other:x> ex:p \"other:y\" . # other:z")));
+        assertEquals(Collections.singletonList("ex:"),
+                new ArrayList<>(SparqlTokenizer.getUsedPrefixNames(
+                        "ex:Sensor other:value", localName -> localName.startsWith("S"))));
+    }
+
+    @Test
+    public void replacesPrefixNamesOutsideIrisStringsAndComments() {
+        String input = "ex:p <http://ex:8080/ex:q> \"ex:r\" ex2:s ex:t # ex:u\n ex:";
+
+        assertEquals("new:p <http://ex:8080/ex:q> \"ex:r\" ex2:s new:t # ex:u\n new:",
+                SparqlTokenizer.replacePrefixName(input, "ex:", "new:"));
+        assertEquals("ex:p <http://ex:8080/ex:q> \"ex:r\" ex2:s new:t # ex:u\n ex:",
+                SparqlTokenizer.replacePrefixName(input, "ex:", "new:",
+                        localName -> localName.equals("t")));
+    }
+
+    @Test
+    public void replacesDefaultPrefixName() {
+        assertEquals("?s a def:Sensor ; ex:p def: .",
+                SparqlTokenizer.replacePrefixName("?s a :Sensor ; ex:p : .", ":", "def:"));
+    }
+
+    private static List<String> toStrings(List<Token> tokens) {
+        List<String> strings = new ArrayList<>();
+        for (Token token : tokens) {
+            strings.add(token.toString());
+        }
+        return strings;
+    }
+
+}
@@ -14,6 +14,7 @@ import be.ugent.idlab.divide.core.query.parser.InvalidDivideQueryParserInputExce
 import be.ugent.idlab.divide.core.query.parser.ParsedSparqlQuery;
 import be.ugent.idlab.divide.core.query.parser.Prefix;
 import be.ugent.idlab.divide.core.query.parser.SplitSparqlQuery;
+import be.ugent.idlab.divide.queryderivation.eye.EyeQueryDeriverMetrics.Step;
 import be.ugent.idlab.divide.util.Constants;
 import be.ugent.idlab.util.bash.BashException;
 import be.ugent.idlab.util.eye.EyeReasoner;
@@ -21,16 +22,20 @@ import be.ugent.idlab.util.io.IOUtilities;
 import be.ugent.idlab.util.rdf.RDFLanguage;
 import be.ugent.idlab.util.rdf.jena3.owlapi4.JenaUtilities;
 import org.apache.commons.io.FileUtils;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.update.UpdateAction;
 import org.apache.jena.update.UpdateFactory;
 import org.apache.jena.update.UpdateRequest;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
@@ -43,6 +48,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import static be.ugent.idlab.divide.util.Constants.DIVIDE_DIRECTORY;
@@ -52,6 +61,8 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EyeDivideQueryDeriver.class.getName());
 
+    private static final EyeQueryDeriverMetrics METRICS = EyeQueryDeriverMetrics.getInstance();
+
     /**
      * Path of JAR resource for generating all triples, used during the EYE preprocessing
      */
@@ -384,30 +395,31 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
             String ontologyTurtleFile = writeToTempTurtleFile(ontology);
 
             // load ontology with EYE and write to N3 ontology file
-            EyeReasoner.runToFile(
+            METRICS.run(Step.ONTOLOGY_PREPROCESSING, () -> EyeReasoner.runToFile(
                     Collections.singletonList(ontologyTurtleFile),
                     ontologyFile,
-                    preprocessingOntologyCreationOptions);
+                    preprocessingOntologyCreationOptions));
 
             // generate all triples by applying OWL-RL rules on N3 ontology and
             // write to N3 triples file
-            EyeReasoner.runToFile(
+            METRICS.run(Step.ONTOLOGY_PREPROCESSING, () -> EyeReasoner.runToFile(
                     preprocessingTripleCreationInputFiles,
                     triplesFile,
-                    preprocessingTripleCreationOptions);
+                    preprocessingTripleCreationOptions));
 
             // generate instantiated OWL-RL rules from collection of inferred
             // triples and write to N3 rules file
-            EyeReasoner.runToFile(
+            METRICS.run(Step.ONTOLOGY_PREPROCESSING, () -> EyeReasoner.runToFile(
                     preprocessingRuleCreationInputFiles,
                     preprocessingInstantiateRulesFile,
                     rulesFile,
-                    preprocessingRuleCreationOptions);
+                    preprocessingRuleCreationOptions));
 
             // create image of EYE reasoner that has the N3 ontology and rules files
             // preloaded into it
             // = intermediate code file resulting from Prolog compilation
-            EyeReasoner.runToImage(preprocessingImageCreationInputFiles, imageFileLoading);
+            METRICS.run(Step.ONTOLOGY_PREPROCESSING, () -> EyeReasoner.runToImage(
+                    preprocessingImageCreationInputFiles, imageFileLoading));
 
             // if everything is loaded successfully, the existing used image file is overwritten
             Files.copy(Paths.get(imageFileLoading), Paths.get(imageFile),
@@ -432,99 +444,289 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
     public void registerQuery(IDivideQuery divideQuery,
                               IDivideQueryParser divideQueryParser)
             throws DivideQueryDeriverException, DivideInvalidInputException {
-        // do nothing if given DIVIDE query is null
-        if (divideQuery == null) {
+        registerQueries(Collections.singletonList(divideQuery), divideQueryParser);
+    }
+
+    @Override
+    public void registerQueries(List<IDivideQuery> divideQueries,
+                                IDivideQueryParser divideQueryParser)
+            throws DivideQueryDeriverException, DivideInvalidInputException {
+        // only proceed with the given DIVIDE queries that are not null and of which
+        // no query with the same name exists yet
+        // (the latter will not happen since this is already checked before)
+        List<IDivideQuery> newDivideQueries = new ArrayList<>();
+        for (IDivideQuery divideQuery : divideQueries) {
+            if (divideQuery != null && !divideQueryMap.containsKey(divideQuery.getName())) {
+                newDivideQueries.add(divideQuery);
+            }
+        }
+        if (newDivideQueries.isEmpty()) {
             return;
         }
 
-        // only proceed if query with this name does not exist yet
-        // (will not happen since this is already checked before)
-        if (!divideQueryMap.containsKey(divideQuery.getName())) {
-            // validate different fields of query with EYE to ensure they contain valid N3
-            validateEyeInput(false, divideQuery.getQueryPattern(),
-                    divideQuery.getSensorQueryRule(), divideQuery.getGoal());
-
-            // copy EYE DIVIDE query parts to files according to standard file
-            // templates, substituted with the query name as parent directory
-            String queryPatternPath = writeToDivideDirectory(
-                    divideQuery.getQueryPattern(), String.format(
-                            EYE_DIVIDE_QUERY_QUERY_PATTERN_PATH_TEMPLATE,
-                            divideQuery.getName()));
-            String sensorQueryRulePath = writeToDivideDirectory(
-                    divideQuery.getSensorQueryRule(), String.format(
-                            EYE_DIVIDE_QUERY_SENSOR_QUERY_RULE_PATH_TEMPLATE,
-                            divideQuery.getName()));
-            String goalPath = writeToDivideDirectory(
-                    divideQuery.getGoal(), String.format(
-                            EYE_DIVIDE_QUERY_GOAL_PATH_TEMPLATE,
-                            divideQuery.getName()));
-
-            // create corresponding EYE DIVIDE query keeping track of the
-            // canonical paths of the different files
-            EyeDivideQuery eyeDivideQuery = new EyeDivideQuery(
-                    queryPatternPath, sensorQueryRulePath, goalPath);
+        // process context enrichment:
+        // if all context-enriching queries of a DIVIDE query can be written as rules,
+        // these rules will be appended to the sensor query rule file,
+        // and the context enrichment can be removed from the DIVIDE query
+        // -> so originally, the sensor query rule file content only consists
+        //    of the sensor query rule itself
+        // -> the conversion of the DIVIDE queries is independent, so happens in parallel
+        List<List<String>> contextEnrichingQueryRules = executeInParallel(
+                newDivideQueries.size(), i -> convertContextEnrichmentToEyeRules(
+                        newDivideQueries.get(i), divideQueryParser));
+
+        // validate different fields of queries with EYE to ensure they contain valid N3,
+        // together with the converted context-enriching query rules
+        validateEyeInputOfQueries(newDivideQueries, contextEnrichingQueryRules);
+
+        // copy EYE DIVIDE query parts to files according to standard file
+        // templates, substituted with the query name as parent directory
+        List<EyeDivideQuery> eyeDivideQueries = executeInParallel(
+                newDivideQueries.size(), i -> writeEyeDivideQuery(
+                        newDivideQueries.get(i), contextEnrichingQueryRules.get(i)));
+
+        for (int i = 0; i < newDivideQueries.size(); i++) {
+            IDivideQuery divideQuery = newDivideQueries.get(i);
 
             // save EYE DIVIDE query
-            divideQueryMap.put(divideQuery.getName(), eyeDivideQuery);
-
-            // process context enrichment:
-            // if all context-enriching queries can be written as rules,
-            // these rules will be appended to the sensor query rule file,
-            // and the context enrichment can be removed from the DIVIDE query
-            // -> so originally, the sensor query rule file content only consists
-            //    of the sensor query rule itself
-            if (divideQuery.getContextEnrichment() != null
-                    && divideQuery.getContextEnrichment().getQueries() != null
-                    && !divideQuery.getContextEnrichment().getQueries().isEmpty()) {
-                // if the context enrichment contains at least one query,
-                // check the possibility for each query to write it as a rule
-                try {
-                    LOGGER.info("REGISTER QUERY: trying to convert existing non-empty query context " +
-                            "enrichment of query {} to a set of EYE rules", divideQuery.getName());
-
-                    // first convert all queries to a string of rules
-                    List<String> queryAsRuleList = new ArrayList<>();
-                    for (ContextEnrichingQuery query : divideQuery.getContextEnrichment().getQueries()) {
-                        String queryAsRule = convertQueryToEyeRule(query.getQuery(), divideQueryParser);
-
-                        // validate rule as EYE input
-                        validateEyeInput(false, queryAsRule);
-
-                        // if valid, add to list of query rules
-                        queryAsRuleList.add(queryAsRule);
-                    }
+            divideQueryMap.put(divideQuery.getName(), eyeDivideQueries.get(i));
+
+            if (contextEnrichingQueryRules.get(i) != null) {
+                // reset context enrichment of DIVIDE query to avoid that the DIVIDE engine
+                // executes these queries before starting the EYE query derivation
+                divideQuery.removeContextEnrichment();
+
+                LOGGER.info("REGISTER QUERY: existing non-empty query context enrichment of query {} " +
+                        "is successfully converted to a set of EYE rules", divideQuery.getName());
+            }
+        }
+    }
+
+    /**
+     * Tries to convert all context-enriching queries of the given DIVIDE query to
+     * EYE rules.
+     *
+     * @return list of EYE rules, or null if the DIVIDE query has no context-enriching
+     *         queries or if not all of them can be written as a rule
+     */
+    private List<String> convertContextEnrichmentToEyeRules(IDivideQuery divideQuery,
+                                                            IDivideQueryParser divideQueryParser) {
+        if (divideQuery.getContextEnrichment() == null
+                || divideQuery.getContextEnrichment().getQueries() == null
+                || divideQuery.getContextEnrichment().getQueries().isEmpty()) {
+            return null;
+        }
+
+        // if the context enrichment contains at least one query,
+        // check the possibility for each query to write it as a rule
+        try {
+            LOGGER.info("REGISTER QUERY: trying to convert existing non-empty query context " +
+                    "enrichment of query {} to a set of EYE rules", divideQuery.getName());
+
+            List<String> queryAsRuleList = new ArrayList<>();
+            for (ContextEnrichingQuery query : divideQuery.getContextEnrichment().getQueries()) {
+                queryAsRuleList.add(convertQueryToEyeRule(query.getQuery(), divideQueryParser));
+            }
+            return queryAsRuleList;
+
+        } catch (DivideQueryDeriverException e) {
+            LOGGER.warn("REGISTER QUERY: existing non-empty query context enrichment of query {} " +
+                    "cannot be converted to a set of EYE rules", divideQuery.getName());
+            // conversion not succeeded -> everything can be left as is:
+            // - the context enrichment of the query can stay there
+            // - the sensor query rule file content should not be extended with the rule string
+            return null;
+        }
+    }
+
+    /**
+     * Validates the fields of all given DIVIDE queries, and their converted
+     * context-enriching query rules, as EYE input.
+     *
+     * Since every EYE run to validate inputs involves starting a new EYE process,
+     * all inputs are first validated together in a single EYE run. Only if this
+     * fails, the inputs of every DIVIDE query are validated separately to find out
+     * which ones are invalid.
+     *
+     * @param contextEnrichingQueryRules converted context-enriching query rules of
+     *                                   every DIVIDE query (null entries if not
+     *                                   converted); entries with invalid rules are
+     *                                   set to null by this method
+     * @throws DivideInvalidInputException if the fields of any DIVIDE query are invalid
+     */
+    private void validateEyeInputOfQueries(List<IDivideQuery> divideQueries,
+                                           List<List<String>> contextEnrichingQueryRules)
+            throws DivideInvalidInputException, DivideQueryDeriverException {
+        List<String> inputs = new ArrayList<>();
+        int inputGroupCount = 0;
+        for (int i = 0; i < divideQueries.size(); i++) {
+            inputs.addAll(getEyeInput(divideQueries.get(i)));
+            inputGroupCount++;
+            if (contextEnrichingQueryRules.get(i) != null) {
+                inputs.addAll(contextEnrichingQueryRules.get(i));
+                inputGroupCount++;
+            }
+        }
+
+        try {
+            validateEyeInput(false, inputs.toArray(new String[0]));
+            return;
 
-                    // register context-enriching query rules to EYE DIVIDE query
-                    // (by writing them to a temp file)
-                    for (int i = 0; i < queryAsRuleList.size(); i++) {
-                        String queryAsRule = queryAsRuleList.get(i);
+        } catch (DivideInvalidInputException e) {
+            // if all inputs belong to the fields of a single DIVIDE query,
+            // it is known which DIVIDE query is invalid
+            if (inputGroupCount == 1) {
+                throw e;
+            }
+            LOGGER.info("REGISTER QUERY: bulk validation of {} DIVIDE queries failed, " +
+                    "validating the input of each DIVIDE query separately", divideQueries.size());
+        }
 
-                        // write context-enriching query rule to file
-                        String contextEnrichingQueryRulePath = writeToDivideDirectory(
-                                queryAsRule, String.format(
-                                        EYE_DIVIDE_QUERY_CONTEXT_ENRICHING_QUERY_PATH_TEMPLATE,
-                                        divideQuery.getName(), i + 1));
+        // validate fields of every DIVIDE query separately, and check for which
+        // DIVIDE queries the context-enriching query rules are valid
+        List<Boolean> validContextEnrichingQueryRules = executeInParallel(
+                divideQueries.size(), i -> {
+                    IDivideQuery divideQuery = divideQueries.get(i);
+                    try {
+                        List<String> queryInputs = getEyeInput(divideQuery);
+                        validateEyeInput(false, queryInputs.toArray(new String[0]));
+                    } catch (DivideInvalidInputException e) {
+                        throw new DivideInvalidInputException(String.format(
+                                "DIVIDE query '%s' contains invalid RDF (should be valid N3)",
+                                divideQuery.getName()), e);
+                    }
 
-                        // register path to file to EYE DIVIDE query
-                        eyeDivideQuery.addContextEnrichingQueryFilePath(contextEnrichingQueryRulePath);
+                    List<String> rules = contextEnrichingQueryRules.get(i);
+                    if (rules == null) {
+                        return false;
                     }
+                    try {
+                        validateEyeInput(false, rules.toArray(new String[0]));
+                        return true;
+                    } catch (DivideInvalidInputException | DivideQueryDeriverException e) {
+                        LOGGER.warn("REGISTER QUERY: existing non-empty query context enrichment " +
+                                "of query {} cannot be converted to a set of EYE rules",
+                                divideQuery.getName());
+                        return false;
+                    }
+                });
 
-                    // reset context enrichment of DIVIDE query to avoid that the DIVIDE engine
-                    // executes these queries before starting the EYE query derivation
-                    divideQuery.removeContextEnrichment();
+        for (int i = 0; i < divideQueries.size(); i++) {
+            if (!validContextEnrichingQueryRules.get(i)) {
+                contextEnrichingQueryRules.set(i, null);
+            }
+        }
+    }
 
-                    LOGGER.info("REGISTER QUERY: existing non-empty query context enrichment of query {} " +
-                            "is successfully converted to a set of EYE rules", divideQuery.getName());
+    private List<String> getEyeInput(IDivideQuery divideQuery) {
+        return Arrays.asList(divideQuery.getQueryPattern(),
+                divideQuery.getSensorQueryRule(), divideQuery.getGoal());
+    }
 
-                } catch (DivideInvalidInputException | DivideQueryDeriverException e) {
-                    LOGGER.warn("REGISTER QUERY: existing non-empty query context enrichment of query {} " +
-                            "cannot be converted to a set of EYE rules", divideQuery.getName());
-                    // conversion not succeeded -> everything can be left as is:
-                    // - the context enrichment of the query can stay there
-                    // - the sensor query rule file content should not be extended with the rule string
-                }
+    /**
+     * Writes the fields of the given DIVIDE query, and its context-enriching
+     * query rules if any, to files in the DIVIDE directory.
+     *
+     * @return EYE DIVIDE query keeping track of the canonical paths of the files
+     */
+    private EyeDivideQuery writeEyeDivideQuery(IDivideQuery divideQuery,
+                                               List<String> contextEnrichingQueryRules)
+            throws DivideQueryDeriverException {
+        String queryPatternPath = writeToDivideDirectory(
+                divideQuery.getQueryPattern(), String.format(
+                        EYE_DIVIDE_QUERY_QUERY_PATTERN_PATH_TEMPLATE,
+                        divideQuery.getName()));
+        String sensorQueryRulePath = writeToDivideDirectory(
+                divideQuery.getSensorQueryRule(), String.format(
+                        EYE_DIVIDE_QUERY_SENSOR_QUERY_RULE_PATH_TEMPLATE,
+                        divideQuery.getName()));
+        String goalPath = writeToDivideDirectory(
+                divideQuery.getGoal(), String.format(
+                        EYE_DIVIDE_QUERY_GOAL_PATH_TEMPLATE,
+                        divideQuery.getName()));
+
+        // create corresponding EYE DIVIDE query keeping track of the
+        // canonical paths of the different files
+        EyeDivideQuery eyeDivideQuery = new EyeDivideQuery(
+                queryPatternPath, sensorQueryRulePath, goalPath);
+
+        // register context-enriching query rules to EYE DIVIDE query
+        // (by writing them to a file)
+        if (contextEnrichingQueryRules != null) {
+            for (int i = 0; i < contextEnrichingQueryRules.size(); i++) {
+                // write context-enriching query rule to file
+                String contextEnrichingQueryRulePath = writeToDivideDirectory(
+                        contextEnrichingQueryRules.get(i), String.format(
+                                EYE_DIVIDE_QUERY_CONTEXT_ENRICHING_QUERY_PATH_TEMPLATE,
+                                divideQuery.getName(), i + 1));
+
+                // register path to file to EYE DIVIDE query
+                eyeDivideQuery.addContextEnrichingQueryFilePath(contextEnrichingQueryRulePath);
             }
         }
+
+        return eyeDivideQuery;
+    }
+
+    /**
+     * Task on the DIVIDE query with the given index in a list of DIVIDE queries
+     * that are registered together.
+     */
+    private interface DivideQueryRegistrationTask<R> {
+        R execute(int index) throws DivideInvalidInputException, DivideQueryDeriverException;
+    }
+
+    /**
+     * Executes the given task for every index from 0 to the given count in parallel,
+     * and waits for all of them to finish.
+     *
+     * @return results of the task for every index, in order of the indices
+     * @throws DivideInvalidInputException if any of the tasks threw this exception
+     * @throws DivideQueryDeriverException if any of the tasks threw this exception,
+     *                                     or if the thread was interrupted while waiting
+     */
+    private <R> List<R> executeInParallel(int count, DivideQueryRegistrationTask<R> task)
+            throws DivideInvalidInputException, DivideQueryDeriverException {
+        List<R> results = new ArrayList<>();
+
+        // no need to start other threads for a single task
+        if (count == 1) {
+            results.add(task.execute(0));
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(count, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.execute(index)));
+            }
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DivideInvalidInputException) {
+                throw (DivideInvalidInputException) e.getCause();
+            } else if (e.getCause() instanceof DivideQueryDeriverException) {
+                throw (DivideQueryDeriverException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DivideQueryDeriverException(
+                    "Unknown error during registration of queries", e);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DivideQueryDeriverException(
+                    "Interrupted during registration of queries", e);
+
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     @Override
@@ -624,8 +826,8 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
                 // construct proof towards goal
                 LOGGER.debug(Constants.METRIC_MARKER, "DERIVE_QUERIES_START_REASONING\t{}\t{}\t{}",
                         divideQueryName, componentId, context);
-                EyeReasoner.runFromImageToFile(
-                        usedImageFile, proofInputFiles, queryGoalFile, proofFilePath, null);
+                METRICS.run(Step.PROOF, () -> EyeReasoner.runFromImageToFile(
+                        usedImageFile, proofInputFiles, queryGoalFile, proofFilePath, null));
                 LOGGER.debug(Constants.METRIC_MARKER, "DERIVE_QUERIES_END_REASONING\t{}\t{}\t{}",
                         divideQueryName, componentId, context);
 
@@ -634,16 +836,16 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
                         divideQueryName, componentId, context);
                 List<String> queryExtractionInputFiles = Arrays.asList(
                         proofFilePath, contextFile);
-                EyeReasoner.runToFile(
+                METRICS.run(Step.EXTRACTION, () -> EyeReasoner.runToFile(
                         queryExtractionInputFiles, queryExtractionGoalFile,
-                        extractedQueriesFilePath, queryExtractionOptions);
+                        extractedQueriesFilePath, queryExtractionOptions));
 
                 // extract window parameters from proof
                 List<String> windowParameterExtractionInputFiles = Arrays.asList(
                         proofFilePath, contextFile);
-                EyeReasoner.runToFile(
+                METRICS.run(Step.EXTRACTION, () -> EyeReasoner.runToFile(
                         windowParameterExtractionInputFiles, windowParameterExtractionGoalFile,
-                        extractedWindowParametersFilePath, windowParameterExtractionOptions);
+                        extractedWindowParametersFilePath, windowParameterExtractionOptions));
                 LOGGER.debug(Constants.METRIC_MARKER, "DERIVE_QUERIES_END_EXTRACTION\t{}\t{}\t{}",
                         divideQueryName, componentId, context);
 
@@ -656,11 +858,11 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
                         extractedWindowParametersFilePath,
                         queryInputVariableSubstitutionRulesFile,
                         queryInputVariableSubstitutionSupportedDatatypesFile);
-                EyeReasoner.runToFile(
+                METRICS.run(Step.INPUT_VARIABLE_SUBSTITUTION, () -> EyeReasoner.runToFile(
                         inputVariableSubstitutionInputFiles,
                         queryInputVariableSubstitutionGoalFile,
                         queriesAfterInputVariableSubstitutionFilePath,
-                        querySubstitutionOptions);
+                        querySubstitutionOptions));
                 LOGGER.debug(Constants.METRIC_MARKER, "DERIVE_QUERIES_END_INPUT_SUBSTITUTION\t{}\t{}\t{}",
                         divideQueryName, componentId, context);
 
@@ -756,22 +958,23 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
                 queryDynamicWindowParameterSubstitutionRulesFile,
                 substitutionTriggerFilePathMap.get(trigger)));
         dynamicWindowParameterSubstitutionInputFiles.addAll(Arrays.asList(extraInputFiles));
-        EyeReasoner.runToFile(
+        METRICS.run(Step.WINDOW_PARAMETER_SUBSTITUTION, () -> EyeReasoner.runToFile(
                 dynamicWindowParameterSubstitutionInputFiles,
                 queryDynamicWindowParameterSubstitutionGoalFile,
                 eyeDivideQueryDeriverIntermediateResult.
                         getQueriesAfterDynamicWindowParameterSubstitutionFilePath(),
-                querySubstitutionOptions);
+                querySubstitutionOptions));
 
         // substitute static window parameters of extracted queries in query patterns
         List<String> staticWindowParameterSubstitutionInputFiles = Arrays.asList(
                 eyeDivideQueryDeriverIntermediateResult.
                         getQueriesAfterDynamicWindowParameterSubstitutionFilePath(),
                 queryStaticWindowParameterSubstitutionRulesFile);
-        String queriesAfterStaticWindowParameterSubstitution = EyeReasoner.run(
-                staticWindowParameterSubstitutionInputFiles,
-                queryStaticWindowParameterSubstitutionGoalFile,
-                querySubstitutionOptions);
+        String queriesAfterStaticWindowParameterSubstitution = METRICS.call(
+                Step.WINDOW_PARAMETER_SUBSTITUTION, () -> EyeReasoner.run(
+                        staticWindowParameterSubstitutionInputFiles,
+                        queryStaticWindowParameterSubstitutionGoalFile,
+                        querySubstitutionOptions));
 
         // convert substituted queries (in N3 = Turtle format) to Jena model
         Model substitutedQueriesModel = JenaUtilities.parseString(
@@ -803,6 +1006,7 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
         }
 
         long end = System.currentTimeMillis();
+        METRICS.recordContextPreparation(end - start);
         LOGGER.info("Prepared context for DIVIDE query {} and context {} in {} seconds",
                 divideQueryName, context.getId(), (end - start));
 
@@ -818,24 +1022,24 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
 
         // generate new triples from applying all OWL-RL rules to image (with original
         // TBox) and new context
-        EyeReasoner.runFromImageToFile(
+        METRICS.run(Step.CONTEXT_IMAGE_CREATION, () -> EyeReasoner.runFromImageToFile(
                 imageFile,
                 Arrays.asList(contextFile, preprocessingListsFile,
                         preprocessingInstantiateTriplesFile),
                 triplesFile,
-                preprocessingTripleCreationOptions);
+                preprocessingTripleCreationOptions));
 
         // generate new rules from the set of new triples
-        EyeReasoner.runToFile(
+        METRICS.run(Step.CONTEXT_IMAGE_CREATION, () -> EyeReasoner.runToFile(
                 Collections.singletonList(triplesFile),
                 preprocessingInstantiateRulesFile,
                 rulesFile,
-                preprocessingRuleCreationOptions);
+                preprocessingRuleCreationOptions));
 
         // create new image based on new triples and rules
-        EyeReasoner.runToImage(
+        METRICS.run(Step.CONTEXT_IMAGE_CREATION, () -> EyeReasoner.runToImage(
                 Arrays.asList(triplesFile, rulesFile),
-                newImageFile);
+                newImageFile));
 
         return newImageFile;
     }
@@ -850,7 +1054,9 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
      *         method; null otherwise
      */
     synchronized String retrieveConvertedPrefixesString(String uri) {
-        return this.convertedPrefixesMap.get(uri);
+        String converted = this.convertedPrefixesMap.get(uri);
+        METRICS.recordConvertedPrefixesLookup(converted != null);
+        return converted;
     }
 
     /**
@@ -893,9 +1099,9 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
             // to how the ontology is outputted
             // => EYE input reading step will already fail if the input is invalid
             //    and therefore generate a BashException
-            EyeReasoner.run(
+            METRICS.run(Step.INPUT_VALIDATION, () -> EyeReasoner.run(
                     inputFiles,
-                    preprocessingOntologyCreationOptions);
+                    preprocessingOntologyCreationOptions));
 
         } catch (BashException e) {
             String message = "Some of the inputs contain invalid RDF (should be valid N3)";
@@ -948,18 +1154,29 @@ class EyeDivideQueryDeriver implements IDivideQueryDeriver {
     }
 
     /**
+     * Writes the given triples to a new temporary Turtle file. The triples are
+     * streamed as N-Triples (which is valid Turtle and N3) directly from the graph
+     * into the file: in contrast to the pretty Turtle writer, this requires no
+     * analysis of the graph structure upfront, and never holds the serialization of
+     * all triples in memory, which matters for large contexts. The resulting file
+     * is reused by all EYE steps that require these triples (e.g., the proof and
+     * extraction steps of a query derivation).
+     *
      * @return canonical path of created temporary Turtle file
      */
     private String writeToTempTurtleFile(Model triples) throws IOException {
-        String tempFile = IOUtilities.writeToTempFile(
-                JenaUtilities.serializeModel(triples, RDFLanguage.TURTLE),
+        File tempFile = File.createTempFile(
                 "triples-" + UUID.randomUUID() + "-" + System.currentTimeMillis(), ".ttl");
 
-        if (tempFile == null) {
-            throw new IOException("Error when writing data to temp file");
+        // the N-Triples writer buffers its output itself
+        ExtendedIterator<Triple> iterator = triples.getGraph().find();
+        try (OutputStream outputStream = Files.newOutputStream(tempFile.toPath())) {
+            RDFDataMgr.writeTriples(outputStream, iterator);
+        } finally {
+            iterator.close();
         }
 
-        return tempFile;
+        return tempFile.getCanonicalPath();
     }
 
 
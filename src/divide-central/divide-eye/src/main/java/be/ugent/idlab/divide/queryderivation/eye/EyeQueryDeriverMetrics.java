@@ -0,0 +1,164 @@
+package be.ugent.idlab.divide.queryderivation.eye;
+
+import be.ugent.idlab.divide.util.metrics.Counter;
+import be.ugent.idlab.divide.util.metrics.LatencyHistogram;
+import be.ugent.idlab.divide.util.metrics.MetricsRegistry;
+import be.ugent.idlab.util.bash.BashException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the number, duration and failures of the invocations of the
+ * EYE reasoner by the {@link EyeDivideQueryDeriver}, for every step in which EYE
+ * is invoked, and of the other metrics of this query deriver. All metrics are
+ * exposed via the {@link MetricsRegistry}.
+ */
+class EyeQueryDeriverMetrics {
+
+    private static final EyeQueryDeriverMetrics instance = new EyeQueryDeriverMetrics();
+
+    static EyeQueryDeriverMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Steps in which the EYE reasoner is invoked
+     */
+    enum Step {
+        /**
+         * Preprocessing of the ontology and creation of the EYE image
+         * when loading an ontology
+         */
+        ONTOLOGY_PREPROCESSING,
+
+        /**
+         * Validation of the inputs of a new DIVIDE query
+         */
+        INPUT_VALIDATION,
+
+        /**
+         * Creation of a new EYE image from a context that may contain
+         * new TBox definitions
+         */
+        CONTEXT_IMAGE_CREATION,
+
+        /**
+         * Construction of the proof towards the goal of a DIVIDE query
+         */
+        PROOF,
+
+        /**
+         * Extraction of the queries and window parameters from a proof
+         */
+        EXTRACTION,
+
+        /**
+         * Substitution of the input variables of the extracted queries
+         */
+        INPUT_VARIABLE_SUBSTITUTION,
+
+        /**
+         * Substitution of the dynamic and static window parameters of the
+         * extracted queries
+         */
+        WINDOW_PARAMETER_SUBSTITUTION
+    }
+
+    @FunctionalInterface
+    interface EyeCall<T> {
+        T call() throws BashException;
+    }
+
+    @FunctionalInterface
+    interface EyeRun {
+        void run() throws BashException;
+    }
+
+    private static final String PREFIX_LOOKUPS_METRIC = "divide_eye_converted_prefixes_lookups_total";
+    private static final String PREFIX_LOOKUPS_METRIC_HELP =
+            "Number of lookups of previously converted RSP-QL prefix strings, by result";
+
+    // class code
+
+    private final Map<Step, Counter> invocationCounters;
+    private final Map<Step, Counter> failureCounters;
+    private final Map<Step, LatencyHistogram> durationHistograms;
+
+    private final LatencyHistogram contextPreparationHistogram;
+    private final Counter prefixHitCounter;
+    private final Counter prefixMissCounter;
+
+    private EyeQueryDeriverMetrics() {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+
+        this.invocationCounters = new EnumMap<>(Step.class);
+        this.failureCounters = new EnumMap<>(Step.class);
+        this.durationHistograms = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            String label = step.name().toLowerCase();
+            this.invocationCounters.put(step, metricsRegistry.counter(
+                    "divide_eye_invocations_total",
+                    "Number of invocations of the EYE reasoner, by step",
+                    "step", label));
+            this.failureCounters.put(step, metricsRegistry.counter(
+                    "divide_eye_invocation_failures_total",
+                    "Number of failed invocations of the EYE reasoner, by step",
+                    "step", label));
+            this.durationHistograms.put(step, metricsRegistry.histogram(
+                    "divide_eye_invocation_duration_seconds",
+                    "Duration of the invocations of the EYE reasoner, by step",
+                    "step", label));
+        }
+
+        this.contextPreparationHistogram = metricsRegistry.histogram(
+                "divide_eye_context_preparation_duration_seconds",
+                "Duration of preparing a context for the EYE query derivation");
+        this.prefixHitCounter = metricsRegistry.counter(
+                PREFIX_LOOKUPS_METRIC, PREFIX_LOOKUPS_METRIC_HELP, "result", "hit");
+        this.prefixMissCounter = metricsRegistry.counter(
+                PREFIX_LOOKUPS_METRIC, PREFIX_LOOKUPS_METRIC_HELP, "result", "miss");
+    }
+
+    /**
+     * Invokes the EYE reasoner via the given call, and records this invocation
+     * for the given step.
+     *
+     * @return result of the given call
+     * @throws BashException if the given call fails
+     */
+    <T> T call(Step step, EyeCall<T> call) throws BashException {
+        long start = System.currentTimeMillis();
+        invocationCounters.get(step).increment();
+        try {
+            return call.call();
+        } catch (BashException | RuntimeException e) {
+            failureCounters.get(step).increment();
+            throw e;
+        } finally {
+            durationHistograms.get(step).record(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Invokes the EYE reasoner via the given call without result, and records
+     * this invocation for the given step.
+     *
+     * @throws BashException if the given call fails
+     */
+    void run(Step step, EyeRun run) throws BashException {
+        call(step, () -> {
+            run.run();
+            return null;
+        });
+    }
+
+    void recordContextPreparation(long latencyMillis) {
+        contextPreparationHistogram.record(latencyMillis);
+    }
+
+    void recordConvertedPrefixesLookup(boolean hit) {
+        (hit ? prefixHitCounter : prefixMissCounter).increment();
+    }
+
+}
@@ -1,8 +1,10 @@
 package be.ugent.idlab.divide.monitor.global;
 
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
+import be.ugent.idlab.divide.monitor.DivideGlobalMonitorConstants;
 import be.ugent.idlab.divide.monitor.IDivideGlobalMonitor;
 import be.ugent.idlab.divide.monitor.global.rs.GlobalMonitorReasoningServiceFactory;
+import be.ugent.idlab.divide.monitor.global.transport.MeasurementFrameServerFactory;
 import be.ugent.idlab.divide.monitor.metamodel.DivideMetaModelFactory;
 import be.ugent.idlab.divide.monitor.metamodel.IDivideMetaModel;
 import be.ugent.idlab.divide.util.JarResourceManager;
@@ -31,14 +33,20 @@ class GlobalMonitor implements IDivideGlobalMonitor {
     private final Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
 
     private final IDivideMetaModel divideMetaModel;
+    private final int measurementFramePort;
 
     GlobalMonitor(IDivideEngine divideEngine,
-                  List<GlobalMonitorQuery> globalMonitorQueries) throws GlobalMonitorException {
+                  List<GlobalMonitorQuery> globalMonitorQueries,
+                  boolean binaryTransport) throws GlobalMonitorException {
         LOGGER.info("Creating DIVIDE Global Monitor with the following global monitor queries:");
         for (GlobalMonitorQuery globalMonitorQuery : globalMonitorQueries) {
             LOGGER.info("Global Monitor query: {}", globalMonitorQuery);
         }
 
+        // set port of measurement frame server if binary transport is enabled
+        this.measurementFramePort = binaryTransport ?
+                DivideGlobalMonitorConstants.MEASUREMENT_FRAME_SERVER_PORT : -1;
+
         // initialize thread handling
         this.threadMap = new HashMap<>();
         this.uncaughtExceptionHandler = new GlobalMonitorUncaughtExceptionHandler();
@@ -73,6 +81,16 @@ class GlobalMonitor implements IDivideGlobalMonitor {
                 GlobalMonitorReasoningServiceFactory.createGlobalMonitorReasoningService(
                         reasoningServer, reasoningService, divideEngine, globalMonitorQueries);
         createServiceThread(globalMonitorService, "global-monitor-reasoning-service", 0);
+
+        // if enabled, the measurement frame server receives the aggregated measurements
+        // of the Local Monitors as binary frames over persistent connections, decodes
+        // them and feeds them to the stream of the reasoning service
+        if (measurementFramePort > 0) {
+            final IGlobalMonitorService measurementFrameServer =
+                    MeasurementFrameServerFactory.createMeasurementFrameServer(
+                            measurementFramePort);
+            createServiceThread(measurementFrameServer, "measurement-frame-server", 0);
+        }
     }
 
     private void createServiceThread(IGlobalMonitorService service, String serviceName, int id) {
@@ -96,6 +114,11 @@ class GlobalMonitor implements IDivideGlobalMonitor {
         return divideMetaModel;
     }
 
+    @Override
+    public int getMeasurementFramePort() {
+        return measurementFramePort;
+    }
+
     private class GlobalMonitorUncaughtExceptionHandler implements Thread.UncaughtExceptionHandler {
 
         @Override
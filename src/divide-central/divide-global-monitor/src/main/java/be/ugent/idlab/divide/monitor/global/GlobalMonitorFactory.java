@@ -11,8 +11,14 @@ public class GlobalMonitorFactory {
 
     public static void initialize(IDivideEngine divideEngine,
                                   List<GlobalMonitorQuery> globalMonitorQueries) throws GlobalMonitorException {
+        initialize(divideEngine, globalMonitorQueries, false);
+    }
+
+    public static void initialize(IDivideEngine divideEngine,
+                                  List<GlobalMonitorQuery> globalMonitorQueries,
+                                  boolean binaryTransport) throws GlobalMonitorException {
         if (instance == null) {
-            instance = new GlobalMonitor(divideEngine, globalMonitorQueries);
+            instance = new GlobalMonitor(divideEngine, globalMonitorQueries, binaryTransport);
         }
     }
 
@@ -0,0 +1,334 @@
+package be.ugent.idlab.divide.monitor.global.translator;
+
+import be.ugent.idlab.divide.core.engine.IDivideEngine;
+import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
+import be.ugent.idlab.divide.monitor.DivideGlobalMonitorConstants;
+import be.ugent.idlab.divide.util.Constants;
+import org.apache.jena.rdf.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Controller that decides which of the tasks translated from the results of the
+ * global monitor queries are actually passed on to the DIVIDE engine, and when.
+ *
+ * The global monitor queries are evaluated on every tumbling window of the Global
+ * Monitor reasoning service, so they can request the same adaptation over and over,
+ * or request opposite adaptations in consecutive windows when the monitored network
+ * load fluctuates. Since every query location update is an expensive migration of
+ * queries between RSP engines, the controller applies the following policies:
+ * <ul>
+ *     <li>hysteresis: a query location update for a (component, DIVIDE query) pair is
+ *     only executed when the same location is requested in a number of consecutive
+ *     windows; a request for the opposite location restarts the count</li>
+ *     <li>cooldown: after a query location update has been executed for a (component,
+ *     DIVIDE query) pair, no new location update is executed for this pair during
+ *     a fixed period</li>
+ *     <li>rate budget: all updates executed on the DIVIDE engine consume a token of
+ *     a global token bucket, so that bursts of updates are spread out in time</li>
+ *     <li>merging: a window parameter update for a (component, DIVIDE query) pair that
+ *     is still waiting to be executed is replaced by any newer window parameter update
+ *     for the same pair, so only the latest window parameters are ever applied</li>
+ * </ul>
+ *
+ * Requests are never handled on the calling thread: accepted updates are handed over
+ * via a bounded queue to a dedicated daemon thread, which is the only thread that
+ * waits for the rate budget and that calls the DIVIDE engine.
+ */
+class AdaptationController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptationController.class.getName());
+
+    // number of consecutive windows in which the same query location should be requested
+    // before the query location update is executed
+    private static final int LOCATION_UPDATE_REQUIRED_CONSECUTIVE_REQUESTS = 2;
+
+    // maximum time between two requests to still consider them as consecutive
+    // (a bit more than one window, to allow for some delay in the evaluation of
+    // the global monitor queries)
+    private static final long LOCATION_UPDATE_CONSECUTIVE_REQUEST_TIMEOUT_IN_MILLISECONDS =
+            (long) (1.5 * DivideGlobalMonitorConstants.RS_TUMBLING_WINDOW_SIZE_SECONDS * 1000);
+
+    // period after a query location update during which no new query location
+    // update is executed for the same (component, DIVIDE query) pair
+    private static final long LOCATION_UPDATE_COOLDOWN_IN_MILLISECONDS = 120 * 1000;
+
+    // global rate budget: at most RATE_BUDGET_CAPACITY updates can be executed in
+    // a burst, after which one new update is allowed every RATE_BUDGET_REFILL_PERIOD
+    private static final int RATE_BUDGET_CAPACITY = 5;
+    private static final long RATE_BUDGET_REFILL_PERIOD_IN_MILLISECONDS = 12 * 1000;
+
+    // maximum number of accepted updates that can wait to be executed: if this queue
+    // is full, new updates are dropped instead of blocking the calling thread
+    private static final int ENGINE_TASK_QUEUE_CAPACITY = 1000;
+
+    private final Map<String, AdaptationState> adaptationStateMap;
+
+    private final BlockingQueue<EngineTask> engineTaskQueue;
+
+    private double availableTokens;
+    private long lastTokenRefillTime;
+
+    AdaptationController() {
+        this.adaptationStateMap = new HashMap<>();
+
+        this.availableTokens = RATE_BUDGET_CAPACITY;
+        this.lastTokenRefillTime = System.currentTimeMillis();
+
+        // accepted updates are executed on the DIVIDE engine by a dedicated daemon
+        // thread, so that the engine work is decoupled from the reasoning service
+        // from which the requests originate
+        this.engineTaskQueue = new ArrayBlockingQueue<>(ENGINE_TASK_QUEUE_CAPACITY);
+        Thread engineTaskThread = new Thread(this::handleEngineTasks, "divide-adaptation-controller");
+        engineTaskThread.setDaemon(true);
+        engineTaskThread.start();
+    }
+
+    /**
+     * Requests to move the queries derived from the given DIVIDE query on the given
+     * component to the central or local RSP engine. The update is only executed if
+     * it passes the hysteresis, cooldown and rate budget policies of this controller.
+     * This method never blocks.
+     *
+     * @param divideEngine DIVIDE engine that should execute the update
+     * @param componentId ID of the component
+     * @param queryName name of the DIVIDE query
+     * @param moveToCentral true if the queries should be moved to the central RSP engine,
+     *                      false if they should be moved to the local RSP engine
+     */
+    void requestQueryLocationUpdate(IDivideEngine divideEngine,
+                                    String componentId,
+                                    String queryName,
+                                    boolean moveToCentral) {
+        String location = moveToCentral ? "central" : "local";
+        long now = System.currentTimeMillis();
+
+        synchronized (adaptationStateMap) {
+            AdaptationState state = adaptationStateMap.computeIfAbsent(
+                    getKey(componentId, queryName), key -> new AdaptationState());
+
+            // update hysteresis count: only consecutive requests for the same location count
+            if (state.requestedCentral != null && state.requestedCentral == moveToCentral &&
+                    now - state.lastRequestTime <=
+                            LOCATION_UPDATE_CONSECUTIVE_REQUEST_TIMEOUT_IN_MILLISECONDS) {
+                state.consecutiveRequests++;
+            } else {
+                state.requestedCentral = moveToCentral;
+                state.consecutiveRequests = 1;
+            }
+            state.lastRequestTime = now;
+
+            if (state.consecutiveRequests < LOCATION_UPDATE_REQUIRED_CONSECUTIVE_REQUESTS) {
+                LOGGER.info("Location update to {} for component with ID '{}' and DIVIDE query " +
+                                "with name '{}' requested {} consecutive time(s) -> waiting for " +
+                                "confirmation before executing it", location, componentId,
+                        queryName, state.consecutiveRequests);
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_LOCATION_UPDATE_HELD\t{}\t{}\t{}\t{}",
+                        queryName, componentId, location, "hysteresis");
+                return;
+            }
+
+            if (state.lastLocationUpdateTime > 0 && now - state.lastLocationUpdateTime <
+                    LOCATION_UPDATE_COOLDOWN_IN_MILLISECONDS) {
+                LOGGER.info("Location update to {} for component with ID '{}' and DIVIDE query " +
+                                "with name '{}' is confirmed, but the previous location update " +
+                                "was only {} ms ago -> not executing it during cooldown",
+                        location, componentId, queryName, now - state.lastLocationUpdateTime);
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_LOCATION_UPDATE_HELD\t{}\t{}\t{}\t{}",
+                        queryName, componentId, location, "cooldown");
+                return;
+            }
+
+            EngineTask engineTask = new EngineTask(componentId, queryName, "location update",
+                    () -> divideEngine.updateQueryLocation(componentId, queryName, moveToCentral));
+            if (enqueueEngineTask(engineTask)) {
+                // the cooldown starts from the moment the update is accepted, and
+                // the next location update needs a new series of confirmations
+                state.lastLocationUpdateTime = now;
+                state.requestedCentral = null;
+                state.consecutiveRequests = 0;
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_LOCATION_UPDATE_ACCEPTED\t{}\t{}\t{}",
+                        queryName, componentId, location);
+            }
+        }
+    }
+
+    /**
+     * Requests to update the window parameters of the queries derived from the given
+     * DIVIDE query on the given component. If an earlier window parameter update for
+     * the same component and DIVIDE query is still waiting to be executed, it is
+     * replaced by this update. This method never blocks.
+     *
+     * @param divideEngine DIVIDE engine that should execute the update
+     * @param componentId ID of the component
+     * @param queryName name of the DIVIDE query
+     * @param windowParameters model of the window parameters that should be used for the update
+     */
+    void requestWindowParameterUpdate(IDivideEngine divideEngine,
+                                      String componentId,
+                                      String queryName,
+                                      Model windowParameters) {
+        synchronized (adaptationStateMap) {
+            AdaptationState state = adaptationStateMap.computeIfAbsent(
+                    getKey(componentId, queryName), key -> new AdaptationState());
+
+            if (state.pendingWindowParameters != null) {
+                // a window parameter update is already waiting in the queue:
+                // it will execute with the latest window parameters
+                state.pendingWindowParameters = windowParameters;
+                LOGGER.info("Window parameter update for component with ID '{}' and DIVIDE " +
+                        "query with name '{}' merged into the update that is still waiting " +
+                        "to be executed", componentId, queryName);
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_WINDOW_PARAMETER_UPDATE_MERGED\t{}\t{}\t{}",
+                        queryName, componentId, windowParameters.hashCode());
+                return;
+            }
+
+            state.pendingWindowParameters = windowParameters;
+            EngineTask engineTask = new EngineTask(componentId, queryName, "window parameter update",
+                    () -> {
+                        // take the latest window parameters at execution time
+                        Model latestWindowParameters;
+                        synchronized (adaptationStateMap) {
+                            latestWindowParameters = state.pendingWindowParameters;
+                            state.pendingWindowParameters = null;
+                        }
+                        divideEngine.updateWindowParameters(
+                                componentId, queryName, latestWindowParameters);
+                    });
+            if (enqueueEngineTask(engineTask)) {
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_WINDOW_PARAMETER_UPDATE_ACCEPTED\t{}\t{}\t{}",
+                        queryName, componentId, windowParameters.hashCode());
+            } else {
+                state.pendingWindowParameters = null;
+            }
+        }
+    }
+
+    private boolean enqueueEngineTask(EngineTask engineTask) {
+        // never block the calling thread: if the DIVIDE engine cannot keep up with
+        // the accepted updates, the new update is dropped
+        // (global monitor queries are executed periodically, so an update for which
+        // the condition still holds will be requested again in a next window)
+        if (!engineTaskQueue.offer(engineTask)) {
+            LOGGER.warn("Queue of accepted updates for the DIVIDE engine is full " +
+                    "-> dropping {} for component with ID '{}' and DIVIDE query " +
+                    "with name '{}'", engineTask.description,
+                    engineTask.componentId, engineTask.queryName);
+            LOGGER.info(Constants.METRIC_MARKER,
+                    "ADAPTATION_TASK_DROPPED\t{}\t{}\t{}",
+                    engineTask.queryName, engineTask.componentId, engineTask.description);
+            return false;
+        }
+        return true;
+    }
+
+    private void handleEngineTasks() {
+        while (true) {
+            EngineTask engineTask;
+            try {
+                engineTask = engineTaskQueue.take();
+
+                // wait until the global rate budget allows a new update
+                acquireRateBudgetToken();
+
+            } catch (InterruptedException e) {
+                LOGGER.warn("Handling of accepted DIVIDE engine updates is interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                LOGGER.info(Constants.METRIC_MARKER,
+                        "ADAPTATION_TASK_EXECUTED\t{}\t{}\t{}",
+                        engineTask.queryName, engineTask.componentId, engineTask.description);
+                engineTask.action.execute();
+            } catch (DivideNotInitializedException e) {
+                LOGGER.error("Could not execute DIVIDE {}", engineTask.description, e);
+            } catch (Exception e) {
+                // the handler thread should never stop because of a single update
+                LOGGER.error("Unexpected error while executing DIVIDE {} for component " +
+                                "with ID '{}' and DIVIDE query with name '{}'",
+                        engineTask.description, engineTask.componentId,
+                        engineTask.queryName, e);
+            }
+        }
+    }
+
+    private void acquireRateBudgetToken() throws InterruptedException {
+        // only called by the engine task thread, so no synchronization is needed
+        while (true) {
+            long now = System.currentTimeMillis();
+            availableTokens = Math.min(RATE_BUDGET_CAPACITY, availableTokens +
+                    (double) (now - lastTokenRefillTime) / RATE_BUDGET_REFILL_PERIOD_IN_MILLISECONDS);
+            lastTokenRefillTime = now;
+
+            if (availableTokens >= 1) {
+                availableTokens--;
+                return;
+            }
+
+            long waitTime = (long) Math.ceil(
+                    (1 - availableTokens) * RATE_BUDGET_REFILL_PERIOD_IN_MILLISECONDS);
+            LOGGER.info("Rate budget of DIVIDE engine updates is exhausted -> " +
+                    "waiting {} ms before executing the next update", waitTime);
+            Thread.sleep(waitTime);
+        }
+    }
+
+    private static String getKey(String componentId, String queryName) {
+        return componentId + "\t" + queryName;
+    }
+
+    private static class AdaptationState {
+
+        // query location that is currently being requested & number of
+        // consecutive requests for it
+        private Boolean requestedCentral;
+        private int consecutiveRequests;
+        private long lastRequestTime;
+
+        // time at which the last query location update was accepted
+        private long lastLocationUpdateTime;
+
+        // latest window parameters of the window parameter update that is waiting
+        // to be executed, or null if no such update is waiting
+        private Model pendingWindowParameters;
+
+    }
+
+    @FunctionalInterface
+    private interface EngineAction {
+        void execute() throws DivideNotInitializedException;
+    }
+
+    private static class EngineTask {
+
+        private final String componentId;
+        private final String queryName;
+        private final String description;
+        private final EngineAction action;
+
+        EngineTask(String componentId,
+                   String queryName,
+                   String description,
+                   EngineAction action) {
+            this.componentId = componentId;
+            this.queryName = queryName;
+            this.description = description;
+            this.action = action;
+        }
+
+    }
+
+}
@@ -2,23 +2,34 @@ package be.ugent.idlab.divide.monitor.global.translator;
 
 import be.ugent.idlab.divide.core.engine.DivideEngineFactory;
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
-import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
 import be.ugent.idlab.divide.rsp.RspLocation;
 import be.ugent.idlab.divide.util.Constants;
-import be.ugent.idlab.util.io.IOUtilities;
 import be.ugent.idlab.util.rdf.RDFLanguage;
 import be.ugent.idlab.util.rdf.jena3.owlapi4.JenaUtilities;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.ResIterator;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.impl.PropertyImpl;
+import org.apache.jena.rdf.model.impl.ResourceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DivideTranslator {
 
@@ -26,7 +37,7 @@ public class DivideTranslator {
 
     private static DivideTranslator instance;
 
-    public static DivideTranslator getInstance() {
+    public static synchronized DivideTranslator getInstance() {
         if (instance == null) {
             instance = new DivideTranslator();
         }
@@ -37,17 +48,13 @@ public class DivideTranslator {
     private static final String META_MODEL_PREFIX =
             "https://divide.idlab.ugent.be/meta-model/divide-core/";
 
-    // general properties
-    private static final Property RDF_TYPE_PROPERTY =
-            new PropertyImpl("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
-    private static final Property QUERY_NAME_PROPERTY =
-            new PropertyImpl(META_MODEL_PREFIX + "isTaskForDivideQueryName");
-    private static final Property COMPONENT_ID_PROPERTY =
-            new PropertyImpl(META_MODEL_PREFIX + "isTaskForComponentId");
+    // task classes
+    private static final String QUERY_LOCATION_UPDATE_TASK_CLASS =
+            META_MODEL_PREFIX + "DivideQueryLocationUpdateTask";
+    private static final String WINDOW_PARAMETER_UPDATE_TASK_CLASS =
+            META_MODEL_PREFIX + "DivideWindowParameterUpdateTask";
 
     // properties specific to the DIVIDE query location update
-    private static final Property UPDATED_LOCATION_PROPERTY =
-            new PropertyImpl(META_MODEL_PREFIX + "hasUpdatedQueryLocation");
     private static final Map<String, RspLocation> RSP_LOCATION_MAP = new HashMap<>();
     static {
         RSP_LOCATION_MAP.put("https://divide.idlab.ugent.be/meta-model/divide-core/CentralLocation",
@@ -63,39 +70,73 @@ public class DivideTranslator {
             new PropertyImpl("http://idlab.ugent.be/sensdesc/window#value");
     private static final Property WINDOW_PARAMETER_TYPE_PROPERTY =
             new PropertyImpl("http://idlab.ugent.be/sensdesc/window#type");
-    private static final Property WINDOW_PARAMETER_TIME_DESCRIPTION =
-            new PropertyImpl("http://www.w3.org/2006/time#seconds");
-    private static final String WINDOW_PARAMETER_LIST_DESCRIPTION_TEMPLATE =
-            "@prefix sd: <http://idlab.ugent.be/sensdesc#> .\n" +
-                    "@prefix sd-query: <http://idlab.ugent.be/sensdesc/query#> .\n" +
-                    "sd-query:pattern sd:correctedWindowParameters ( %s ) .";
-    private static final String WINDOW_PARAMETER_DESCRIPTION_TEMPLATE =
-            String.format(" [ <%s> \"%s\" ; <%s> %s ; <%s> <%s> ] ",
-                    WINDOW_PARAMETER_VARIABLE_PROPERTY, "%s",
-                    WINDOW_PARAMETER_VALUE_PROPERTY, "%s",
-                    WINDOW_PARAMETER_TYPE_PROPERTY, WINDOW_PARAMETER_TIME_DESCRIPTION);
-    private static final Map<String, String> WINDOW_PARAMETER_UPDATE_VARIABLE_MAP = new HashMap<>();
+    private static final Resource WINDOW_PARAMETER_TIME_DESCRIPTION =
+            new ResourceImpl("http://www.w3.org/2006/time#seconds");
+    private static final Resource WINDOW_PARAMETER_PATTERN =
+            new ResourceImpl("http://idlab.ugent.be/sensdesc/query#pattern");
+    private static final Property CORRECTED_WINDOW_PARAMETERS_PROPERTY =
+            new PropertyImpl("http://idlab.ugent.be/sensdesc#correctedWindowParameters");
+    // (variables of the task query below -> names of the corresponding window variables)
+    private static final Map<String, String> WINDOW_PARAMETER_UPDATE_VARIABLE_MAP = new LinkedHashMap<>();
     static {
-        WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.put(
-                META_MODEL_PREFIX + "hasUpdatedWindowSizeInSeconds", "range");
-        WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.put(
-                META_MODEL_PREFIX + "hasUpdatedQuerySlidingStepInSeconds", "slide");
+        WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.put("windowSize", "range");
+        WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.put("slidingStep", "slide");
     }
 
+    // precompiled query that extracts all parameters of all tasks described in an
+    // RDF message in a single pass over the parsed model, instead of looking up the
+    // type and every single property of every resource separately
+    // -> all parameters are optional, so that tasks with missing parameters are
+    //    still found and can be reported instead of silently being ignored
+    private static final Query TASK_QUERY = QueryFactory.create(String.format(
+            "PREFIX divide-core: <%s>\n" +
+                    "SELECT ?task ?taskType ?componentId ?queryName ?locationType " +
+                    "?windowSize ?slidingStep\n" +
+                    "WHERE {\n" +
+                    "  VALUES ?taskType { <%s> <%s> }\n" +
+                    "  ?task a ?taskType .\n" +
+                    "  OPTIONAL { ?task divide-core:isTaskForComponentId ?componentId . }\n" +
+                    "  OPTIONAL { ?task divide-core:isTaskForDivideQueryName ?queryName . }\n" +
+                    "  OPTIONAL { ?task divide-core:hasUpdatedQueryLocation ?location .\n" +
+                    "             OPTIONAL { ?location a ?locationType . } }\n" +
+                    "  OPTIONAL { ?task divide-core:hasUpdatedWindowSizeInSeconds ?windowSize . }\n" +
+                    "  OPTIONAL { ?task divide-core:hasUpdatedQuerySlidingStepInSeconds " +
+                    "?slidingStep . }\n" +
+                    "}",
+            META_MODEL_PREFIX,
+            QUERY_LOCATION_UPDATE_TASK_CLASS,
+            WINDOW_PARAMETER_UPDATE_TASK_CLASS));
+
     private final Map<String, Task> rdfClassToTaskMap;
 
+    private final AdaptationController adaptationController;
+
     private DivideTranslator() {
         this.rdfClassToTaskMap = new HashMap<>();
         this.rdfClassToTaskMap.put(
-                META_MODEL_PREFIX + "DivideQueryLocationUpdateTask",
+                QUERY_LOCATION_UPDATE_TASK_CLASS,
                 Task.QUERY_LOCATION_UPDATE);
         this.rdfClassToTaskMap.put(
-                META_MODEL_PREFIX + "DivideWindowParameterUpdateTask",
+                WINDOW_PARAMETER_UPDATE_TASK_CLASS,
                 Task.WINDOW_PARAMETER_UPDATE);
+
+        // translated tasks are not passed on to the DIVIDE engine directly, but
+        // via an adaptation controller that prevents the engine from flapping
+        // between query locations and from being flooded with updates
+        this.adaptationController = new AdaptationController();
     }
 
-    public synchronized void translateMessageToDivideAction(IDivideEngine divideEngine,
-                                                            String taskInRdf) {
+    /**
+     * Translates the given RDF message, which is the result of a global monitor
+     * query, to tasks for the given DIVIDE engine, and requests these tasks at
+     * the adaptation controller. This method never waits for the DIVIDE engine
+     * to handle the tasks.
+     *
+     * @param divideEngine DIVIDE engine that should execute the translated tasks
+     * @param taskInRdf RDF/Turtle description of the tasks
+     */
+    public void translateMessageToDivideAction(IDivideEngine divideEngine,
+                                               String taskInRdf) {
         LOGGER.info("Translating the following RDF message to a task for " +
                 "the DIVIDE Engine: {}", taskInRdf);
         LOGGER.info(Constants.METRIC_MARKER,
@@ -110,41 +151,42 @@ public class DivideTranslator {
                 return;
             }
 
-            // find all resources that represent a task description
-            ResIterator iterator = model.listResourcesWithProperty(RDF_TYPE_PROPERTY);
-            while (iterator.hasNext()) {
-                // retrieve each resource (object) that has the "rdf:type" property,
-                // and retrieve the corresponding object of that statement (representing
-                // the task individual)
-                Resource resource = iterator.next();
-                Statement typeStatement = model.getProperty(resource, RDF_TYPE_PROPERTY);
-                String taskType = typeStatement.getObject().toString();
-
-                // check if the type corresponds to a DIVIDE engine task
-                if (this.rdfClassToTaskMap.containsKey(taskType)) {
+            // bind the parameters of all task descriptions in the RDF with the
+            // precompiled task query
+            // -> a task can result in multiple solutions if a parameter has multiple
+            //    values: only the first solution of every task is considered
+            Set<RDFNode> translatedTasks = new HashSet<>();
+            try (QueryExecution queryExecution = QueryExecutionFactory.create(TASK_QUERY, model)) {
+                ResultSet resultSet = queryExecution.execSelect();
+                while (resultSet.hasNext()) {
+                    QuerySolution solution = resultSet.next();
+                    if (!translatedTasks.add(solution.get("task"))) {
+                        continue;
+                    }
+
                     // retrieve task type
-                    Task task = this.rdfClassToTaskMap.get(taskType);
+                    Task task = this.rdfClassToTaskMap.get(
+                            solution.getResource("taskType").getURI());
                     LOGGER.info("Task description of type {} found in RDF", task);
 
                     // retrieve general parameters: component ID & DIVIDE query name
-                    Statement componentIdStatement = model.getProperty(
-                            typeStatement.getSubject(), COMPONENT_ID_PROPERTY);
-                    Statement queryNameStatement = model.getProperty(
-                            typeStatement.getSubject(), QUERY_NAME_PROPERTY);
-                    if (componentIdStatement == null || queryNameStatement == null) {
+                    RDFNode componentIdNode = solution.get("componentId");
+                    RDFNode queryNameNode = solution.get("queryName");
+                    if (componentIdNode == null || !componentIdNode.isLiteral() ||
+                            queryNameNode == null || !queryNameNode.isLiteral()) {
                         LOGGER.warn("No component ID and/or query name present in RDF " +
                                 "-> task cannot be sent to DIVIDE engine");
-                        break;
+                        continue;
                     }
-                    String componentId = componentIdStatement.getObject().asLiteral().toString();
-                    String queryName = queryNameStatement.getObject().asLiteral().toString();
+                    String componentId = componentIdNode.asLiteral().getLexicalForm();
+                    String queryName = queryNameNode.asLiteral().getLexicalForm();
 
                     if (task == Task.QUERY_LOCATION_UPDATE) {
-                        handleLocationUpdate(model, typeStatement,
+                        handleLocationUpdate(solution,
                                 divideEngine, componentId, queryName, taskInRdf);
 
                     } else if (task == Task.WINDOW_PARAMETER_UPDATE) {
-                        handleWindowParameterUpdate(model, typeStatement,
+                        handleWindowParameterUpdate(solution,
                                 divideEngine, componentId, queryName, taskInRdf);
                     }
                 }
@@ -156,25 +198,21 @@ public class DivideTranslator {
         }
     }
 
-    private void handleLocationUpdate(Model model,
-                                      Statement typeStatement,
+    private void handleLocationUpdate(QuerySolution solution,
                                       IDivideEngine divideEngine,
                                       String componentId,
                                       String queryName,
                                       String taskInRdf) {
         // retrieve new location (central or local)
-        Statement updatedLocationStatement = model.getProperty(
-                typeStatement.getSubject(), UPDATED_LOCATION_PROPERTY);
-        if (updatedLocationStatement == null) {
+        RDFNode locationTypeNode = solution.get("locationType");
+        if (locationTypeNode == null || !locationTypeNode.isURIResource()) {
             LOGGER.warn("No updated location present in RDF " +
                     "-> task cannot be sent to DIVIDE engine");
             return;
         }
         boolean moveToCentral;
 
-        Statement queryLocationTypeStatement = model.getProperty(
-                updatedLocationStatement.getObject().asResource(), RDF_TYPE_PROPERTY);
-        String locationType = queryLocationTypeStatement.getObject().toString();
+        String locationType = locationTypeNode.asResource().getURI();
         RspLocation updatedLocation = RSP_LOCATION_MAP.get(locationType);
         if (updatedLocation == RspLocation.LOCAL) {
             moveToCentral = false;
@@ -182,92 +220,79 @@ public class DivideTranslator {
             moveToCentral = true;
         } else {
             LOGGER.warn("Invalid updated location {} present in RDF " +
-                    "-> task cannot be sent to DIVIDE engine", updatedLocation);
+                    "-> task cannot be sent to DIVIDE engine", locationType);
             return;
         }
 
-        // enqueue query location update
-        try {
-            LOGGER.info("Translated RDF description to a location update task " +
-                            "for component with ID '{}', DIVIDE query with name '{}', moving to {}",
-                    componentId, queryName, updatedLocation);
-            LOGGER.info(Constants.METRIC_MARKER,
-                    "TRANSLATOR_TASK_END\t{}\t{}\t{}\t{}\t{}",
-                    taskInRdf.hashCode(), queryName, componentId,
-                    "location_update", moveToCentral ? "central" : "local");
-            divideEngine.updateQueryLocation(componentId, queryName, moveToCentral);
-        } catch (DivideNotInitializedException e) {
-            LOGGER.error("Could not execute DIVIDE query location update", e);
-        }
+        // request query location update
+        LOGGER.info("Translated RDF description to a location update task " +
+                        "for component with ID '{}', DIVIDE query with name '{}', moving to {}",
+                componentId, queryName, updatedLocation);
+        LOGGER.info(Constants.METRIC_MARKER,
+                "TRANSLATOR_TASK_END\t{}\t{}\t{}\t{}\t{}",
+                taskInRdf.hashCode(), queryName, componentId,
+                "location_update", moveToCentral ? "central" : "local");
+        adaptationController.requestQueryLocationUpdate(
+                divideEngine, componentId, queryName, moveToCentral);
     }
 
-    private void handleWindowParameterUpdate(Model model,
-                                             Statement typeStatement,
+    private void handleWindowParameterUpdate(QuerySolution solution,
                                              IDivideEngine divideEngine,
                                              String componentId,
                                              String queryName,
                                              String taskInRdf) {
-        // retrieve window parameter description and convert to new Jena model
-        StringBuilder updatedWindowParameterList = new StringBuilder();
-        // check all available prefixes that represent a new window parameter
-        for (String property : WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.keySet()) {
-            // retrieve updated window parameter blank node from RDF
-            Statement updatedWindowParameterStatement = model.getProperty(
-                    typeStatement.getSubject(), new PropertyImpl(property));
-            if (updatedWindowParameterStatement != null) {
-                // extract number of seconds from statement object
-                int seconds = updatedWindowParameterStatement.getObject().asLiteral().getInt();
-
-                // create an RDF/Turtle description of the blank node representing
-                // this updated window parameter
-                updatedWindowParameterList.append(String.format(
-                        WINDOW_PARAMETER_DESCRIPTION_TEMPLATE,
-                        WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.get(property),
-                        seconds));
+        // retrieve all updated window parameters (variable name -> number of seconds)
+        Map<String, Integer> updatedWindowParameters = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : WINDOW_PARAMETER_UPDATE_VARIABLE_MAP.entrySet()) {
+            RDFNode updatedWindowParameterNode = solution.get(entry.getKey());
+            if (updatedWindowParameterNode != null && updatedWindowParameterNode.isLiteral()) {
+                try {
+                    updatedWindowParameters.put(entry.getValue(),
+                            updatedWindowParameterNode.asLiteral().getInt());
+                } catch (Exception e) {
+                    LOGGER.warn("Updated window parameter '{}' in RDF is no integer " +
+                            "-> it is ignored", entry.getValue());
+                }
             }
         }
 
         // check if there are actual new window parameters defined
-        if (updatedWindowParameterList.toString().trim().isEmpty()) {
+        if (updatedWindowParameters.isEmpty()) {
             LOGGER.warn("No updated window parameters described in RDF of window parameter" +
                     " update task -> makes no sense to send task to DIVIDE engine");
             return;
         }
 
-        // create an RDF/Turtle string of the full "corrected window parameters"
-        // representation required by the DIVIDE engine, and parse it as Jena model
-        String updatedWindowParameterDescription = String.format(
-                WINDOW_PARAMETER_LIST_DESCRIPTION_TEMPLATE, updatedWindowParameterList);
-        Model updatedWindowParameters = JenaUtilities.parseString(
-                updatedWindowParameterDescription, RDFLanguage.TURTLE);
-        if (updatedWindowParameters == null) {
-            LOGGER.warn("Updated window parameter description '{}' in RDF/Turtle cannot be " +
-                    "converted to a Jena model due to an RDF syntax error " +
-                    "-> task cannot be sent to DIVIDE engine",
-                    IOUtilities.removeWhiteSpace(updatedWindowParameterDescription));
-            return;
-        }
-
-        // enqueue window parameter update
-        try {
-            LOGGER.info("Translated RDF description to a window parameter update task " +
-                            "for component with ID '{}', DIVIDE query with name '{}', " +
-                            "and window parameter description: {}",
-                    componentId, queryName,
-                    IOUtilities.removeWhiteSpace(updatedWindowParameterDescription));
-            LOGGER.info(Constants.METRIC_MARKER,
-                    "TRANSLATOR_TASK_END\t{}\t{}\t{}\t{}\t{}",
-                    taskInRdf.hashCode(), queryName, componentId,
-                    "window_parameter_update", updatedWindowParameters.hashCode());
-            divideEngine.updateWindowParameters(
-                    componentId, queryName, updatedWindowParameters);
-        } catch (DivideNotInitializedException e) {
-            LOGGER.error("Could not execute DIVIDE query location update", e);
+        // directly create the Jena model of the full "corrected window parameters"
+        // representation required by the DIVIDE engine, i.e., an RDF list of blank
+        // nodes that each represent an updated window parameter
+        Model updatedWindowParameterModel = ModelFactory.createDefaultModel();
+        List<RDFNode> windowParameterNodes = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : updatedWindowParameters.entrySet()) {
+            windowParameterNodes.add(updatedWindowParameterModel.createResource()
+                    .addProperty(WINDOW_PARAMETER_VARIABLE_PROPERTY, entry.getKey())
+                    .addLiteral(WINDOW_PARAMETER_VALUE_PROPERTY,
+                            updatedWindowParameterModel.createTypedLiteral(
+                                    String.valueOf(entry.getValue()), XSDDatatype.XSDinteger))
+                    .addProperty(WINDOW_PARAMETER_TYPE_PROPERTY, WINDOW_PARAMETER_TIME_DESCRIPTION));
         }
+        updatedWindowParameterModel.add(WINDOW_PARAMETER_PATTERN,
+                CORRECTED_WINDOW_PARAMETERS_PROPERTY,
+                updatedWindowParameterModel.createList(windowParameterNodes.iterator()));
+
+        // request window parameter update
+        LOGGER.info("Translated RDF description to a window parameter update task " +
+                        "for component with ID '{}', DIVIDE query with name '{}', " +
+                        "and window parameters (in seconds): {}",
+                componentId, queryName, updatedWindowParameters);
+        LOGGER.info(Constants.METRIC_MARKER,
+                "TRANSLATOR_TASK_END\t{}\t{}\t{}\t{}\t{}",
+                taskInRdf.hashCode(), queryName, componentId,
+                "window_parameter_update", updatedWindowParameterModel.hashCode());
+        adaptationController.requestWindowParameterUpdate(
+                divideEngine, componentId, queryName, updatedWindowParameterModel);
     }
 
-
-
     @SuppressWarnings("unused")
     public static void main(String[] args) {
         String prefixes =
@@ -0,0 +1,189 @@
+package be.ugent.idlab.divide.monitor.global.transport;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoder of the binary measurement frames sent by a single Local Monitor connection.
+ *
+ * Every frame contains the aggregated measurements of one aggregation step in columnar
+ * form, with all IRIs dictionary-encoded: an IRI is only included in the first frame in
+ * which it occurs, and afterwards referred to by its index in the dictionary. Since the
+ * dictionary of a Local Monitor is reset on every new connection, a new decoder should
+ * be created for every connection.
+ *
+ * The decoded measurements are written as N-Triples that are identical to the RDF
+ * created by the semantic mapper of the Local Monitor, so that the Global Monitor
+ * queries do not need to know which transport was used.
+ *
+ * This class is not thread-safe.
+ */
+class MeasurementFrameDecoder {
+
+    static final int MAGIC = 0x44564D46; // "DVMF"
+    static final byte VERSION = 1;
+
+    private static final byte FLAG_INTEGER_VALUES = 0x01;
+
+    /**
+     * Minimum number of bytes of a dictionary entry (the length prefix of an
+     * empty modified UTF-8 string), and number of bytes of a measurement row
+     * (three dictionary indexes, the flags and the aggregated values)
+     */
+    private static final int MIN_DICTIONARY_ENTRY_SIZE = 2;
+    private static final int MEASUREMENT_ROW_SIZE = 3 * 4 + 1 + 4 * 8;
+
+    /**
+     * Maximum initial capacity of the N-Triples builder, so that the memory
+     * reserved upfront for a large frame remains bounded (the builder still
+     * grows if needed)
+     */
+    private static final int MAX_INITIAL_BUILDER_CAPACITY = 1024 * 1024;
+
+    private static final String[] AGGREGATE_FUNCTIONS =
+            new String[]{"minimum", "maximum", "average", "median"};
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter
+            .ISO_OFFSET_DATE_TIME
+            .withZone(ZoneId.of("Europe/Brussels"));
+
+    private static final String RDF_TYPE = "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type>";
+    private static final String SAREF = "https://saref.etsi.org/core/";
+    private static final String OM = "http://www.ontology-of-units-of-measure.org/resource/om-2/";
+    private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+
+    private static final String MEASUREMENT_TYPE =
+            " " + RDF_TYPE + " <" + SAREF + "Measurement> .\n";
+    private static final String HAS_VALUE = " <" + SAREF + "hasValue> \"";
+    private static final String HAS_AGGREGATE_FUNCTION = " <" + OM + "hasAggregateFunction> <" + OM;
+    private static final String IS_MEASURED_IN = " <" + SAREF + "isMeasuredIn> <";
+    private static final String RELATES_TO_PROPERTY = " <" + SAREF + "relatesToProperty> ";
+    private static final String IS_MEASUREMENT_OF = " <" + SAREF + "isMeasurementOf> <";
+    private static final String HAS_TIMESTAMP = " <" + SAREF + "hasTimestamp> \"";
+    private static final String HAS_TIMESTAMP_UTC =
+            " <https://dahcc.idlab.ugent.be/Ontology/Sensors/hasTimestampUTC> \"";
+
+    private static final String FLOAT_DATATYPE = "\"^^<" + XSD + "float> .\n";
+    private static final String INTEGER_DATATYPE = "\"^^<" + XSD + "integer> .\n";
+    private static final String DECIMAL_DATATYPE = "\"^^<" + XSD + "decimal> .\n";
+    private static final String DATE_TIME_DATATYPE = "\"^^<" + XSD + "dateTime> .\n";
+
+    private final List<String> dictionary;
+    private long frameCounter;
+
+    MeasurementFrameDecoder() {
+        this.dictionary = new ArrayList<>();
+        this.frameCounter = 0;
+    }
+
+    /**
+     * Decodes the given frame payload into N-Triples.
+     *
+     * @param in stream over the frame payload only, positioned at its start (the
+     *           number of bytes available on this stream should therefore be the
+     *           number of bytes remaining in the payload, as is the case for a
+     *           stream over a byte array)
+     * @return N-Triples of all aggregated measurements in the frame
+     * @throws IOException if the frame cannot be read or is invalid
+     */
+    String decode(DataInputStream in) throws IOException {
+        long time = in.readLong();
+
+        // the counts are read from the wire, so they are validated against the
+        // remaining payload before anything is allocated for them: a corrupt or
+        // malicious frame can otherwise cause huge allocations
+        int newEntries = in.readInt();
+        if (newEntries < 0 || newEntries > in.available() / MIN_DICTIONARY_ENTRY_SIZE) {
+            throw new IOException("Invalid number of dictionary entries: " + newEntries);
+        }
+        for (int i = 0; i < newEntries; i++) {
+            dictionary.add(in.readUTF());
+        }
+
+        int rows = in.readInt();
+        if (rows < 0 || rows > in.available() / MEASUREMENT_ROW_SIZE) {
+            throw new IOException("Invalid number of measurements: " + rows);
+        }
+        int[] properties = readIndexColumn(in, rows);
+        int[] units = readIndexColumn(in, rows);
+        int[] featuresOfInterest = readIndexColumn(in, rows);
+        byte[] flags = new byte[rows];
+        in.readFully(flags);
+        double[][] values = new double[AGGREGATE_FUNCTIONS.length][];
+        for (int f = 0; f < AGGREGATE_FUNCTIONS.length; f++) {
+            values[f] = new double[rows];
+            for (int i = 0; i < rows; i++) {
+                values[f][i] = in.readDouble();
+            }
+        }
+
+        String timestamp = TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(time));
+        String frameId = Long.toString(frameCounter++);
+        StringBuilder builder = new StringBuilder((int) Math.min(
+                MAX_INITIAL_BUILDER_CAPACITY, (long) rows * AGGREGATE_FUNCTIONS.length * 900));
+        for (int i = 0; i < rows; i++) {
+            boolean integer = (flags[i] & FLAG_INTEGER_VALUES) != 0;
+            for (int f = 0; f < AGGREGATE_FUNCTIONS.length; f++) {
+                String measurement = "_:m" + frameId + "r" + i + "f" + f;
+                String property = "_:p" + frameId + "r" + i + "f" + f;
+
+                // lexical forms are identical to those of the Local Monitor's semantic
+                // mapper: minimum and maximum have the value type of the unit, average
+                // and median of integer values are decimals
+                String value;
+                String datatype;
+                if (!integer) {
+                    value = Float.toString((float) values[f][i]);
+                    datatype = FLOAT_DATATYPE;
+                } else if (f < 2) {
+                    value = Long.toString((long) values[f][i]);
+                    datatype = INTEGER_DATATYPE;
+                } else {
+                    value = BigDecimal.valueOf(values[f][i]).toPlainString();
+                    datatype = DECIMAL_DATATYPE;
+                }
+
+                builder.append(measurement).append(MEASUREMENT_TYPE);
+                builder.append(measurement).append(HAS_VALUE)
+                        .append(value).append(datatype);
+                builder.append(measurement).append(HAS_AGGREGATE_FUNCTION)
+                        .append(AGGREGATE_FUNCTIONS[f]).append("> .\n");
+                builder.append(measurement).append(IS_MEASURED_IN)
+                        .append(lookup(units[i])).append("> .\n");
+                builder.append(measurement).append(RELATES_TO_PROPERTY)
+                        .append(property).append(" .\n");
+                builder.append(property).append(' ').append(RDF_TYPE).append(" <")
+                        .append(lookup(properties[i])).append("> .\n");
+                builder.append(measurement).append(IS_MEASUREMENT_OF)
+                        .append(lookup(featuresOfInterest[i])).append("> .\n");
+                builder.append(measurement).append(HAS_TIMESTAMP)
+                        .append(timestamp).append(DATE_TIME_DATATYPE);
+                builder.append(measurement).append(HAS_TIMESTAMP_UTC)
+                        .append(time).append(INTEGER_DATATYPE);
+            }
+        }
+        return builder.toString();
+    }
+
+    private int[] readIndexColumn(DataInputStream in, int rows) throws IOException {
+        int[] column = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            column[i] = in.readInt();
+        }
+        return column;
+    }
+
+    private String lookup(int index) throws IOException {
+        if (index < 0 || index >= dictionary.size()) {
+            throw new IOException("Unknown dictionary index: " + index);
+        }
+        return dictionary.get(index);
+    }
+
+}
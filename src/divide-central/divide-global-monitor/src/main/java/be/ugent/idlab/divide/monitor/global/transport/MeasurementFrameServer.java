@@ -0,0 +1,179 @@
+package be.ugent.idlab.divide.monitor.global.transport;
+
+import be.ugent.idlab.divide.monitor.global.GlobalMonitorException;
+import be.ugent.idlab.divide.monitor.global.IGlobalMonitorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Server of the Global Monitor that accepts persistent TCP connections of Local
+ * Monitors, over which they send their aggregated measurements as binary frames.
+ *
+ * Every connection starts with a header identifying the Local Monitor, followed by
+ * a sequence of frames that are each preceded by their length in bytes. Each
+ * connection is handled by a dedicated daemon thread with its own
+ * {@link MeasurementFrameDecoder}, since the IRI dictionary is scoped to a connection.
+ * Decoded frames are fed to the stream of the Global Monitor Reasoning Service.
+ */
+class MeasurementFrameServer implements IGlobalMonitorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementFrameServer.class.getName());
+
+    /**
+     * Upper bound on the size of a single frame, to protect the server against
+     * invalid length prefixes (a frame of a few thousand measurements is far below)
+     */
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final int port;
+    private final ReasoningServiceStreamClient streamClient;
+
+    private final Set<Socket> connections;
+    private ServerSocket serverSocket;
+
+    MeasurementFrameServer(int port, ReasoningServiceStreamClient streamClient) {
+        this.port = port;
+        this.streamClient = streamClient;
+        this.connections = Collections.synchronizedSet(new HashSet<>());
+    }
+
+    @Override
+    public void start() throws GlobalMonitorException {
+        try {
+            LOGGER.info("Starting measurement frame server on port {}", port);
+            ServerSocket socket = new ServerSocket(port);
+            synchronized (this) {
+                this.serverSocket = socket;
+            }
+
+            // accept connections until the server socket is closed
+            while (!socket.isClosed()) {
+                Socket connection;
+                try {
+                    connection = socket.accept();
+                } catch (SocketException e) {
+                    if (socket.isClosed()) {
+                        LOGGER.info("Measurement frame server on port {} stopped", port);
+                        return;
+                    }
+                    throw e;
+                }
+                Thread thread = new Thread(() -> handleConnection(connection),
+                        "measurement-frame-connection-" + connection.getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+        } catch (IOException e) {
+            throw new GlobalMonitorException("Error when running measurement frame server", e);
+        }
+    }
+
+    @Override
+    public void reset() {
+        // close server socket and all open connections, so that the Local Monitors
+        // reconnect (and reset their dictionary) once the server is restarted
+        synchronized (this) {
+            try {
+                if (serverSocket != null) {
+                    serverSocket.close();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Measurement frame server socket could not be closed", e);
+            }
+        }
+        synchronized (connections) {
+            for (Socket connection : connections) {
+                closeQuietly(connection);
+            }
+            connections.clear();
+        }
+    }
+
+    private void handleConnection(Socket connection) {
+        connections.add(connection);
+        String localMonitor = connection.getRemoteSocketAddress().toString();
+        try {
+            connection.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(connection.getInputStream()));
+
+            // read & validate connection header
+            int magic = in.readInt();
+            byte version = in.readByte();
+            if (magic != MeasurementFrameDecoder.MAGIC ||
+                    version != MeasurementFrameDecoder.VERSION) {
+                LOGGER.warn("Closing connection of {}: not a valid measurement frame " +
+                        "connection (magic {}, version {})", localMonitor, magic, version);
+                return;
+            }
+            String componentId = in.readUTF();
+            String deviceId = in.readUTF();
+            localMonitor = String.format("Local Monitor of component %s (device %s)",
+                    componentId, deviceId);
+            LOGGER.info("Accepted measurement frame connection of {}", localMonitor);
+
+            // read frames until the connection is closed
+            MeasurementFrameDecoder decoder = new MeasurementFrameDecoder();
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    LOGGER.info("Measurement frame connection of {} closed", localMonitor);
+                    return;
+                }
+                if (length <= 0 || length > MAX_FRAME_SIZE) {
+                    LOGGER.warn("Closing connection of {}: invalid frame length {}",
+                            localMonitor, length);
+                    return;
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+
+                // a frame that cannot be decoded invalidates the dictionary, so the
+                // connection is closed to force the Local Monitor to reconnect
+                String nTriples = decoder.decode(
+                        new DataInputStream(new ByteArrayInputStream(frame)));
+
+                try {
+                    streamClient.feed(nTriples);
+                } catch (IOException e) {
+                    // failing to feed a single frame does not affect the dictionary,
+                    // so the connection can remain open
+                    LOGGER.error("Decoded measurement frame of {} could not be fed to the " +
+                            "Global Monitor Reasoning Service", localMonitor, e);
+                }
+            }
+
+        } catch (IOException e) {
+            LOGGER.warn("Measurement frame connection of {} failed: {}",
+                    localMonitor, e.getMessage());
+
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package be.ugent.idlab.divide.monitor.global.transport;
+
+import be.ugent.idlab.divide.monitor.DivideGlobalMonitorConstants;
+import be.ugent.idlab.divide.monitor.global.IGlobalMonitorService;
+
+public class MeasurementFrameServerFactory {
+
+    /**
+     * Creates a server that accepts binary measurement frames of the Local Monitors
+     * on the given port, and forwards the decoded measurements to the stream endpoint
+     * of the Global Monitor Reasoning Service running on this host.
+     *
+     * @param port port on which the measurement frame server should listen
+     * @return a new measurement frame server, which starts listening when started
+     *         as a service of the Global Monitor
+     */
+    public static IGlobalMonitorService createMeasurementFrameServer(int port) {
+        String streamUrl = String.format("http://localhost:%d%s/stream",
+                DivideGlobalMonitorConstants.RS_SERVER_PORT,
+                DivideGlobalMonitorConstants.RS_SERVER_URI);
+        return new MeasurementFrameServer(port, new ReasoningServiceStreamClient(streamUrl));
+    }
+
+}
@@ -0,0 +1,75 @@
+package be.ugent.idlab.divide.monitor.global.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Client that feeds N-Triples to the stream endpoint of the Global Monitor Reasoning
+ * Service, in the same way as the HTTP observers of the Local Monitor RSP engines do.
+ * This ensures that decoded measurement frames end up in the tumbling window of the
+ * streaming reasoning service, and are deleted after being processed by the Global
+ * Monitor queries, exactly like measurements received as RDF over HTTP.
+ *
+ * Since the endpoint runs on the same host, the requests are sent over the loopback
+ * interface. The response body is always fully consumed, so that the underlying
+ * connection is kept alive and reused for subsequent requests.
+ */
+class ReasoningServiceStreamClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReasoningServiceStreamClient.class.getName());
+
+    private final URL streamUrl;
+
+    ReasoningServiceStreamClient(String streamUrl) {
+        try {
+            this.streamUrl = new URL(streamUrl);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid stream URL " + streamUrl, e);
+        }
+    }
+
+    /**
+     * Posts the given N-Triples to the stream endpoint of the reasoning service.
+     *
+     * @param nTriples triples in N-Triples format
+     * @throws IOException if the triples could not be posted successfully
+     */
+    void feed(String nTriples) throws IOException {
+        byte[] body = nTriples.getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection connection = (HttpURLConnection) streamUrl.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", "application/n-triples");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+
+        int responseCode = connection.getResponseCode();
+        InputStream in = responseCode < 400 ?
+                connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            byte[] buffer = new byte[1024];
+            //noinspection StatementWithEmptyBody
+            while (in.read(buffer) != -1) {
+                // consume response so that the connection can be reused
+            }
+            in.close();
+        }
+
+        if (responseCode >= 400) {
+            throw new IOException(String.format(
+                    "Stream endpoint %s responded with status code %d", streamUrl, responseCode));
+        }
+        LOGGER.debug("Fed {} bytes of decoded measurements to {}", body.length, streamUrl);
+    }
+
+}
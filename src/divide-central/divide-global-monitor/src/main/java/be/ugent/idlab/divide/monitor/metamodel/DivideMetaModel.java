@@ -9,11 +9,28 @@ import be.ugent.idlab.divide.rsp.RspLocation;
 import be.ugent.idlab.divide.rsp.query.IRspQuery;
 import be.ugent.idlab.reasoningservice.common.ReasoningServer;
 import be.ugent.idlab.reasoningservice.common.event.Event;
-import be.ugent.idlab.util.rdf.RDFLanguage;
-import be.ugent.idlab.util.rdf.jena3.owlapi4.JenaUtilities;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DIVIDE Meta Model, stored in the data store of the Global Monitor Reasoning Service.
+ *
+ * All changes to the meta model are collected as typed deltas of triples (see
+ * {@link IDivideMetaModelUpdate}), and are applied asynchronously by a single updater
+ * thread, so that the threads performing the actual DIVIDE operations (e.g., updating
+ * the query registrations on an RSP engine) are never blocked by the reasoning service.
+ * If multiple deltas are submitted while the updater thread is busy, they are merged
+ * and applied at once. Every applied delta results in at most one delete event and one
+ * insert event for the reasoning server.
+ */
 public class DivideMetaModel implements IDivideMetaModel {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DivideMetaModel.class.getName());
@@ -21,11 +38,27 @@ public class DivideMetaModel implements IDivideMetaModel {
     private final DivideMetaModelMapper mapper;
     private final ReasoningServer reasoningServer;
 
+    private final ExecutorService updateExecutor;
+    private final Object pendingDeltaLock;
+    private DivideMetaModelDelta pendingDelta;
+    private boolean updateScheduled;
+
     private static int QUERY_COUNTER = 0;
 
     public DivideMetaModel(ReasoningServer reasoningServer) throws GlobalMonitorException {
         this.mapper = new DivideMetaModelMapper();
         this.reasoningServer = reasoningServer;
+
+        // the updater thread is a daemon thread, so that it never prevents the JVM
+        // from shutting down
+        this.updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "divide-meta-model-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingDeltaLock = new Object();
+        this.pendingDelta = new DivideMetaModelDelta();
+        this.updateScheduled = false;
     }
 
     @Override
@@ -33,110 +66,123 @@ public class DivideMetaModel implements IDivideMetaModel {
         LOGGER.info("Registering DIVIDE engine to meta model");
 
         // add DIVIDE engine triples to meta model
-        String triples = this.mapper.getDivideEngineTriples(divideEngine);
-        updateTriplesInMetaModel(triples, true);
+        DivideMetaModelDelta delta = new DivideMetaModelDelta();
+        delta.insert(this.mapper.getDivideEngineTriples(divideEngine));
+        submit(delta);
     }
 
     @Override
     public void addDivideQuery(IDivideQuery divideQuery) {
-        LOGGER.info("Adding DIVIDE query {} to meta model", divideQuery.getName());
-
-        // add DIVIDE query triples to meta model
-        String triples = this.mapper.getDivideQueryTriples(divideQuery);
-        updateTriplesInMetaModel(triples, true);
+        IDivideMetaModelUpdate update = createUpdate();
+        update.addDivideQuery(divideQuery);
+        update.commit();
     }
 
     @Override
     public void removeDivideQuery(IDivideQuery divideQuery) {
-        LOGGER.info("Removing DIVIDE query {} from meta model", divideQuery.getName());
-
-        // remove DIVIDE query triples from meta model
-        String triples = this.mapper.getDivideQueryTriples(divideQuery);
-        updateTriplesInMetaModel(triples, false);
-
-        // note: RSP queries for that DIVIDE query are removed by unregistering them
-        //       from all component's RSP engines (so dedicated calls will happen for that)
-        // note: DIVIDE query deployment triples are not removed
+        IDivideMetaModelUpdate update = createUpdate();
+        update.removeDivideQuery(divideQuery);
+        update.commit();
     }
 
     @Override
     public void updateDivideQueryDeployment(IDivideQuery divideQuery,
                                             IComponent component,
                                             RspLocation rspLocation) {
-        LOGGER.info("Updating deployment of DIVIDE query {} on component {} in meta model to {}",
-                divideQuery.getName(), component.getId(), rspLocation.toString());
-
-        // remove DIVIDE query deployment triples of other RSP location
-        removeDivideQueryDeployment(
-                divideQuery, component,
-                rspLocation == RspLocation.CENTRAL ? RspLocation.LOCAL : RspLocation.CENTRAL);
-
-        // add DIVIDE query deployment triples to meta model
-        String addedTriples = this.mapper.getDivideQueryDeploymentTriples(
-                divideQuery, component, rspLocation);
-        updateTriplesInMetaModel(addedTriples, true);
-    }
-
-    private void removeDivideQueryDeployment(IDivideQuery divideQuery,
-                                             IComponent component,
-                                             RspLocation rspLocation) {
-        String removedTriples = this.mapper.getDivideQueryDeploymentTriples(
-                divideQuery, component, rspLocation);
-        updateTriplesInMetaModel(removedTriples, false);
+        IDivideMetaModelUpdate update = createUpdate();
+        update.updateDivideQueryDeployment(divideQuery, component, rspLocation);
+        update.commit();
     }
 
     @Override
     public void addComponent(IComponent component) {
-        LOGGER.info("Adding DIVIDE component {} to meta model", component.getId());
-
-        // add DIVIDE component triples to meta model
-        String triples = this.mapper.getDivideComponentTriples(component);
-        updateTriplesInMetaModel(triples, true);
+        IDivideMetaModelUpdate update = createUpdate();
+        update.addComponent(component);
+        update.commit();
     }
 
     @Override
     public void removeComponent(IComponent component) {
-        LOGGER.info("Removing DIVIDE component {} from meta model", component.getId());
-
-        // remove DIVIDE component triples from meta model
-        String triples = this.mapper.getDivideComponentTriples(component);
-        updateTriplesInMetaModel(triples, false);
-
-        // note: RSP queries for that component are removed by unregistering them
-        //       from the component's RSP engine (so dedicated calls will happen for that)
-        // note: DIVIDE query deployment triples are not removed
+        IDivideMetaModelUpdate update = createUpdate();
+        update.removeComponent(component);
+        update.commit();
     }
 
     @Override
     public void addRegisteredQuery(IRspQuery rspQuery) {
-        LOGGER.info("Adding RSP query {} (registered to RSP engine {}, associated to component {})" +
-                        " to meta model", rspQuery.getQueryName(), rspQuery.getRspEngine().getId(),
-                rspQuery.getAssociatedComponent().getId());
-
-        // add RSP query triples to meta model
-        String triples = this.mapper.getRspQueryTriples(rspQuery);
-        updateTriplesInMetaModel(triples, true);
+        IDivideMetaModelUpdate update = createUpdate();
+        update.addRegisteredQuery(rspQuery);
+        update.commit();
     }
 
     @Override
     public void removeRegisteredQuery(IRspQuery rspQuery) {
-        LOGGER.info("Removing RSP query {} (registered to RSP engine {}, associated to component {})" +
-                        " from meta model", rspQuery.getQueryName(), rspQuery.getRspEngine().getId(),
-                rspQuery.getAssociatedComponent().getId());
+        IDivideMetaModelUpdate update = createUpdate();
+        update.removeRegisteredQuery(rspQuery);
+        update.commit();
+    }
 
-        // remove RSP query triples from meta model
-        String triples = this.mapper.getRspQueryTriples(rspQuery);
-        updateTriplesInMetaModel(triples, false);
+    @Override
+    public IDivideMetaModelUpdate createUpdate() {
+        return new DivideMetaModelUpdate(this, this.mapper);
+    }
+
+    /**
+     * Schedules the given delta to be applied to the meta model. Deltas are applied
+     * in the order in which they are submitted.
+     *
+     * @param delta delta to be applied (should not be modified anymore afterwards)
+     */
+    void submit(DivideMetaModelDelta delta) {
+        synchronized (pendingDeltaLock) {
+            pendingDelta.merge(delta);
+            if (!updateScheduled) {
+                updateScheduled = true;
+                updateExecutor.execute(this::applyPendingDeltas);
+            }
+        }
+    }
+
+    private void applyPendingDeltas() {
+        while (true) {
+            // take all deltas that have been submitted since the previous iteration
+            DivideMetaModelDelta delta;
+            synchronized (pendingDeltaLock) {
+                if (pendingDelta.isEmpty()) {
+                    updateScheduled = false;
+                    return;
+                }
+                delta = pendingDelta;
+                pendingDelta = new DivideMetaModelDelta();
+            }
+
+            try {
+                // a delta never inserts and deletes the same triple, so the order
+                // of the delete and insert event does not matter
+                updateTriplesInMetaModel(delta.getDeletedTriples(), false);
+                updateTriplesInMetaModel(delta.getInsertedTriples(), true);
+
+            } catch (Exception e) {
+                // an exception should never stop the updater thread, since this
+                // would stop all future meta model updates from being applied
+                LOGGER.error("Error when applying update to DIVIDE meta model", e);
+            }
+        }
     }
 
     /**
      * @param triples triples to be inserted or removed from the meta model
      * @param insert true if triples should be inserted, false if they should be deleted
      */
-    synchronized void updateTriplesInMetaModel(String triples, boolean insert) {
-        // translate triples to N-Triple format
-        String triplesInNTriples = JenaUtilities.serializeModel(
-                JenaUtilities.parseString(triples), RDFLanguage.N_TRIPLE);
+    private void updateTriplesInMetaModel(List<Triple> triples, boolean insert) {
+        if (triples.isEmpty()) {
+            return;
+        }
+
+        // write triples directly in N-Triple format
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(triples.size() * 160);
+        RDFDataMgr.writeTriples(outputStream, triples.iterator());
+        String triplesInNTriples = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
 
         // create insert or delete event for reasoning service
         Event event;
@@ -151,18 +197,23 @@ public class DivideMetaModel implements IDivideMetaModel {
         event.setId(queryID);
 
         // add insert or delete event to event handler of reasoning server
+        LOGGER.debug("Applying {} with {} triples to meta model", queryID, triples.size());
         this.reasoningServer.getEventHandler().handleEvent(event);
     }
 
     @SuppressWarnings("unused")
-    synchronized void executeUpdateQueryOnMetaModel(String query) {
-        // create single run query for reasoning service
-        String queryID = "query-" + QUERY_COUNTER++;
-        Event queryEvent = new Event(Event.Type.SINGLE_RUN_QUERY, query);
-        queryEvent.setId(queryID);
-
-        // add single run query to event handler of reasoning server
-        this.reasoningServer.getEventHandler().handleEvent(queryEvent);
+    void executeUpdateQueryOnMetaModel(String query) {
+        // single run queries are executed by the updater thread as well, so that
+        // they are ordered with respect to all submitted deltas
+        updateExecutor.execute(() -> {
+            // create single run query for reasoning service
+            String queryID = "query-" + QUERY_COUNTER++;
+            Event queryEvent = new Event(Event.Type.SINGLE_RUN_QUERY, query);
+            queryEvent.setId(queryID);
+
+            // add single run query to event handler of reasoning server
+            this.reasoningServer.getEventHandler().handleEvent(queryEvent);
+        });
     }
 
 }
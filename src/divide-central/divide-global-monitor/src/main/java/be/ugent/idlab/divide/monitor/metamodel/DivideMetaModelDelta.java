@@ -0,0 +1,75 @@
+package be.ugent.idlab.divide.monitor.metamodel;
+
+import org.apache.jena.graph.Triple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of triples to be inserted into and deleted from the DIVIDE Meta Model.
+ *
+ * For every triple, only the last change is kept: a triple that is first deleted and
+ * then inserted again (e.g., the triples of a DIVIDE query or stream that are shared
+ * by a retired and a new RSP query) is only inserted, and vice versa. Hence, no triple
+ * is ever both inserted and deleted by the same delta, so the order in which the
+ * deletions and insertions of a delta are applied does not matter.
+ *
+ * This class is not thread-safe.
+ */
+class DivideMetaModelDelta {
+
+    /**
+     * Map of every changed triple to true if it should be inserted,
+     * or false if it should be deleted
+     */
+    private final Map<Triple, Boolean> changes;
+
+    DivideMetaModelDelta() {
+        this.changes = new LinkedHashMap<>();
+    }
+
+    void insert(Collection<Triple> triples) {
+        for (Triple triple : triples) {
+            changes.put(triple, true);
+        }
+    }
+
+    void delete(Collection<Triple> triples) {
+        for (Triple triple : triples) {
+            changes.put(triple, false);
+        }
+    }
+
+    /**
+     * Applies all changes of the given delta after the changes of this delta.
+     */
+    void merge(DivideMetaModelDelta other) {
+        changes.putAll(other.changes);
+    }
+
+    boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    List<Triple> getInsertedTriples() {
+        return getTriples(true);
+    }
+
+    List<Triple> getDeletedTriples() {
+        return getTriples(false);
+    }
+
+    private List<Triple> getTriples(boolean inserted) {
+        List<Triple> triples = new ArrayList<>();
+        for (Map.Entry<Triple, Boolean> change : changes.entrySet()) {
+            if (change.getValue() == inserted) {
+                triples.add(change.getKey());
+            }
+        }
+        return triples;
+    }
+
+}
@@ -4,309 +4,278 @@ import be.ugent.idlab.divide.core.component.IComponent;
 import be.ugent.idlab.divide.core.engine.IDivideEngine;
 import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
 import be.ugent.idlab.divide.core.query.IDivideQuery;
-import be.ugent.idlab.divide.monitor.global.GlobalMonitorException;
 import be.ugent.idlab.divide.rsp.RspLocation;
 import be.ugent.idlab.divide.rsp.engine.IRspEngine;
 import be.ugent.idlab.divide.rsp.query.IRspQuery;
 import be.ugent.idlab.divide.rsp.query.window.IStreamWindow;
-import be.ugent.idlab.divide.util.JarResourceManager;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.RDF;
 
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
+/**
+ * Mapper of the DIVIDE entities to the triples that describe them in the DIVIDE
+ * Meta Model. The triples are directly constructed as Jena {@link Triple} objects,
+ * so that they can be added to or removed from the meta model without any
+ * intermediate serialization and parsing.
+ */
 class DivideMetaModelMapper {
 
+    private static final String DIVIDE_CORE = "https://divide.idlab.ugent.be/meta-model/divide-core/";
+    private static final String SAREF_CORE = "https://saref.etsi.org/core/";
+    private static final String ENTITY = "https://divide.idlab.ugent.be/meta-model/entity/";
+
     private static final Map<RspLocation, String> rspLocationMap = new HashMap<>();
     static {
         rspLocationMap.put(RspLocation.LOCAL, "LocalLocation");
         rspLocationMap.put(RspLocation.CENTRAL, "CentralLocation");
     }
 
-    // used prefixes
-    private final String prefixes;
-
-    // triple pattern templates
-    private final String divideEngineTemplate;
-    private final String divideComponentTemplate;
-    private final String divideComponentCentralRspEngineTemplate;
-    private final String divideQueryTemplate;
-    private final String divideQueryDeploymentTemplate;
-    private final String rspQueryTemplate;
-    private final String rspQuerySlidingStepTemplate;
-    private final String rspQueryWindowSizeTemplate;
-    private final String streamWindowTemplate;
-    private final String streamWindowSizeWithFromToTemplate;
-    private final String streamWindowSizeWithRangeTemplate;
-
-    // URI templates
-    private final String deviceUriTemplate;
-    private final String divideComponentUriTemplate;
-    private final String divideEngineUriTemplate;
-    private final String divideQueryUriTemplate;
-    private final String divideQueryDeploymentUriTemplate;
-    private final String divideQueryDeploymentLocationUriTemplate;
-    private final String rdfStreamUriTemplate;
-    private final String rspEngineUriTemplate;
-    private final String rspQueryUriTemplate;
-    private final String streamWindowUriTemplate;
-
-    DivideMetaModelMapper() throws GlobalMonitorException {
-        String templateDirectory = Paths.get("meta-model", "mapper-templates").toString();
-        String triplePatternTemplateDirectory = "triple-patterns";
-        String uriTemplateDirectory = "uris";
+    // classes
+    private static final Node DEVICE = NodeFactory.createURI(SAREF_CORE + "Device");
+    private static final Node DIVIDE_COMPONENT = divideCore("DivideComponent");
+    private static final Node DIVIDE_ENGINE = divideCore("DivideEngine");
+    private static final Node DIVIDE_QUERY = divideCore("DivideQuery");
+    private static final Node QUERY_DEPLOYMENT = divideCore("QueryDeployment");
+    private static final Node RDF_STREAM = divideCore("RdfStream");
+    private static final Node RSP_ENGINE = divideCore("RspEngine");
+    private static final Node RSP_QUERY = divideCore("RspQuery");
+    private static final Node STREAM_WINDOW = divideCore("StreamWindow");
+
+    // properties
+    private static final Node HAS_ASSOCIATED_COMPONENT = divideCore("hasAssociatedComponent");
+    private static final Node HAS_CENTRAL_RSP_ENGINE = divideCore("hasCentralRspEngine");
+    private static final Node HAS_CORRESPONDING_DIVIDE_QUERY = divideCore("hasCorrespondingDivideQuery");
+    private static final Node HAS_ID = divideCore("hasID");
+    private static final Node HAS_INPUT_STREAM = divideCore("hasInputStream");
+    private static final Node HAS_INPUT_STREAM_WINDOW = divideCore("hasInputStreamWindow");
+    private static final Node HAS_IP_ADDRESS = divideCore("hasIPAddress");
+    private static final Node HAS_LOCAL_RSP_ENGINE = divideCore("hasLocalRspEngine");
+    private static final Node HAS_NAME = divideCore("hasName");
+    private static final Node HAS_QUERY_DEPLOYMENT = divideCore("hasQueryDeployment");
+    private static final Node HAS_QUERY_LOCATION = divideCore("hasQueryLocation");
+    private static final Node HAS_QUERY_SLIDING_STEP_IN_SECONDS = divideCore("hasQuerySlidingStepInSeconds");
+    private static final Node HAS_SERVER_PORT = divideCore("hasServerPort");
+    private static final Node HAS_STREAM_NAME = divideCore("hasStreamName");
+    private static final Node HAS_WINDOW_DEFINITION = divideCore("hasWindowDefinition");
+    private static final Node HAS_WINDOW_END_IN_SECONDS_AGO = divideCore("hasWindowEndInSecondsAgo");
+    private static final Node HAS_WINDOW_SIZE_IN_SECONDS = divideCore("hasWindowSizeInSeconds");
+    private static final Node HAS_WINDOW_START_IN_SECONDS_AGO = divideCore("hasWindowStartInSecondsAgo");
+    private static final Node IS_ABOUT = NodeFactory.createURI(SAREF_CORE + "isAbout");
+    private static final Node IS_HOSTED_BY = divideCore("isHostedBy");
+    private static final Node IS_REGISTERED_TO = divideCore("isRegisteredTo");
+
+    List<Triple> getDivideEngineTriples(IDivideEngine divideEngine) {
+        List<Triple> triples = new ArrayList<>();
         try {
-            this.prefixes = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, "prefixes.ttl").toString());
-
-            this.divideEngineTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "divide-engine.ttl").toString());
-            this.divideComponentTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "divide-component.ttl").toString());
-            this.divideComponentCentralRspEngineTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "divide-component-central-rsp-engine.ttl").toString());
-            this.divideQueryTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "divide-query.ttl").toString());
-            this.divideQueryDeploymentTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "divide-query-deployment.ttl").toString());
-            this.rspQueryTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "rsp-query.ttl").toString());
-            this.rspQuerySlidingStepTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "rsp-query-sliding-step.ttl").toString());
-            this.rspQueryWindowSizeTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "rsp-query-window-size.ttl").toString());
-            this.streamWindowTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "stream-window.ttl").toString());
-            this.streamWindowSizeWithFromToTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "stream-window-size-from-to.ttl").toString());
-            this.streamWindowSizeWithRangeTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, triplePatternTemplateDirectory,
-                            "stream-window-size-range.ttl").toString());
-
-            this.deviceUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "device").toString());
-            this.divideComponentUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "divide-component").toString());
-            this.divideEngineUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "divide-engine").toString());
-            this.divideQueryUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "divide-query").toString());
-            this.divideQueryDeploymentUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "divide-query-deployment").toString());
-            this.divideQueryDeploymentLocationUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "divide-query-deployment-location").toString());
-            this.rdfStreamUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "rdf-stream").toString());
-            this.rspEngineUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "rsp-engine").toString());
-            this.rspQueryUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "rsp-query").toString());
-            this.streamWindowUriTemplate = JarResourceManager.getInstance().readResourceFile(
-                    Paths.get(templateDirectory, uriTemplateDirectory, "stream-window").toString());
-
-        } catch (IOException e) {
-            throw new GlobalMonitorException("Could not initialize templates of DIVIDE Meta Model mapper");
-        }
-    }
-
-    String getDivideEngineTriples(IDivideEngine divideEngine) {
-        String triples = "";
-        try {
-            triples = String.format(this.divideEngineTemplate,
-                    getDivideEngineUri(divideEngine),
-                    divideEngine.getId(),
-                    getDeviceUri(divideEngine),
-                    getDeviceUri(divideEngine),
-                    divideEngine.getDeviceNetworkIp());
+            Node engine = getDivideEngineUri(divideEngine);
+            Node device = getDeviceUri(divideEngine.getDeviceNetworkIp());
+            triples.add(Triple.create(engine, RDF.Nodes.type, DIVIDE_ENGINE));
+            triples.add(Triple.create(engine, HAS_ID, literal(divideEngine.getId())));
+            triples.add(Triple.create(engine, IS_HOSTED_BY, device));
+            addDeviceTriples(triples, device, divideEngine.getDeviceNetworkIp());
         } catch (DivideNotInitializedException e) {
             // will not happen
         }
-
-        return String.format("%s\n%s", this.prefixes, triples);
+        return triples;
     }
 
-    String getDivideComponentTriples(IComponent component) {
-        String triples = String.format(this.divideComponentTemplate,
-                getDivideComponentUri(component),
-                component.getId(),
-                getDeviceUri(component),
-                getRspEngineUri(component.getRspEngineHandler().getLocalRspEngine()),
-                getRspEngineUri(component.getRspEngineHandler().getLocalRspEngine()),
-                component.getRspEngineHandler().getLocalRspEngine().getServerPort(),
-                getDeviceUri(component),
-                component.getIpAddress());
+    List<Triple> getDivideComponentTriples(IComponent component) {
+        List<Triple> triples = new ArrayList<>();
+        Node divideComponent = getDivideComponentUri(component);
+        Node device = getDeviceUri(component.getIpAddress());
+        IRspEngine localRspEngine = component.getRspEngineHandler().getLocalRspEngine();
+        Node localRspEngineNode = getRspEngineUri(localRspEngine);
+
+        triples.add(Triple.create(divideComponent, RDF.Nodes.type, DIVIDE_COMPONENT));
+        triples.add(Triple.create(divideComponent, HAS_ID, literal(component.getId())));
+        triples.add(Triple.create(divideComponent, IS_HOSTED_BY, device));
+        triples.add(Triple.create(divideComponent, HAS_LOCAL_RSP_ENGINE, localRspEngineNode));
+
+        triples.add(Triple.create(localRspEngineNode, RDF.Nodes.type, RSP_ENGINE));
+        triples.add(Triple.create(localRspEngineNode, HAS_SERVER_PORT,
+                integer(localRspEngine.getServerPort())));
+
+        addDeviceTriples(triples, device, component.getIpAddress());
 
         // append with central RSP engine information if it is configured
         if (component.getRspEngineHandler().getCentralRspEngine() != null) {
-            triples += "\n" + String.format(divideComponentCentralRspEngineTemplate,
-                    getDivideComponentUri(component),
-                    getRspEngineUri(component.getRspEngineHandler().getCentralRspEngine()));
+            triples.add(Triple.create(divideComponent, HAS_CENTRAL_RSP_ENGINE,
+                    getRspEngineUri(component.getRspEngineHandler().getCentralRspEngine())));
         }
 
-        return String.format("%s\n%s", this.prefixes, triples);
+        return triples;
     }
 
-    String getDivideQueryTriples(IDivideQuery divideQuery) {
-        String triples = String.format(this.divideQueryTemplate,
-                getDivideQueryUri(divideQuery),
-                divideQuery.getName());
-
-        return String.format("%s\n%s", this.prefixes, triples);
+    List<Triple> getDivideQueryTriples(IDivideQuery divideQuery) {
+        List<Triple> triples = new ArrayList<>();
+        Node query = getDivideQueryUri(divideQuery);
+        triples.add(Triple.create(query, RDF.Nodes.type, DIVIDE_QUERY));
+        triples.add(Triple.create(query, HAS_NAME, literal(divideQuery.getName())));
+        return triples;
     }
 
-    String getDivideQueryDeploymentTriples(IDivideQuery divideQuery,
-                                           IComponent component,
-                                           RspLocation rspLocation) {
-        String triples = String.format(this.divideQueryDeploymentTemplate,
-                getDivideQueryUri(divideQuery),
-                getDivideQueryDeploymentUri(divideQuery, component),
-                getDivideQueryDeploymentUri(divideQuery, component),
-                getDivideComponentUri(component),
-                getDivideQueryDeploymentLocationUri(divideQuery, component, rspLocation),
-                getDivideQueryDeploymentLocationUri(divideQuery, component, rspLocation),
-                rspLocationMap.get(rspLocation));
-
-        return String.format("%s\n%s", this.prefixes, triples);
+    List<Triple> getDivideQueryDeploymentTriples(IDivideQuery divideQuery,
+                                                 IComponent component,
+                                                 RspLocation rspLocation) {
+        List<Triple> triples = new ArrayList<>();
+        Node query = getDivideQueryUri(divideQuery);
+        Node deployment = getDivideQueryDeploymentUri(divideQuery, component);
+        Node location = getDivideQueryDeploymentLocationUri(divideQuery, component, rspLocation);
+
+        triples.add(Triple.create(query, HAS_QUERY_DEPLOYMENT, deployment));
+        triples.add(Triple.create(deployment, RDF.Nodes.type, QUERY_DEPLOYMENT));
+        triples.add(Triple.create(deployment, IS_ABOUT, getDivideComponentUri(component)));
+        triples.add(Triple.create(deployment, HAS_QUERY_LOCATION, location));
+        triples.add(Triple.create(location, RDF.Nodes.type, divideCore(rspLocationMap.get(rspLocation))));
+        return triples;
     }
 
-    String getRspQueryTriples(IRspQuery rspQuery) {
+    List<Triple> getRspQueryTriples(IRspQuery rspQuery) {
+        List<Triple> triples = new ArrayList<>();
+        IRspEngine rspEngine = rspQuery.getRspEngine();
+        Node query = getRspQueryUri(rspEngine, rspQuery);
+
         // generate triples for RSP query
-        String queryTriples = String.format(this.rspQueryTemplate,
-                getRspQueryUri(rspQuery.getRspEngine(), rspQuery),
-                rspQuery.getId(),
-                rspQuery.getQueryName(),
-                rspQuery.getStreamWindows().stream()
-                        .map(s -> {
-                            try {
-                                return getStreamWindowUri(s, rspQuery, rspQuery.getRspEngine());
-                            } catch (UnsupportedEncodingException e) {
-                                // will not happen if streams are valid
-                                return null;
-                            }
-                        })
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.joining(", ")),
-                getRspEngineUri(rspQuery.getRspEngine()),
-                getDivideQueryUri(rspQuery.getOriginalDivideQuery()),
-                getDivideComponentUri(rspQuery.getAssociatedComponent()));
+        triples.add(Triple.create(query, RDF.Nodes.type, RSP_QUERY));
+        triples.add(Triple.create(query, HAS_ID, literal(rspQuery.getId())));
+        triples.add(Triple.create(query, HAS_NAME, literal(rspQuery.getQueryName())));
+        triples.add(Triple.create(query, IS_REGISTERED_TO, getRspEngineUri(rspEngine)));
+        triples.add(Triple.create(query, HAS_CORRESPONDING_DIVIDE_QUERY,
+                getDivideQueryUri(rspQuery.getOriginalDivideQuery())));
+        triples.add(Triple.create(query, HAS_ASSOCIATED_COMPONENT,
+                getDivideComponentUri(rspQuery.getAssociatedComponent())));
 
         // append with query sliding step & window size if available
         if (rspQuery.getQuerySlidingStepInSeconds() != -1) {
-            queryTriples += "\n" + String.format(rspQuerySlidingStepTemplate,
-                    getRspQueryUri(rspQuery.getRspEngine(), rspQuery),
-                    rspQuery.getQuerySlidingStepInSeconds());
+            triples.add(Triple.create(query, HAS_QUERY_SLIDING_STEP_IN_SECONDS,
+                    integer(rspQuery.getQuerySlidingStepInSeconds())));
         }
         if (rspQuery.getStreamWindowSizeInSeconds() != -1) {
-            queryTriples += "\n" + String.format(rspQueryWindowSizeTemplate,
-                    getRspQueryUri(rspQuery.getRspEngine(), rspQuery),
-                    rspQuery.getStreamWindowSizeInSeconds());
+            triples.add(Triple.create(query, HAS_WINDOW_SIZE_IN_SECONDS,
+                    integer(rspQuery.getStreamWindowSizeInSeconds())));
         }
 
         // generate additional triples for stream windows
-        String streamWindowTriples = "";
         for (IStreamWindow streamWindow : rspQuery.getStreamWindows()) {
             try {
-                streamWindowTriples = "\n" + String.format(streamWindowTemplate,
-                        getStreamWindowUri(streamWindow, rspQuery, rspQuery.getRspEngine()),
-                        getRdfStreamUri(rspQuery.getRspEngine(), streamWindow.getStreamIri()),
-                        streamWindow.getWindowDefinition(),
-                        streamWindow.getQuerySlidingStepInSeconds(),
-                        getRdfStreamUri(rspQuery.getRspEngine(), streamWindow.getStreamIri()),
-                        streamWindow.getStreamIri());
+                Node window = getStreamWindowUri(streamWindow, rspQuery, rspEngine);
+                Node stream = getRdfStreamUri(rspEngine, streamWindow.getStreamIri());
+
+                triples.add(Triple.create(query, HAS_INPUT_STREAM_WINDOW, window));
+                triples.add(Triple.create(window, RDF.Nodes.type, STREAM_WINDOW));
+                triples.add(Triple.create(window, HAS_INPUT_STREAM, stream));
+                triples.add(Triple.create(window, HAS_WINDOW_DEFINITION,
+                        literal(streamWindow.getWindowDefinition())));
+                triples.add(Triple.create(window, HAS_QUERY_SLIDING_STEP_IN_SECONDS,
+                        integer(streamWindow.getQuerySlidingStepInSeconds())));
+                triples.add(Triple.create(stream, RDF.Nodes.type, RDF_STREAM));
+                triples.add(Triple.create(stream, HAS_STREAM_NAME,
+                        literal(streamWindow.getStreamIri())));
 
                 if (streamWindow.getWindowSizeInSeconds() != -1) {
                     // stream window with a single window size
-                    streamWindowTriples += "\n" + String.format(streamWindowSizeWithRangeTemplate,
-                            getStreamWindowUri(streamWindow, rspQuery, rspQuery.getRspEngine()),
-                            streamWindow.getWindowSizeInSeconds());
+                    triples.add(Triple.create(window, HAS_WINDOW_SIZE_IN_SECONDS,
+                            integer(streamWindow.getWindowSizeInSeconds())));
                 } else {
                     // stream window with a FROM & TO specification
-                    streamWindowTriples += "\n" + String.format(streamWindowSizeWithFromToTemplate,
-                            getStreamWindowUri(streamWindow, rspQuery, rspQuery.getRspEngine()),
-                            streamWindow.getWindowStartInSecondsAgo(),
-                            streamWindow.getWindowEndInSecondsAgo());
+                    triples.add(Triple.create(window, HAS_WINDOW_START_IN_SECONDS_AGO,
+                            integer(streamWindow.getWindowStartInSecondsAgo())));
+                    triples.add(Triple.create(window, HAS_WINDOW_END_IN_SECONDS_AGO,
+                            integer(streamWindow.getWindowEndInSecondsAgo())));
                 }
             } catch (UnsupportedEncodingException e) {
                 // will not happen
             }
         }
 
-        return String.format("%s\n%s\n%s", this.prefixes, queryTriples, streamWindowTriples);
+        return triples;
     }
 
+    private void addDeviceTriples(List<Triple> triples, Node device, String ipAddress) {
+        triples.add(Triple.create(device, RDF.Nodes.type, DEVICE));
+        triples.add(Triple.create(device, HAS_IP_ADDRESS, literal(ipAddress)));
+    }
 
-    // construction of URIs
 
-    private String getDeviceUri(IDivideEngine divideEngine) throws DivideNotInitializedException {
-        return String.format(deviceUriTemplate, getUrlIdOfDevice(divideEngine));
+    // construction of nodes
+
+    private static Node divideCore(String localName) {
+        return NodeFactory.createURI(DIVIDE_CORE + localName);
+    }
+
+    private static Node literal(String value) {
+        return NodeFactory.createLiteral(value);
     }
 
-    private String getDeviceUri(IComponent component) {
-        return String.format(deviceUriTemplate, getUrlIdOfDevice(component));
+    private static Node integer(long value) {
+        return NodeFactory.createLiteral(String.valueOf(value), XSDDatatype.XSDinteger);
+    }
+
+
+    // construction of URIs
+
+    private Node getDeviceUri(String ipAddress) {
+        return NodeFactory.createURI(ENTITY + "device/" + ipAddress);
     }
 
-    private String getDivideComponentUri(IComponent component) {
-        return String.format(divideComponentUriTemplate, getUrlId(component));
+    private Node getDivideComponentUri(IComponent component) {
+        return NodeFactory.createURI(ENTITY + "component/" + getUrlId(component));
     }
 
-    private String getDivideEngineUri(IDivideEngine divideEngine) {
-        return String.format(divideEngineUriTemplate, getUrlId(divideEngine));
+    private Node getDivideEngineUri(IDivideEngine divideEngine) {
+        return NodeFactory.createURI(ENTITY + "engine/" + getUrlId(divideEngine));
     }
 
-    private String getDivideQueryUri(IDivideQuery divideQuery) {
-        return String.format(divideQueryUriTemplate, getUrlId(divideQuery));
+    private Node getDivideQueryUri(IDivideQuery divideQuery) {
+        return NodeFactory.createURI(ENTITY + "divide-query/" + getUrlId(divideQuery));
     }
 
-    private String getDivideQueryDeploymentUri(IDivideQuery divideQuery,
-                                               IComponent component) {
-        return String.format(divideQueryDeploymentUriTemplate,
-                getUrlId(divideQuery), getUrlId(component));
+    private Node getDivideQueryDeploymentUri(IDivideQuery divideQuery,
+                                             IComponent component) {
+        return NodeFactory.createURI(String.format("%sdivide-query/%s/deployment/%s",
+                ENTITY, getUrlId(divideQuery), getUrlId(component)));
     }
 
-    private String getDivideQueryDeploymentLocationUri(IDivideQuery divideQuery,
-                                                       IComponent component,
-                                                       RspLocation location) {
-        return String.format(divideQueryDeploymentLocationUriTemplate,
-                getUrlId(divideQuery), getUrlId(component),
-                rspLocationMap.get(location));
+    private Node getDivideQueryDeploymentLocationUri(IDivideQuery divideQuery,
+                                                     IComponent component,
+                                                     RspLocation location) {
+        return NodeFactory.createURI(String.format("%sdivide-query/%s/deployment/%s/location/%s",
+                ENTITY, getUrlId(divideQuery), getUrlId(component),
+                rspLocationMap.get(location)));
     }
 
-    private String getRdfStreamUri(IRspEngine rspEngine,
-                                   String streamName) throws UnsupportedEncodingException {
-        return String.format(rdfStreamUriTemplate, getUrlId(rspEngine),
-                URLEncoder.encode(streamName, StandardCharsets.UTF_8.toString()));
+    private Node getRdfStreamUri(IRspEngine rspEngine,
+                                 String streamName) throws UnsupportedEncodingException {
+        return NodeFactory.createURI(String.format("%srsp-engine/%s/rdf-stream/%s",
+                ENTITY, getUrlId(rspEngine),
+                URLEncoder.encode(streamName, StandardCharsets.UTF_8.toString())));
     }
 
-    private String getRspEngineUri(IRspEngine rspEngine) {
-        return String.format(rspEngineUriTemplate, getUrlId(rspEngine));
+    private Node getRspEngineUri(IRspEngine rspEngine) {
+        return NodeFactory.createURI(ENTITY + "rsp-engine/" + getUrlId(rspEngine));
     }
 
-    private String getRspQueryUri(IRspEngine rspEngine,
-                                  IRspQuery rspQuery) {
-        return String.format(rspQueryUriTemplate, getUrlId(rspEngine), getUrlId(rspQuery));
+    private Node getRspQueryUri(IRspEngine rspEngine,
+                                IRspQuery rspQuery) {
+        return NodeFactory.createURI(String.format("%srsp-engine/%s/rsp-query/%s",
+                ENTITY, getUrlId(rspEngine), getUrlId(rspQuery)));
     }
 
-    private String getStreamWindowUri(IStreamWindow streamWindow,
-                                      IRspQuery rspQuery,
-                                      IRspEngine rspEngine) throws UnsupportedEncodingException {
-        return String.format(streamWindowUriTemplate,
-                getUrlId(rspEngine), getUrlId(rspQuery), getUrlId(streamWindow));
+    private Node getStreamWindowUri(IStreamWindow streamWindow,
+                                    IRspQuery rspQuery,
+                                    IRspEngine rspEngine) throws UnsupportedEncodingException {
+        return NodeFactory.createURI(String.format("%srsp-engine/%s/rsp-query/%s/stream-window/%s",
+                ENTITY, getUrlId(rspEngine), getUrlId(rspQuery), getUrlId(streamWindow)));
     }
 
 
@@ -316,14 +285,6 @@ class DivideMetaModelMapper {
         return divideEngine.getId();
     }
 
-    private String getUrlIdOfDevice(IDivideEngine divideEngine) throws DivideNotInitializedException {
-        return divideEngine.getDeviceNetworkIp();
-    }
-
-    private String getUrlIdOfDevice(IComponent component) {
-        return component.getIpAddress();
-    }
-
     private String getUrlId(IComponent component) {
         return component.getId();
     }
@@ -0,0 +1,111 @@
+package be.ugent.idlab.divide.monitor.metamodel;
+
+import be.ugent.idlab.divide.core.component.IComponent;
+import be.ugent.idlab.divide.core.query.IDivideQuery;
+import be.ugent.idlab.divide.rsp.RspLocation;
+import be.ugent.idlab.divide.rsp.query.IRspQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class DivideMetaModelUpdate implements IDivideMetaModelUpdate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DivideMetaModelUpdate.class.getName());
+
+    private final DivideMetaModel divideMetaModel;
+    private final DivideMetaModelMapper mapper;
+
+    private DivideMetaModelDelta delta;
+
+    DivideMetaModelUpdate(DivideMetaModel divideMetaModel,
+                          DivideMetaModelMapper mapper) {
+        this.divideMetaModel = divideMetaModel;
+        this.mapper = mapper;
+        this.delta = new DivideMetaModelDelta();
+    }
+
+    @Override
+    public void addDivideQuery(IDivideQuery divideQuery) {
+        LOGGER.info("Adding DIVIDE query {} to meta model", divideQuery.getName());
+
+        // add DIVIDE query triples to meta model
+        delta.insert(mapper.getDivideQueryTriples(divideQuery));
+    }
+
+    @Override
+    public void removeDivideQuery(IDivideQuery divideQuery) {
+        LOGGER.info("Removing DIVIDE query {} from meta model", divideQuery.getName());
+
+        // remove DIVIDE query triples from meta model
+        delta.delete(mapper.getDivideQueryTriples(divideQuery));
+
+        // note: RSP queries for that DIVIDE query are removed by unregistering them
+        //       from all component's RSP engines (so dedicated calls will happen for that)
+        // note: DIVIDE query deployment triples are not removed
+    }
+
+    @Override
+    public void updateDivideQueryDeployment(IDivideQuery divideQuery,
+                                            IComponent component,
+                                            RspLocation rspLocation) {
+        LOGGER.info("Updating deployment of DIVIDE query {} on component {} in meta model to {}",
+                divideQuery.getName(), component.getId(), rspLocation.toString());
+
+        // remove DIVIDE query deployment triples of other RSP location
+        delta.delete(mapper.getDivideQueryDeploymentTriples(divideQuery, component,
+                rspLocation == RspLocation.CENTRAL ? RspLocation.LOCAL : RspLocation.CENTRAL));
+
+        // add DIVIDE query deployment triples to meta model
+        delta.insert(mapper.getDivideQueryDeploymentTriples(divideQuery, component, rspLocation));
+    }
+
+    @Override
+    public void addComponent(IComponent component) {
+        LOGGER.info("Adding DIVIDE component {} to meta model", component.getId());
+
+        // add DIVIDE component triples to meta model
+        delta.insert(mapper.getDivideComponentTriples(component));
+    }
+
+    @Override
+    public void removeComponent(IComponent component) {
+        LOGGER.info("Removing DIVIDE component {} from meta model", component.getId());
+
+        // remove DIVIDE component triples from meta model
+        delta.delete(mapper.getDivideComponentTriples(component));
+
+        // note: RSP queries for that component are removed by unregistering them
+        //       from the component's RSP engine (so dedicated calls will happen for that)
+        // note: DIVIDE query deployment triples are not removed
+    }
+
+    @Override
+    public void addRegisteredQuery(IRspQuery rspQuery) {
+        LOGGER.info("Adding RSP query {} (registered to RSP engine {}, associated to component {})" +
+                        " to meta model", rspQuery.getQueryName(), rspQuery.getRspEngine().getId(),
+                rspQuery.getAssociatedComponent().getId());
+
+        // add RSP query triples to meta model
+        delta.insert(mapper.getRspQueryTriples(rspQuery));
+    }
+
+    @Override
+    public void removeRegisteredQuery(IRspQuery rspQuery) {
+        LOGGER.info("Removing RSP query {} (registered to RSP engine {}, associated to component {})" +
+                        " from meta model", rspQuery.getQueryName(), rspQuery.getRspEngine().getId(),
+                rspQuery.getAssociatedComponent().getId());
+
+        // remove RSP query triples from meta model
+        delta.delete(mapper.getRspQueryTriples(rspQuery));
+    }
+
+    @Override
+    public void commit() {
+        if (!delta.isEmpty()) {
+            divideMetaModel.submit(delta);
+        }
+
+        // start a new delta, so that the submitted one is never modified anymore
+        delta = new DivideMetaModelDelta();
+    }
+
+}
@@ -0,0 +1,277 @@
+package be.ugent.idlab.divide.monitor.global.transport;
+
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.XSD;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MeasurementFrameDecoderTest {
+
+    private static final String SAREF = "https://saref.etsi.org/core/";
+    private static final String OM = "http://www.ontology-of-units-of-measure.org/resource/om-2/";
+
+    private static final String PROPERTY = "https://divide.idlab.ugent.be/meta-model/monitoring/CpuUsage";
+    private static final String UNIT = OM + "percent";
+    private static final String DEVICE = "https://divide.idlab.ugent.be/meta-model/entity/device/device-1";
+
+    @Test
+    public void decodesMeasurementsOfFrame() throws IOException {
+        MeasurementFrameDecoder decoder = new MeasurementFrameDecoder();
+
+        Model model = parse(decode(decoder, frame(1650000000000L,
+                Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 2, false, 10.0, 30.0, 20.0, 15.0))));
+
+        Map<String, Literal> values = getAggregateValues(model);
+        assertEquals(4, values.size());
+        assertEquals(10.0f, values.get("minimum").getFloat(), 0.0f);
+        assertEquals(30.0f, values.get("maximum").getFloat(), 0.0f);
+        assertEquals(20.0f, values.get("average").getFloat(), 0.0f);
+        assertEquals(15.0f, values.get("median").getFloat(), 0.0f);
+        assertEquals(XSD.xfloat.getURI(), values.get("minimum").getDatatypeURI());
+
+        for (Resource measurement : model.listSubjectsWithProperty(
+                RDF.type, model.createResource(SAREF + "Measurement")).toList()) {
+            assertEquals(UNIT, measurement.getPropertyResourceValue(
+                    property(SAREF + "isMeasuredIn")).getURI());
+            assertEquals(PROPERTY, measurement.getPropertyResourceValue(
+                    property(SAREF + "relatesToProperty")).getPropertyResourceValue(RDF.type).getURI());
+            assertEquals(DEVICE, measurement.getPropertyResourceValue(
+                    property(SAREF + "isMeasurementOf")).getURI());
+            assertEquals(1650000000000L, measurement.getProperty(property(
+                    "https://dahcc.idlab.ugent.be/Ontology/Sensors/hasTimestampUTC")).getLong());
+        }
+    }
+
+    @Test
+    public void decodesAverageAndMedianOfIntegerValuesAsDecimals() throws IOException {
+        MeasurementFrameDecoder decoder = new MeasurementFrameDecoder();
+
+        Map<String, Literal> values = getAggregateValues(parse(decode(decoder, frame(0L,
+                Arrays.asList(PROPERTY, OM + "number", DEVICE),
+                new Row(0, 1, 2, true, 1.0, 4.0, 2.5, 2.0)))));
+
+        assertEquals(XSD.integer.getURI(), values.get("minimum").getDatatypeURI());
+        assertEquals("1", values.get("minimum").getLexicalForm());
+        assertEquals(XSD.integer.getURI(), values.get("maximum").getDatatypeURI());
+        assertEquals("4", values.get("maximum").getLexicalForm());
+        assertEquals(XSD.decimal.getURI(), values.get("average").getDatatypeURI());
+        assertEquals("2.5", values.get("average").getLexicalForm());
+        assertEquals(XSD.decimal.getURI(), values.get("median").getDatatypeURI());
+    }
+
+    @Test
+    public void keepsDictionaryOverFramesWithoutReusingBlankNodes() throws IOException {
+        MeasurementFrameDecoder decoder = new MeasurementFrameDecoder();
+
+        String first = decode(decoder, frame(0L,
+                Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 2, false, 1, 1, 1, 1)));
+        // the second frame only refers to entries sent in the first frame
+        String second = decode(decoder, frame(1000L,
+                Collections.emptyList(),
+                new Row(0, 1, 2, false, 2, 2, 2, 2)));
+
+        Model model = parse(first + second);
+        assertEquals(8, model.listSubjectsWithProperty(
+                RDF.type, model.createResource(SAREF + "Measurement")).toList().size());
+    }
+
+    @Test
+    public void decodesFrameWithoutMeasurements() throws IOException {
+        assertEquals("", decode(new MeasurementFrameDecoder(),
+                frame(0L, Collections.singletonList(PROPERTY))));
+    }
+
+    @Test
+    public void rejectsNegativeNumberOfDictionaryEntries() throws IOException {
+        assertRejected(payload(out -> {
+            out.writeLong(0L);
+            out.writeInt(-1);
+            out.writeInt(0);
+        }), "Invalid number of dictionary entries");
+    }
+
+    @Test
+    public void rejectsNumberOfDictionaryEntriesExceedingPayload() throws IOException {
+        assertRejected(payload(out -> {
+            out.writeLong(0L);
+            out.writeInt(Integer.MAX_VALUE);
+            out.writeUTF(PROPERTY);
+            out.writeInt(0);
+        }), "Invalid number of dictionary entries");
+    }
+
+    @Test
+    public void rejectsNegativeNumberOfMeasurements() throws IOException {
+        assertRejected(payload(out -> {
+            out.writeLong(0L);
+            out.writeInt(0);
+            out.writeInt(-1);
+        }), "Invalid number of measurements");
+    }
+
+    @Test
+    public void rejectsNumberOfMeasurementsExceedingPayload() throws IOException {
+        // a frame with room for exactly one row, announcing two rows
+        byte[] frame = frame(0L, Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 2, false, 1, 1, 1, 1));
+        byte[] corrupt = payload(out -> {
+            out.write(frame, 0, frame.length - 45 - 4);
+            out.writeInt(2);
+            out.write(frame, frame.length - 45, 45);
+        });
+
+        assertRejected(corrupt, "Invalid number of measurements");
+    }
+
+    @Test
+    public void rejectsUnknownDictionaryIndex() throws IOException {
+        assertRejected(frame(0L, Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 3, false, 1, 1, 1, 1)), "Unknown dictionary index: 3");
+    }
+
+    @Test
+    public void rejectsNegativeDictionaryIndex() throws IOException {
+        assertRejected(frame(0L, Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(-1, 1, 2, false, 1, 1, 1, 1)), "Unknown dictionary index: -1");
+    }
+
+    @Test
+    public void rejectsIndexOfEntryOnlySentToPreviousConnection() throws IOException {
+        decode(new MeasurementFrameDecoder(), frame(0L,
+                Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 2, false, 1, 1, 1, 1)));
+
+        // a new connection uses a new decoder with an empty dictionary
+        assertRejected(frame(0L, Collections.emptyList(),
+                new Row(0, 1, 2, false, 1, 1, 1, 1)), "Unknown dictionary index");
+    }
+
+    @Test(expected = EOFException.class)
+    public void rejectsTruncatedFrame() throws IOException {
+        byte[] frame = frame(0L, Arrays.asList(PROPERTY, UNIT, DEVICE),
+                new Row(0, 1, 2, false, 1, 1, 1, 1));
+        decode(new MeasurementFrameDecoder(), Arrays.copyOf(frame, 20));
+    }
+
+    private static String decode(MeasurementFrameDecoder decoder, byte[] frame)
+            throws IOException {
+        return decoder.decode(new DataInputStream(new ByteArrayInputStream(frame)));
+    }
+
+    private static void assertRejected(byte[] frame, String message) {
+        try {
+            decode(new MeasurementFrameDecoder(), frame);
+            fail("Invalid frame should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    private static class Row {
+
+        private final int property;
+        private final int unit;
+        private final int featureOfInterest;
+        private final boolean integer;
+        private final double[] values;
+
+        private Row(int property, int unit, int featureOfInterest, boolean integer,
+                    double... values) {
+            this.property = property;
+            this.unit = unit;
+            this.featureOfInterest = featureOfInterest;
+            this.integer = integer;
+            this.values = values;
+        }
+
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] payload(PayloadWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] frame(long time, List<String> newEntries, Row... rows)
+            throws IOException {
+        return payload(out -> {
+            out.writeLong(time);
+            out.writeInt(newEntries.size());
+            for (String entry : newEntries) {
+                out.writeUTF(entry);
+            }
+            out.writeInt(rows.length);
+            for (Row row : rows) {
+                out.writeInt(row.property);
+            }
+            for (Row row : rows) {
+                out.writeInt(row.unit);
+            }
+            for (Row row : rows) {
+                out.writeInt(row.featureOfInterest);
+            }
+            for (Row row : rows) {
+                out.writeByte(row.integer ? 0x01 : 0x00);
+            }
+            for (int f = 0; f < 4; f++) {
+                for (Row row : rows) {
+                    out.writeDouble(row.values[f]);
+                }
+            }
+        });
+    }
+
+    private static Model parse(String nTriples) {
+        Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(nTriples), null, "N-TRIPLES");
+        return model;
+    }
+
+    private static Map<String, Literal> getAggregateValues(Model model) {
+        Map<String, Literal> values = new HashMap<>();
+        for (Statement statement : model.listStatements(
+                null, property(OM + "hasAggregateFunction"), (Resource) null).toList()) {
+            String function = statement.getResource().getURI().substring(OM.length());
+            Literal value = statement.getSubject().getProperty(
+                    property(SAREF + "hasValue")).getLiteral();
+            assertNull("duplicate aggregate function " + function, values.put(function, value));
+        }
+        return values;
+    }
+
+    private static Property property(String uri) {
+        return ModelFactory.createDefaultModel().createProperty(uri);
+    }
+
+}
@@ -13,6 +13,7 @@ import be.ugent.idlab.divide.core.engine.IDivideQueryDeriver;
 import be.ugent.idlab.divide.core.exception.DivideInvalidInputException;
 import be.ugent.idlab.divide.core.exception.DivideNotInitializedException;
 import be.ugent.idlab.divide.core.exception.DivideQueryDeriverException;
+import be.ugent.idlab.divide.core.query.DivideQueryFactory;
 import be.ugent.idlab.divide.core.query.IDivideQuery;
 import be.ugent.idlab.divide.core.query.parser.DivideQueryParserInput;
 import be.ugent.idlab.divide.core.query.parser.DivideQueryParserOutput;
@@ -46,6 +47,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DivideServer {
 
@@ -122,6 +128,7 @@ public class DivideServer {
                 knowledgeBase,
                 divideOntologyModel,
                 config.shouldStopRspEngineStreamsOnContextChanges(),
+                config.shouldHotSwapQueriesOnContextChanges(),
                 config.shouldProcessUnmappedVariableMatchesInParser(),
                 config.shouldValidateUnboundVariablesInRspQlQueryBodyInParser());
 
@@ -142,14 +149,22 @@ public class DivideServer {
 
         // initialize list of DIVIDE queries in configuration
         // (wrongly configured DIVIDE queries lead to an IllegalArgumentException)
+        // -> the DIVIDE queries are read and parsed in parallel, and are then
+        //    registered to the DIVIDE engine in bulk
         LOGGER.debug(Constants.METRIC_MARKER, "INIT_QUERIES_START");
-        initializeDivideQueries(divideEngine, config.getDivideQueryPropertiesFiles());
-        initializeDivideQueriesAsRspQlOrSparql(
-                divideEngine, config.getDivideQueryAsSparqlPropertiesFiles(),
-                InputQueryLanguage.SPARQL);
-        initializeDivideQueriesAsRspQlOrSparql(
-                divideEngine, config.getDivideQueryAsRspQlPropertiesFiles(),
-                InputQueryLanguage.RSP_QL);
+        List<Callable<IDivideQuery>> divideQueryReaders = new ArrayList<>();
+        for (String queryPropertiesFile : config.getDivideQueryPropertiesFiles()) {
+            divideQueryReaders.add(() -> readDivideQuery(queryPropertiesFile));
+        }
+        for (String queryPropertiesFile : config.getDivideQueryAsSparqlPropertiesFiles()) {
+            divideQueryReaders.add(() -> readDivideQueryAsRspQlOrSparql(
+                    divideEngine, queryPropertiesFile, InputQueryLanguage.SPARQL));
+        }
+        for (String queryPropertiesFile : config.getDivideQueryAsRspQlPropertiesFiles()) {
+            divideQueryReaders.add(() -> readDivideQueryAsRspQlOrSparql(
+                    divideEngine, queryPropertiesFile, InputQueryLanguage.RSP_QL));
+        }
+        initializeDivideQueries(divideEngine, divideQueryReaders);
         LOGGER.debug(Constants.METRIC_MARKER, "INIT_QUERIES_END");
 
         // initialize list of components in configuration (if specified)
@@ -211,14 +226,19 @@ public class DivideServer {
             }
 
             // create a global monitor and activate the central DIVIDE monitor
-            GlobalMonitorFactory.initialize(divideEngine, parsedMonitorTaskQueries);
+            GlobalMonitorFactory.initialize(divideEngine, parsedMonitorTaskQueries,
+                    config.shouldMonitorUseBinaryTransport());
             IDivideGlobalMonitor globalMonitor = GlobalMonitorFactory.getInstance();
             divideEngine.activateMonitor(globalMonitor, localMonitorJarPath, deviceNetworkIp);
         }
 
         // create and start DIVIDE API
         DivideApiComponentFactory.createRestApiComponent(
-                divideEngine, config.getHost(), config.getDivideServerPort(), "/divide").start();
+                divideEngine, config.getHost(), config.getDivideServerPort(), "/divide",
+                config.getDivideApiConnectorMinThreads(),
+                config.getDivideApiConnectorMaxThreads(),
+                config.getDivideApiConnectorMaxQueued(),
+                config.getDivideApiAsyncOperationThreads()).start();
         LOGGER.info("Started DIVIDE server API at http://{}:{}/divide",
                 config.getHost(), config.getDivideServerPort());
 
@@ -230,204 +250,232 @@ public class DivideServer {
     }
 
     private void initializeDivideQueries(IDivideEngine divideEngine,
-                                         List<String> divideQueryPropertiesFiles) {
-        // loop over all specified properties files of a DIVIDE query
-        for (String queryPropertiesFile : divideQueryPropertiesFiles) {
-            String queryName = "";
-            try {
-                // read DIVIDE query properties file into config object
-                DivideQueryConfig divideQueryConfig =
-                        DivideQueryConfig.getInstance(queryPropertiesFile);
+                                         List<Callable<IDivideQuery>> divideQueryReaders) {
+        if (divideQueryReaders.isEmpty()) {
+            return;
+        }
 
-                // retrieve query name
-                queryName = divideQueryConfig.getQueryName();
+        // read and parse all DIVIDE queries in parallel
+        List<IDivideQuery> divideQueries = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+                divideQueryReaders.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for (Future<IDivideQuery> divideQuery : executor.invokeAll(divideQueryReaders)) {
+                divideQueries.add(divideQuery.get());
+            }
 
-                // retrieve query pattern
-                String queryPattern = IOUtilities.removeWhiteSpace(
-                        IOUtilities.readFileIntoString(
-                                divideQueryConfig.getQueryPatternFilePath()));
-                if (queryPattern == null || queryPattern.trim().isEmpty()) {
-                    throw new IllegalArgumentException(String.format(
-                            "Query pattern file invalid or not specified for query '%s'", queryName));
-                }
+        } catch (ExecutionException e) {
+            // the DIVIDE query readers only throw unchecked exceptions
+            // (and have already logged the error)
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
 
-                // retrieve sensor query rule
-                String sensorQueryRule = IOUtilities.removeWhiteSpace(
-                        IOUtilities.readFileIntoString(
-                                divideQueryConfig.getSensorQueryRuleFilePath()));
-                if (sensorQueryRule == null || sensorQueryRule.trim().isEmpty()) {
-                    throw new IllegalArgumentException(String.format(
-                            "Sensor query rule file invalid or not specified for query '%s'", queryName));
-                }
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while reading the DIVIDE queries", e);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
 
-                // retrieve goal
-                String goal = IOUtilities.removeWhiteSpace(
-                        IOUtilities.readFileIntoString(divideQueryConfig.getGoalFilePath()));
-                if (goal == null || goal.trim().isEmpty()) {
-                    throw new IllegalArgumentException(String.format(
-                            "Goal file invalid or not specified for query '%s'", queryName));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            // add all DIVIDE queries to the DIVIDE engine at once
+            List<IDivideQuery> addedDivideQueries = divideEngine.addDivideQueries(divideQueries);
+            if (addedDivideQueries.size() < divideQueries.size()) {
+                List<String> addedQueryNames = new ArrayList<>();
+                for (IDivideQuery addedDivideQuery : addedDivideQueries) {
+                    addedQueryNames.add(addedDivideQuery.getName());
+                }
+                for (IDivideQuery divideQuery : divideQueries) {
+                    if (!addedQueryNames.remove(divideQuery.getName())) {
+                        IllegalArgumentException e = new IllegalArgumentException(String.format(
+                                "DIVIDE query with name '%s' already exists", divideQuery.getName()));
+                        LOGGER.error("Error in configuration of DIVIDE query '{}'",
+                                divideQuery.getName(), e);
+                        throw e;
+                    }
                 }
+            }
 
-                // retrieve context enrichment
-                ContextEnrichment contextEnrichment = initializeContextEnrichment(
-                        divideQueryConfig, queryName);
+            for (IDivideQuery addedDivideQuery : addedDivideQueries) {
+                LOGGER.info("Successfully added new DIVIDE query '{}'", addedDivideQuery.getName());
+            }
 
-                // create and add DIVIDE query to the DIVIDE engine
-                IDivideQuery divideQuery = divideEngine.addDivideQuery(
-                        queryName, queryPattern, sensorQueryRule, goal, contextEnrichment);
-                if (divideQuery == null) {
-                    throw new IllegalArgumentException(String.format(
-                            "DIVIDE query with name '%s' already exists", queryName));
-                }
+        } catch (DivideNotInitializedException e) {
+            LOGGER.error("DIVIDE engine is not properly initialized", e);
+            throw new IllegalStateException(e);
 
-            } catch (ConfigurationException | FileNotFoundException e) {
-                LOGGER.error("Error while reading the DIVIDE query properties file '{}'",
-                        queryPropertiesFile, e);
-                throw new IllegalArgumentException(e);
+        } catch (DivideInvalidInputException e) {
+            LOGGER.error("Error when registering new DIVIDE queries because input is invalid", e);
+            throw new RuntimeException(e);
 
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Error in configuration of DIVIDE query '{}'", queryName, e);
-                throw e;
+        } catch (DivideQueryDeriverException e) {
+            LOGGER.error("Error when registering new queries at query deriver", e);
+            throw new RuntimeException(e);
+        }
+    }
 
-            } catch (DivideNotInitializedException e) {
-                LOGGER.error("DIVIDE engine is not properly initialized", e);
-                throw new IllegalStateException(e);
+    private IDivideQuery readDivideQuery(String queryPropertiesFile) {
+        String queryName = "";
+        try {
+            // read DIVIDE query properties file into config object
+            DivideQueryConfig divideQueryConfig =
+                    DivideQueryConfig.getInstance(queryPropertiesFile);
+
+            // retrieve query name
+            queryName = divideQueryConfig.getQueryName();
+
+            // retrieve query pattern
+            String queryPattern = IOUtilities.removeWhiteSpace(
+                    IOUtilities.readFileIntoString(
+                            divideQueryConfig.getQueryPatternFilePath()));
+            if (queryPattern == null || queryPattern.trim().isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "Query pattern file invalid or not specified for query '%s'", queryName));
+            }
 
-            } catch (DivideInvalidInputException e) {
-                LOGGER.error("Error when registering new DIVIDE query because input is invalid", e);
-                throw new RuntimeException(e);
+            // retrieve sensor query rule
+            String sensorQueryRule = IOUtilities.removeWhiteSpace(
+                    IOUtilities.readFileIntoString(
+                            divideQueryConfig.getSensorQueryRuleFilePath()));
+            if (sensorQueryRule == null || sensorQueryRule.trim().isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "Sensor query rule file invalid or not specified for query '%s'", queryName));
+            }
 
-            } catch (DivideQueryDeriverException e) {
-                LOGGER.error("Error when registering new query at query deriver", e);
-                throw new RuntimeException(e);
+            // retrieve goal
+            String goal = IOUtilities.removeWhiteSpace(
+                    IOUtilities.readFileIntoString(divideQueryConfig.getGoalFilePath()));
+            if (goal == null || goal.trim().isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "Goal file invalid or not specified for query '%s'", queryName));
             }
+
+            // retrieve context enrichment
+            ContextEnrichment contextEnrichment = initializeContextEnrichment(
+                    divideQueryConfig, queryName);
+
+            // create DIVIDE query to be added to the DIVIDE engine
+            return DivideQueryFactory.createInstance(
+                    queryName, queryPattern, sensorQueryRule, goal, contextEnrichment);
+
+        } catch (ConfigurationException | FileNotFoundException e) {
+            LOGGER.error("Error while reading the DIVIDE query properties file '{}'",
+                    queryPropertiesFile, e);
+            throw new IllegalArgumentException(e);
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Error in configuration of DIVIDE query '{}'", queryName, e);
+            throw e;
         }
     }
 
-    private void initializeDivideQueriesAsRspQlOrSparql(IDivideEngine divideEngine,
-                                                        List<String> divideQueryPropertiesFiles,
+    private IDivideQuery readDivideQueryAsRspQlOrSparql(IDivideEngine divideEngine,
+                                                        String queryPropertiesFile,
                                                         InputQueryLanguage inputQueryLanguage) {
-        // loop over all specified properties files of a DIVIDE query
-        for (String queryPropertiesFile : divideQueryPropertiesFiles) {
-            String queryName = "";
-            try {
-                LOGGER.info("Trying to add new DIVIDE query from properties file {} ({} input) ",
-                        queryPropertiesFile, inputQueryLanguage.toString());
-
-                // read DIVIDE query properties file into config object
-                DivideQueryAsRspQlOrSparqlConfig divideQueryConfig =
-                        DivideQueryAsRspQlOrSparqlConfig.getInstance(queryPropertiesFile);
-
-                // retrieve query name
-                queryName = divideQueryConfig.getQueryName();
-
-                // retrieve stream query
-                String streamQuery = null;
-                if (!divideQueryConfig.getStreamQueryFilePath().isEmpty()) {
-                    streamQuery = IOUtilities.removeWhiteSpace(
-                            IOUtilities.readFileIntoString(
-                                    divideQueryConfig.getStreamQueryFilePath()));
-                    if (streamQuery == null || streamQuery.trim().isEmpty()) {
-                        throw new IllegalArgumentException(String.format(
-                                "Stream query file invalid or not specified for query '%s'", queryName));
-                    }
-                }
+        String queryName = "";
+        try {
+            LOGGER.info("Trying to read new DIVIDE query from properties file {} ({} input) ",
+                    queryPropertiesFile, inputQueryLanguage.toString());
 
-                // retrieve intermediate queries
-                List<String> intermediateQueries = new ArrayList<>();
-                for (String intermediateQueryFilePath :
-                        divideQueryConfig.getIntermediateQueryFilePaths()) {
-                    String intermediateQuery = IOUtilities.removeWhiteSpace(
-                            IOUtilities.readFileIntoString(intermediateQueryFilePath));
-                    if (intermediateQuery == null || intermediateQuery.trim().isEmpty()) {
-                        throw new IllegalArgumentException(String.format(
-                                "Intermediate query file(s) specified for query '%s'" +
-                                        "are non-existent, invalid or empty ", queryName));
-                    }
-                    intermediateQueries.add(intermediateQuery);
-                }
+            // read DIVIDE query properties file into config object
+            DivideQueryAsRspQlOrSparqlConfig divideQueryConfig =
+                    DivideQueryAsRspQlOrSparqlConfig.getInstance(queryPropertiesFile);
 
-                // retrieve final query
-                String finalQuery = null;
-                if (!divideQueryConfig.getFinalQueryFilePath().isEmpty()) {
-                    finalQuery = IOUtilities.removeWhiteSpace(
-                            IOUtilities.readFileIntoString(
-                                    divideQueryConfig.getFinalQueryFilePath()));
-                    if (finalQuery == null || finalQuery.trim().isEmpty()) {
-                        throw new IllegalArgumentException(String.format(
-                                "Final query file invalid or not specified for query '%s'", queryName));
-                    }
-                }
+            // retrieve query name
+            queryName = divideQueryConfig.getQueryName();
 
-                // retrieve variable mapping of stream to final query
-                Map<String, String> streamToFinalQueryVariableMapping;
-                try {
-                    streamToFinalQueryVariableMapping =
-                            divideQueryConfig.getStreamToFinalQueryVariableMapping();
-                } catch (ConfigurationException e) {
-                    throw new IllegalArgumentException(
-                            String.format("Stream to final query variable mapping " +
-                                    "invalid for query '%s'", queryName), e);
+            // retrieve stream query
+            String streamQuery = null;
+            if (!divideQueryConfig.getStreamQueryFilePath().isEmpty()) {
+                streamQuery = IOUtilities.removeWhiteSpace(
+                        IOUtilities.readFileIntoString(
+                                divideQueryConfig.getStreamQueryFilePath()));
+                if (streamQuery == null || streamQuery.trim().isEmpty()) {
+                    throw new IllegalArgumentException(String.format(
+                            "Stream query file invalid or not specified for query '%s'", queryName));
                 }
+            }
 
-                // parse DIVIDE query input
-                LOGGER.debug(Constants.METRIC_MARKER, "QUERY_PARSING_START");
-                DivideQueryParserInput divideQueryParserInput = new DivideQueryParserInput(
-                        inputQueryLanguage,
-                        divideQueryConfig.getStreamWindows(),
-                        streamQuery,
-                        intermediateQueries,
-                        finalQuery,
-                        divideQueryConfig.getSolutionModifier(),
-                        streamToFinalQueryVariableMapping);
-                DivideQueryParserOutput divideQueryParserOutput =
-                        divideEngine.getQueryParser().
-                                parseDivideQuery(divideQueryParserInput);
-                LOGGER.debug(Constants.METRIC_MARKER, "QUERY_PARSING_END");
-
-                // retrieve context enrichment
-                ContextEnrichment contextEnrichment = initializeContextEnrichment(
-                        divideQueryConfig, queryName);
-
-                // create and add DIVIDE query to the DIVIDE engine
-                IDivideQuery divideQuery = divideEngine.addDivideQuery(
-                        queryName,
-                        divideQueryParserOutput.getQueryPattern(),
-                        divideQueryParserOutput.getSensorQueryRule(),
-                        divideQueryParserOutput.getGoal(),
-                        contextEnrichment);
-                if (divideQuery == null) {
+            // retrieve intermediate queries
+            List<String> intermediateQueries = new ArrayList<>();
+            for (String intermediateQueryFilePath :
+                    divideQueryConfig.getIntermediateQueryFilePaths()) {
+                String intermediateQuery = IOUtilities.removeWhiteSpace(
+                        IOUtilities.readFileIntoString(intermediateQueryFilePath));
+                if (intermediateQuery == null || intermediateQuery.trim().isEmpty()) {
                     throw new IllegalArgumentException(String.format(
-                            "DIVIDE query with name '%s' already exists", queryName));
+                            "Intermediate query file(s) specified for query '%s'" +
+                                    "are non-existent, invalid or empty ", queryName));
                 }
+                intermediateQueries.add(intermediateQuery);
+            }
 
-                LOGGER.info("Successfully added new DIVIDE query '{}'", queryName);
-
-            } catch (ConfigurationException | FileNotFoundException e) {
-                LOGGER.error("Error while reading the DIVIDE query properties file '{}'",
-                        queryPropertiesFile, e);
-                throw new IllegalArgumentException(e);
+            // retrieve final query
+            String finalQuery = null;
+            if (!divideQueryConfig.getFinalQueryFilePath().isEmpty()) {
+                finalQuery = IOUtilities.removeWhiteSpace(
+                        IOUtilities.readFileIntoString(
+                                divideQueryConfig.getFinalQueryFilePath()));
+                if (finalQuery == null || finalQuery.trim().isEmpty()) {
+                    throw new IllegalArgumentException(String.format(
+                            "Final query file invalid or not specified for query '%s'", queryName));
+                }
+            }
 
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Error in configuration of DIVIDE query '{}'", queryName, e);
-                throw e;
+            // retrieve variable mapping of stream to final query
+            Map<String, String> streamToFinalQueryVariableMapping;
+            try {
+                streamToFinalQueryVariableMapping =
+                        divideQueryConfig.getStreamToFinalQueryVariableMapping();
+            } catch (ConfigurationException e) {
+                throw new IllegalArgumentException(
+                        String.format("Stream to final query variable mapping " +
+                                "invalid for query '%s'", queryName), e);
+            }
 
-            } catch (DivideNotInitializedException e) {
-                LOGGER.error("DIVIDE engine is not properly initialized", e);
-                throw new IllegalStateException(e);
+            // parse DIVIDE query input
+            LOGGER.debug(Constants.METRIC_MARKER, "QUERY_PARSING_START");
+            DivideQueryParserInput divideQueryParserInput = new DivideQueryParserInput(
+                    inputQueryLanguage,
+                    divideQueryConfig.getStreamWindows(),
+                    streamQuery,
+                    intermediateQueries,
+                    finalQuery,
+                    divideQueryConfig.getSolutionModifier(),
+                    streamToFinalQueryVariableMapping);
+            DivideQueryParserOutput divideQueryParserOutput =
+                    divideEngine.getQueryParser().
+                            parseDivideQuery(divideQueryParserInput);
+            LOGGER.debug(Constants.METRIC_MARKER, "QUERY_PARSING_END");
+
+            // retrieve context enrichment
+            ContextEnrichment contextEnrichment = initializeContextEnrichment(
+                    divideQueryConfig, queryName);
+
+            // create DIVIDE query to be added to the DIVIDE engine
+            return DivideQueryFactory.createInstance(
+                    queryName,
+                    divideQueryParserOutput.getQueryPattern(),
+                    divideQueryParserOutput.getSensorQueryRule(),
+                    divideQueryParserOutput.getGoal(),
+                    contextEnrichment);
 
-            } catch (InvalidDivideQueryParserInputException e) {
-                LOGGER.error("Error when parsing DIVIDE query input", e);
-                throw new RuntimeException(e);
+        } catch (ConfigurationException | FileNotFoundException e) {
+            LOGGER.error("Error while reading the DIVIDE query properties file '{}'",
+                    queryPropertiesFile, e);
+            throw new IllegalArgumentException(e);
 
-            } catch (DivideInvalidInputException e) {
-                LOGGER.error("Error when registering new DIVIDE query because input is invalid", e);
-                throw new RuntimeException(e);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Error in configuration of DIVIDE query '{}'", queryName, e);
+            throw e;
 
-            } catch (DivideQueryDeriverException e) {
-                LOGGER.error("Error when registering new query at query deriver", e);
-                throw new RuntimeException(e);
-            }
+        } catch (InvalidDivideQueryParserInputException e) {
+            LOGGER.error("Error when parsing DIVIDE query input", e);
+            throw new RuntimeException(e);
         }
     }
 
@@ -438,17 +486,12 @@ public class DivideServer {
             List<ComponentEntry> componentEntries =
                     CsvComponentEntryParser.parseComponentEntryFile(componentsFile);
 
-            // register all components to the DIVIDE engine
-            for (ComponentEntry componentEntry : componentEntries) {
-                IComponent component = divideEngine.registerComponent(
-                        componentEntry.getIpAddress(),
-                        new ArrayList<>(componentEntry.getContextIris()),
-                        componentEntry.getRspQueryLanguage(),
-                        componentEntry.getRspEngineServerPort());
-                if (component == null) {
-                    throw new IllegalArgumentException(
-                            "Components file contains invalid or duplicate entries");
-                }
+            // register all components to the DIVIDE engine at once
+            // -> their first query derivations are staged by the engine
+            List<IComponent> components = divideEngine.registerComponents(componentEntries);
+            if (components.contains(null)) {
+                throw new IllegalArgumentException(
+                        "Components file contains invalid or duplicate entries");
             }
 
         } catch (ComponentEntryParserException | DivideInvalidInputException e) {
@@ -33,11 +33,18 @@ public class DivideConfig {
     private static final String SERVER_PORT_DIVIDE = "server.port.divide";
     private static final String SERVER_PORT_KB = "server.port.kb";
 
+    private static final String SERVER_API_CONNECTOR_MIN_THREADS = "server.api.connector.minThreads";
+    private static final String SERVER_API_CONNECTOR_MAX_THREADS = "server.api.connector.maxThreads";
+    private static final String SERVER_API_CONNECTOR_MAX_QUEUED = "server.api.connector.maxQueued";
+    private static final String SERVER_API_ASYNC_OPERATION_THREADS = "server.api.asyncOperationThreads";
+
     private static final String DIVIDE_KB_TYPE = "divide.kb.type";
     private static final String DIVIDE_KB_BASE_IRI = "divide.kb.baseIri";
 
     private static final String DIVIDE_ENGINE_STOP_RSP_ENGINE_STREAMS_ON_CONTEXT_CHANGES =
             "divide.engine.stopRspEngineStreamsOnContextChanges";
+    private static final String DIVIDE_ENGINE_HOT_SWAP_QUERIES_ON_CONTEXT_CHANGES =
+            "divide.engine.hotSwapQueriesOnContextChanges";
     private static final String DIVIDE_ENGINE_PARSER_PROCESS_UNMAPPED_VARIABLE_MATCHES =
             "divide.engine.parser.processUnmappedVariableMatches";
     private static final String DIVIDE_ENGINE_PARSER_VALIDATE_UNBOUND_VARIABLES_IN_RSP_QL_QUERY_BODY =
@@ -56,6 +63,7 @@ public class DivideConfig {
     private static final String MONITOR_ACTIVE = "monitor.active";
     private static final String MONITOR_TASK_QUERIES = "monitor.task_queries";
     private static final String MONITOR_LOCAL_MONITOR_JAR_PATH = "monitor.local_monitor_jar";
+    private static final String MONITOR_BINARY_TRANSPORT = "monitor.binary_transport";
 
     private static final String CENTRAL_RSP_ENGINE_ACTIVE = "central_rsp_engine.active";
     private static final String CENTRAL_RSP_ENGINE_QUERY_LANGUAGE = "central_rsp_engine.query_language";
@@ -113,6 +121,40 @@ public class DivideConfig {
         return config.getInt(SERVER_PORT_KB, 5001);
     }
 
+    /**
+     * @return minimum number of worker threads of the HTTP server connector of the
+     *         DIVIDE API (default: -1, i.e., the default of the connector is used)
+     */
+    public int getDivideApiConnectorMinThreads() {
+        return config.getInt(SERVER_API_CONNECTOR_MIN_THREADS, -1);
+    }
+
+    /**
+     * @return maximum number of worker threads of the HTTP server connector of the
+     *         DIVIDE API (default: -1, i.e., the default of the connector is used)
+     */
+    public int getDivideApiConnectorMaxThreads() {
+        return config.getInt(SERVER_API_CONNECTOR_MAX_THREADS, -1);
+    }
+
+    /**
+     * @return maximum number of requests queued by the HTTP server connector of the
+     *         DIVIDE API when all its worker threads are busy, where -1 represents
+     *         an unbounded queue and 0 means that such requests are rejected
+     *         (default: -1)
+     */
+    public int getDivideApiConnectorMaxQueued() {
+        return config.getInt(SERVER_API_CONNECTOR_MAX_QUEUED, -1);
+    }
+
+    /**
+     * @return number of threads on which the asynchronous operations of the
+     *         DIVIDE API are executed (default: 4)
+     */
+    public int getDivideApiAsyncOperationThreads() {
+        return config.getInt(SERVER_API_ASYNC_OPERATION_THREADS, 4);
+    }
+
     /**
      * @return {@link KnowledgeBaseType} representing the type of knowledge base
      *         that should be instantiated for the DIVIDE engine
@@ -143,6 +185,18 @@ public class DivideConfig {
         return config.getBoolean(DIVIDE_ENGINE_STOP_RSP_ENGINE_STREAMS_ON_CONTEXT_CHANGES, true);
     }
 
+    /**
+     * @return whether DIVIDE should hot-swap the RSP engine queries on a component
+     *         when context changes trigger the DIVIDE query derivation for that
+     *         component, i.e., register the new query versions alongside the old
+     *         ones and only retire the old ones once the new ones are live; if true,
+     *         the RSP engine streams are never paused on context changes, regardless
+     *         of {@link #shouldStopRspEngineStreamsOnContextChanges()} (default: false)
+     */
+    public boolean shouldHotSwapQueriesOnContextChanges() {
+        return config.getBoolean(DIVIDE_ENGINE_HOT_SWAP_QUERIES_ON_CONTEXT_CHANGES, false);
+    }
+
     /**
      * @return whether the DIVIDE query parser should process unmapped variable matches in the
      *         query input (i.e., identical variable names occurring in both the stream and
@@ -303,6 +357,15 @@ public class DivideConfig {
         return config.getString(MONITOR_LOCAL_MONITOR_JAR_PATH, null);
     }
 
+    /**
+     * @return whether the local monitors should send their aggregated measurements
+     *         to the global monitor as binary measurement frames over a persistent
+     *         connection, instead of as RDF over HTTP (default: false)
+     */
+    public boolean shouldMonitorUseBinaryTransport() {
+        return config.getBoolean(MONITOR_BINARY_TRANSPORT, false);
+    }
+
     /**
      * @return whether the DIVIDE engine works with a central RSP engine, allowing
      *         queries to be moved between the local engines and this central engine
@@ -5,23 +5,21 @@ import be.ugent.idlab.divide.monitor.local.config.LocalMonitorConfigFactory;
 import be.ugent.idlab.divide.monitor.local.monitoring.device.DeviceMonitorFactory;
 import be.ugent.idlab.divide.monitor.local.monitoring.network.NetworkMonitorFactory;
 import be.ugent.idlab.divide.monitor.local.monitoring.rsp.RspMonitorFactory;
+import be.ugent.idlab.divide.monitor.local.monitoring.self.SelfMonitorFactory;
 import be.ugent.idlab.divide.monitor.local.rsp.LocalMonitorRspEngineFactory;
 import be.ugent.idlab.divide.monitor.local.semanticmapper.SemanticMapper;
-import be.ugent.idlab.divide.monitor.local.util.JarResourceManager;
+import be.ugent.idlab.divide.monitor.local.transport.ControlChannelClient;
+import be.ugent.idlab.divide.monitor.local.transport.MeasurementFrameClient;
 import be.ugent.idlab.rspservice.common.RSPServer;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
 import be.ugent.idlab.rspservice.csparql.jena3.CsparqlEngine;
 import be.ugent.idlab.rspservice.csparql.jena3.CsparqlServer;
-import be.ugent.idlab.util.process.ProcessException;
-import be.ugent.idlab.util.process.ProcessUtilities;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executors;
@@ -62,15 +60,14 @@ public class LocalMonitor {
     private final Map<String, LocalMonitorThread> threadMap;
     private final Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
 
+    private ControlChannelClient controlChannelClient;
+
     LocalMonitor(ILocalMonitorConfig config) throws LocalMonitorException {
         LOGGER.info("Starting local monitor with following config: {}", config.toString());
         this.config = config;
         this.threadMap = new HashMap<>();
         this.uncaughtExceptionHandler = new LocalMonitorUncaughtExceptionHandler();
 
-        // install all python requirements
-        installPythonRequirements();
-
         // initialize the semantic mapper
         SemanticMapper.initialize();
 
@@ -94,24 +91,29 @@ public class LocalMonitor {
                     "public network interface, component ID, device ID");
         }
 
+        // initialize the client of the binary measurement frame transport, if the
+        // Global Monitor exposes a measurement frame server
+        // -> monitoring services then send their aggregated measurements as binary
+        //    frames over a persistent connection instead of RDF over HTTP
+        int binaryPort = config.getCentralMonitorReasoningServiceBinaryPort();
+        if (centralHost != null && binaryPort > 0) {
+            MeasurementFrameClient.initialize(centralHost, binaryPort, componentId, deviceId);
+        }
+
+        // create the client of the control channel with DIVIDE Central, if DIVIDE
+        // Central exposes a control port
+        // -> DIVIDE Central then knows the status of this Local Monitor from its
+        //    heartbeats, and can stop it over this channel instead of via SSH
+        int controlPort = config.getCentralControlPort();
+        if (centralHost != null && controlPort > 0) {
+            this.controlChannelClient = new ControlChannelClient(centralHost, controlPort, componentId);
+        }
+
         // prepare all local monitor services based on config
         prepareServices(rspServer, rdfStreamProcessor, localMonitorStream,
                 centralHost, publicNetworkInterface, componentId, deviceId);
     }
 
-    private void installPythonRequirements() throws LocalMonitorException {
-        try {
-            LOGGER.info("Installing Python requirements for Local Monitor");
-            String requirementsPath = JarResourceManager.getInstance().copyResourceToFile(
-                    Paths.get("python-requirements.txt"));
-            String output = ProcessUtilities.executeProcess(new String[]{
-                    "python3", "-m", "pip", "install", "-r", requirementsPath});
-            LOGGER.info("Output of installing Python requirements: {}", output);
-        } catch (ProcessException | IOException e) {
-            throw new LocalMonitorException("Could not install Python requirements for Local Monitor", e);
-        }
-    }
-
     private void prepareServices(RSPServer rspServer,
                                  RDFStreamProcessor rdfStreamProcessor,
                                  RDFStream localMonitorStream,
@@ -128,14 +130,18 @@ public class LocalMonitor {
             final ILocalMonitorService deviceMonitor =
                     DeviceMonitorFactory.createDeviceMonitor(
                             rdfStreamProcessor, localMonitorStream,
-                            componentId, deviceId);
+                            componentId, deviceId,
+                            config.getDeviceMonitorSamplingPeriodInSeconds());
             createServiceThread(deviceMonitor, "device-monitor", 0);
         }
         if (config.shouldStartNetworkMonitor()) {
             final ILocalMonitorService networkMonitor =
                     NetworkMonitorFactory.createNetworkMonitor(
                             rdfStreamProcessor, localMonitorStream,
-                            componentId, deviceId, publicNetworkInterface, centralHost);
+                            componentId, deviceId, publicNetworkInterface, centralHost,
+                            config.getCentralMonitorReasoningServicePort(),
+                            config.getNetworkMonitorSamplingPeriodInSeconds(),
+                            config.getNetworkMonitorRoundTripTimePeriodInSeconds());
             createServiceThread(networkMonitor, "network-monitor", 0);
         }
         if (config.shouldStartRspMonitor()) {
@@ -144,6 +150,12 @@ public class LocalMonitor {
                             componentId, deviceId, config.getWebSocketPortOfLocalRspEngineMonitor());
             createServiceThread(rspMonitor, "rsp-monitor", 0);
         }
+        if (config.shouldStartSelfMonitor()) {
+            final ILocalMonitorService selfMonitor =
+                    SelfMonitorFactory.createSelfMonitor(rdfStreamProcessor, localMonitorStream,
+                            componentId, deviceId, config.getSelfMonitorSamplingPeriodInSeconds());
+            createServiceThread(selfMonitor, "self-monitor", 0);
+        }
     }
 
     private void createServiceThread(ILocalMonitorService service, String serviceName, int id) {
@@ -157,6 +169,11 @@ public class LocalMonitor {
         for (LocalMonitorThread thread: this.threadMap.values()) {
             thread.start();
         }
+
+        // only start sending heartbeats once all services are started
+        if (this.controlChannelClient != null) {
+            this.controlChannelClient.start();
+        }
     }
 
     private class LocalMonitorUncaughtExceptionHandler implements Thread.UncaughtExceptionHandler {
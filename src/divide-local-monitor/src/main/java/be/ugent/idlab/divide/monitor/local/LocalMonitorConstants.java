@@ -4,7 +4,23 @@ public class LocalMonitorConstants {
 
     public static final int DEVICE_MONITOR_EXECUTION_PERIOD_IN_SECONDS = 5;
     public static final int NETWORK_MONITOR_EXECUTION_PERIOD_IN_SECONDS = 5;
-    public static final int NETWORK_MONITOR_PING_PERIOD_IN_SECONDS = 1;
+    public static final int NETWORK_MONITOR_ROUND_TRIP_TIME_PERIOD_IN_SECONDS = 1;
+    public static final int SELF_MONITOR_EXECUTION_PERIOD_IN_SECONDS = 5;
+
+    public static final long MONITORING_BATCH_INTERVAL_IN_MILLISECONDS = 1000;
+    public static final int MONITORING_BATCH_MAXIMUM_SIZE = 500;
+    public static final int MONITORING_BATCH_BUFFER_CAPACITY = 10000;
+
+    public static final int MONITORING_AGGREGATION_RANGE_IN_SECONDS = 60;
+    public static final int MONITORING_AGGREGATION_STEP_IN_SECONDS = 20;
+    public static final int MONITORING_AGGREGATION_WINDOW_CAPACITY = 4096;
+
+    public static final int MEASUREMENT_FRAME_CONNECT_TIMEOUT_IN_MILLISECONDS = 2000;
+    public static final int MEASUREMENT_FRAME_RECONNECT_DELAY_IN_SECONDS = 10;
+
+    public static final int CONTROL_CHANNEL_CONNECT_TIMEOUT_IN_MILLISECONDS = 2000;
+    public static final int CONTROL_CHANNEL_RECONNECT_DELAY_IN_SECONDS = 10;
+    public static final int CONTROL_CHANNEL_HEARTBEAT_PERIOD_IN_SECONDS = 5;
 
     public static final String RSP_STREAM_IRI = "https://divide.idlab.ugent.be/monitor/local";
     public static final int RSP_ENGINE_SERVER_PORT = 54545;
@@ -12,6 +12,28 @@ public interface ILocalMonitorConfig {
 
     boolean shouldStartNetworkMonitor();
 
+    boolean shouldStartSelfMonitor();
+
+    int getDeviceMonitorSamplingPeriodInSeconds();
+
+    int getNetworkMonitorSamplingPeriodInSeconds();
+
+    int getNetworkMonitorRoundTripTimePeriodInSeconds();
+
+    int getSelfMonitorSamplingPeriodInSeconds();
+
+    long getMonitoringBatchIntervalInMilliseconds();
+
+    int getMonitoringBatchMaximumSize();
+
+    int getMonitoringBatchBufferCapacity();
+
+    int getMonitoringAggregationRangeInSeconds();
+
+    int getMonitoringAggregationStepInSeconds();
+
+    int getMonitoringAggregationWindowCapacity();
+
     int getWebSocketPortOfLocalRspEngineMonitor();
 
     String getLocalPublicNetworkInterface();
@@ -24,4 +46,8 @@ public interface ILocalMonitorConfig {
 
     String getCentralMonitorReasoningServiceURI();
 
+    int getCentralMonitorReasoningServiceBinaryPort();
+
+    int getCentralControlPort();
+
 }
@@ -1,5 +1,6 @@
 package be.ugent.idlab.divide.monitor.local.config;
 
+import be.ugent.idlab.divide.monitor.local.LocalMonitorConstants;
 import be.ugent.idlab.divide.monitor.local.config.util.CustomJsonConfiguration;
 import be.ugent.idlab.util.io.IOUtilities;
 import org.apache.commons.configuration2.JSONConfiguration;
@@ -18,6 +19,20 @@ class LocalMonitorFileConfig implements ILocalMonitorConfig {
     private static final String MONITOR_RSP = "monitor.rsp";
     private static final String MONITOR_DEVICE = "monitor.device";
     private static final String MONITOR_NETWORK = "monitor.network";
+    private static final String MONITOR_SELF = "monitor.self";
+
+    private static final String MONITOR_SAMPLING_DEVICE_PERIOD_S = "monitor.sampling.device_period_s";
+    private static final String MONITOR_SAMPLING_NETWORK_PERIOD_S = "monitor.sampling.network_period_s";
+    private static final String MONITOR_SAMPLING_RTT_PERIOD_S = "monitor.sampling.round_trip_time_period_s";
+    private static final String MONITOR_SAMPLING_SELF_PERIOD_S = "monitor.sampling.self_period_s";
+
+    private static final String MONITOR_BATCH_INTERVAL_MS = "monitor.batch.interval_ms";
+    private static final String MONITOR_BATCH_MAX_SIZE = "monitor.batch.max_size";
+    private static final String MONITOR_BATCH_CAPACITY = "monitor.batch.capacity";
+
+    private static final String MONITOR_AGGREGATION_RANGE_S = "monitor.aggregation.range_s";
+    private static final String MONITOR_AGGREGATION_STEP_S = "monitor.aggregation.step_s";
+    private static final String MONITOR_AGGREGATION_CAPACITY = "monitor.aggregation.capacity";
 
     private static final String LOCAL_RSP_MONITOR_WEBSOCKET_PORT = "local.rsp_engine.monitor.ws_port";
     private static final String LOCAL_PUBLIC_NETWORK_INTERFACE = "local.public_network_interface";
@@ -26,6 +41,8 @@ class LocalMonitorFileConfig implements ILocalMonitorConfig {
     private static final String CENTRAL_MONITOR_RS_HOST = "central.monitor_reasoning_service.host";
     private static final String CENTRAL_MONITOR_RS_PORT = "central.monitor_reasoning_service.port";
     private static final String CENTRAL_MONITOR_RS_URI = "central.monitor_reasoning_service.uri";
+    private static final String CENTRAL_MONITOR_RS_BINARY_PORT = "central.monitor_reasoning_service.binary_port";
+    private static final String CENTRAL_CONTROL_PORT = "central.control_port";
 
     private final String propertiesFilePath;
     private final JSONConfiguration config;
@@ -64,6 +81,71 @@ class LocalMonitorFileConfig implements ILocalMonitorConfig {
         return config.getBoolean(MONITOR_NETWORK, true);
     }
 
+    @Override
+    public boolean shouldStartSelfMonitor() {
+        return config.getBoolean(MONITOR_SELF, true);
+    }
+
+    @Override
+    public int getDeviceMonitorSamplingPeriodInSeconds() {
+        return config.getInt(MONITOR_SAMPLING_DEVICE_PERIOD_S,
+                LocalMonitorConstants.DEVICE_MONITOR_EXECUTION_PERIOD_IN_SECONDS);
+    }
+
+    @Override
+    public int getNetworkMonitorSamplingPeriodInSeconds() {
+        return config.getInt(MONITOR_SAMPLING_NETWORK_PERIOD_S,
+                LocalMonitorConstants.NETWORK_MONITOR_EXECUTION_PERIOD_IN_SECONDS);
+    }
+
+    @Override
+    public int getNetworkMonitorRoundTripTimePeriodInSeconds() {
+        return config.getInt(MONITOR_SAMPLING_RTT_PERIOD_S,
+                LocalMonitorConstants.NETWORK_MONITOR_ROUND_TRIP_TIME_PERIOD_IN_SECONDS);
+    }
+
+    @Override
+    public int getSelfMonitorSamplingPeriodInSeconds() {
+        return config.getInt(MONITOR_SAMPLING_SELF_PERIOD_S,
+                LocalMonitorConstants.SELF_MONITOR_EXECUTION_PERIOD_IN_SECONDS);
+    }
+
+    @Override
+    public long getMonitoringBatchIntervalInMilliseconds() {
+        return config.getLong(MONITOR_BATCH_INTERVAL_MS,
+                LocalMonitorConstants.MONITORING_BATCH_INTERVAL_IN_MILLISECONDS);
+    }
+
+    @Override
+    public int getMonitoringBatchMaximumSize() {
+        return config.getInt(MONITOR_BATCH_MAX_SIZE,
+                LocalMonitorConstants.MONITORING_BATCH_MAXIMUM_SIZE);
+    }
+
+    @Override
+    public int getMonitoringBatchBufferCapacity() {
+        return config.getInt(MONITOR_BATCH_CAPACITY,
+                LocalMonitorConstants.MONITORING_BATCH_BUFFER_CAPACITY);
+    }
+
+    @Override
+    public int getMonitoringAggregationRangeInSeconds() {
+        return config.getInt(MONITOR_AGGREGATION_RANGE_S,
+                LocalMonitorConstants.MONITORING_AGGREGATION_RANGE_IN_SECONDS);
+    }
+
+    @Override
+    public int getMonitoringAggregationStepInSeconds() {
+        return config.getInt(MONITOR_AGGREGATION_STEP_S,
+                LocalMonitorConstants.MONITORING_AGGREGATION_STEP_IN_SECONDS);
+    }
+
+    @Override
+    public int getMonitoringAggregationWindowCapacity() {
+        return config.getInt(MONITOR_AGGREGATION_CAPACITY,
+                LocalMonitorConstants.MONITORING_AGGREGATION_WINDOW_CAPACITY);
+    }
+
     @Override
     public int getWebSocketPortOfLocalRspEngineMonitor() {
         return config.getInt(LOCAL_RSP_MONITOR_WEBSOCKET_PORT, 54548);
@@ -94,6 +176,16 @@ class LocalMonitorFileConfig implements ILocalMonitorConfig {
         return config.getString(CENTRAL_MONITOR_RS_URI, "/globalmonitorreasoningservice");
     }
 
+    @Override
+    public int getCentralMonitorReasoningServiceBinaryPort() {
+        return config.getInt(CENTRAL_MONITOR_RS_BINARY_PORT, -1);
+    }
+
+    @Override
+    public int getCentralControlPort() {
+        return config.getInt(CENTRAL_CONTROL_PORT, -1);
+    }
+
     @Override
     public String toString() {
         return "Local Monitor Config: " + IOUtilities.removeWhiteSpace(
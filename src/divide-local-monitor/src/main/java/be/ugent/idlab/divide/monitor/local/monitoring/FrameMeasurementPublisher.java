@@ -0,0 +1,31 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.AggregatedMeasurement;
+import be.ugent.idlab.divide.monitor.local.transport.MeasurementFrameClient;
+
+import java.util.List;
+
+/**
+ * Publisher that sends aggregated measurements directly to the Global Monitor as
+ * binary measurement frames. As long as no connection with the measurement frame
+ * server is available, the measurements are published via the fallback publisher,
+ * so that no monitoring data is lost when the Global Monitor is (re)starting.
+ */
+class FrameMeasurementPublisher implements MeasurementPublisher {
+
+    private final MeasurementFrameClient client;
+    private final MeasurementPublisher fallback;
+
+    FrameMeasurementPublisher(MeasurementFrameClient client, MeasurementPublisher fallback) {
+        this.client = client;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void publish(List<AggregatedMeasurement> measurements, long time) throws Exception {
+        if (!client.send(measurements, time)) {
+            fallback.publish(measurements, time);
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.AggregatedMeasurement;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.SemanticMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming numeric aggregation operator between a monitoring service of the Local
+ * Monitor and the stream of the Local Monitor RSP engine.
+ *
+ * Incoming monitoring events are not mapped to RDF: only their numeric value is
+ * stored in a {@link MeasurementWindow} of their (feature of interest, property,
+ * unit) combination. Every step, all values older than the window range are evicted,
+ * and the minimum, maximum, average and median of every non-empty window are
+ * calculated. Only these aggregated measurements are handed to the
+ * {@link MeasurementPublisher}, which maps them to RDF and feeds them to the stream
+ * as a single graph, or sends them to the Global Monitor as a binary frame.
+ *
+ * This replaces the aggregation by a C-SPARQL query over the raw monitoring
+ * events, which required every single event to be mapped to RDF and parsed again.
+ */
+class MeasurementAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementAggregator.class.getName());
+
+    private final String name;
+    private final MeasurementPublisher publisher;
+
+    private final long rangeMillis;
+    private final long stepMillis;
+    private final int windowCapacity;
+
+    private final Map<String, MeasurementWindow> windows;
+
+    /**
+     * Executor running the periodic step, which only exists while the
+     * aggregator is started (guarded by this)
+     */
+    private ScheduledExecutorService stepExecutor;
+
+    MeasurementAggregator(String name,
+                          MeasurementPublisher publisher,
+                          int rangeInSeconds,
+                          int stepInSeconds,
+                          int windowCapacity) {
+        this.name = name;
+        this.publisher = publisher;
+
+        this.rangeMillis = Math.max(1, rangeInSeconds) * 1000L;
+        this.stepMillis = Math.max(1, stepInSeconds) * 1000L;
+        this.windowCapacity = Math.max(1, windowCapacity);
+        this.windows = new HashMap<>();
+    }
+
+    /**
+     * Starts the periodic step of this aggregator, if it is not running yet.
+     * Should be called when the owning monitoring service is (re)started.
+     */
+    synchronized void start() {
+        if (stepExecutor != null) {
+            return;
+        }
+
+        // the step thread is a daemon thread, so that it never prevents the JVM
+        // from shutting down
+        stepExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "measurement-aggregator-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        stepExecutor.scheduleAtFixedRate(
+                this::step, stepMillis, stepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic step of this aggregator and its thread. The windows are
+     * kept, so that a restarted aggregator continues from the values it had.
+     * Should be called when the owning monitoring service is reset.
+     */
+    synchronized void stop() {
+        if (stepExecutor != null) {
+            stepExecutor.shutdownNow();
+            stepExecutor = null;
+        }
+    }
+
+    /**
+     * Adds the values of the given monitoring events to the windows of their
+     * (feature of interest, property, unit) combination. Events that cannot be
+     * mapped by the semantic mapper, or that do not have a numeric value,
+     * are ignored.
+     *
+     * @param events monitoring events to be added
+     */
+    void add(List<MonitoringEvent> events) {
+        MonitoringPipelineStatistics.getInstance().recordIngest(
+                events, System.currentTimeMillis());
+
+        SemanticMapper semanticMapper = SemanticMapper.getInstance();
+        synchronized (windows) {
+            for (MonitoringEvent event : events) {
+                if (!semanticMapper.canMap(event.getMetric(), event.getUnit())
+                        || event.getValue() == null) {
+                    continue;
+                }
+
+                double value;
+                try {
+                    value = Double.parseDouble(event.getValue());
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("No valid event: {}", event);
+                    continue;
+                }
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    continue;
+                }
+
+                String key = event.getMetric() + '\u0000' + event.getUnit() + '\u0000' +
+                        event.getFeatureOfInterestId();
+                MeasurementWindow window = windows.get(key);
+                if (window == null) {
+                    window = new MeasurementWindow(event.getMetric(), event.getUnit(),
+                            event.getFeatureOfInterestId(), windowCapacity);
+                    windows.put(key, window);
+                }
+                window.add(event.getTime(), value);
+            }
+        }
+    }
+
+    private void step() {
+        try {
+            long now = System.currentTimeMillis();
+            List<AggregatedMeasurement> measurements = aggregate(now);
+            if (measurements.isEmpty()) {
+                return;
+            }
+
+            // publish all aggregated measurements at once
+            long publishStart = System.nanoTime();
+            publisher.publish(measurements, now);
+            MonitoringPipelineStatistics.getInstance().recordPublish(
+                    System.nanoTime() - publishStart);
+
+        } catch (Exception e) {
+            // an exception should never stop the step thread, since this would
+            // stop all future monitoring output of this service from arriving
+            LOGGER.error("Error when publishing aggregated monitoring measurements", e);
+        }
+    }
+
+    private List<AggregatedMeasurement> aggregate(long now) {
+        List<AggregatedMeasurement> measurements = new ArrayList<>();
+        double[] result = new double[4];
+        long dropped = 0;
+
+        synchronized (windows) {
+            Iterator<MeasurementWindow> iterator = windows.values().iterator();
+            while (iterator.hasNext()) {
+                MeasurementWindow window = iterator.next();
+                window.evictBefore(now - rangeMillis);
+                dropped += window.takeDroppedValueCount();
+
+                // windows without any value in the range are removed, so that windows
+                // of features of interest that no longer exist (e.g., unregistered
+                // RSP queries) do not remain in memory
+                if (!window.aggregate(result)) {
+                    iterator.remove();
+                    continue;
+                }
+                measurements.add(new AggregatedMeasurement(
+                        window.getMetric(), window.getUnit(), window.getFeatureOfInterestId(),
+                        result[0], result[1], result[2], result[3]));
+            }
+        }
+
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} monitoring values before aggregation since their " +
+                    "window reached its capacity of {} values", dropped, windowCapacity);
+        }
+        return measurements;
+    }
+
+}
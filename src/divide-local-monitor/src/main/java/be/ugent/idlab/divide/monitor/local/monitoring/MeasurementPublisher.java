@@ -0,0 +1,21 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.AggregatedMeasurement;
+
+import java.util.List;
+
+/**
+ * Destination of the aggregated measurements calculated by a {@link MeasurementAggregator}.
+ */
+interface MeasurementPublisher {
+
+    /**
+     * Publishes the given aggregated measurements.
+     *
+     * @param measurements aggregated measurements (never empty)
+     * @param time time of the aggregation in milliseconds since epoch
+     * @throws Exception if publishing the measurements fails
+     */
+    void publish(List<AggregatedMeasurement> measurements, long time) throws Exception;
+
+}
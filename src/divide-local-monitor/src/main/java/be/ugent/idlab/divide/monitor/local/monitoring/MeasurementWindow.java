@@ -0,0 +1,157 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Time-based window of the numeric values of a single (feature of interest, property,
+ * unit) combination, stored in primitive ring buffers of timestamps and values.
+ *
+ * The buffers grow on demand up to a maximum capacity. When this capacity is reached,
+ * the oldest value is overwritten, so that the memory usage of a window is bounded
+ * even if values arrive faster than they expire.
+ *
+ * This class is not thread-safe: all access should be synchronized externally.
+ */
+class MeasurementWindow {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String metric;
+    private final String unit;
+    private final String featureOfInterestId;
+    private final int maxCapacity;
+
+    private long[] times;
+    private double[] values;
+    private int head;
+    private int size;
+
+    private long droppedValueCount;
+
+    /**
+     * Scratch buffer reused to calculate the median
+     */
+    private double[] sortBuffer;
+
+    MeasurementWindow(String metric, String unit, String featureOfInterestId, int maxCapacity) {
+        this.metric = metric;
+        this.unit = unit;
+        this.featureOfInterestId = featureOfInterestId;
+        this.maxCapacity = Math.max(1, maxCapacity);
+
+        int capacity = Math.min(INITIAL_CAPACITY, this.maxCapacity);
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+        this.sortBuffer = new double[0];
+        this.head = 0;
+        this.size = 0;
+        this.droppedValueCount = 0;
+    }
+
+    String getMetric() {
+        return metric;
+    }
+
+    String getUnit() {
+        return unit;
+    }
+
+    String getFeatureOfInterestId() {
+        return featureOfInterestId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of values that were overwritten before they expired,
+     *         since the last call of this method
+     */
+    long takeDroppedValueCount() {
+        long dropped = droppedValueCount;
+        droppedValueCount = 0;
+        return dropped;
+    }
+
+    void add(long time, double value) {
+        if (size == times.length) {
+            if (times.length < maxCapacity) {
+                grow();
+            } else {
+                // overwrite oldest value
+                head = (head + 1) % times.length;
+                size--;
+                droppedValueCount++;
+            }
+        }
+        int index = (head + size) % times.length;
+        times[index] = time;
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * Removes all values with a timestamp before the given time. Values are expected
+     * to arrive in (approximately) increasing order of time, so eviction stops at the
+     * first value that has not yet expired.
+     */
+    void evictBefore(long time) {
+        while (size > 0 && times[head] < time) {
+            head = (head + 1) % times.length;
+            size--;
+        }
+    }
+
+    /**
+     * Calculates the minimum, maximum, average and median of all values in the window.
+     *
+     * @param result array of length 4 in which the minimum, maximum, average and
+     *               median are stored (in that order)
+     * @return false if the window is empty (and the result is not filled), true otherwise
+     */
+    boolean aggregate(double[] result) {
+        if (size == 0) {
+            return false;
+        }
+
+        if (sortBuffer.length < size) {
+            sortBuffer = new double[times.length];
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            double value = values[(head + i) % values.length];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            sortBuffer[i] = value;
+        }
+
+        Arrays.sort(sortBuffer, 0, size);
+        double median = size % 2 == 1 ? sortBuffer[size / 2] :
+                (sortBuffer[size / 2 - 1] + sortBuffer[size / 2]) / 2;
+
+        result[0] = min;
+        result[1] = max;
+        result[2] = sum / size;
+        result[3] = median;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = Math.min(times.length * 2, maxCapacity);
+        long[] newTimes = new long[capacity];
+        double[] newValues = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            newTimes[i] = times[(head + i) % times.length];
+            newValues[i] = values[(head + i) % values.length];
+        }
+        times = newTimes;
+        values = newValues;
+        head = 0;
+    }
+
+}
@@ -0,0 +1,213 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Batching stage between a monitoring service of the Local Monitor and the
+ * {@link MeasurementAggregator} of this service.
+ *
+ * Monitoring events are not handed to the aggregator one by one by the threads
+ * producing them, but are accumulated in a bounded buffer. This buffer is flushed
+ * periodically, or as soon as it contains a configured number of events: all
+ * buffered events are then handed to the sink of this batcher as a single batch.
+ * In this way, the producing threads never contend with the aggregation.
+ *
+ * All flushes happen on a single thread, which only exists while the batcher is
+ * started. If the sink cannot keep up with the rate of incoming events, the buffer
+ * will reach its capacity; the oldest events are then dropped so that the memory
+ * usage of the Local Monitor remains bounded, and the number of dropped events
+ * is reported.
+ */
+class MonitoringEventBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MonitoringEventBatcher.class.getName());
+
+    private final String name;
+    private final Consumer<List<MonitoringEvent>> sink;
+
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final int capacity;
+
+    private final ArrayDeque<MonitoringEvent> buffer;
+    private final AtomicBoolean flushRequested;
+
+    /**
+     * Executor running the flushes, which only exists while the batcher
+     * is started (guarded by this)
+     */
+    private ScheduledExecutorService flushExecutor;
+
+    private long droppedEventCount;
+    private long droppedEventCountAtLastReport;
+
+    MonitoringEventBatcher(String name,
+                           Consumer<List<MonitoringEvent>> sink,
+                           long flushIntervalMillis,
+                           int maxBatchSize,
+                           int capacity) {
+        this.name = name;
+        this.sink = sink;
+
+        // a batch can never be larger than the buffer itself
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.capacity = Math.max(1, capacity);
+        this.maxBatchSize = Math.max(1, Math.min(maxBatchSize, this.capacity));
+
+        this.buffer = new ArrayDeque<>(Math.min(this.capacity, 1024));
+        this.flushRequested = new AtomicBoolean(false);
+        this.droppedEventCount = 0;
+        this.droppedEventCountAtLastReport = 0;
+    }
+
+    /**
+     * Starts the periodic flushes of this batcher, if they are not running yet.
+     * Should be called when the owning monitoring service is (re)started.
+     */
+    synchronized void start() {
+        if (flushExecutor != null) {
+            return;
+        }
+
+        // the flush thread is a daemon thread, so that it never prevents the JVM
+        // from shutting down
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "monitoring-batcher-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        executor.scheduleWithFixedDelay(this::periodicFlush,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        flushExecutor = executor;
+    }
+
+    /**
+     * Stops the flushes of this batcher and its thread. Events that are still
+     * buffered are kept, and are flushed once the batcher is started again.
+     * Should be called when the owning monitoring service is reset.
+     */
+    synchronized void stop() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+            flushExecutor = null;
+        }
+        flushRequested.set(false);
+    }
+
+    /**
+     * Adds the given monitoring events to the buffer of this batcher. If the buffer
+     * is full, the oldest buffered events are dropped to make room for the new ones.
+     * If the buffer contains enough events to form a full batch, a flush is requested
+     * without waiting for the next periodic flush.
+     *
+     * This method never blocks on the mapping or on the stream processor.
+     *
+     * @param events monitoring events to be added
+     */
+    void add(Collection<MonitoringEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        boolean batchComplete;
+        synchronized (buffer) {
+            for (MonitoringEvent event : events) {
+                if (buffer.size() >= capacity) {
+                    buffer.pollFirst();
+                    droppedEventCount++;
+                }
+                buffer.addLast(event);
+            }
+            batchComplete = buffer.size() >= maxBatchSize;
+        }
+
+        // only one size-triggered flush is pending at any time, so that a burst of
+        // events cannot flood the flush executor with tasks
+        if (batchComplete && flushRequested.compareAndSet(false, true)) {
+            requestFlush();
+        }
+    }
+
+    private synchronized void requestFlush() {
+        // if the batcher is stopped, the buffered events are flushed when it
+        // is started again
+        if (flushExecutor == null) {
+            flushRequested.set(false);
+            return;
+        }
+        try {
+            flushExecutor.execute(this::requestedFlush);
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    private void requestedFlush() {
+        flushRequested.set(false);
+        flush();
+    }
+
+    private void periodicFlush() {
+        flush();
+        reportDroppedEvents();
+    }
+
+    /**
+     * Hands all buffered events to the sink, in batches of at most the maximum
+     * batch size. Should only be called on the flush thread.
+     */
+    private void flush() {
+        List<MonitoringEvent> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            try {
+                sink.accept(batch);
+
+            } catch (Exception e) {
+                // an exception should never stop the flush thread, since this would
+                // stop all future monitoring output of this service from arriving
+                LOGGER.error("Error when handing batch of {} monitoring events to the " +
+                        "aggregation", batch.size(), e);
+            }
+        }
+    }
+
+    private List<MonitoringEvent> takeBatch() {
+        synchronized (buffer) {
+            int size = Math.min(buffer.size(), maxBatchSize);
+            List<MonitoringEvent> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(buffer.pollFirst());
+            }
+            return batch;
+        }
+    }
+
+    private void reportDroppedEvents() {
+        long dropped;
+        long total;
+        synchronized (buffer) {
+            total = droppedEventCount;
+            dropped = total - droppedEventCountAtLastReport;
+            droppedEventCountAtLastReport = total;
+        }
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} monitoring events ({} in total) since the aggregation " +
+                    "cannot keep up with the rate of incoming events", dropped, total);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the monitoring pipeline shared by all monitoring services of the
+ * Local Monitor, which are read by the self monitor to report the overhead of the
+ * Local Monitor itself.
+ *
+ * The counters are cumulative since the start of the Local Monitor: readers should
+ * calculate the difference between two readings.
+ */
+public class MonitoringPipelineStatistics {
+
+    private static final MonitoringPipelineStatistics INSTANCE = new MonitoringPipelineStatistics();
+
+    public static MonitoringPipelineStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    // number of monitoring events ingested by the aggregation of all monitoring services
+    private final AtomicLong ingestedEvents;
+
+    // sum of the delays between the timestamp of each ingested event and the moment
+    // it was ingested (in milliseconds)
+    private final AtomicLong ingestDelaySum;
+
+    // number of aggregation steps of all monitoring services that published
+    // measurements, and the total time spent on publishing them (in nanoseconds)
+    private final AtomicLong publishedSteps;
+    private final AtomicLong publishTimeSum;
+
+    private MonitoringPipelineStatistics() {
+        this.ingestedEvents = new AtomicLong();
+        this.ingestDelaySum = new AtomicLong();
+        this.publishedSteps = new AtomicLong();
+        this.publishTimeSum = new AtomicLong();
+    }
+
+    void recordIngest(List<MonitoringEvent> events, long now) {
+        long delaySum = 0;
+        for (MonitoringEvent event : events) {
+            // clocks of the event sources are the same as the clock of the Local
+            // Monitor, but events in the future are not counted as negative delay
+            delaySum += Math.max(0, now - event.getTime());
+        }
+        ingestedEvents.addAndGet(events.size());
+        ingestDelaySum.addAndGet(delaySum);
+    }
+
+    void recordPublish(long publishTimeInNanoseconds) {
+        publishedSteps.incrementAndGet();
+        publishTimeSum.addAndGet(publishTimeInNanoseconds);
+    }
+
+    public long getIngestedEvents() {
+        return ingestedEvents.get();
+    }
+
+    public long getIngestDelaySumInMilliseconds() {
+        return ingestDelaySum.get();
+    }
+
+    public long getPublishedSteps() {
+        return publishedSteps.get();
+    }
+
+    public long getPublishTimeSumInNanoseconds() {
+        return publishTimeSum.get();
+    }
+
+}
@@ -1,47 +1,92 @@
 package be.ugent.idlab.divide.monitor.local.monitoring;
 
 import be.ugent.idlab.divide.monitor.local.ILocalMonitorService;
+import be.ugent.idlab.divide.monitor.local.LocalMonitorConstants;
+import be.ugent.idlab.divide.monitor.local.config.ILocalMonitorConfig;
+import be.ugent.idlab.divide.monitor.local.config.LocalMonitorConfigFactory;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
 import be.ugent.idlab.divide.monitor.local.semanticmapper.SemanticMapper;
+import be.ugent.idlab.divide.monitor.local.transport.MeasurementFrameClient;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
-import be.ugent.idlab.rspservice.common.util.InvalidRdfException;
 
-public abstract class MonitoringService implements ILocalMonitorService {
+import java.util.List;
 
-    private final RDFStreamProcessor rdfStreamProcessor;
-    private final RDFStream localMonitorStream;
+public abstract class MonitoringService implements ILocalMonitorService {
 
-    private final String componentId;
-    private final String deviceId;
+    private final MonitoringEventBatcher batcher;
+    private final MeasurementAggregator aggregator;
 
     protected MonitoringService(RDFStreamProcessor rdfStreamProcessor,
                                 RDFStream localMonitorStream,
                                 String componentId,
                                 String deviceId) {
-        this.rdfStreamProcessor = rdfStreamProcessor;
-        this.localMonitorStream = localMonitorStream;
-        this.componentId = componentId;
-        this.deviceId = deviceId;
+        // monitoring events are not fed one by one to the stream of the Local Monitor
+        // RSP engine, but aggregated per feature of interest, property & unit: only the
+        // aggregated measurements are periodically mapped to RDF and fed to the stream
+        // (aggregation parameters are taken from the config if it is initialized)
+        // -> if the binary transport to the Global Monitor is enabled, aggregated
+        //    measurements are sent as binary frames instead of being mapped to RDF
+        //    (the RDF stream is only used as long as no frame connection is available)
+        ILocalMonitorConfig config = LocalMonitorConfigFactory.getInstance();
+        MeasurementPublisher publisher = new RdfStreamMeasurementPublisher(
+                rdfStreamProcessor, localMonitorStream, componentId, deviceId);
+        MeasurementFrameClient frameClient = MeasurementFrameClient.getInstance();
+        if (frameClient != null) {
+            publisher = new FrameMeasurementPublisher(frameClient, publisher);
+        }
+        this.aggregator = new MeasurementAggregator(
+                getClass().getSimpleName(), publisher,
+                config != null ? config.getMonitoringAggregationRangeInSeconds() :
+                        LocalMonitorConstants.MONITORING_AGGREGATION_RANGE_IN_SECONDS,
+                config != null ? config.getMonitoringAggregationStepInSeconds() :
+                        LocalMonitorConstants.MONITORING_AGGREGATION_STEP_IN_SECONDS,
+                config != null ? config.getMonitoringAggregationWindowCapacity() :
+                        LocalMonitorConstants.MONITORING_AGGREGATION_WINDOW_CAPACITY);
+
+        // monitoring events are handed to the aggregator in batches by the batcher,
+        // so that the threads producing them never contend with the aggregation
+        this.batcher = new MonitoringEventBatcher(
+                getClass().getSimpleName(), aggregator::add,
+                config != null ? config.getMonitoringBatchIntervalInMilliseconds() :
+                        LocalMonitorConstants.MONITORING_BATCH_INTERVAL_IN_MILLISECONDS,
+                config != null ? config.getMonitoringBatchMaximumSize() :
+                        LocalMonitorConstants.MONITORING_BATCH_MAXIMUM_SIZE,
+                config != null ? config.getMonitoringBatchBufferCapacity() :
+                        LocalMonitorConstants.MONITORING_BATCH_BUFFER_CAPACITY);
     }
 
-    protected void handleMonitoringOutput(String monitorOutputJson) {
-        // map JSON output to RDF
-        String monitorOutputRdf = mapJsonToRdf(monitorOutputJson);
+    /**
+     * Starts the threads batching and aggregating the monitoring events of this
+     * service. Should be called by every monitoring service when it is started,
+     * before it produces any monitoring output.
+     */
+    protected void startMonitoringPipeline() {
+        this.aggregator.start();
+        this.batcher.start();
+    }
 
-        // send RDF output to stream of Local Monitor RSP engine
-        sendDataToStream(monitorOutputRdf);
+    /**
+     * Stops the threads batching and aggregating the monitoring events of this
+     * service. Should be called by every monitoring service when it is reset:
+     * since a restart of the Local Monitor reuses the same service instance,
+     * not stopping these threads would leak them on every restart.
+     */
+    protected void stopMonitoringPipeline() {
+        this.batcher.stop();
+        this.aggregator.stop();
     }
 
-    private String mapJsonToRdf(String json) {
-        return SemanticMapper.getInstance().mapJsonToRdf(json, componentId, deviceId);
+    protected void handleMonitoringOutput(String monitorOutputJson) {
+        // parse JSON output to monitoring events and add them to the batcher
+        // (the actual mapping to RDF only happens for the aggregated measurements)
+        this.batcher.add(SemanticMapper.getInstance().parseJsonEvents(monitorOutputJson));
     }
 
-    private void sendDataToStream(String rdf) {
-        try {
-            this.rdfStreamProcessor.feedRDFStream(this.localMonitorStream, rdf);
-        } catch (InvalidRdfException e) {
-            throw new RuntimeException(e);
-        }
+    protected void handleMonitoringEvents(List<MonitoringEvent> monitoringEvents) {
+        // add events to the batcher, which hands them to the aggregation of which
+        // the results are sent to the stream of the Local Monitor RSP engine
+        this.batcher.add(monitoringEvents);
     }
 
 }
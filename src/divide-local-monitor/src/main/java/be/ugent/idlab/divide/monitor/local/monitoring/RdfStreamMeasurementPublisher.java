@@ -0,0 +1,44 @@
+package be.ugent.idlab.divide.monitor.local.monitoring;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.AggregatedMeasurement;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.SemanticMapper;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
+
+import java.util.List;
+
+/**
+ * Publisher that maps aggregated measurements to RDF and feeds them to the stream of
+ * the Local Monitor RSP engine, from where the forwarding query sends them to the
+ * Global Monitor over HTTP.
+ */
+class RdfStreamMeasurementPublisher implements MeasurementPublisher {
+
+    private final RDFStreamProcessor rdfStreamProcessor;
+    private final RDFStream localMonitorStream;
+    private final String componentId;
+    private final String deviceId;
+
+    RdfStreamMeasurementPublisher(RDFStreamProcessor rdfStreamProcessor,
+                                  RDFStream localMonitorStream,
+                                  String componentId,
+                                  String deviceId) {
+        this.rdfStreamProcessor = rdfStreamProcessor;
+        this.localMonitorStream = localMonitorStream;
+        this.componentId = componentId;
+        this.deviceId = deviceId;
+    }
+
+    @Override
+    public void publish(List<AggregatedMeasurement> measurements, long time) throws Exception {
+        // map all aggregated measurements at once
+        String rdf = SemanticMapper.getInstance().mapAggregatesToRdf(
+                measurements, time, componentId, deviceId);
+
+        // send RDF output to stream of Local Monitor RSP engine
+        if (!rdf.isEmpty()) {
+            rdfStreamProcessor.feedRDFStream(localMonitorStream, rdf);
+        }
+    }
+
+}
@@ -9,8 +9,10 @@ public class DeviceMonitorFactory {
     public static ILocalMonitorService createDeviceMonitor(RDFStreamProcessor rdfStreamProcessor,
                                                            RDFStream localMonitorStream,
                                                            String componentId,
-                                                           String deviceId) {
-        return new DeviceMonitor(rdfStreamProcessor, localMonitorStream, componentId, deviceId);
+                                                           String deviceId,
+                                                           int samplingPeriodInSeconds) {
+        return new DeviceMonitor(rdfStreamProcessor, localMonitorStream,
+                componentId, deviceId, samplingPeriodInSeconds);
     }
 
 }
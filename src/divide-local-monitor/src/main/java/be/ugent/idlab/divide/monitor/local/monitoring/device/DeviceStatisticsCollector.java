@@ -0,0 +1,241 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.device;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collector of device statistics (CPU usage & load, memory and disk space), which
+ * reads them directly from the Linux '/proc' file system. If a '/proc' file is not
+ * available (e.g., on another OS), the statistics are retrieved from the operating
+ * system MXBean of the JVM instead, if it offers them.
+ *
+ * The generated events are identical to the events of the original
+ * 'call-device-monitor.py' script (which used psutil). The only exception is the
+ * CPU usage: it is calculated over the full period since the previous collection,
+ * instead of over a blocking interval of 1 second.
+ */
+class DeviceStatisticsCollector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceStatisticsCollector.class.getName());
+
+    private static final Path PROC_STAT = Paths.get("/proc/stat");
+    private static final Path PROC_MEMINFO = Paths.get("/proc/meminfo");
+    private static final Path PROC_LOADAVG = Paths.get("/proc/loadavg");
+    private static final Path DISK_ROOT = Paths.get("/");
+
+    private final OperatingSystemMXBean operatingSystemMXBean;
+
+    /**
+     * CPU time counters of the previous collection (in clock ticks), or -1 if
+     * no previous collection happened yet
+     */
+    private long previousCpuTotalTime;
+    private long previousCpuIdleTime;
+
+    DeviceStatisticsCollector() {
+        this.operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        this.previousCpuTotalTime = -1;
+        this.previousCpuIdleTime = -1;
+    }
+
+    /**
+     * Stores the current CPU time counters, so that the CPU usage reported by
+     * the first collection is calculated relative to this moment.
+     */
+    void prime() {
+        try {
+            updateCpuUsage();
+        } catch (IOException ignored) {
+            // the MXBean will be used as fallback upon collection
+        }
+    }
+
+    /**
+     * Collects the current device statistics.
+     *
+     * @return list of monitoring events representing the current statistics
+     */
+    List<MonitoringEvent> collect() {
+        long time = System.currentTimeMillis();
+        List<MonitoringEvent> events = new ArrayList<>();
+
+        collectCpuUsage(time, events);
+        collectCpuLoad(time, events);
+        collectMemoryUsage(time, events);
+        collectDiskUsage(time, events);
+
+        return events;
+    }
+
+    private void collectCpuUsage(long time, List<MonitoringEvent> events) {
+        double cpuUsage;
+        try {
+            cpuUsage = updateCpuUsage();
+        } catch (IOException e) {
+            cpuUsage = getSystemCpuLoadFromMXBean();
+        }
+        if (cpuUsage >= 0) {
+            events.add(new MonitoringEvent(time, "cpu_usage_overall",
+                    round(cpuUsage, 1), "percentage"));
+        }
+    }
+
+    /**
+     * Reads the aggregated CPU line of '/proc/stat', and calculates the CPU usage
+     * percentage since the previous call of this method.
+     *
+     * @return CPU usage percentage, or -1 if this is the first call
+     * @throws IOException if '/proc/stat' cannot be read
+     */
+    private double updateCpuUsage() throws IOException {
+        // format: cpu  user nice system idle iowait irq softirq steal guest guest_nice
+        // (guest time is already included in user time, so it is not counted twice)
+        String cpuLine = null;
+        for (String line : Files.readAllLines(PROC_STAT, StandardCharsets.US_ASCII)) {
+            if (line.startsWith("cpu ")) {
+                cpuLine = line;
+                break;
+            }
+        }
+        if (cpuLine == null) {
+            throw new IOException("No aggregated CPU line in " + PROC_STAT);
+        }
+        String[] fields = cpuLine.trim().split("\\s+");
+        long totalTime = 0;
+        for (int i = 1; i <= 8 && i < fields.length; i++) {
+            totalTime += Long.parseLong(fields[i]);
+        }
+        long idleTime = Long.parseLong(fields[4]) + (fields.length > 5 ? Long.parseLong(fields[5]) : 0);
+
+        double cpuUsage = -1;
+        if (previousCpuTotalTime >= 0) {
+            long totalDelta = totalTime - previousCpuTotalTime;
+            long idleDelta = idleTime - previousCpuIdleTime;
+            cpuUsage = totalDelta <= 0 ? 0.0 :
+                    Math.max(0.0, Math.min(100.0, (totalDelta - idleDelta) * 100.0 / totalDelta));
+        }
+        previousCpuTotalTime = totalTime;
+        previousCpuIdleTime = idleTime;
+        return cpuUsage;
+    }
+
+    private void collectCpuLoad(long time, List<MonitoringEvent> events) {
+        // load averages are expressed as a percentage of the number of CPUs
+        int cpuCount = Runtime.getRuntime().availableProcessors();
+        try {
+            String[] fields = new String(Files.readAllBytes(PROC_LOADAVG),
+                    StandardCharsets.US_ASCII).trim().split("\\s+");
+            events.add(new MonitoringEvent(time, "cpu_load_last_1_minutes",
+                    round(Double.parseDouble(fields[0]) / cpuCount * 100, 2), "percentage"));
+            events.add(new MonitoringEvent(time, "cpu_load_last_5_minutes",
+                    round(Double.parseDouble(fields[1]) / cpuCount * 100, 2), "percentage"));
+            events.add(new MonitoringEvent(time, "cpu_load_last_15_minutes",
+                    round(Double.parseDouble(fields[2]) / cpuCount * 100, 2), "percentage"));
+
+        } catch (IOException | RuntimeException e) {
+            // the MXBean only offers the load average of the last minute
+            double loadAverage = operatingSystemMXBean.getSystemLoadAverage();
+            if (loadAverage >= 0) {
+                events.add(new MonitoringEvent(time, "cpu_load_last_1_minutes",
+                        round(loadAverage / cpuCount * 100, 2), "percentage"));
+            }
+        }
+    }
+
+    private void collectMemoryUsage(long time, List<MonitoringEvent> events) {
+        long total;
+        long available;
+        long used;
+        try {
+            // all values in '/proc/meminfo' are expressed in kB
+            Map<String, Long> memInfo = new HashMap<>();
+            for (String line : Files.readAllLines(PROC_MEMINFO, StandardCharsets.US_ASCII)) {
+                int separator = line.indexOf(':');
+                if (separator > 0) {
+                    String[] value = line.substring(separator + 1).trim().split("\\s+");
+                    memInfo.put(line.substring(0, separator), Long.parseLong(value[0]) * 1024);
+                }
+            }
+            total = memInfo.get("MemTotal");
+            long free = memInfo.get("MemFree");
+            long buffers = memInfo.getOrDefault("Buffers", 0L);
+            long cached = memInfo.getOrDefault("Cached", 0L) +
+                    memInfo.getOrDefault("SReclaimable", 0L);
+            available = memInfo.getOrDefault("MemAvailable", free + buffers + cached);
+            // same calculation of used memory as psutil
+            used = total - free - buffers - cached;
+            if (used < 0) {
+                used = total - free;
+            }
+
+        } catch (IOException | RuntimeException e) {
+            if (!(operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean)) {
+                LOGGER.warn("Memory usage of device cannot be retrieved");
+                return;
+            }
+            com.sun.management.OperatingSystemMXBean bean =
+                    (com.sun.management.OperatingSystemMXBean) operatingSystemMXBean;
+            total = bean.getTotalPhysicalMemorySize();
+            available = bean.getFreePhysicalMemorySize();
+            used = total - available;
+        }
+
+        events.add(new MonitoringEvent(time, "ram_available", available, "byte"));
+        events.add(new MonitoringEvent(time, "ram_used", used, "byte"));
+        if (total > 0) {
+            double usedPercentage = round((total - available) * 100.0 / total, 1);
+            events.add(new MonitoringEvent(time, "ram_available",
+                    round(100 - usedPercentage, 2), "percentage"));
+        }
+    }
+
+    private void collectDiskUsage(long time, List<MonitoringEvent> events) {
+        try {
+            FileStore fileStore = Files.getFileStore(DISK_ROOT);
+            long total = fileStore.getTotalSpace();
+            long free = fileStore.getUsableSpace();
+            long used = total - fileStore.getUnallocatedSpace();
+
+            // same calculation of used disk percentage as psutil: space reserved
+            // for the root user is not taken into account
+            events.add(new MonitoringEvent(time, "disk_space_available", free, "byte"));
+            if (used + free > 0) {
+                double usedPercentage = round(used * 100.0 / (used + free), 1);
+                events.add(new MonitoringEvent(time, "disk_space_available",
+                        round(100 - usedPercentage, 2), "percentage"));
+            }
+
+        } catch (IOException e) {
+            LOGGER.warn("Disk usage of device cannot be retrieved", e);
+        }
+    }
+
+    private double getSystemCpuLoadFromMXBean() {
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            double load = ((com.sun.management.OperatingSystemMXBean)
+                    operatingSystemMXBean).getSystemCpuLoad();
+            return load < 0 ? -1 : load * 100;
+        }
+        return -1;
+    }
+
+    private static double round(double value, int decimals) {
+        double factor = Math.pow(10, decimals);
+        return Math.round(value * factor) / factor;
+    }
+
+}
@@ -1,113 +1,147 @@
 package be.ugent.idlab.divide.monitor.local.monitoring.network;
 
-import be.ugent.idlab.divide.monitor.local.LocalMonitorConstants;
 import be.ugent.idlab.divide.monitor.local.LocalMonitorException;
 import be.ugent.idlab.divide.monitor.local.monitoring.MonitoringService;
-import be.ugent.idlab.divide.monitor.local.util.JarResourceManager;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
-import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Network monitor class which is a Java wrapper around the network monitoring Python script
- * called 'network-monitor.py'.
+ * Network monitor class which periodically collects the traffic statistics of the
+ * public network interface of the device (using a {@link NetworkStatisticsCollector}),
+ * and periodically probes the round trip time towards the central host (using a
+ * {@link RoundTripTimeProber}), all within the JVM.
  */
 class NetworkMonitor extends MonitoringService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NetworkMonitor.class.getName());
 
-    // name and start-up call for Python network monitoring script
-    private static final String[] SCRIPT_EXECUTOR = new String[]{"python3", "-u"};
-    private static final String SCRIPT_NAME = "network-monitor.py";
-
-    private Process process;
     private final String publicNetworkInterface;
     private final String centralHost;
+    private final int centralPort;
+    private final int samplingPeriodInSeconds;
+    private final int roundTripTimePeriodInSeconds;
 
-    // actual location of script on local file system
-    private String scriptPath;
+    private ScheduledExecutorService scheduler;
+    private CompletableFuture<Void> failure;
 
     NetworkMonitor(RDFStreamProcessor rdfStreamProcessor,
                    RDFStream localMonitorStream,
                    String componentId,
                    String deviceId,
                    String publicNetworkInterface,
-                   String centralHost) {
+                   String centralHost,
+                   int centralPort,
+                   int samplingPeriodInSeconds,
+                   int roundTripTimePeriodInSeconds) {
         super(rdfStreamProcessor, localMonitorStream, componentId, deviceId);
         this.publicNetworkInterface = publicNetworkInterface;
         this.centralHost = centralHost;
+        this.centralPort = centralPort;
+        this.samplingPeriodInSeconds = Math.max(1, samplingPeriodInSeconds);
+        this.roundTripTimePeriodInSeconds = Math.max(1, roundTripTimePeriodInSeconds);
     }
 
     @Override
     public void start() throws LocalMonitorException {
-        // create an actual file on the file system from the script's resource file
-        LOGGER.info("Copying network monitor script resource from JAR to dedicated file {}", SCRIPT_NAME);
-        try {
-            this.scriptPath = JarResourceManager.getInstance().copyResourceToFile(Paths.get(SCRIPT_NAME));
-        } catch (IOException e) {
-            throw new LocalMonitorException("Network monitor Python script could not be copied " +
-                    "from the JAR resources to a dedicated file on the file system", e);
+        startMonitoringPipeline();
+
+        this.failure = new CompletableFuture<>();
+        this.scheduler = Executors.newScheduledThreadPool(2);
+
+        // schedule periodic collection of network traffic statistics
+        // (the first collection only stores the initial counters)
+        LOGGER.info("Periodically schedule collection of network statistics of interface {} " +
+                "every {} seconds", publicNetworkInterface, samplingPeriodInSeconds);
+        NetworkStatisticsCollector collector = new NetworkStatisticsCollector(publicNetworkInterface);
+        scheduler.scheduleAtFixedRate(() -> watch(() -> collectNetworkStatistics(collector)),
+                0, samplingPeriodInSeconds, TimeUnit.SECONDS);
+
+        // schedule periodic probing of round trip time to central host
+        if (centralHost != null) {
+            LOGGER.info("Periodically schedule probing of round trip time to {} every {} seconds",
+                    centralHost, roundTripTimePeriodInSeconds);
+            RoundTripTimeProber prober = new RoundTripTimeProber(
+                    centralHost, centralPort, roundTripTimePeriodInSeconds * 1000);
+            scheduler.scheduleAtFixedRate(() -> watch(() -> probeRoundTripTime(prober)),
+                    0, roundTripTimePeriodInSeconds, TimeUnit.SECONDS);
+        } else {
+            LOGGER.warn("No central host defined: round trip time is not monitored");
         }
 
-        // schedule periodic execution of network monitor script
-        LOGGER.info("Start the network monitor script (which will continuously run)");
-        callMonitor();
+        // watch the periodic tasks to intercept any exceptions
+        try {
+            failure.get();
+        } catch (ExecutionException e) {
+            String message = "Error during collection of network statistics";
+            // not logged since LocalMonitor exception handler will report exception
+            throw new LocalMonitorException(message, e);
+        } catch (InterruptedException e) {
+            String message = "Network monitor interrupted while waiting for collected statistics";
+            // not logged since LocalMonitor exception handler will report exception
+            throw new LocalMonitorException(message, e);
+        }
     }
 
-    private void callMonitor() throws LocalMonitorException {
-        // start process
-        runProcess();
+    private void collectNetworkStatistics(NetworkStatisticsCollector collector) {
+        try {
+            List<MonitoringEvent> events = collector.collect();
+            if (!events.isEmpty()) {
+                LOGGER.debug("Network monitor output: {}", events);
+                handleMonitoringEvents(events);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Network statistics of interface {} could not be collected",
+                    publicNetworkInterface, e);
+        }
     }
 
-    private void runProcess() throws LocalMonitorException {
-        if (process == null || !process.isAlive()) {
-            if (process != null) {
-                process.destroyForcibly();
-            }
-            try {
-                // call monitor script
-                String[] processCall = ArrayUtils.addAll(
-                        SCRIPT_EXECUTOR, this.scriptPath, this.centralHost, this.publicNetworkInterface,
-                        Integer.toString(LocalMonitorConstants.NETWORK_MONITOR_PING_PERIOD_IN_SECONDS),
-                        Integer.toString(LocalMonitorConstants.NETWORK_MONITOR_EXECUTION_PERIOD_IN_SECONDS));
-                LOGGER.info("Starting the following process: {}", String.join(" ", processCall));
-                process = Runtime.getRuntime().exec(processCall);
-
-                // create reader for process output
-                InputStream inputStream = process.getInputStream();
-                InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-                BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-
-                // process every output line
-                String line;
-                while ((line = bufferedReader.readLine()) != null) {
-                    LOGGER.info("Network monitor script output: {}", line);
-                    handleMonitoringOutput(line);
-                }
-
-                // wait for process to finish
-                process.waitFor();
-
-            } catch (IOException | InterruptedException e) {
-                String message = "Network monitor Python script failed or interrupted";
-                // not logged since LocalMonitor exception handler will report exception
-                throw new LocalMonitorException(message, e);
+    private void probeRoundTripTime(RoundTripTimeProber prober) {
+        try {
+            double roundTripTime = prober.probe();
+            if (roundTripTime >= 0) {
+                handleMonitoringEvents(Collections.singletonList(new MonitoringEvent(
+                        System.currentTimeMillis(), "network_round_trip_time",
+                        roundTripTime, "second")));
+            } else {
+                LOGGER.debug("Central host {} not reachable for round trip time probe", centralHost);
             }
+        } catch (IOException e) {
+            // unreachable hosts are ignored, just like failed pings
+            LOGGER.debug("Round trip time probe to central host {} failed", centralHost, e);
+        }
+    }
+
+    /**
+     * Runs the given periodic task, and reports any unexpected exception as a failure
+     * of this monitor, so that it is restarted by the Local Monitor.
+     */
+    private void watch(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failure.completeExceptionally(e);
+            throw e;
         }
     }
 
     @Override
     public void reset() {
-        if (process != null) {
-            process.destroy();
+        stopMonitoringPipeline();
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
         }
     }
 
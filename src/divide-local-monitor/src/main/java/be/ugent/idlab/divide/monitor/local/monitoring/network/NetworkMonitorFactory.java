@@ -11,9 +11,13 @@ public class NetworkMonitorFactory {
                                                             String componentId,
                                                             String deviceId,
                                                             String publicNetworkInterface,
-                                                            String centralHost) {
+                                                            String centralHost,
+                                                            int centralPort,
+                                                            int samplingPeriodInSeconds,
+                                                            int roundTripTimePeriodInSeconds) {
         return new NetworkMonitor(rdfStreamProcessor, localMonitorStream,
-                componentId, deviceId, publicNetworkInterface, centralHost);
+                componentId, deviceId, publicNetworkInterface, centralHost, centralPort,
+                samplingPeriodInSeconds, roundTripTimePeriodInSeconds);
     }
 
 }
@@ -0,0 +1,114 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.network;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collector of the network traffic statistics of a single network interface,
+ * which reads them directly from the Linux '/proc/net/dev' file.
+ *
+ * Every collection reports the traffic since the previous collection. The generated
+ * events are identical to the events of the original 'network-monitor.py' script
+ * (which used psutil), except for the Rx and Tx rates: these are now divided by the
+ * actual time between both collections, so that they are correctly expressed in
+ * bits per second for every collection period.
+ */
+class NetworkStatisticsCollector {
+
+    private static final Path PROC_NET_DEV = Paths.get("/proc/net/dev");
+
+    // indices of the counters in a line of '/proc/net/dev' (after the interface name)
+    private static final int RX_BYTES = 0;
+    private static final int RX_PACKETS = 1;
+    private static final int RX_DROP = 3;
+    private static final int TX_BYTES = 8;
+    private static final int TX_PACKETS = 9;
+    private static final int TX_DROP = 11;
+
+    private final String networkInterface;
+
+    private long[] previousCounters;
+    private long previousTimeNanos;
+
+    NetworkStatisticsCollector(String networkInterface) {
+        this.networkInterface = networkInterface;
+    }
+
+    /**
+     * Collects the network traffic since the previous collection.
+     *
+     * @return list of monitoring events representing the network traffic since the
+     *         previous collection; empty list if this is the first collection
+     * @throws IOException if the counters of the network interface cannot be read
+     */
+    List<MonitoringEvent> collect() throws IOException {
+        long timeNanos = System.nanoTime();
+        long[] counters = readCounters();
+
+        long[] previous = this.previousCounters;
+        long elapsedNanos = timeNanos - this.previousTimeNanos;
+        this.previousCounters = counters;
+        this.previousTimeNanos = timeNanos;
+        if (previous == null || elapsedNanos <= 0) {
+            return Collections.emptyList();
+        }
+
+        long time = System.currentTimeMillis();
+        double elapsedSeconds = elapsedNanos / 1e9;
+
+        // calculate Tx & Rx rates in bit/s
+        long rxRate = Math.round((counters[RX_BYTES] - previous[RX_BYTES]) * 8 / elapsedSeconds);
+        long txRate = Math.round((counters[TX_BYTES] - previous[TX_BYTES]) * 8 / elapsedSeconds);
+
+        // calculate number & percentage of incoming & outgoing packets dropped
+        long packetsIn = counters[RX_PACKETS] - previous[RX_PACKETS];
+        long packetsOut = counters[TX_PACKETS] - previous[TX_PACKETS];
+        long dropIn = counters[RX_DROP] - previous[RX_DROP];
+        long dropOut = counters[TX_DROP] - previous[TX_DROP];
+        double dropInPercentage = packetsIn == 0 ? 0 :
+                Math.round(dropIn * 10000.0 / packetsIn) / 100.0;
+        double dropOutPercentage = packetsOut == 0 ? 0 :
+                Math.round(dropOut * 10000.0 / packetsOut) / 100.0;
+
+        List<MonitoringEvent> events = new ArrayList<>(8);
+        events.add(new MonitoringEvent(time, "network_rx_rate", rxRate, "bit_per_second"));
+        events.add(new MonitoringEvent(time, "network_tx_rate", txRate, "bit_per_second"));
+        events.add(new MonitoringEvent(time, "network_packets_in", packetsIn, "number"));
+        events.add(new MonitoringEvent(time, "network_packets_out", packetsOut, "number"));
+        events.add(new MonitoringEvent(time, "network_dropin", dropIn, "number"));
+        events.add(new MonitoringEvent(time, "network_dropout", dropOut, "number"));
+        events.add(new MonitoringEvent(time, "network_dropin", dropInPercentage, "percentage"));
+        events.add(new MonitoringEvent(time, "network_dropout", dropOutPercentage, "percentage"));
+        return events;
+    }
+
+    private long[] readCounters() throws IOException {
+        // format: '  <interface>: <rx counters (8)> <tx counters (8)>'
+        for (String line : Files.readAllLines(PROC_NET_DEV, StandardCharsets.US_ASCII)) {
+            int separator = line.indexOf(':');
+            if (separator > 0 && line.substring(0, separator).trim().equals(networkInterface)) {
+                String[] fields = line.substring(separator + 1).trim().split("\\s+");
+                long[] counters = new long[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    counters[i] = Long.parseLong(fields[i]);
+                }
+                if (counters.length <= TX_DROP) {
+                    throw new IOException("Unexpected format of network interface " +
+                            networkInterface + " in " + PROC_NET_DEV);
+                }
+                return counters;
+            }
+        }
+        throw new IOException("Network interface " + networkInterface +
+                " does not exist in " + PROC_NET_DEV);
+    }
+
+}
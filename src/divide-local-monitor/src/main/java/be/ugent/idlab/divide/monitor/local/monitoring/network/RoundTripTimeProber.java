@@ -0,0 +1,79 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Prober of the network round trip time towards the central host, without starting
+ * an external 'ping' process.
+ *
+ * Every probe first tries to reach the host with an ICMP echo request. The JVM
+ * only sends such a request if it has the required privileges; otherwise, it tries
+ * to establish a TCP connection to the echo port of the host, which also reports
+ * the host as reachable when the connection is refused. If the host cannot be
+ * reached this way, and a TCP port of the central host is known, the time to
+ * establish a TCP connection to this port is used instead: this takes exactly
+ * one network round trip (SYN and SYN-ACK).
+ */
+class RoundTripTimeProber {
+
+    private final String host;
+    private final int tcpPort;
+    private final int timeoutMillis;
+
+    private InetAddress address;
+
+    /**
+     * @param host central host to be probed
+     * @param tcpPort TCP port on the central host to be used if the host cannot be
+     *                reached with an echo request, or a negative value if unknown
+     * @param timeoutMillis timeout of a single probe (in milliseconds)
+     */
+    RoundTripTimeProber(String host, int tcpPort, int timeoutMillis) {
+        this.host = host;
+        this.tcpPort = tcpPort;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Probes the round trip time towards the central host.
+     *
+     * @return measured round trip time in seconds, or -1 if the host could not be
+     *         reached within the timeout
+     * @throws IOException if the host cannot be resolved or a network error occurs
+     */
+    double probe() throws IOException {
+        // the host is only resolved again after a failed probe, so that a changed
+        // address is picked up without resolving it for every probe
+        InetAddress address = this.address;
+        if (address == null) {
+            address = InetAddress.getByName(host);
+            this.address = address;
+        }
+
+        try {
+            long start = System.nanoTime();
+            if (address.isReachable(timeoutMillis)) {
+                return (System.nanoTime() - start) / 1e9;
+            }
+
+            if (tcpPort > 0) {
+                try (Socket socket = new Socket()) {
+                    start = System.nanoTime();
+                    socket.connect(new InetSocketAddress(address, tcpPort), timeoutMillis);
+                    return (System.nanoTime() - start) / 1e9;
+                }
+            }
+
+            this.address = null;
+            return -1;
+
+        } catch (IOException e) {
+            this.address = null;
+            throw e;
+        }
+    }
+
+}
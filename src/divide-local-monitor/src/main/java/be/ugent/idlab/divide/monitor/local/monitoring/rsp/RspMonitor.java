@@ -4,10 +4,9 @@ import be.ugent.idlab.divide.monitor.local.LocalMonitorException;
 import be.ugent.idlab.divide.monitor.local.monitoring.MonitoringService;
 import be.ugent.idlab.divide.monitor.local.monitoring.rsp.ws.MessageHandler;
 import be.ugent.idlab.divide.monitor.local.monitoring.rsp.ws.WebSocketClient;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
 import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.slf4j.Logger;
@@ -17,7 +16,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * RSP monitor class which is a WebSocket client to the WebSocket server exposed by
@@ -43,6 +41,8 @@ class RspMonitor extends MonitoringService {
 
     @Override
     public void start() throws LocalMonitorException {
+        startMonitoringPipeline();
+
         // construct WebSocket url
         String webSocketUrl = String.format("ws://localhost:%d", this.rspEngineMonitorWebSocketPort);
 
@@ -66,6 +66,8 @@ class RspMonitor extends MonitoringService {
 
     @Override
     public void reset() {
+        stopMonitoringPipeline();
+
         // try to close active WebSocket session (but ignore any errors that may be caused by
         // fact that session was already closed by the system)
         try {
@@ -76,8 +78,6 @@ class RspMonitor extends MonitoringService {
 
     private class RspMonitorOutputHandler implements MessageHandler {
 
-        private final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
-
         @Override
         public void handleMessage(String message) {
             try {
@@ -85,7 +85,7 @@ class RspMonitor extends MonitoringService {
                 JsonObject jsonMessage = new JsonParser().parse(message).getAsJsonObject();
 
                 // create empty array of events
-                List<RspMonitorEvent> events = new ArrayList<>();
+                List<MonitoringEvent> events = new ArrayList<>();
 
                 // retrieve type of event
                 String type = jsonMessage.get("type").getAsString();
@@ -95,21 +95,21 @@ class RspMonitor extends MonitoringService {
 
                     float memoryUsageMb = jsonMessage.get("memoryUsageMb").getAsFloat();
                     float memoryUsageBytes = memoryUsageMb * 1048576;
-                    events.add(new RspMonitorEvent(
+                    events.add(new MonitoringEvent(
                             timestamp, "rsp_query_execution_memory_usage", memoryUsageBytes, "byte", queryId));
 
                     float executionTimeMs = jsonMessage.get("executionTimeMs").getAsFloat();
                     float executionTimeSeconds = executionTimeMs / 1000.0f;
-                    events.add(new RspMonitorEvent(
+                    events.add(new MonitoringEvent(
                             timestamp, "rsp_query_execution_time", executionTimeSeconds, "second", queryId));
 
                     float processingTimeMs = jsonMessage.get("processingTimeMs").getAsFloat();
                     float processingTimeSeconds = processingTimeMs / 1000.0f;
-                    events.add(new RspMonitorEvent(
+                    events.add(new MonitoringEvent(
                             timestamp, "rsp_query_processing_time", processingTimeSeconds, "second", queryId));
 
                     int numberOfHits = jsonMessage.get("numberOfHits").getAsInt();
-                    events.add(new RspMonitorEvent(
+                    events.add(new MonitoringEvent(
                             timestamp, "rsp_query_execution_hits", numberOfHits, "number", queryId));
 
                 } else if ("stream_event".equals(type)) {
@@ -117,16 +117,12 @@ class RspMonitor extends MonitoringService {
                     String streamId = jsonMessage.get("streamId").getAsString();
 
                     int numberOfTriples = jsonMessage.get("numberOfTriples").getAsInt();
-                    events.add(new RspMonitorEvent(
+                    events.add(new MonitoringEvent(
                             timestamp, "rsp_stream_event_triples", numberOfTriples, "number", streamId));
                 }
 
-                // create string of JSON array with all events
-                String processedJson = String.format("[ %s ]",
-                        events.stream().map(GSON::toJson).collect(Collectors.joining(",")));
-
-                // forward processed JSON events to general monitor output handler
-                handleMonitoringOutput(processedJson);
+                // forward events to general monitor output handler
+                handleMonitoringEvents(events);
 
             } catch (Exception e) {
                 LOGGER.warn("Could not correctly parse message received from RSP engine monitor", e);
@@ -135,31 +131,4 @@ class RspMonitor extends MonitoringService {
 
     }
 
-    @SuppressWarnings({"FieldCanBeLocal", "unused"})
-    private static class RspMonitorEvent {
-
-        private final long time;
-        private final String metric;
-        private final float value;
-        private final String unit;
-        private final String featureOfInterestId;
-
-        public RspMonitorEvent(long time, String metric, float value, String unit) {
-            this.time = time;
-            this.metric = metric;
-            this.value = value;
-            this.unit = unit;
-            this.featureOfInterestId = null;
-        }
-
-        public RspMonitorEvent(long time, String metric, float value, String unit, String featureOfInterestId) {
-            this.time = time;
-            this.metric = metric;
-            this.value = value;
-            this.unit = unit;
-            this.featureOfInterestId = featureOfInterestId;
-        }
-
-    }
-
 }
@@ -0,0 +1,91 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.self;
+
+import be.ugent.idlab.divide.monitor.local.LocalMonitorException;
+import be.ugent.idlab.divide.monitor.local.monitoring.MonitoringService;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Self monitor class which periodically collects statistics of the overhead of the
+ * Local Monitor itself (CPU usage, memory allocation, garbage collection and the
+ * monitoring event pipeline), using a {@link SelfStatisticsCollector}. These statistics
+ * are fed to the same pipeline as the statistics of the other monitors, so that the
+ * Global Monitor can take the monitoring overhead on the device into account.
+ */
+class SelfMonitor extends MonitoringService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SelfMonitor.class.getName());
+
+    private final int samplingPeriodInSeconds;
+
+    private ScheduledExecutorService scheduler;
+    private SelfStatisticsCollector collector;
+
+    SelfMonitor(RDFStreamProcessor rdfStreamProcessor,
+                RDFStream localMonitorStream,
+                String componentId,
+                String deviceId,
+                int samplingPeriodInSeconds) {
+        super(rdfStreamProcessor, localMonitorStream, componentId, deviceId);
+        this.samplingPeriodInSeconds = Math.max(1, samplingPeriodInSeconds);
+    }
+
+    @Override
+    public void start() throws LocalMonitorException {
+        startMonitoringPipeline();
+
+        // create collector, and already read the current counters so that
+        // the first collection can report the statistics of its period
+        this.collector = new SelfStatisticsCollector();
+        this.collector.prime();
+
+        // schedule periodic collection of Local Monitor statistics
+        LOGGER.info("Periodically schedule collection of Local Monitor statistics every {} seconds",
+                samplingPeriodInSeconds);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        ScheduledFuture<?> handle =
+                scheduler.scheduleAtFixedRate(this::callMonitor, samplingPeriodInSeconds,
+                        samplingPeriodInSeconds, TimeUnit.SECONDS);
+
+        // watch the periodic collection to intercept any exceptions
+        try {
+            handle.get();
+        } catch (ExecutionException e) {
+            String message = "Error during collection of Local Monitor statistics";
+            // not logged since LocalMonitor exception handler will report exception
+            throw new LocalMonitorException(message, e);
+        } catch (InterruptedException e) {
+            String message = "Self monitor interrupted while waiting between two collections";
+            // not logged since LocalMonitor exception handler will report exception
+            throw new LocalMonitorException(message, e);
+        }
+    }
+
+    private void callMonitor() {
+        // collect Local Monitor statistics
+        List<MonitoringEvent> events = this.collector.collect();
+        LOGGER.debug("Self monitor output: {}", events);
+        // handle output
+        handleMonitoringEvents(events);
+    }
+
+    @Override
+    public void reset() {
+        stopMonitoringPipeline();
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.self;
+
+import be.ugent.idlab.divide.monitor.local.ILocalMonitorService;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStream;
+import be.ugent.idlab.rspservice.common.interfaces.RDFStreamProcessor;
+
+public class SelfMonitorFactory {
+
+    public static ILocalMonitorService createSelfMonitor(RDFStreamProcessor rdfStreamProcessor,
+                                                         RDFStream localMonitorStream,
+                                                         String componentId,
+                                                         String deviceId,
+                                                         int samplingPeriodInSeconds) {
+        return new SelfMonitor(rdfStreamProcessor, localMonitorStream,
+                componentId, deviceId, samplingPeriodInSeconds);
+    }
+
+}
@@ -0,0 +1,215 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.self;
+
+import be.ugent.idlab.divide.monitor.local.monitoring.MonitoringPipelineStatistics;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collector of statistics about the overhead of the Local Monitor process itself:
+ * the CPU usage of the process, its memory allocation rate, the time spent in
+ * garbage collection, and the rate, delay & publishing time of the monitoring events
+ * flowing through the monitoring pipeline of all monitoring services.
+ *
+ * All statistics are calculated over the period since the previous collection.
+ * The JVM statistics are read from the platform MXBeans; statistics that are not
+ * supported by the JVM are not reported.
+ */
+class SelfStatisticsCollector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SelfStatisticsCollector.class.getName());
+
+    private final OperatingSystemMXBean operatingSystemMXBean;
+    private final ThreadMXBean threadMXBean;
+    private final List<GarbageCollectorMXBean> garbageCollectorMXBeans;
+
+    /**
+     * Counters of the previous collection, or -1 if no previous
+     * collection happened yet (or if the counter is not supported)
+     */
+    private long previousTime;
+    private long previousProcessCpuTime;
+    private long previousAllocatedBytes;
+    private long previousGcTime;
+    private long previousIngestedEvents;
+    private long previousIngestDelaySum;
+    private long previousPublishedSteps;
+    private long previousPublishTimeSum;
+
+    SelfStatisticsCollector() {
+        this.operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.garbageCollectorMXBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+        // thread allocation counters are supported but not always enabled by default
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+            try {
+                if (bean.isThreadAllocatedMemorySupported() && !bean.isThreadAllocatedMemoryEnabled()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                LOGGER.warn("Memory allocation of the Local Monitor cannot be monitored");
+            }
+        }
+
+        this.previousTime = -1;
+    }
+
+    /**
+     * Stores the current counters, so that the statistics reported by the first
+     * collection are calculated relative to this moment.
+     */
+    void prime() {
+        updateCounters(System.nanoTime());
+    }
+
+    /**
+     * Collects the statistics of the Local Monitor since the previous collection.
+     *
+     * @return list of monitoring events representing these statistics
+     */
+    List<MonitoringEvent> collect() {
+        long time = System.currentTimeMillis();
+        long now = System.nanoTime();
+        List<MonitoringEvent> events = new ArrayList<>();
+
+        long lastTime = previousTime;
+        long lastProcessCpuTime = previousProcessCpuTime;
+        long lastAllocatedBytes = previousAllocatedBytes;
+        long lastGcTime = previousGcTime;
+        long lastIngestedEvents = previousIngestedEvents;
+        long lastIngestDelaySum = previousIngestDelaySum;
+        long lastPublishedSteps = previousPublishedSteps;
+        long lastPublishTimeSum = previousPublishTimeSum;
+        updateCounters(now);
+        if (lastTime < 0 || now <= lastTime) {
+            return events;
+        }
+        double elapsedSeconds = (now - lastTime) / 1e9;
+
+        // CPU usage of the process, as percentage of all available CPUs
+        // (consistent with the CPU usage of the device)
+        if (lastProcessCpuTime >= 0 && previousProcessCpuTime >= 0) {
+            int cpuCount = Runtime.getRuntime().availableProcessors();
+            double cpuUsage = (previousProcessCpuTime - lastProcessCpuTime) * 100.0 /
+                    ((now - lastTime) * (double) cpuCount);
+            events.add(new MonitoringEvent(time, "local_monitor_cpu_usage",
+                    round(Math.max(0.0, Math.min(100.0, cpuUsage)), 2), "percentage"));
+        }
+
+        // memory allocation rate (in bits per second, consistent with the network rates)
+        if (lastAllocatedBytes >= 0 && previousAllocatedBytes >= lastAllocatedBytes) {
+            events.add(new MonitoringEvent(time, "local_monitor_allocation_rate",
+                    Math.round((previousAllocatedBytes - lastAllocatedBytes) * 8 / elapsedSeconds),
+                    "bit_per_second"));
+        }
+
+        // time spent in garbage collection during the period (in seconds)
+        if (lastGcTime >= 0 && previousGcTime >= lastGcTime) {
+            events.add(new MonitoringEvent(time, "local_monitor_gc_pause_time",
+                    round((previousGcTime - lastGcTime) / 1000.0, 3), "second"));
+        }
+
+        // ingest rate of monitoring events (in events per second), and their
+        // average delay between their creation and their ingestion (in seconds)
+        long ingestedEvents = previousIngestedEvents - lastIngestedEvents;
+        events.add(new MonitoringEvent(time, "local_monitor_event_ingest_rate",
+                round(ingestedEvents / elapsedSeconds, 2), "per_second"));
+        if (ingestedEvents > 0) {
+            events.add(new MonitoringEvent(time, "local_monitor_event_latency",
+                    round((previousIngestDelaySum - lastIngestDelaySum) / 1000.0 / ingestedEvents, 3),
+                    "second"));
+        }
+
+        // average time to map & publish the aggregated measurements of an aggregation step
+        long publishedSteps = previousPublishedSteps - lastPublishedSteps;
+        if (publishedSteps > 0) {
+            events.add(new MonitoringEvent(time, "local_monitor_publish_time",
+                    round((previousPublishTimeSum - lastPublishTimeSum) / 1e9 / publishedSteps, 4),
+                    "second"));
+        }
+
+        return events;
+    }
+
+    private void updateCounters(long now) {
+        previousTime = now;
+        previousProcessCpuTime = getProcessCpuTime();
+        previousAllocatedBytes = getAllocatedBytes();
+        previousGcTime = getGcTime();
+
+        MonitoringPipelineStatistics statistics = MonitoringPipelineStatistics.getInstance();
+        previousIngestedEvents = statistics.getIngestedEvents();
+        previousIngestDelaySum = statistics.getIngestDelaySumInMilliseconds();
+        previousPublishedSteps = statistics.getPublishedSteps();
+        previousPublishTimeSum = statistics.getPublishTimeSumInNanoseconds();
+    }
+
+    /**
+     * @return CPU time used by the JVM process in nanoseconds, or -1 if not supported
+     */
+    private long getProcessCpuTime() {
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean)
+                    .getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * @return total number of bytes allocated by all live threads, or -1 if not supported
+     *         (bytes allocated by threads that have terminated are not included, so this
+     *         counter can decrease; in that case no allocation rate is reported)
+     */
+    private long getAllocatedBytes() {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+        try {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                return -1;
+            }
+            long total = 0;
+            for (long allocated : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+                if (allocated > 0) {
+                    total += allocated;
+                }
+            }
+            return total;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return accumulated collection time of all garbage collectors in milliseconds,
+     *         or -1 if not supported
+     */
+    private long getGcTime() {
+        long total = 0;
+        boolean supported = false;
+        for (GarbageCollectorMXBean bean : garbageCollectorMXBeans) {
+            long collectionTime = bean.getCollectionTime();
+            if (collectionTime >= 0) {
+                total += collectionTime;
+                supported = true;
+            }
+        }
+        return supported ? total : -1;
+    }
+
+    private static double round(double value, int decimals) {
+        double factor = Math.pow(10, decimals);
+        return Math.round(value * factor) / factor;
+    }
+
+}
@@ -0,0 +1,88 @@
+package be.ugent.idlab.divide.monitor.local.semanticmapper;
+
+/**
+ * Aggregation of the values of all monitoring events of the same metric, unit and
+ * feature of interest within a time window, which can be semantically mapped to
+ * RDF by the {@link SemanticMapper}.
+ */
+public class AggregatedMeasurement {
+
+    private final String metric;
+    private final String unit;
+    private final String featureOfInterestId;
+
+    private final double minimum;
+    private final double maximum;
+    private final double average;
+    private final double median;
+
+    /**
+     * Creates an aggregated measurement.
+     *
+     * @param metric monitored metric (e.g., 'cpu_usage_overall')
+     * @param unit unit of the monitored metric (e.g., 'percentage')
+     * @param featureOfInterestId ID of the feature of interest of the aggregated events if
+     *                            it is not the device itself (e.g., an RSP query ID), or null
+     * @param minimum minimum of the aggregated values
+     * @param maximum maximum of the aggregated values
+     * @param average average of the aggregated values
+     * @param median median of the aggregated values
+     */
+    public AggregatedMeasurement(String metric,
+                                 String unit,
+                                 String featureOfInterestId,
+                                 double minimum,
+                                 double maximum,
+                                 double average,
+                                 double median) {
+        this.metric = metric;
+        this.unit = unit;
+        this.featureOfInterestId = featureOfInterestId;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.average = average;
+        this.median = median;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public String getFeatureOfInterestId() {
+        return featureOfInterestId;
+    }
+
+    public double getMinimum() {
+        return minimum;
+    }
+
+    public double getMaximum() {
+        return maximum;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatedMeasurement{" +
+                "metric='" + metric + '\'' +
+                ", unit='" + unit + '\'' +
+                ", featureOfInterestId='" + featureOfInterestId + '\'' +
+                ", minimum=" + minimum +
+                ", maximum=" + maximum +
+                ", average=" + average +
+                ", median=" + median +
+                '}';
+    }
+
+}
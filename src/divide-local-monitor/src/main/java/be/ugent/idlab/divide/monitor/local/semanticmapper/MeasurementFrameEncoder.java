@@ -0,0 +1,169 @@
+package be.ugent.idlab.divide.monitor.local.semanticmapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder of aggregated measurements into compact binary measurement frames, which
+ * can be sent to the Global Monitor instead of the RDF representation of these
+ * measurements created by {@link SemanticMapper#mapAggregatesToRdf(List, long, String, String)}.
+ *
+ * A frame is columnar: it contains the timestamp of the aggregation, followed by
+ * the columns of property IRIs, unit IRIs, feature of interest IRIs, flags and the
+ * minimum, maximum, average & median values of all aggregated measurements.
+ * IRIs are dictionary-encoded: every IRI is only sent once over a connection, in the
+ * first frame in which it occurs, and is afterwards referred to by its index in the
+ * dictionary. The dictionary therefore lives as long as the connection: the encoder
+ * should be reset whenever a new connection is opened.
+ *
+ * Frame layout (big-endian, strings in modified UTF-8):
+ * <pre>
+ *   long    aggregation time (milliseconds since epoch)
+ *   int     number of new dictionary entries N, followed by N strings
+ *   int     number of measurements R, followed by the columns:
+ *           R x int property class IRI index, R x int unit IRI index,
+ *           R x int feature of interest IRI index, R x byte flags,
+ *           R x double minimum, R x double maximum, R x double average,
+ *           R x double median
+ * </pre>
+ * The only flag is {@link #FLAG_INTEGER_VALUES} (bit 0), which indicates that the
+ * unit of the measurement has integer values.
+ *
+ * This class is not thread-safe.
+ */
+public class MeasurementFrameEncoder {
+
+    public static final int MAGIC = 0x44564D46; // "DVMF"
+    public static final byte VERSION = 1;
+
+    public static final byte FLAG_INTEGER_VALUES = 0x01;
+
+    private final String componentId;
+    private final String deviceId;
+
+    private final Map<String, Integer> dictionary;
+
+    public MeasurementFrameEncoder(String componentId, String deviceId) {
+        this.componentId = componentId;
+        this.deviceId = deviceId;
+        this.dictionary = new HashMap<>();
+    }
+
+    /**
+     * Clears the dictionary of this encoder, so that all IRIs are sent again
+     * in the next frame. Should be called whenever a new connection is opened.
+     */
+    public void reset() {
+        dictionary.clear();
+    }
+
+    /**
+     * Writes the header that should be sent once at the start of every connection.
+     *
+     * @param out stream of the connection
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeConnectionHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(componentId);
+        out.writeUTF(deviceId);
+    }
+
+    /**
+     * Encodes the given aggregated measurements into a single frame. Measurements
+     * that cannot be mapped by the {@link SemanticMapper} are not included.
+     *
+     * @param measurements aggregated measurements to be encoded
+     * @param time time of the aggregation in milliseconds since epoch
+     * @return encoded frame, or null if none of the measurements can be mapped
+     */
+    public byte[] encode(List<AggregatedMeasurement> measurements, long time) {
+        SemanticMapper semanticMapper = SemanticMapper.getInstance();
+
+        List<String> newEntries = new ArrayList<>();
+        int[] properties = new int[measurements.size()];
+        int[] units = new int[measurements.size()];
+        int[] featuresOfInterest = new int[measurements.size()];
+        byte[] flags = new byte[measurements.size()];
+        List<AggregatedMeasurement> encoded = new ArrayList<>(measurements.size());
+
+        for (AggregatedMeasurement measurement : measurements) {
+            String propertyIri = semanticMapper.getPropertyClassIri(measurement.getMetric());
+            String unitIri = semanticMapper.getUnitIri(measurement.getUnit());
+            if (propertyIri == null || unitIri == null) {
+                continue;
+            }
+            String featureOfInterestIri = semanticMapper.getFeatureOfInterestIri(
+                    measurement.getMetric(), measurement.getFeatureOfInterestId(),
+                    componentId, deviceId);
+
+            int row = encoded.size();
+            properties[row] = lookup(propertyIri, newEntries);
+            units[row] = lookup(unitIri, newEntries);
+            featuresOfInterest[row] = lookup(featureOfInterestIri, newEntries);
+            flags[row] = semanticMapper.hasIntegerValues(measurement.getUnit()) ?
+                    FLAG_INTEGER_VALUES : 0;
+            encoded.add(measurement);
+        }
+        if (encoded.isEmpty()) {
+            return null;
+        }
+
+        try {
+            int rows = encoded.size();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows * 45);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(time);
+            out.writeInt(newEntries.size());
+            for (String entry : newEntries) {
+                out.writeUTF(entry);
+            }
+            out.writeInt(rows);
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(properties[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(units[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(featuresOfInterest[i]);
+            }
+            out.write(flags, 0, rows);
+            for (AggregatedMeasurement measurement : encoded) {
+                out.writeDouble(measurement.getMinimum());
+            }
+            for (AggregatedMeasurement measurement : encoded) {
+                out.writeDouble(measurement.getMaximum());
+            }
+            for (AggregatedMeasurement measurement : encoded) {
+                out.writeDouble(measurement.getAverage());
+            }
+            for (AggregatedMeasurement measurement : encoded) {
+                out.writeDouble(measurement.getMedian());
+            }
+            out.flush();
+            return bytes.toByteArray();
+
+        } catch (IOException e) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int lookup(String iri, List<String> newEntries) {
+        Integer index = dictionary.get(iri);
+        if (index == null) {
+            index = dictionary.size();
+            dictionary.put(iri, index);
+            newEntries.add(iri);
+        }
+        return index;
+    }
+
+}
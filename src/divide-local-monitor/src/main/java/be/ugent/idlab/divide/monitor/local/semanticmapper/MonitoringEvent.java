@@ -0,0 +1,84 @@
+package be.ugent.idlab.divide.monitor.local.semanticmapper;
+
+/**
+ * Single monitoring event produced by one of the monitors of the Local Monitor,
+ * which is aggregated with the other events of its property and feature of interest
+ * before being semantically mapped to RDF by the {@link SemanticMapper}.
+ */
+public class MonitoringEvent {
+
+    private final long time;
+    private final String metric;
+    private final String value;
+    private final String unit;
+    private final String featureOfInterestId;
+
+    /**
+     * Creates a monitoring event.
+     *
+     * @param time timestamp of the event in milliseconds since epoch
+     * @param metric monitored metric (e.g., 'cpu_usage_overall')
+     * @param value lexical value of the monitored metric
+     * @param unit unit of the monitored metric (e.g., 'percentage')
+     * @param featureOfInterestId ID of the feature of interest of the event if it is not
+     *                            the device itself (e.g., an RSP query ID), or null
+     */
+    public MonitoringEvent(long time,
+                           String metric,
+                           String value,
+                           String unit,
+                           String featureOfInterestId) {
+        this.time = time;
+        this.metric = metric;
+        this.value = value;
+        this.unit = unit;
+        this.featureOfInterestId = featureOfInterestId;
+    }
+
+    public MonitoringEvent(long time,
+                           String metric,
+                           Number value,
+                           String unit,
+                           String featureOfInterestId) {
+        this(time, metric, String.valueOf(value), unit, featureOfInterestId);
+    }
+
+    public MonitoringEvent(long time,
+                           String metric,
+                           Number value,
+                           String unit) {
+        this(time, metric, value, unit, null);
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public String getFeatureOfInterestId() {
+        return featureOfInterestId;
+    }
+
+    @Override
+    public String toString() {
+        return "MonitoringEvent{" +
+                "time=" + time +
+                ", metric='" + metric + '\'' +
+                ", value='" + value + '\'' +
+                ", unit='" + unit + '\'' +
+                ", featureOfInterestId='" + featureOfInterestId + '\'' +
+                '}';
+    }
+
+}
@@ -1,60 +1,514 @@
 package be.ugent.idlab.divide.monitor.local.semanticmapper;
 
-import be.ugent.idlab.divide.monitor.local.util.JarResourceManager;
-import be.ugent.idlab.util.io.IOUtilities;
-import be.ugent.idlab.util.process.ProcessException;
-import be.ugent.idlab.util.process.ProcessUtilities;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Semantic mapper of the Local Monitor, which parses the output of the monitoring
+ * services into monitoring events, and maps the aggregated measurements calculated
+ * from these events (by the monitoring services) to RDF using the SAREF and OM
+ * ontologies.
+ *
+ * The mapping runs within the JVM of the Local Monitor: every aggregated measurement
+ * is directly written into a single string builder from templates that are prepared
+ * upfront for every known metric and unit, so that no external process needs to be
+ * started for mapping a monitoring output. Every aggregated measurement is mapped to
+ * measurements with an OM aggregate function.
+ */
 public class SemanticMapper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SemanticMapper.class.getName());
 
     private static SemanticMapper instance;
 
-    public static SemanticMapper getInstance() {
+    public static synchronized SemanticMapper getInstance() {
         initialize();
         return instance;
     }
 
-    public static void initialize() {
+    public static synchronized void initialize() {
         if (instance == null) {
             instance = new SemanticMapper();
         }
     }
 
-    // name and start-up call for Python semantic mapper script
-    private static final String SCRIPT_EXECUTOR = "python3";
-    private static final String SCRIPT_NAME = "semantic-mapper.py";
+    // MAPPING TEMPLATES
 
-    // actual location of script on local file system
-    private final String scriptPath;
+    private static final String AGGREGATE_TEMPLATE_VALUE =
+            "[ <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <https://saref.etsi.org/core/Measurement> ; " +
+                    "<https://saref.etsi.org/core/hasValue> \"";
+    private static final String AGGREGATE_TEMPLATE_VALUE_TYPE = "\"^^";
+    private static final String AGGREGATE_TEMPLATE_FUNCTION =
+            " ; <http://www.ontology-of-units-of-measure.org/resource/om-2/hasAggregateFunction> " +
+                    "<http://www.ontology-of-units-of-measure.org/resource/om-2/";
+    private static final String AGGREGATE_TEMPLATE_UNIT =
+            "> ; <https://saref.etsi.org/core/isMeasuredIn> ";
+    private static final String AGGREGATE_TEMPLATE_PROPERTY =
+            " ; <https://saref.etsi.org/core/relatesToProperty> [ " +
+                    "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type> " +
+                    "<https://divide.idlab.ugent.be/meta-model/monitoring/";
+    private static final String AGGREGATE_TEMPLATE_FEATURE_OF_INTEREST =
+            "> ] ; <https://saref.etsi.org/core/isMeasurementOf> ";
+    private static final String AGGREGATE_TEMPLATE_TIMESTAMP =
+            " ; <https://saref.etsi.org/core/hasTimestamp> \"";
+    private static final String AGGREGATE_TEMPLATE_TIMESTAMP_UTC =
+            "\"^^<http://www.w3.org/2001/XMLSchema#dateTime> ; " +
+                    "<https://dahcc.idlab.ugent.be/Ontology/Sensors/hasTimestampUTC> \"";
+    private static final String AGGREGATE_TEMPLATE_END =
+            "\"^^<http://www.w3.org/2001/XMLSchema#integer> ] .";
+
+    private static final String DECIMAL_DATATYPE = "<http://www.w3.org/2001/XMLSchema#decimal>";
+
+    private static final String FEATURE_OF_INTEREST_DEVICE_TEMPLATE =
+            "<https://divide.idlab.ugent.be/meta-model/entity/device/%s>";
+    private static final String FEATURE_OF_INTEREST_RDF_STREAM_TEMPLATE =
+            "<https://divide.idlab.ugent.be/meta-model/entity/rsp-engine/%s/rdf-stream/%s>";
+    private static final String FEATURE_OF_INTEREST_RSP_QUERY_TEMPLATE =
+            "<https://divide.idlab.ugent.be/meta-model/entity/rsp-engine/%s/rsp-query/%s>";
+    private static final String FEATURE_OF_INTEREST_UNKNOWN =
+            "<https://divide.idlab.ugent.be/meta-model/entity/unknown>";
+
+    private static final DateTimeFormatter AGGREGATE_TIMESTAMP_FORMATTER = DateTimeFormatter
+            .ISO_OFFSET_DATE_TIME
+            .withZone(ZoneId.of("Europe/Brussels"));
+
+    private enum FeatureOfInterestType {
+        DEVICE, RDF_STREAM, RSP_QUERY
+    }
+
+    private enum ValueType {
+        FLOAT("<http://www.w3.org/2001/XMLSchema#float>"),
+        INTEGER("<http://www.w3.org/2001/XMLSchema#integer>");
+
+        private final String datatype;
+
+        ValueType(String datatype) {
+            this.datatype = datatype;
+        }
+    }
+
+    private static class PropertyMapping {
+
+        private final String propertyClass;
+        private final FeatureOfInterestType featureOfInterestType;
+
+        PropertyMapping(String propertyClass, FeatureOfInterestType featureOfInterestType) {
+            this.propertyClass = propertyClass;
+            this.featureOfInterestType = featureOfInterestType;
+        }
+
+    }
+
+    private static class UnitMapping {
+
+        private final String unitUri;
+        private final ValueType valueType;
+
+        UnitMapping(String unitUri, ValueType valueType) {
+            this.unitUri = unitUri;
+            this.valueType = valueType;
+        }
+
+    }
+
+    // MAPPING OF METRICS TO:
+    //  (i) observable property class in ontology
+    //  (ii) type of feature of interest
+    // -> ONLY METRICS ADDED AS A KEY TO THIS MAP ARE MAPPED TO A SEMANTIC EVENT
+    //    (others are ignored by this mapper and therefore by the Local Monitor)
+    private static final Map<String, PropertyMapping> PROPERTY_MAP;
+
+    // MAPPING OF UNITS TO:
+    //  (i) unit URI in the 'ontology of units & measures'
+    //  (ii) type of value for a metric with this unit
+    private static final Map<String, UnitMapping> UNIT_MAP;
+
+    static {
+        Map<String, PropertyMapping> propertyMap = new HashMap<>();
+        propertyMap.put("cpu_load_last_5_minutes",
+                new PropertyMapping("CpuLoad", FeatureOfInterestType.DEVICE));
+        propertyMap.put("cpu_usage_overall",
+                new PropertyMapping("CpuUsage", FeatureOfInterestType.DEVICE));
+        propertyMap.put("disk_space_available",
+                new PropertyMapping("DiskSpaceAvailable", FeatureOfInterestType.DEVICE));
+        propertyMap.put("disk_space_used",
+                new PropertyMapping("DiskSpaceUsed", FeatureOfInterestType.DEVICE));
+        propertyMap.put("ram_available",
+                new PropertyMapping("RamAvailable", FeatureOfInterestType.DEVICE));
+        propertyMap.put("ram_used",
+                new PropertyMapping("RamUsed", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_rx_rate",
+                new PropertyMapping("RxRate", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_tx_rate",
+                new PropertyMapping("TxRate", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_packets_in",
+                new PropertyMapping("PacketsReceived", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_packets_out",
+                new PropertyMapping("PacketsSent", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_dropin",
+                new PropertyMapping("PacketsReceivedDropped", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_dropout",
+                new PropertyMapping("PacketsSentDropped", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_round_trip_time",
+                new PropertyMapping("RoundTripTime", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_bandwidth",
+                new PropertyMapping("Bandwidth", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_delay",
+                new PropertyMapping("Delay", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_jitter",
+                new PropertyMapping("Jitter", FeatureOfInterestType.DEVICE));
+        propertyMap.put("network_throughput",
+                new PropertyMapping("Throughput", FeatureOfInterestType.DEVICE));
+        propertyMap.put("rsp_stream_event_triples",
+                new PropertyMapping("NumberOfStreamEventTriples", FeatureOfInterestType.RDF_STREAM));
+        propertyMap.put("rsp_query_execution_memory_usage",
+                new PropertyMapping("RspQueryExecutionMemoryUsage", FeatureOfInterestType.RSP_QUERY));
+        propertyMap.put("rsp_query_execution_time",
+                new PropertyMapping("RspQueryExecutionTime", FeatureOfInterestType.RSP_QUERY));
+        propertyMap.put("rsp_query_processing_time",
+                new PropertyMapping("RspQueryProcessingTime", FeatureOfInterestType.RSP_QUERY));
+        propertyMap.put("rsp_query_execution_hits",
+                new PropertyMapping("RspQueryNumberOfHits", FeatureOfInterestType.RSP_QUERY));
+        propertyMap.put("local_monitor_cpu_usage",
+                new PropertyMapping("LocalMonitorCpuUsage", FeatureOfInterestType.DEVICE));
+        propertyMap.put("local_monitor_allocation_rate",
+                new PropertyMapping("LocalMonitorAllocationRate", FeatureOfInterestType.DEVICE));
+        propertyMap.put("local_monitor_gc_pause_time",
+                new PropertyMapping("LocalMonitorGcPauseTime", FeatureOfInterestType.DEVICE));
+        propertyMap.put("local_monitor_event_ingest_rate",
+                new PropertyMapping("LocalMonitorEventIngestRate", FeatureOfInterestType.DEVICE));
+        propertyMap.put("local_monitor_event_latency",
+                new PropertyMapping("LocalMonitorEventLatency", FeatureOfInterestType.DEVICE));
+        propertyMap.put("local_monitor_publish_time",
+                new PropertyMapping("LocalMonitorPublishTime", FeatureOfInterestType.DEVICE));
+        PROPERTY_MAP = Collections.unmodifiableMap(propertyMap);
+
+        Map<String, UnitMapping> unitMap = new HashMap<>();
+        unitMap.put("percentage", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/percent>",
+                ValueType.FLOAT));
+        unitMap.put("number", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/number>",
+                ValueType.INTEGER));
+        unitMap.put("byte", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/byte>",
+                ValueType.FLOAT));
+        unitMap.put("bit_per_second", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/bitPerSecond-Time>",
+                ValueType.FLOAT));
+        unitMap.put("second", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/second-Time>",
+                ValueType.FLOAT));
+        unitMap.put("per_second", new UnitMapping(
+                "<http://www.ontology-of-units-of-measure.org/resource/om-2/reciprocalSecond-Time>",
+                ValueType.FLOAT));
+        UNIT_MAP = Collections.unmodifiableMap(unitMap);
+    }
+
+    // class code
+
+    /**
+     * Device feature of interest IRIs, which are prepared once for every device ID
+     */
+    private final Map<String, String> deviceFeatureOfInterestIris;
 
     private SemanticMapper() {
-        // create an actual file on the file system from the script's resource file
-        LOGGER.info("Copying semantic mapper Python script resource from JAR to dedicated file {}", SCRIPT_NAME);
-        try {
-            this.scriptPath = JarResourceManager.getInstance().copyResourceToFile(Paths.get(SCRIPT_NAME));
-        } catch (IOException e) {
-            throw new RuntimeException("Semantic mapper Python script could not be copied " +
-                    "from the JAR resources to a dedicated file on the file system", e);
+        this.deviceFeatureOfInterestIris = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks whether monitoring events of the given metric and unit can be mapped
+     * to RDF, i.e., whether a property and unit mapping exists for them.
+     *
+     * @param metric monitored metric
+     * @param unit unit of the monitored metric
+     * @return true if events of this metric and unit are mapped, false if they are ignored
+     */
+    public boolean canMap(String metric, String unit) {
+        return metric != null && unit != null &&
+                PROPERTY_MAP.containsKey(metric) && UNIT_MAP.containsKey(unit);
+    }
+
+    /**
+     * Maps the given aggregated measurements to RDF. Every aggregated measurement
+     * is mapped to a measurement of its minimum, maximum, average and median,
+     * each with the corresponding OM aggregate function.
+     *
+     * @param measurements aggregated measurements to be mapped
+     * @param time time of the aggregation in milliseconds since epoch
+     * @param componentId ID of the component of the Local Monitor
+     * @param deviceId ID of the device of the Local Monitor
+     * @return RDF string (in Turtle syntax) with the measurements of every aggregated
+     *         measurement that could be mapped; empty string if none could be mapped
+     */
+    public String mapAggregatesToRdf(List<AggregatedMeasurement> measurements,
+                                     long time,
+                                     String componentId,
+                                     String deviceId) {
+        String timestamp = AGGREGATE_TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(time));
+        StringBuilder result = new StringBuilder(measurements.size() * 4 * 768);
+        for (AggregatedMeasurement measurement : measurements) {
+            PropertyMapping propertyMapping = PROPERTY_MAP.get(measurement.getMetric());
+            UnitMapping unitMapping = UNIT_MAP.get(measurement.getUnit());
+            if (propertyMapping == null || unitMapping == null) {
+                continue;
+            }
+
+            // minimum and maximum have the value type of the unit, average and median
+            // of integer values are decimals (like the SPARQL AVG aggregate)
+            boolean integer = unitMapping.valueType == ValueType.INTEGER;
+            appendAggregate(result, "minimum",
+                    integer ? Long.toString((long) measurement.getMinimum()) :
+                            Float.toString((float) measurement.getMinimum()),
+                    unitMapping.valueType.datatype, unitMapping, propertyMapping,
+                    measurement, timestamp, time, componentId, deviceId);
+            appendAggregate(result, "maximum",
+                    integer ? Long.toString((long) measurement.getMaximum()) :
+                            Float.toString((float) measurement.getMaximum()),
+                    unitMapping.valueType.datatype, unitMapping, propertyMapping,
+                    measurement, timestamp, time, componentId, deviceId);
+            appendAggregate(result, "average",
+                    integer ? BigDecimal.valueOf(measurement.getAverage()).toPlainString() :
+                            Float.toString((float) measurement.getAverage()),
+                    integer ? DECIMAL_DATATYPE : unitMapping.valueType.datatype,
+                    unitMapping, propertyMapping, measurement, timestamp, time, componentId, deviceId);
+            appendAggregate(result, "median",
+                    integer ? BigDecimal.valueOf(measurement.getMedian()).toPlainString() :
+                            Float.toString((float) measurement.getMedian()),
+                    integer ? DECIMAL_DATATYPE : unitMapping.valueType.datatype,
+                    unitMapping, propertyMapping, measurement, timestamp, time, componentId, deviceId);
         }
+        return result.toString();
     }
 
-    public String mapJsonToRdf(String json,
-                               String componentId,
-                               String deviceId) {
+    private void appendAggregate(StringBuilder builder,
+                                 String aggregateFunction,
+                                 String value,
+                                 String datatype,
+                                 UnitMapping unitMapping,
+                                 PropertyMapping propertyMapping,
+                                 AggregatedMeasurement measurement,
+                                 String timestamp,
+                                 long time,
+                                 String componentId,
+                                 String deviceId) {
+        if (builder.length() > 0) {
+            builder.append(' ');
+        }
+        builder.append(AGGREGATE_TEMPLATE_VALUE)
+                .append(value)
+                .append(AGGREGATE_TEMPLATE_VALUE_TYPE)
+                .append(datatype)
+                .append(AGGREGATE_TEMPLATE_FUNCTION)
+                .append(aggregateFunction)
+                .append(AGGREGATE_TEMPLATE_UNIT)
+                .append(unitMapping.unitUri)
+                .append(AGGREGATE_TEMPLATE_PROPERTY)
+                .append(propertyMapping.propertyClass)
+                .append(AGGREGATE_TEMPLATE_FEATURE_OF_INTEREST);
+        appendFeatureOfInterest(builder, propertyMapping.featureOfInterestType,
+                componentId, deviceId, measurement.getFeatureOfInterestId());
+        builder.append(AGGREGATE_TEMPLATE_TIMESTAMP)
+                .append(timestamp)
+                .append(AGGREGATE_TEMPLATE_TIMESTAMP_UTC)
+                .append(time)
+                .append(AGGREGATE_TEMPLATE_END);
+    }
+
+    // TERMS OF AGGREGATED MEASUREMENTS
+    // -> used to encode aggregated measurements without mapping them to RDF
+    //    (IRIs are returned without enclosing angle brackets)
+
+    String getPropertyClassIri(String metric) {
+        PropertyMapping propertyMapping = PROPERTY_MAP.get(metric);
+        return propertyMapping == null ? null :
+                "https://divide.idlab.ugent.be/meta-model/monitoring/" + propertyMapping.propertyClass;
+    }
+
+    String getUnitIri(String unit) {
+        UnitMapping unitMapping = UNIT_MAP.get(unit);
+        return unitMapping == null ? null : stripAngleBrackets(unitMapping.unitUri);
+    }
+
+    boolean hasIntegerValues(String unit) {
+        UnitMapping unitMapping = UNIT_MAP.get(unit);
+        return unitMapping != null && unitMapping.valueType == ValueType.INTEGER;
+    }
+
+    String getFeatureOfInterestIri(String metric,
+                                   String featureOfInterestId,
+                                   String componentId,
+                                   String deviceId) {
+        PropertyMapping propertyMapping = PROPERTY_MAP.get(metric);
+        if (propertyMapping == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        appendFeatureOfInterest(builder, propertyMapping.featureOfInterestType,
+                componentId, deviceId, featureOfInterestId);
+        return stripAngleBrackets(builder.toString());
+    }
+
+    private static String stripAngleBrackets(String iri) {
+        return iri.substring(1, iri.length() - 1);
+    }
+
+    private void appendFeatureOfInterest(StringBuilder builder,
+                                         FeatureOfInterestType featureOfInterestType,
+                                         String componentId,
+                                         String deviceId,
+                                         String featureOfInterestId) {
+        switch (featureOfInterestType) {
+            case DEVICE:
+                builder.append(deviceFeatureOfInterestIris.computeIfAbsent(deviceId,
+                        k -> String.format(FEATURE_OF_INTEREST_DEVICE_TEMPLATE, deviceId)));
+                break;
+            case RSP_QUERY:
+                builder.append(String.format(FEATURE_OF_INTEREST_RSP_QUERY_TEMPLATE,
+                        componentId, featureOfInterestId));
+                break;
+            case RDF_STREAM:
+                builder.append(String.format(FEATURE_OF_INTEREST_RDF_STREAM_TEMPLATE,
+                        componentId, percentEncode(featureOfInterestId)));
+                break;
+            default:
+                builder.append(FEATURE_OF_INTEREST_UNKNOWN);
+        }
+    }
+
+    /**
+     * Parses a JSON array of monitoring events (or a single JSON event object). Every
+     * event object should have a 'time', 'metric', 'value' and 'unit' field, and
+     * optionally a 'featureOfInterestId' field. Events of which the value is not a
+     * primitive JSON value are kept without value, so that they are ignored during
+     * the aggregation.
+     *
+     * @param json JSON string with array of monitoring events
+     * @return parsed monitoring events; empty list if the JSON string is empty or invalid
+     */
+    public List<MonitoringEvent> parseJsonEvents(String json) {
+        List<MonitoringEvent> events = new ArrayList<>();
+        if (json == null || json.trim().isEmpty()) {
+            return events;
+        }
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    MonitoringEvent event = parseEvent(reader);
+                    if (event != null) {
+                        events.add(event);
+                    }
+                }
+                reader.endArray();
+            } else {
+                MonitoringEvent event = parseEvent(reader);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.error("Unknown exception occurred while semantically annotating events: {}",
+                    json, e);
+        }
+
+        return events;
+    }
+
+    private MonitoringEvent parseEvent(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        String time = null;
+        String metric = null;
+        String value = null;
+        String unit = null;
+        String featureOfInterestId = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT
+                    || token == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "time":
+                    time = reader.nextString();
+                    break;
+                case "metric":
+                    metric = reader.nextString();
+                    break;
+                case "value":
+                    value = reader.nextString();
+                    break;
+                case "unit":
+                    unit = reader.nextString();
+                    break;
+                case "featureOfInterestId":
+                    featureOfInterestId = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (time == null) {
+            LOGGER.warn("No valid event: metric {} without time", metric);
+            return null;
+        }
         try {
-            LOGGER.info("Mapping the following monitoring output to RDF: {}", json);
-            return IOUtilities.removeWhiteSpace(ProcessUtilities.executeProcess(
-                    new String[]{SCRIPT_EXECUTOR, this.scriptPath, componentId, deviceId, json}));
-        } catch (IOException | ProcessException e) {
-            throw new RuntimeException(e);
+            return new MonitoringEvent(new BigDecimal(time).longValue(),
+                    metric, value, unit, featureOfInterestId);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("No valid event: metric {} with invalid time {}", metric, time);
+            return null;
+        }
+    }
+
+    /**
+     * Percent-encodes all characters of the given string except the
+     * unreserved characters of RFC 3986.
+     */
+    private static String percentEncode(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(value.length() * 3);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~') {
+                result.append(c);
+            } else {
+                result.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
         }
+        return result.toString();
     }
 
 }
@@ -0,0 +1,153 @@
+package be.ugent.idlab.divide.monitor.local.transport;
+
+import be.ugent.idlab.divide.monitor.local.LocalMonitorConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the control channel between the Local Monitor and the DIVIDE Monitor
+ * on the central server. It keeps a single persistent TCP connection open over
+ * which it periodically sends a heartbeat, so that DIVIDE Central knows the status
+ * of this Local Monitor without having to check the running processes on this
+ * device via SSH. Over the same connection, DIVIDE Central can send commands.
+ *
+ * The protocol is line-based (UTF-8). After connecting, the client sends
+ * <code>HELLO &lt;component ID&gt;</code>, followed by <code>HEARTBEAT</code> every
+ * heartbeat period. The only command is <code>STOP</code>, which is acknowledged
+ * with <code>STOPPING</code> after which the Local Monitor process exits.
+ *
+ * If the connection is lost, the client reconnects after the reconnect delay.
+ */
+public class ControlChannelClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControlChannelClient.class.getName());
+
+    private final String host;
+    private final int port;
+    private final String componentId;
+
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    private Socket socket;
+    private BufferedWriter writer;
+
+    public ControlChannelClient(String host, int port, String componentId) {
+        this.host = host;
+        this.port = port;
+        this.componentId = componentId;
+
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "control-channel-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the control channel in a dedicated daemon thread, which keeps
+     * (re)connecting to DIVIDE Central as long as the Local Monitor is running.
+     */
+    public void start() {
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeat,
+                LocalMonitorConstants.CONTROL_CHANNEL_HEARTBEAT_PERIOD_IN_SECONDS,
+                LocalMonitorConstants.CONTROL_CHANNEL_HEARTBEAT_PERIOD_IN_SECONDS,
+                TimeUnit.SECONDS);
+
+        Thread thread = new Thread(this::run, "control-channel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.setKeepAlive(true);
+                socket.connect(new InetSocketAddress(host, port),
+                        LocalMonitorConstants.CONTROL_CHANNEL_CONNECT_TIMEOUT_IN_MILLISECONDS);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        socket.getInputStream(), StandardCharsets.UTF_8));
+                synchronized (this) {
+                    this.socket = socket;
+                    writer = new BufferedWriter(new OutputStreamWriter(
+                            socket.getOutputStream(), StandardCharsets.UTF_8));
+                    writeLine("HELLO " + componentId);
+                }
+                LOGGER.info("Control channel connected to DIVIDE Central at {}:{}", host, port);
+
+                // handle commands until the connection is closed
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    handleCommand(line.trim());
+                }
+                LOGGER.warn("Control channel closed by DIVIDE Central");
+
+            } catch (IOException e) {
+                LOGGER.warn("Control channel to DIVIDE Central at {}:{} unavailable: {}",
+                        host, port, e.getMessage());
+            }
+
+            synchronized (this) {
+                this.socket = null;
+                writer = null;
+            }
+
+            try {
+                Thread.sleep(LocalMonitorConstants.CONTROL_CHANNEL_RECONNECT_DELAY_IN_SECONDS * 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handleCommand(String command) throws IOException {
+        if ("STOP".equals(command)) {
+            LOGGER.info("Received STOP command over control channel -> stopping Local Monitor");
+            synchronized (this) {
+                writeLine("STOPPING");
+            }
+            System.exit(0);
+
+        } else if (!command.isEmpty()) {
+            LOGGER.warn("Ignoring unknown command received over control channel: {}", command);
+        }
+    }
+
+    private synchronized void sendHeartbeat() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writeLine("HEARTBEAT");
+        } catch (IOException e) {
+            // closing the socket makes the reading thread notice the broken
+            // connection, after which it reconnects
+            LOGGER.warn("Could not send heartbeat over control channel: {}", e.getMessage());
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing to do
+            }
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+    }
+
+}
@@ -0,0 +1,153 @@
+package be.ugent.idlab.divide.monitor.local.transport;
+
+import be.ugent.idlab.divide.monitor.local.LocalMonitorConstants;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.AggregatedMeasurement;
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MeasurementFrameEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Client of the measurement frame server of the Global Monitor, which sends
+ * aggregated measurements as compact binary frames over a single persistent TCP
+ * connection, instead of sending them as serialized RDF over HTTP via the
+ * observer of the forwarding query registered on the Local Monitor RSP engine.
+ *
+ * Every frame is preceded by its length in bytes. The format of the frames is
+ * described by the {@link MeasurementFrameEncoder}.
+ *
+ * If the connection is lost, the client reconnects on the next frame to be sent,
+ * but never more often than once per reconnect delay. When no connection is
+ * available, {@link #send(List, long)} returns false, so that the caller can fall
+ * back to the RDF transport for these measurements.
+ */
+public class MeasurementFrameClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementFrameClient.class.getName());
+
+    private static MeasurementFrameClient instance;
+
+    public static synchronized MeasurementFrameClient getInstance() {
+        return instance;
+    }
+
+    public static synchronized void initialize(String host,
+                                               int port,
+                                               String componentId,
+                                               String deviceId) {
+        if (instance == null) {
+            instance = new MeasurementFrameClient(host, port, componentId, deviceId);
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final MeasurementFrameEncoder encoder;
+
+    private Socket socket;
+    private DataOutputStream out;
+    private long lastConnectAttempt;
+
+    private MeasurementFrameClient(String host, int port, String componentId, String deviceId) {
+        this.host = host;
+        this.port = port;
+        this.encoder = new MeasurementFrameEncoder(componentId, deviceId);
+        this.lastConnectAttempt = 0;
+    }
+
+    /**
+     * Encodes the given aggregated measurements into a frame and sends this frame
+     * to the Global Monitor.
+     *
+     * @param measurements aggregated measurements to be sent
+     * @param time time of the aggregation in milliseconds since epoch
+     * @return true if the frame was sent, false if no connection is available
+     *         or sending the frame failed
+     */
+    public synchronized boolean send(List<AggregatedMeasurement> measurements, long time) {
+        if (!ensureConnected()) {
+            return false;
+        }
+
+        // the dictionary of the encoder is only updated when encoding, so a frame
+        // that is not sent successfully invalidates the dictionary: in that case,
+        // the connection is closed and the encoder is reset on reconnect
+        byte[] frame = encoder.encode(measurements, time);
+        if (frame == null) {
+            return true;
+        }
+        try {
+            out.writeInt(frame.length);
+            out.write(frame);
+            out.flush();
+            return true;
+
+        } catch (IOException e) {
+            LOGGER.warn("Connection to measurement frame server at {}:{} lost: {}",
+                    host, port, e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    private boolean ensureConnected() {
+        if (socket != null) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastConnectAttempt <
+                LocalMonitorConstants.MEASUREMENT_FRAME_RECONNECT_DELAY_IN_SECONDS * 1000L) {
+            return false;
+        }
+        lastConnectAttempt = now;
+
+        Socket newSocket = new Socket();
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.setKeepAlive(true);
+            newSocket.connect(new InetSocketAddress(host, port),
+                    LocalMonitorConstants.MEASUREMENT_FRAME_CONNECT_TIMEOUT_IN_MILLISECONDS);
+
+            DataOutputStream newOut = new DataOutputStream(
+                    new BufferedOutputStream(newSocket.getOutputStream()));
+            encoder.reset();
+            encoder.writeConnectionHeader(newOut);
+            newOut.flush();
+
+            this.socket = newSocket;
+            this.out = newOut;
+            LOGGER.info("Connected to measurement frame server at {}:{}", host, port);
+            return true;
+
+        } catch (IOException e) {
+            LOGGER.warn("Could not connect to measurement frame server at {}:{}: {}",
+                    host, port, e.getMessage());
+            try {
+                newSocket.close();
+            } catch (IOException ignored) {
+                // nothing to do
+            }
+            return false;
+        }
+    }
+
+    private void close() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+        socket = null;
+        out = null;
+    }
+
+}
@@ -0,0 +1,72 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.device;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class DeviceStatisticsCollectorTest {
+
+    @Before
+    public void requireProcFileSystem() {
+        assumeTrue(Files.isReadable(Paths.get("/proc/stat")) &&
+                Files.isReadable(Paths.get("/proc/meminfo")) &&
+                Files.isReadable(Paths.get("/proc/loadavg")));
+    }
+
+    @Test
+    public void collectsAllDeviceStatistics() {
+        DeviceStatisticsCollector collector = new DeviceStatisticsCollector();
+        collector.prime();
+
+        Map<String, Double> values = getValues(collector.collect());
+
+        assertEquals(9, values.size());
+        assertPercentage(values.get("cpu_usage_overall/percentage"));
+        assertTrue(values.get("cpu_load_last_1_minutes/percentage") >= 0);
+        assertTrue(values.get("cpu_load_last_5_minutes/percentage") >= 0);
+        assertTrue(values.get("cpu_load_last_15_minutes/percentage") >= 0);
+        assertTrue(values.get("ram_available/byte") > 0);
+        assertTrue(values.get("ram_used/byte") > 0);
+        assertPercentage(values.get("ram_available/percentage"));
+        assertTrue(values.get("disk_space_available/byte") >= 0);
+        assertPercentage(values.get("disk_space_available/percentage"));
+    }
+
+    @Test
+    public void reportsCpuUsageOnlyAfterFirstMeasurement() {
+        DeviceStatisticsCollector collector = new DeviceStatisticsCollector();
+
+        // without priming, the first collection has no reference for the CPU usage
+        Map<String, Double> first = getValues(collector.collect());
+        Map<String, Double> second = getValues(collector.collect());
+
+        assertNull(first.get("cpu_usage_overall/percentage"));
+        assertPercentage(second.get("cpu_usage_overall/percentage"));
+    }
+
+    private static Map<String, Double> getValues(List<MonitoringEvent> events) {
+        Map<String, Double> values = new HashMap<>();
+        for (MonitoringEvent event : events) {
+            String key = event.getMetric() + "/" + event.getUnit();
+            assertNull("duplicate event " + key,
+                    values.put(key, Double.parseDouble(event.getValue())));
+        }
+        return values;
+    }
+
+    private static void assertPercentage(Double value) {
+        assertTrue(String.valueOf(value), value != null && value >= 0 && value <= 100);
+    }
+
+}
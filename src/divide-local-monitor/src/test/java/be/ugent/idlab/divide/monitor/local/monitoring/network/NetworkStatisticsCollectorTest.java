@@ -0,0 +1,49 @@
+package be.ugent.idlab.divide.monitor.local.monitoring.network;
+
+import be.ugent.idlab.divide.monitor.local.semanticmapper.MonitoringEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class NetworkStatisticsCollectorTest {
+
+    @Before
+    public void requireProcFileSystem() {
+        assumeTrue(Files.isReadable(Paths.get("/proc/net/dev")));
+    }
+
+    @Test
+    public void reportsTrafficSincePreviousCollection() throws IOException {
+        NetworkStatisticsCollector collector = new NetworkStatisticsCollector("lo");
+
+        assertTrue(collector.collect().isEmpty());
+        List<MonitoringEvent> events = collector.collect();
+
+        List<String> keys = new ArrayList<>();
+        for (MonitoringEvent event : events) {
+            keys.add(event.getMetric() + "/" + event.getUnit());
+            assertTrue(event.toString(), Double.parseDouble(event.getValue()) >= 0);
+        }
+        assertEquals(Arrays.asList(
+                "network_rx_rate/bit_per_second", "network_tx_rate/bit_per_second",
+                "network_packets_in/number", "network_packets_out/number",
+                "network_dropin/number", "network_dropout/number",
+                "network_dropin/percentage", "network_dropout/percentage"), keys);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownNetworkInterface() throws IOException {
+        new NetworkStatisticsCollector("unknown-interface-0").collect();
+    }
+
+}
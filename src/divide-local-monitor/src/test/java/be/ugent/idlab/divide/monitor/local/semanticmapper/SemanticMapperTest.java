@@ -0,0 +1,206 @@
+package be.ugent.idlab.divide.monitor.local.semanticmapper;
+
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.XSD;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SemanticMapperTest {
+
+    private static final String SAREF = "https://saref.etsi.org/core/";
+    private static final String OM = "http://www.ontology-of-units-of-measure.org/resource/om-2/";
+    private static final String MONITORING = "https://divide.idlab.ugent.be/meta-model/monitoring/";
+
+    private final SemanticMapper mapper = SemanticMapper.getInstance();
+
+    @Test
+    public void parsesArrayOfEvents() {
+        List<MonitoringEvent> events = mapper.parseJsonEvents(
+                "[{\"time\": 1650000000000, \"metric\": \"cpu_usage_overall\", " +
+                        "\"value\": 12.5, \"unit\": \"percentage\"}, " +
+                        "{\"time\": \"1650000001000.0\", \"metric\": \"rsp_query_execution_hits\", " +
+                        "\"value\": 3, \"unit\": \"number\", \"featureOfInterestId\": \"q1\", " +
+                        "\"extra\": {\"ignored\": true}}]");
+
+        assertEquals(2, events.size());
+        assertEquals(1650000000000L, events.get(0).getTime());
+        assertEquals("cpu_usage_overall", events.get(0).getMetric());
+        assertEquals("12.5", events.get(0).getValue());
+        assertEquals("percentage", events.get(0).getUnit());
+        assertNull(events.get(0).getFeatureOfInterestId());
+        assertEquals(1650000001000L, events.get(1).getTime());
+        assertEquals("3", events.get(1).getValue());
+        assertEquals("q1", events.get(1).getFeatureOfInterestId());
+    }
+
+    @Test
+    public void parsesSingleEventObject() {
+        List<MonitoringEvent> events = mapper.parseJsonEvents(
+                "{\"time\": 1, \"metric\": \"ram_used\", \"value\": 1024, \"unit\": \"byte\"}");
+
+        assertEquals(1, events.size());
+        assertEquals("ram_used", events.get(0).getMetric());
+    }
+
+    @Test
+    public void keepsEventsWithNonPrimitiveValueWithoutValue() {
+        List<MonitoringEvent> events = mapper.parseJsonEvents(
+                "[{\"time\": 1, \"metric\": \"ram_used\", \"value\": [1, 2], \"unit\": \"byte\"}]");
+
+        assertEquals(1, events.size());
+        assertNull(events.get(0).getValue());
+    }
+
+    @Test
+    public void skipsInvalidEvents() {
+        List<MonitoringEvent> events = mapper.parseJsonEvents(
+                "[{\"metric\": \"ram_used\", \"value\": 1, \"unit\": \"byte\"}, " +
+                        "{\"time\": \"now\", \"metric\": \"ram_used\", \"value\": 1, \"unit\": \"byte\"}, " +
+                        "42, " +
+                        "{\"time\": 1, \"metric\": \"ram_used\", \"value\": 1, \"unit\": \"byte\"}]");
+
+        assertEquals(1, events.size());
+        assertEquals(1L, events.get(0).getTime());
+    }
+
+    @Test
+    public void returnsNoEventsForEmptyOrInvalidJson() {
+        assertTrue(mapper.parseJsonEvents(null).isEmpty());
+        assertTrue(mapper.parseJsonEvents("  ").isEmpty());
+        assertTrue(mapper.parseJsonEvents("[{\"time\": 1, ").isEmpty());
+    }
+
+    @Test
+    public void onlyMapsKnownMetricsAndUnits() {
+        assertTrue(mapper.canMap("cpu_usage_overall", "percentage"));
+        assertFalse(mapper.canMap("unknown_metric", "percentage"));
+        assertFalse(mapper.canMap("cpu_usage_overall", "unknown_unit"));
+        assertFalse(mapper.canMap(null, "percentage"));
+        assertFalse(mapper.canMap("cpu_usage_overall", null));
+    }
+
+    @Test
+    public void mapsAggregatedMeasurementToMeasurementPerAggregateFunction() {
+        String rdf = mapper.mapAggregatesToRdf(Collections.singletonList(
+                new AggregatedMeasurement("cpu_usage_overall", "percentage", null,
+                        10.0, 30.0, 20.0, 15.0)),
+                1650000000000L, "component-1", "device-1");
+
+        Model model = parse(rdf);
+        Map<String, Literal> values = getAggregateValues(model);
+        assertEquals(4, values.size());
+        assertEquals(10.0f, values.get("minimum").getFloat(), 0.0f);
+        assertEquals(30.0f, values.get("maximum").getFloat(), 0.0f);
+        assertEquals(20.0f, values.get("average").getFloat(), 0.0f);
+        assertEquals(15.0f, values.get("median").getFloat(), 0.0f);
+        assertEquals(XSD.xfloat.getURI(), values.get("minimum").getDatatypeURI());
+
+        Resource measurement = model.listSubjectsWithProperty(
+                RDF.type, model.createResource(SAREF + "Measurement")).next();
+        assertEquals(OM + "percent",
+                measurement.getPropertyResourceValue(property(SAREF + "isMeasuredIn")).getURI());
+        assertEquals(MONITORING + "CpuUsage",
+                measurement.getPropertyResourceValue(property(SAREF + "relatesToProperty"))
+                        .getPropertyResourceValue(RDF.type).getURI());
+        assertEquals("https://divide.idlab.ugent.be/meta-model/entity/device/device-1",
+                measurement.getPropertyResourceValue(property(SAREF + "isMeasurementOf")).getURI());
+        assertEquals(1650000000000L, measurement.getProperty(property(
+                "https://dahcc.idlab.ugent.be/Ontology/Sensors/hasTimestampUTC")).getLong());
+        assertEquals(XSD.dateTime.getURI(), measurement.getProperty(
+                property(SAREF + "hasTimestamp")).getLiteral().getDatatypeURI());
+    }
+
+    @Test
+    public void mapsAverageAndMedianOfIntegerValuesToDecimals() {
+        String rdf = mapper.mapAggregatesToRdf(Collections.singletonList(
+                new AggregatedMeasurement("rsp_query_execution_hits", "number", "query-1",
+                        1.0, 4.0, 2.5, 2.0)),
+                1650000000000L, "component-1", "device-1");
+
+        Model model = parse(rdf);
+        Map<String, Literal> values = getAggregateValues(model);
+        assertEquals(XSD.integer.getURI(), values.get("minimum").getDatatypeURI());
+        assertEquals(1, values.get("minimum").getInt());
+        assertEquals(XSD.integer.getURI(), values.get("maximum").getDatatypeURI());
+        assertEquals(4, values.get("maximum").getInt());
+        assertEquals(XSD.decimal.getURI(), values.get("average").getDatatypeURI());
+        assertEquals("2.5", values.get("average").getLexicalForm());
+        assertEquals(XSD.decimal.getURI(), values.get("median").getDatatypeURI());
+
+        // the feature of interest of an RSP query metric is the query itself
+        Resource measurement = model.listSubjectsWithProperty(
+                RDF.type, model.createResource(SAREF + "Measurement")).next();
+        assertEquals("https://divide.idlab.ugent.be/meta-model/entity/rsp-engine/" +
+                        "component-1/rsp-query/query-1",
+                measurement.getPropertyResourceValue(property(SAREF + "isMeasurementOf")).getURI());
+    }
+
+    @Test
+    public void percentEncodesRdfStreamFeatureOfInterest() {
+        String rdf = mapper.mapAggregatesToRdf(Collections.singletonList(
+                new AggregatedMeasurement("rsp_stream_event_triples", "number",
+                        "http://example.org/stream#1", 5.0, 5.0, 5.0, 5.0)),
+                1650000000000L, "component-1", "device-1");
+
+        Model model = parse(rdf);
+        Resource measurement = model.listSubjectsWithProperty(
+                RDF.type, model.createResource(SAREF + "Measurement")).next();
+        assertEquals("https://divide.idlab.ugent.be/meta-model/entity/rsp-engine/component-1/" +
+                        "rdf-stream/http%3A%2F%2Fexample.org%2Fstream%231",
+                measurement.getPropertyResourceValue(property(SAREF + "isMeasurementOf")).getURI());
+    }
+
+    @Test
+    public void ignoresAggregatedMeasurementsThatCannotBeMapped() {
+        List<AggregatedMeasurement> measurements = Arrays.asList(
+                new AggregatedMeasurement("unknown_metric", "percentage", null, 1, 1, 1, 1),
+                new AggregatedMeasurement("ram_used", "unknown_unit", null, 1, 1, 1, 1));
+
+        assertEquals("", mapper.mapAggregatesToRdf(measurements, 0, "component-1", "device-1"));
+
+        List<AggregatedMeasurement> mixed = Arrays.asList(measurements.get(0),
+                new AggregatedMeasurement("ram_used", "byte", null, 1, 2, 1.5, 1.5));
+        assertEquals(4, getAggregateValues(parse(
+                mapper.mapAggregatesToRdf(mixed, 0, "component-1", "device-1"))).size());
+    }
+
+    private static Model parse(String turtle) {
+        Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(turtle), null, "TURTLE");
+        return model;
+    }
+
+    private static Map<String, Literal> getAggregateValues(Model model) {
+        Map<String, Literal> values = new HashMap<>();
+        for (Statement statement : model.listStatements(
+                null, property(OM + "hasAggregateFunction"), (Resource) null).toList()) {
+            String function = statement.getResource().getURI().substring(OM.length());
+            Literal value = statement.getSubject().getProperty(
+                    property(SAREF + "hasValue")).getLiteral();
+            assertNull("duplicate aggregate function " + function, values.put(function, value));
+        }
+        return values;
+    }
+
+    private static Property property(String uri) {
+        return ModelFactory.createDefaultModel().createProperty(uri);
+    }
+
+}